@@ -0,0 +1,117 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.jooq.BatchBindStep;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the batched insert of the rows of a metric into a {@link MetricsDB}, as done by the
+ * emitters, and the aggregated query over two metrics grouped by their dimensions, as done by the
+ * REST API and the RCA metric nodes.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsDBBenchmark {
+    private static final long WINDOW_START = 1_600_000_000_000L;
+    private static final String CPU = "CPU_Utilization";
+    private static final String RSS = "Paging_RSS";
+    private static final List<String> DIMENSIONS =
+            Arrays.asList("ShardID", "IndexName", "Operation", "ShardRole");
+
+    @Param({"1000", "10000"})
+    public int rows;
+
+    @Param({"10", "100"})
+    public int shards;
+
+    private MetricsDB queryDB;
+
+    private long insertWindowStart = WINDOW_START + 1;
+    private MetricsDB insertDB;
+
+    @Setup(Level.Trial)
+    public void fillQueryDB() throws Exception {
+        queryDB = new MetricsDB(WINDOW_START);
+        insert(queryDB, CPU);
+        insert(queryDB, RSS);
+    }
+
+    @TearDown(Level.Trial)
+    public void removeQueryDB() throws Exception {
+        queryDB.remove();
+        queryDB.deleteOnDiskFile();
+    }
+
+    @Setup(Level.Invocation)
+    public void createInsertDB() throws Exception {
+        insertDB = new MetricsDB(insertWindowStart++);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeInsertDB() throws Exception {
+        insertDB.remove();
+        insertDB.deleteOnDiskFile();
+    }
+
+    @Benchmark
+    public void insert() {
+        insert(insertDB, CPU);
+    }
+
+    @Benchmark
+    public Result<Record> queryAggregated() throws Exception {
+        return queryDB.queryMetric(
+                Arrays.asList(CPU, RSS),
+                Arrays.asList(MetricsDB.SUM, MetricsDB.AVG),
+                Arrays.asList("ShardID", "IndexName"));
+    }
+
+    @Benchmark
+    public Result<Record> queryAll() {
+        return queryDB.queryMetric(CPU);
+    }
+
+    private void insert(MetricsDB db, String metricName) {
+        Metric<Double> metric = new Metric<>(metricName, 0d);
+        db.createMetric(metric, DIMENSIONS);
+        BatchBindStep handle = db.startBatchPut(metric, DIMENSIONS);
+        for (int i = 0; i < rows; i++) {
+            double value = i % 100;
+            handle.bind(
+                    String.valueOf(i % shards),
+                    "index" + i % 4,
+                    i % 2 == 0 ? "shardbulk" : "shardquery",
+                    i % 3 == 0 ? "replica" : "primary",
+                    value,
+                    value,
+                    value,
+                    value);
+        }
+        handle.execute();
+    }
+}
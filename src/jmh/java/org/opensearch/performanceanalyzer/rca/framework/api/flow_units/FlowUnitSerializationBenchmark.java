@@ -0,0 +1,92 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.api.flow_units;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.rca.framework.api.Resources;
+import org.opensearch.performanceanalyzer.rca.framework.api.contexts.ResourceContext;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotShardSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+/**
+ * Measures the conversion of the flow units sent between the nodes to and from the wire: {@link
+ * ResourceFlowUnit#buildFlowUnitMessage} with the serialization of the message on the publisher,
+ * and the parsing of the message with {@link ResourceFlowUnit#buildFlowUnitFromWrapper} on the
+ * subscriber.
+ *
+ * <p>The flow unit is the {@link HotNodeSummary} of a data node with a hot resource summary per
+ * resource and a hot shard summary for each of {@code shards} shards.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FlowUnitSerializationBenchmark {
+    private static final String GRAPH_NODE = "HotNodeRca";
+    private static final InstanceDetails.Id NODE = new InstanceDetails.Id("node1");
+
+    @Param({"0", "10", "100"})
+    public int shards;
+
+    private ResourceFlowUnit<HotNodeSummary> flowUnit;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HotNodeSummary summary = new HotNodeSummary(NODE, new InstanceDetails.Ip("127.0.0.1"));
+        summary.appendNestedSummary(new HotResourceSummary(ResourceUtil.CPU_USAGE, 0.7, 0.9, 60));
+        summary.appendNestedSummary(
+                new HotResourceSummary(ResourceUtil.OLD_GEN_HEAP_USAGE, 0.75, 0.8, 60));
+        summary.appendNestedSummary(
+                new HotResourceSummary(ResourceUtil.YOUNG_GEN_PROMOTION_RATE, 400, 550, 60));
+        for (int i = 0; i < shards; i++) {
+            HotShardSummary shardSummary =
+                    new HotShardSummary("index" + i % 4, String.valueOf(i), NODE.toString(), 60);
+            shardSummary.setCpuUtilization(0.01 * (i % 100));
+            summary.appendNestedSummary(shardSummary);
+        }
+        flowUnit =
+                new ResourceFlowUnit<>(
+                        System.currentTimeMillis(),
+                        new ResourceContext(Resources.State.UNHEALTHY),
+                        summary);
+        serialized = flowUnit.buildFlowUnitMessage(GRAPH_NODE, NODE).toByteArray();
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return flowUnit.buildFlowUnitMessage(GRAPH_NODE, NODE).toByteArray();
+    }
+
+    @Benchmark
+    public ResourceFlowUnit<HotNodeSummary> deserialize() throws Exception {
+        return ResourceFlowUnit.buildFlowUnitFromWrapper(FlowUnitMessage.parseFrom(serialized));
+    }
+
+    @Benchmark
+    public ResourceFlowUnit<HotNodeSummary> roundTrip() throws Exception {
+        byte[] bytes = flowUnit.buildFlowUnitMessage(GRAPH_NODE, NODE).toByteArray();
+        return ResourceFlowUnit.buildFlowUnitFromWrapper(FlowUnitMessage.parseFrom(bytes));
+    }
+}
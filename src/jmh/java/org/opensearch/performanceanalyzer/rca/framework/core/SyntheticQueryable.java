@@ -0,0 +1,165 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.jooq.BatchBindStep;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.metricsdb.Metric;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.model.MetricAttributes;
+import org.opensearch.performanceanalyzer.model.MetricsModel;
+import org.opensearch.performanceanalyzer.reader.Removable;
+
+/**
+ * A {@link Queryable} over a MetricsDB filled with synthetic values for every metric of the {@link
+ * MetricsModel}, so that the graph can be evaluated without a reader.
+ *
+ * <p>Each metric table has the dimensions the reader emits for it. Tables with shard dimensions get
+ * a row per shard and operation, tables with a thread name dimension a row per thread, and the heap
+ * and garbage collector tables a row per memory pool. The old generation is reported as collected
+ * by CMS so that the young generation RCAs don't skip their evaluation.
+ */
+public class SyntheticQueryable implements Queryable, Removable {
+    private static final String[] OPERATIONS = {"shardbulk", "shardquery"};
+    private static final String[] THREAD_POOLS = {
+        AllMetrics.ThreadPoolType.WRITE.toString(),
+        AllMetrics.ThreadPoolType.SEARCH.toString(),
+        "get",
+        "management"
+    };
+    private static final AllMetrics.GCType[] MEMORY_POOLS = AllMetrics.GCType.values();
+    private static final int INDICES = 4;
+    private static final String CMS_COLLECTOR = "ConcurrentMarkSweep";
+
+    private final long windowStartTime;
+    private final int shards;
+    private final int threads;
+    private final MetricsDB db;
+
+    /**
+     * @param windowStartTime The start of the window of the MetricsDB.
+     * @param shards The number of shards hosted on the node.
+     * @param threads The number of threads reported in the thread level metrics.
+     */
+    public SyntheticQueryable(long windowStartTime, int shards, int threads) throws Exception {
+        this.windowStartTime = windowStartTime;
+        this.shards = shards;
+        this.threads = threads;
+        this.db = new MetricsDB(windowStartTime);
+        for (Map.Entry<String, MetricAttributes> entry : MetricsModel.ALL_METRICS.entrySet()) {
+            List<String> dimensions = new ArrayList<>(entry.getValue().dimensionNames);
+            Collections.sort(dimensions);
+            fill(entry.getKey(), dimensions);
+        }
+        fill(
+                AllMetrics.GCInfoValue.GARBAGE_COLLECTOR_TYPE.toString(),
+                List.of(
+                        AllMetrics.GCInfoDimension.MEMORY_POOL.toString(),
+                        AllMetrics.GCInfoDimension.COLLECTOR_NAME.toString()));
+        db.commit();
+    }
+
+    private void fill(String metricName, List<String> dimensions) {
+        Metric<Double> metric = new Metric<>(metricName, 0d);
+        db.createMetric(metric, dimensions);
+        BatchBindStep handle = db.startBatchPut(metric, dimensions);
+        int rows = 1;
+        for (String dimension : dimensions) {
+            rows = Math.max(rows, rowsFor(dimension));
+        }
+        for (int row = 0; row < rows; row++) {
+            Object[] values = new Object[dimensions.size() + 4];
+            for (int i = 0; i < dimensions.size(); i++) {
+                values[i] = dimensionValue(dimensions.get(i), row);
+            }
+            // Spread the values over [0, 1) so that some shards and threads cross the thresholds.
+            double value = ((metricName.hashCode() + 31 * row) & 0xff) / 256.0;
+            values[dimensions.size()] = value * 12;
+            values[dimensions.size() + 1] = value;
+            values[dimensions.size() + 2] = value / 2;
+            values[dimensions.size() + 3] = value * 2;
+            handle.bind(values);
+        }
+        handle.execute();
+    }
+
+    private int rowsFor(String dimension) {
+        if (AllMetrics.CommonDimension.SHARD_ID.toString().equals(dimension)) {
+            return shards * OPERATIONS.length;
+        } else if (AllMetrics.CommonDimension.THREAD_NAME.toString().equals(dimension)) {
+            return threads;
+        } else if (AllMetrics.HeapDimension.MEM_TYPE.toString().equals(dimension)
+                || AllMetrics.GCInfoDimension.MEMORY_POOL.toString().equals(dimension)) {
+            return MEMORY_POOLS.length;
+        } else if (AllMetrics.ThreadPoolDimension.THREAD_POOL_TYPE.toString().equals(dimension)) {
+            return THREAD_POOLS.length;
+        }
+        return 1;
+    }
+
+    private String dimensionValue(String dimension, int row) {
+        if (AllMetrics.CommonDimension.SHARD_ID.toString().equals(dimension)) {
+            return String.valueOf(row % shards);
+        } else if (AllMetrics.CommonDimension.INDEX_NAME.toString().equals(dimension)) {
+            return "index" + (row % shards) % INDICES;
+        } else if (AllMetrics.CommonDimension.OPERATION.toString().equals(dimension)) {
+            return OPERATIONS[(row / shards) % OPERATIONS.length];
+        } else if (AllMetrics.CommonDimension.SHARD_ROLE.toString().equals(dimension)) {
+            return "primary";
+        } else if (AllMetrics.CommonDimension.THREAD_NAME.toString().equals(dimension)) {
+            return "opensearch[node]["
+                    + THREAD_POOLS[row % THREAD_POOLS.length]
+                    + "][T#"
+                    + row
+                    + "]";
+        } else if (AllMetrics.HeapDimension.MEM_TYPE.toString().equals(dimension)
+                || AllMetrics.GCInfoDimension.MEMORY_POOL.toString().equals(dimension)) {
+            return MEMORY_POOLS[row % MEMORY_POOLS.length].toString();
+        } else if (AllMetrics.GCInfoDimension.COLLECTOR_NAME.toString().equals(dimension)) {
+            return CMS_COLLECTOR;
+        } else if (AllMetrics.ThreadPoolDimension.THREAD_POOL_TYPE.toString().equals(dimension)) {
+            return THREAD_POOLS[row % THREAD_POOLS.length];
+        }
+        return dimension + "_" + row;
+    }
+
+    @Override
+    public MetricsDB getMetricsDB() {
+        return db;
+    }
+
+    @Override
+    public Result<Record> queryMetrics(MetricsDB db, String metricName) {
+        return db.queryMetric(metricName);
+    }
+
+    @Override
+    public Result<Record> queryMetrics(
+            MetricsDB db, String metricName, String dimension, String aggregation)
+            throws Exception {
+        return db.queryMetric(
+                Collections.singletonList(metricName),
+                Collections.singletonList(aggregation),
+                Collections.singletonList(dimension));
+    }
+
+    @Override
+    public long getDBTimestamp(MetricsDB db) {
+        return windowStartTime;
+    }
+
+    @Override
+    public void remove() throws Exception {
+        db.remove();
+        db.deleteOnDiskFile();
+    }
+}
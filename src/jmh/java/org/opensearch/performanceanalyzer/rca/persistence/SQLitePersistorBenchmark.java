@@ -0,0 +1,187 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.persistence;
+
+import com.google.gson.JsonElement;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opensearch.performanceanalyzer.rca.framework.api.Resources;
+import org.opensearch.performanceanalyzer.rca.framework.api.contexts.ResourceContext;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotClusterSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.persistence.actions.PersistedAction;
+import org.opensearch.performanceanalyzer.rca.store.rca.HotNodeClusterRca;
+
+/**
+ * Compares the MethodHandle bound {@link ClassRowMapper} with the reflective {@link Method#invoke}
+ * path it replaced on {@link PersistedAction}, the object the decision maker persists. The {@code
+ * write*} and {@code read*} benchmarks measure the full round trip through {@link SQLitePersistor}:
+ * of the action with the row mapper, and of a {@link HotNodeClusterRca} flow unit whose {@link
+ * HotClusterSummary} nests a {@link HotNodeSummary} per unhealthy node, each with its {@link
+ * HotResourceSummary}s.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SQLitePersistorBenchmark {
+    private static final int NODES_PER_SUMMARY = 8;
+
+    private Path dir;
+    private SQLitePersistor persistor;
+    private PersistedAction action;
+    private HotNodeClusterRca clusterRca;
+    private ResourceFlowUnit<HotClusterSummary> clusterFlowUnit;
+    private ClassRowMapper actionMapper;
+    private ReflectiveRowAccess actionReflective;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("persistor-bench");
+        persistor = new SQLitePersistor(dir.toString(), "rca.bench", "1", TimeUnit.HOURS, 1);
+
+        action = new PersistedAction();
+        action.setActionName("ModifyQueueCapacity");
+        action.setNodeIds("node1,node2");
+        action.setNodeIps("127.0.0.1,127.0.0.2");
+        action.setActionable(true);
+        action.setCoolOffPeriod(300);
+        action.setMuted(false);
+        action.setSummary("{\"resource\":\"write_threadpool\"}");
+        action.setTimestamp(System.currentTimeMillis());
+
+        clusterRca = new HotNodeClusterRca(1, null);
+        HotClusterSummary summary = new HotClusterSummary(NODES_PER_SUMMARY * 2, NODES_PER_SUMMARY);
+        for (int i = 0; i < NODES_PER_SUMMARY; i++) {
+            HotNodeSummary node =
+                    new HotNodeSummary(
+                            new InstanceDetails.Id("node" + i),
+                            new InstanceDetails.Ip("10.0.0." + i));
+            node.appendNestedSummary(
+                    new HotResourceSummary(ResourceUtil.CPU_USAGE, 0.7, 0.5 + 0.05 * i, 60));
+            node.appendNestedSummary(
+                    new HotResourceSummary(ResourceUtil.OLD_GEN_HEAP_USAGE, 0.75, 0.8, 60));
+            summary.appendNestedSummary(node);
+        }
+        clusterFlowUnit =
+                new ResourceFlowUnit<>(
+                        System.currentTimeMillis(),
+                        new ResourceContext(Resources.State.UNHEALTHY),
+                        summary);
+
+        actionMapper = persistor.getOrCreateRowMapper(PersistedAction.class);
+        actionReflective = new ReflectiveRowAccess(PersistedAction.class, actionMapper);
+
+        // Make sure there is something to read back.
+        persistor.write(action);
+        persistor.write(clusterRca, clusterFlowUnit);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        persistor.close();
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Benchmark
+    public void persistedActionRowMapper(Blackhole bh) throws Exception {
+        roundTrip(actionMapper, action, bh);
+    }
+
+    @Benchmark
+    public void persistedActionReflective(Blackhole bh) throws Exception {
+        actionReflective.roundTrip(action, bh);
+    }
+
+    @Benchmark
+    public void writePersistedAction() throws Exception {
+        persistor.write(action);
+    }
+
+    @Benchmark
+    public PersistedAction readPersistedAction() throws Exception {
+        return persistor.read(PersistedAction.class);
+    }
+
+    @Benchmark
+    public void writeSummary() throws Exception {
+        persistor.write(clusterRca, clusterFlowUnit);
+    }
+
+    @Benchmark
+    public JsonElement readSummary() {
+        return persistor.read(clusterRca.name());
+    }
+
+    /** Reads every persisted field of the object and sets it on a fresh instance. */
+    private static void roundTrip(ClassRowMapper mapper, Object obj, Blackhole bh)
+            throws Exception {
+        Object copy = mapper.newInstance();
+        for (ClassRowMapper.ColumnMapping mapping : mapper.getColumnMappings()) {
+            Object value = mapping.get(obj);
+            mapping.set(copy, value);
+            bh.consume(value);
+        }
+        bh.consume(copy);
+    }
+
+    /** The getter and setter lookups as the persistor did them before the row mapper existed. */
+    private static class ReflectiveRowAccess {
+        private final Class<?> clz;
+        private final List<Method> getters = new ArrayList<>();
+        private final List<Method> setters = new ArrayList<>();
+
+        ReflectiveRowAccess(Class<?> clz, ClassRowMapper mapper) throws NoSuchMethodException {
+            this.clz = clz;
+            for (ClassRowMapper.ColumnMapping mapping : mapper.getColumnMappings()) {
+                String name = mapping.getFieldName();
+                String capitalized = name.substring(0, 1).toUpperCase() + name.substring(1);
+                Method getter;
+                try {
+                    getter = clz.getDeclaredMethod("get" + capitalized);
+                } catch (NoSuchMethodException e) {
+                    getter = clz.getDeclaredMethod("is" + capitalized);
+                }
+                getters.add(getter);
+                setters.add(clz.getDeclaredMethod("set" + capitalized, mapping.getType()));
+            }
+        }
+
+        void roundTrip(Object obj, Blackhole bh) throws Exception {
+            Object copy = clz.getDeclaredConstructor().newInstance();
+            for (int i = 0; i < getters.size(); i++) {
+                Object value = getters.get(i).invoke(obj);
+                setters.get(i).invoke(copy, value);
+                bh.consume(value);
+            }
+            bh.consume(copy);
+        }
+    }
+}
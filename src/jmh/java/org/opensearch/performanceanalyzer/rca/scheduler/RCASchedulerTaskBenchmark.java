@@ -0,0 +1,148 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.scheduler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.framework.core.ConnectedComponent;
+import org.opensearch.performanceanalyzer.rca.framework.core.Node;
+import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
+import org.opensearch.performanceanalyzer.rca.framework.core.Stats;
+import org.opensearch.performanceanalyzer.rca.framework.core.SyntheticQueryable;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaUtil;
+import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
+import org.opensearch.performanceanalyzer.rca.net.ReceivedFlowUnitStore;
+import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
+import org.opensearch.performanceanalyzer.rca.net.WireHopper;
+import org.opensearch.performanceanalyzer.rca.persistence.SQLitePersistor;
+import org.opensearch.performanceanalyzer.rca.store.OpenSearchAnalysisGraph;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessor;
+
+/**
+ * Measures a tick of {@link RCASchedulerTask#run} on the full {@link OpenSearchAnalysisGraph} of a
+ * data node, with every vertex evaluated on each tick. The metrics are read from a {@link
+ * SyntheticQueryable} sized by the number of shards and threads on the node, and the flow units are
+ * persisted to a SQLite file in a temporary directory. No flow unit is sent over the network.
+ *
+ * <p>The rca.conf of the tests is used, so the benchmark is to be run from the project directory.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RCASchedulerTaskBenchmark {
+    private static final int CLUSTER_NODES = 3;
+
+    /** The size of the pool running the tasklets, as in the {@link RCAScheduler}. */
+    private static final int TASKLET_THREADS = 2;
+
+    @Param({"10", "100", "1000"})
+    public int shards;
+
+    @Param({"50", "500"})
+    public int threads;
+
+    private Path dir;
+    private SyntheticQueryable queryable;
+    private SQLitePersistor persistable;
+    private GRPCConnectionManager connectionManager;
+    private ExecutorService executorPool;
+    private RCASchedulerTask task;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        PerformanceAnalyzerApp.initAggregators();
+        dir = Files.createTempDirectory("rca-graph-bench");
+        queryable = new SyntheticQueryable(System.currentTimeMillis(), shards, threads);
+        persistable = new SQLitePersistor(dir.toString(), "rca.bench", "1", TimeUnit.HOURS, 1);
+
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        List<ClusterDetailsEventProcessor.NodeDetails> nodes = new ArrayList<>();
+        for (int i = 0; i < CLUSTER_NODES; i++) {
+            nodes.add(
+                    new ClusterDetailsEventProcessor.NodeDetails(
+                            AllMetrics.NodeRole.DATA, "node" + i, "127.0.0." + (i + 1), false));
+        }
+        clusterDetailsEventProcessor.setNodesDetails(nodes);
+        AppContext appContext = new AppContext();
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+
+        RcaConf rcaConf = new RcaConf(Paths.get(RcaConsts.TEST_CONFIG_PATH, "rca.conf").toString());
+        Stats.getInstance().reset();
+        List<ConnectedComponent> connectedComponents =
+                RcaUtil.getAnalysisGraphComponents(new OpenSearchAnalysisGraph());
+        for (ConnectedComponent component : connectedComponents) {
+            for (Node<?> node : component.getAllNodes()) {
+                node.setEvaluationIntervalSeconds(1);
+            }
+        }
+
+        connectionManager = new GRPCConnectionManager(false);
+        WireHopper wireHopper =
+                new WireHopper(
+                        new NodeStateManager(appContext),
+                        new NetClient(connectionManager),
+                        new SubscriptionManager(connectionManager),
+                        new AtomicReference<>(),
+                        new ReceivedFlowUnitStore(rcaConf.getPerVertexBufferLength()),
+                        appContext);
+        executorPool = Executors.newFixedThreadPool(TASKLET_THREADS);
+        task =
+                new RCASchedulerTask(
+                        Integer.MAX_VALUE,
+                        executorPool,
+                        connectedComponents,
+                        queryable,
+                        persistable,
+                        rcaConf,
+                        wireHopper,
+                        appContext);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        executorPool.shutdownNow();
+        connectionManager.shutdown();
+        persistable.close();
+        queryable.remove();
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Benchmark
+    public void run() {
+        task.run();
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.store.rca;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.api.Metric;
+import org.opensearch.performanceanalyzer.rca.framework.api.Rca;
+import org.opensearch.performanceanalyzer.rca.framework.api.Resources;
+import org.opensearch.performanceanalyzer.rca.framework.api.contexts.ResourceContext;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.CPU_Utilization;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.GC_Collection_Event;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.GC_Collection_Time;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.GC_Type;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.Heap_Used;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotClusterSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
+import org.opensearch.performanceanalyzer.rca.framework.core.SyntheticQueryable;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.AvgCpuUtilByShardsMetricBasedTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.CpuUtilByShardsMetricBasedTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardAvgTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeAvgTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeMetricBasedTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.HeapAllocRateTotalTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.ShardTotalDiskUsageTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.TotalCpuUtilForTotalNodeMetric;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.DiskUsageShardIndependentTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.HeapAllocRateShardIndependentTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.ShardIndependentTemperatureCalculatorCpuUtilMetric;
+import org.opensearch.performanceanalyzer.rca.store.rca.hotheap.HighHeapUsageYoungGenRca;
+import org.opensearch.performanceanalyzer.rca.store.rca.hotshard.HotShardRca;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessor;
+
+/**
+ * Measures the {@code operate()} of individual RCA vertices on a tick, with the upstream metrics
+ * gathered from a {@link SyntheticQueryable} sized by the number of shards and threads on the node,
+ * and the gathering of the temperature calculators of the heat map graph from the same MetricsDB,
+ * both the four queries per dimension and the single scan per dimension the graph uses.
+ *
+ * <p>{@link HotNodeClusterRca} is measured separately on the hot node summaries of {@code nodes}
+ * data nodes, as it runs on the elected cluster manager.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RcaOperateBenchmark {
+    private static final int RCA_PERIOD = 1;
+
+    @State(Scope.Benchmark)
+    public static class DataNode {
+        @Param({"10", "100", "1000"})
+        public int shards;
+
+        @Param({"50", "500"})
+        public int threads;
+
+        private SyntheticQueryable queryable;
+
+        private CPU_Utilization cpuUtilization;
+        private HotShardRca hotShardRca;
+
+        private Heap_Used heapUsed;
+        private GC_Collection_Time gcCollectionTime;
+        private GC_Collection_Event gcCollectionEvent;
+        private GC_Type gcType;
+        private HighHeapUsageYoungGenRca highHeapUsageYoungGenRca;
+
+        private List<Metric> temperatureCalculators;
+        private List<Metric> singleScanTemperatureCalculators;
+
+        @Setup(Level.Trial)
+        public void setup() throws Exception {
+            PerformanceAnalyzerApp.initAggregators();
+            queryable = new SyntheticQueryable(System.currentTimeMillis(), shards, threads);
+            AppContext appContext = appContext(1);
+
+            cpuUtilization = new CPU_Utilization(5);
+            hotShardRca = new HotShardRca(5, RCA_PERIOD, cpuUtilization);
+            hotShardRca.setAppContext(appContext);
+
+            heapUsed = new Heap_Used(5);
+            gcCollectionTime = new GC_Collection_Time(5);
+            gcCollectionEvent = new GC_Collection_Event(5);
+            gcType = new GC_Type(5);
+            highHeapUsageYoungGenRca =
+                    new HighHeapUsageYoungGenRca(
+                            RCA_PERIOD, heapUsed, gcCollectionTime, gcCollectionEvent, gcType);
+            highHeapUsageYoungGenRca.setAppContext(appContext);
+
+            temperatureCalculators =
+                    Arrays.asList(
+                            new HeapAllocRateByShardTemperatureCalculator(),
+                            new HeapAllocRateByShardAvgTemperatureCalculator(),
+                            new HeapAllocRateShardIndependentTemperatureCalculator(),
+                            new HeapAllocRateTotalTemperatureCalculator(),
+                            new CpuUtilByShardsMetricBasedTemperatureCalculator(),
+                            new AvgCpuUtilByShardsMetricBasedTemperatureCalculator(),
+                            new ShardIndependentTemperatureCalculatorCpuUtilMetric(),
+                            new TotalCpuUtilForTotalNodeMetric(),
+                            new ShardSizeMetricBasedTemperatureCalculator(),
+                            new ShardSizeAvgTemperatureCalculator(),
+                            new ShardTotalDiskUsageTemperatureCalculator(),
+                            new DiskUsageShardIndependentTemperatureCalculator());
+            singleScanTemperatureCalculators =
+                    Arrays.asList(
+                            new SingleScanTemperatureCalculator(
+                                    TemperatureDimension.Heap_AllocRate),
+                            new SingleScanTemperatureCalculator(
+                                    TemperatureDimension.CPU_Utilization),
+                            new SingleScanTemperatureCalculator(
+                                    TemperatureDimension.Shard_Size_In_Bytes));
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            queryable.remove();
+        }
+
+        private void gather(Metric... metrics) {
+            for (Metric metric : metrics) {
+                metric.setLocalFlowUnit(metric.gather(queryable));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class ClusterManager {
+        @Param({"3", "30", "300"})
+        public int nodes;
+
+        private HotNodeClusterRca hotNodeClusterRca;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            PerformanceAnalyzerApp.initAggregators();
+            AppContext appContext = appContext(nodes);
+
+            List<ResourceFlowUnit<HotNodeSummary>> flowUnits = new ArrayList<>();
+            for (int i = 0; i < nodes; i++) {
+                HotNodeSummary summary =
+                        new HotNodeSummary(
+                                new InstanceDetails.Id("node" + i), new InstanceDetails.Ip(ip(i)));
+                // A tenth of the nodes use twice as much as the others.
+                double usage = i % 10 == 0 ? 0.8 : 0.4;
+                summary.appendNestedSummary(
+                        new HotResourceSummary(ResourceUtil.CPU_USAGE, 0.7, usage, 60));
+                summary.appendNestedSummary(
+                        new HotResourceSummary(ResourceUtil.OLD_GEN_HEAP_USAGE, 0.75, usage, 60));
+                flowUnits.add(
+                        new ResourceFlowUnit<>(
+                                System.currentTimeMillis(),
+                                new ResourceContext(Resources.State.HEALTHY),
+                                summary));
+            }
+            HotNodeSummaries hotNodeRca = new HotNodeSummaries();
+            hotNodeRca.setFlowUnits(flowUnits);
+
+            hotNodeClusterRca = new HotNodeClusterRca(RCA_PERIOD, hotNodeRca);
+            hotNodeClusterRca.setAppContext(appContext);
+        }
+    }
+
+    @Benchmark
+    public ResourceFlowUnit<HotNodeSummary> hotShardRca(DataNode state) {
+        state.gather(state.cpuUtilization);
+        return state.hotShardRca.operate();
+    }
+
+    @Benchmark
+    public ResourceFlowUnit<HotResourceSummary> highHeapUsageYoungGenRca(DataNode state) {
+        state.gather(state.heapUsed, state.gcCollectionTime, state.gcCollectionEvent, state.gcType);
+        return state.highHeapUsageYoungGenRca.operate();
+    }
+
+    @Benchmark
+    public void temperatureCalculators(DataNode state, Blackhole blackhole) {
+        for (Metric calculator : state.temperatureCalculators) {
+            blackhole.consume(calculator.gather(state.queryable));
+        }
+    }
+
+    @Benchmark
+    public void singleScanTemperatureCalculators(DataNode state, Blackhole blackhole) {
+        for (Metric calculator : state.singleScanTemperatureCalculators) {
+            blackhole.consume(calculator.gather(state.queryable));
+        }
+    }
+
+    @Benchmark
+    public ResourceFlowUnit<HotClusterSummary> hotNodeClusterRca(ClusterManager state) {
+        return state.hotNodeClusterRca.operate();
+    }
+
+    private static AppContext appContext(int nodes) {
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        List<ClusterDetailsEventProcessor.NodeDetails> nodeDetails = new ArrayList<>();
+        for (int i = 0; i < nodes; i++) {
+            nodeDetails.add(
+                    new ClusterDetailsEventProcessor.NodeDetails(
+                            AllMetrics.NodeRole.DATA, "node" + i, ip(i), false));
+        }
+        clusterDetailsEventProcessor.setNodesDetails(nodeDetails);
+        AppContext appContext = new AppContext();
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+        return appContext;
+    }
+
+    private static String ip(int node) {
+        return "10.0." + node / 256 + "." + node % 256;
+    }
+
+    /** Stands in for the HotNodeRca of the data nodes, whose flow units are set by the setup. */
+    private static class HotNodeSummaries extends Rca<ResourceFlowUnit<HotNodeSummary>> {
+        HotNodeSummaries() {
+            super(5);
+        }
+
+        @Override
+        public ResourceFlowUnit<HotNodeSummary> operate() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void generateFlowUnitListFromWire(FlowUnitOperationArgWrapper args) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+
+/**
+ * Measures each of the {@code MetricsEmitter.emit*} methods, which move the metrics of a window
+ * from the in-memory snapshots of the reader to the MetricsDB of the window.
+ *
+ * <p>The snapshots are filled once per trial with {@code rows} synthetic rows each, and every
+ * invocation emits them to a new MetricsDB, as the reader does once per window.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MetricsEmitterBenchmark {
+    private static final long WINDOW_START = 1_600_000_000_000L;
+
+    @Param({"100", "1000"})
+    public int rows;
+
+    private Connection conn;
+    private DSLContext create;
+    private OSMetricsSnapshot osMetricsSnap;
+    private ShardRequestMetricsSnapshot shardRqMetricsSnap;
+    private HttpRequestMetricsSnapshot httpRqMetricsSnap;
+    private GarbageCollectorInfoSnapshot gcInfoSnap;
+    private SearchBackPressureMetricsSnapShot searchBackPressureSnap;
+    private AdmissionControlSnapshot admissionControlSnap;
+    private ClusterManagerEventMetricsSnapshot clusterManagerEventSnap;
+    private MemoryDBSnapshot tcpSnap;
+    private FaultDetectionMetricsSnapshot faultDetectionSnap;
+    private ClusterManagerThrottlingMetricsSnapshot clusterManagerThrottlingSnap;
+    private ShardStateMetricsSnapshot shardStateSnap;
+
+    private long windowStart = WINDOW_START;
+    private MetricsDB db;
+
+    @Setup(Level.Trial)
+    public void fillSnapshots() throws Exception {
+        PerformanceAnalyzerApp.initAggregators();
+        conn = DriverManager.getConnection("jdbc:sqlite:");
+        create = DSL.using(conn, SQLDialect.SQLITE);
+
+        osMetricsSnap = new OSMetricsSnapshot(conn, WINDOW_START);
+        shardRqMetricsSnap = new ShardRequestMetricsSnapshot(conn, WINDOW_START);
+        BatchBindStep shardRqHandle = shardRqMetricsSnap.startBatchPut();
+        for (int i = 0; i < rows; i++) {
+            String tid = String.valueOf(i);
+            Map<String, Double> metrics = new HashMap<>();
+            metrics.put(AllMetrics.OSMetrics.CPU_UTILIZATION.toString(), (i % 10) / 10.0);
+            metrics.put(AllMetrics.OSMetrics.PAGING_RSS.toString(), 4096.0 * i);
+            metrics.put(AllMetrics.OSMetrics.HEAP_ALLOC_RATE.toString(), 1024.0 * i);
+            Map<String, String> dims = new HashMap<>();
+            dims.put("tid", tid);
+            dims.put("tName", "opensearch[node][" + (i % 2 == 0 ? "write" : "search") + "][T#1]");
+            osMetricsSnap.putMetric(metrics, dims, WINDOW_START + i % 5000);
+
+            String operation = i % 2 == 0 ? "shardbulk" : "shardquery";
+            long start = WINDOW_START + i % 4000;
+            String shardId = String.valueOf(i % 50);
+            String rid = String.valueOf(i);
+            shardRqHandle.bind(
+                    shardId, "index" + i % 4, rid, tid, operation, "primary", start, null, 100);
+            shardRqHandle.bind(
+                    shardId,
+                    "index" + i % 4,
+                    rid,
+                    tid,
+                    operation,
+                    "primary",
+                    null,
+                    start + 20,
+                    null);
+        }
+        shardRqHandle.execute();
+
+        httpRqMetricsSnap = new HttpRequestMetricsSnapshot(conn, WINDOW_START);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> dims = new HashMap<>();
+            dims.put(HttpRequestMetricsSnapshot.Fields.OPERATION.toString(), "search");
+            dims.put(HttpRequestMetricsSnapshot.Fields.HTTP_RESP_CODE.toString(), "200");
+            dims.put(HttpRequestMetricsSnapshot.Fields.INDICES.toString(), "");
+            dims.put(HttpRequestMetricsSnapshot.Fields.EXCEPTION.toString(), "");
+            dims.put("rid", String.valueOf(i));
+            httpRqMetricsSnap.putStartMetric(WINDOW_START + i, 10L, dims);
+            httpRqMetricsSnap.putEndMetric(WINDOW_START + i + 30, dims);
+        }
+
+        gcInfoSnap = new GarbageCollectorInfoSnapshot(conn, WINDOW_START);
+        BatchBindStep gcHandle = gcInfoSnap.startBatchPut();
+        for (int i = 0; i < rows; i++) {
+            gcHandle.bind("pool" + i, "collector" + i);
+        }
+        gcHandle.execute();
+
+        searchBackPressureSnap = new SearchBackPressureMetricsSnapShot(conn, WINDOW_START);
+        BatchBindStep searchBackPressureHandle = searchBackPressureSnap.startBatchPut();
+        for (int i = 0; i < rows; i++) {
+            Object[] bindValues = new Object[16];
+            for (int j = 0; j < bindValues.length; j++) {
+                bindValues[j] = i + j;
+            }
+            searchBackPressureHandle.bind(bindValues);
+        }
+        searchBackPressureHandle.execute();
+
+        admissionControlSnap = new AdmissionControlSnapshot(conn, WINDOW_START);
+        BatchBindStep admissionControlHandle = admissionControlSnap.startBatchPut();
+        for (int i = 0; i < rows; i++) {
+            admissionControlHandle.bind("controller" + i, (long) i);
+        }
+        admissionControlHandle.execute();
+
+        clusterManagerEventSnap = new ClusterManagerEventMetricsSnapshot(conn, WINDOW_START);
+        BatchBindStep clusterManagerEventHandle = clusterManagerEventSnap.startBatchPut();
+        for (int i = 0; i < rows; i++) {
+            String order = String.valueOf(i);
+            long start = WINDOW_START + i;
+            clusterManagerEventHandle.bind(
+                    "111", order, "urgent", "create-index", "metadata", 12, start, null);
+            clusterManagerEventHandle.bind("111", order, null, null, null, 12, null, start + 5);
+        }
+        clusterManagerEventHandle.execute();
+
+        tcpSnap = new MemoryDBSnapshot(conn, AllMetrics.MetricName.TCP_METRICS, WINDOW_START);
+        tcpSnap.setLastUpdatedTime(WINDOW_START);
+        Object[][] tcpRows = new Object[rows][];
+        for (int i = 0; i < rows; i++) {
+            tcpRows[i] = new Object[] {String.format("%032X", i), 24, 0, 0, 0, 7, 1};
+        }
+        tcpSnap.insertMultiRows(tcpRows);
+
+        faultDetectionSnap = new FaultDetectionMetricsSnapshot(conn, WINDOW_START);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> dims = new HashMap<>();
+            dims.put(AllMetrics.FaultDetectionDimension.SOURCE_NODE_ID.toString(), "source");
+            dims.put(AllMetrics.FaultDetectionDimension.TARGET_NODE_ID.toString(), "target" + i);
+            dims.put(
+                    FaultDetectionMetricsSnapshot.Fields.FAULT_DETECTION_TYPE.toString(),
+                    "follower_check");
+            dims.put(FaultDetectionMetricsSnapshot.Fields.RID.toString(), String.valueOf(i));
+            faultDetectionSnap.putStartMetric(WINDOW_START + i, dims);
+            faultDetectionSnap.putEndMetric(WINDOW_START + i + 10, i % 10 == 0 ? 1 : 0, dims);
+        }
+
+        clusterManagerThrottlingSnap =
+                new ClusterManagerThrottlingMetricsSnapshot(conn, WINDOW_START);
+        for (int i = 0; i < rows; i++) {
+            clusterManagerThrottlingSnap.putMetrics(i, new HashMap<>());
+        }
+
+        shardStateSnap = new ShardStateMetricsSnapshot(conn, WINDOW_START);
+        for (int i = 0; i < rows; i++) {
+            Map<String, String> dims = new HashMap<>();
+            dims.put(AllMetrics.ShardStateDimension.INDEX_NAME.toString(), "index" + i % 4);
+            dims.put(AllMetrics.ShardStateDimension.SHARD_ID.toString(), String.valueOf(i));
+            dims.put(AllMetrics.ShardStateDimension.SHARD_TYPE.toString(), "p");
+            dims.put(AllMetrics.ShardStateDimension.NODE_NAME.toString(), "node");
+            shardStateSnap.putMetrics("Unassigned", dims);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeConnection() throws Exception {
+        conn.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createMetricsDB() throws Exception {
+        db = new MetricsDB(windowStart++);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeMetricsDB() throws Exception {
+        db.remove();
+        db.deleteOnDiskFile();
+    }
+
+    @Benchmark
+    public void emitAggregatedOSMetrics() throws Exception {
+        MetricsEmitter.emitAggregatedOSMetrics(db, osMetricsSnap, shardRqMetricsSnap);
+    }
+
+    @Benchmark
+    public void emitWorkloadMetrics() throws Exception {
+        MetricsEmitter.emitWorkloadMetrics(create, db, shardRqMetricsSnap);
+    }
+
+    @Benchmark
+    public void emitThreadNameMetrics() throws Exception {
+        MetricsEmitter.emitThreadNameMetrics(create, db, osMetricsSnap);
+    }
+
+    @Benchmark
+    public void emitHttpMetrics() throws Exception {
+        MetricsEmitter.emitHttpMetrics(create, db, httpRqMetricsSnap);
+    }
+
+    @Benchmark
+    public void emitGarbageCollectionInfo() {
+        MetricsEmitter.emitGarbageCollectionInfo(db, gcInfoSnap);
+    }
+
+    @Benchmark
+    public void emitSearchBackPressureMetrics() {
+        MetricsEmitter.emitSearchBackPressureMetrics(db, searchBackPressureSnap);
+    }
+
+    @Benchmark
+    public void emitAdmissionControlMetrics() {
+        MetricsEmitter.emitAdmissionControlMetrics(db, admissionControlSnap);
+    }
+
+    @Benchmark
+    public void emitClusterManagerEventMetrics() {
+        MetricsEmitter.emitClusterManagerEventMetrics(db, clusterManagerEventSnap);
+    }
+
+    @Benchmark
+    public void emitNodeMetrics() throws Exception {
+        MetricsEmitter.emitNodeMetrics(create, db, tcpSnap);
+    }
+
+    @Benchmark
+    public void emitFaultDetectionMetrics() {
+        MetricsEmitter.emitFaultDetectionMetrics(db, faultDetectionSnap);
+    }
+
+    @Benchmark
+    public void emitClusterManagerThrottledTaskMetric() {
+        MetricsEmitter.emitClusterManagerThrottledTaskMetric(db, clusterManagerThrottlingSnap);
+    }
+
+    @Benchmark
+    public void emitShardStateMetric() {
+        MetricsEmitter.emitShardStateMetric(db, shardStateSnap);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.commons.metrics.MetricsConfiguration;
+
+/**
+ * Measures {@link OSMetricsSnapshot#alignWindow}, which weighs the OS metrics of the threads
+ * sampled in two consecutive snapshots into the reader window that overlaps both.
+ *
+ * <p>A tenth of the threads of the left snapshot exited before the right snapshot and as many new
+ * threads only appear in the right snapshot, so all three branches of the alignment are exercised.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OSMetricsSnapshotBenchmark {
+    private static final long LEFT_END = 1_600_000_005_000L;
+    private static final long INTERVAL = MetricsConfiguration.SAMPLING_INTERVAL;
+
+    @Param({"100", "1000", "5000"})
+    public int threads;
+
+    private Connection conn;
+    private OSMetricsSnapshot leftWindow;
+    private OSMetricsSnapshot rightWindow;
+
+    private long alignedWindowStart = LEFT_END;
+    private OSMetricsSnapshot alignedWindow;
+
+    @Setup(Level.Trial)
+    public void fillSnapshots() throws Exception {
+        conn = DriverManager.getConnection("jdbc:sqlite:");
+        leftWindow = new OSMetricsSnapshot(conn, "os_", LEFT_END);
+        rightWindow = new OSMetricsSnapshot(conn, "os_", LEFT_END + INTERVAL);
+        int exited = threads / 10;
+        for (int t = 0; t < threads; t++) {
+            leftWindow.putMetric(metrics(t), dimensions(t), LEFT_END - INTERVAL + t % INTERVAL);
+            if (t >= exited) {
+                rightWindow.putMetric(metrics(t + 1), dimensions(t), LEFT_END + t % INTERVAL);
+            }
+        }
+        for (int t = threads; t < threads + exited; t++) {
+            rightWindow.putMetric(metrics(t), dimensions(t), LEFT_END + t % INTERVAL);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeConnection() throws Exception {
+        conn.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void createAlignedWindow() {
+        alignedWindow = new OSMetricsSnapshot(conn, "os_aligned_", alignedWindowStart++);
+    }
+
+    @TearDown(Level.Invocation)
+    public void removeAlignedWindow() {
+        alignedWindow.remove();
+    }
+
+    @Benchmark
+    public void alignWindow() {
+        OSMetricsSnapshot.alignWindow(
+                leftWindow,
+                rightWindow,
+                alignedWindow.getTableName(),
+                LEFT_END - INTERVAL / 2,
+                LEFT_END + INTERVAL / 2);
+    }
+
+    private static Map<String, Double> metrics(int seed) {
+        Map<String, Double> metrics = new HashMap<>();
+        metrics.put(AllMetrics.OSMetrics.CPU_UTILIZATION.toString(), (seed % 10) / 10.0);
+        metrics.put(AllMetrics.OSMetrics.PAGING_RSS.toString(), 4096.0 * seed);
+        metrics.put(AllMetrics.OSMetrics.SCHED_RUNTIME.toString(), (seed % 5) / 100.0);
+        metrics.put(AllMetrics.OSMetrics.HEAP_ALLOC_RATE.toString(), 1024.0 * seed);
+        metrics.put(AllMetrics.OSMetrics.IO_WRITE_THROUGHPUT.toString(), 10.0 * seed);
+        return metrics;
+    }
+
+    private static Map<String, String> dimensions(int t) {
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(OSMetricsSnapshot.Fields.tid.toString(), String.valueOf(t));
+        dimensions.put(OSMetricsSnapshot.Fields.tName.toString(), "opensearch[node][write][T#1]");
+        return dimensions;
+    }
+}
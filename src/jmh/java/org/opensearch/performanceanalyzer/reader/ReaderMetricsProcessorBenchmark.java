@@ -0,0 +1,183 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.event_process.Event;
+import org.opensearch.performanceanalyzer.commons.event_process.EventLog;
+import org.opensearch.performanceanalyzer.commons.event_process.EventLogFileHandler;
+import org.opensearch.performanceanalyzer.commons.metrics.MetricsConfiguration;
+
+/**
+ * Measures {@link ReaderMetricsProcessor#processMetrics} on synthetic event logs, from reading the
+ * event log of a window to emitting the aligned metrics of the previous window to its MetricsDB.
+ *
+ * <p>The event logs hold the OS metrics of every thread and the start and finish events of the
+ * shard bulk and query requests spread over the threads and shards. Each invocation starts from a
+ * fresh processor that has already processed the two preceding windows, as the reader needs two OS
+ * snapshots to align a window.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReaderMetricsProcessorBenchmark {
+    private static final long FIRST_WINDOW = 1_600_000_000_000L;
+    private static final long INTERVAL = MetricsConfiguration.SAMPLING_INTERVAL;
+    private static final int WINDOWS = 3;
+
+    /** The reader processes the window three intervals before the timestamp it is given. */
+    private static final long READER_LAG = 3 * INTERVAL;
+
+    @Param({"50", "200"})
+    public int threads;
+
+    @Param({"10", "100"})
+    public int shards;
+
+    @Param({"100", "1000"})
+    public int requestsPerSecond;
+
+    private Path rootLocation;
+    private ReaderMetricsProcessor processor;
+
+    @Setup(Level.Trial)
+    public void writeEventLogs() throws Exception {
+        PerformanceAnalyzerApp.initAggregators();
+        rootLocation = Files.createTempDirectory("reader-bench");
+        EventLogFileHandler fileHandler =
+                new EventLogFileHandler(new EventLog(), rootLocation.toString() + "/");
+        long rid = 0;
+        for (int w = 0; w < WINDOWS; w++) {
+            long windowStart = FIRST_WINDOW + w * INTERVAL;
+            List<Event> events = new ArrayList<>();
+            addOSEvents(events, windowStart);
+            rid = addRequestEvents(events, windowStart, rid);
+            fileHandler.writeTmpFile(events, windowStart);
+            fileHandler.renameFromTmp(windowStart);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteEventLogs() throws Exception {
+        FileUtils.deleteDirectory(rootLocation.toFile());
+    }
+
+    @Setup(Level.Invocation)
+    public void processPrecedingWindows() throws Exception {
+        processor = new ReaderMetricsProcessor(rootLocation.toString() + "/", true, null);
+        for (int w = 0; w < WINDOWS - 1; w++) {
+            processor.processMetrics(
+                    rootLocation.toString() + "/", FIRST_WINDOW + w * INTERVAL + READER_LAG);
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeProcessor() throws Exception {
+        processor.deleteDBs();
+        processor.shutdown();
+    }
+
+    @Benchmark
+    public void processMetrics() throws Exception {
+        processor.processMetrics(
+                rootLocation.toString() + "/",
+                FIRST_WINDOW + (WINDOWS - 1) * INTERVAL + READER_LAG);
+    }
+
+    private void addOSEvents(List<Event> events, long windowStart) {
+        for (int t = 0; t < threads; t++) {
+            long updateTime = windowStart + 1000 + t % 3000;
+            String threadPool = t % 2 == 0 ? "write" : "search";
+            events.add(
+                    new Event(
+                            "threads/" + tid(t) + "/os_metrics",
+                            lines(
+                                    "current_time:" + updateTime,
+                                    "CPU_Utilization:" + (t % 10) / 10.0,
+                                    "Paging_MajfltRate:0.0",
+                                    "Paging_MinfltRate:" + t % 7,
+                                    "Paging_RSS:4466309.0",
+                                    "Sched_Runtime:" + (t % 5) / 100.0,
+                                    "Sched_Waittime:0.0",
+                                    "Sched_CtxRate:" + t % 11,
+                                    "Heap_AllocRate:" + t * 1024.0,
+                                    "threadName:opensearch[node][" + threadPool + "][T#" + t + "]",
+                                    "Thread_Blocked_Time:0.0",
+                                    "Thread_Blocked_Event:0",
+                                    "IO_ReadThroughput:0.0",
+                                    "IO_WriteThroughput:" + t * 10.0,
+                                    "IO_TotThroughput:" + t * 10.0,
+                                    "IO_ReadSyscallRate:0.0",
+                                    "IO_WriteSyscallRate:" + t % 3,
+                                    "IO_TotalSyscallRate:" + t % 3),
+                            updateTime));
+        }
+    }
+
+    private long addRequestEvents(List<Event> events, long windowStart, long rid) {
+        int requests = (int) (requestsPerSecond * INTERVAL / 1000);
+        for (int r = 0; r < requests; r++, rid++) {
+            long startTime = windowStart + r * INTERVAL / requests;
+            long finishTime = Math.min(startTime + 20, windowStart + INTERVAL - 1);
+            String operation = r % 2 == 0 ? "shardbulk" : "shardquery";
+            String prefix = "threads/" + tid(r % threads) + "/" + operation + "/" + rid + "/";
+            String shard = "ShardID:" + r % shards;
+            events.add(
+                    new Event(
+                            prefix + "start",
+                            lines(
+                                    "current_time:" + startTime,
+                                    "StartTime:" + startTime,
+                                    "ItemCount:" + (r % 2 == 0 ? 100 : 0),
+                                    "IndexName:index" + r % 4,
+                                    shard,
+                                    "Primary:" + (r % 3 != 0)),
+                            startTime));
+            events.add(
+                    new Event(
+                            prefix + "finish",
+                            lines(
+                                    "current_time:" + finishTime,
+                                    "FinishTime:" + finishTime,
+                                    "IndexName:index" + r % 4,
+                                    shard,
+                                    "Primary:" + (r % 3 != 0),
+                                    "Failed:false"),
+                            finishTime));
+        }
+        return rid;
+    }
+
+    private static int tid(int thread) {
+        return 10_000 + thread;
+    }
+
+    private static String lines(String... lines) {
+        return String.join("\n", lines);
+    }
+}
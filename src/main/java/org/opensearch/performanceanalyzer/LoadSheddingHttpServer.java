@@ -0,0 +1,130 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer;
+
+import com.sun.net.httpserver.Filter;
+import com.sun.net.httpserver.HttpContext;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.util.concurrent.Executor;
+import org.opensearch.performanceanalyzer.threads.BoundedLaneExecutor;
+
+/**
+ * An {@link HttpServer} that runs its handlers on a {@link BoundedLaneExecutor} and installs a
+ * {@link LoadSheddingFilter} on every context it creates, including the ones registered later by
+ * the RCA controller. The actual socket handling is delegated to the wrapped server.
+ */
+class LoadSheddingHttpServer extends HttpServer {
+    static final String RETRY_AFTER_HEADER = "Retry-After";
+    static final String RETRY_AFTER_SECONDS = "5";
+
+    private final HttpServer delegate;
+    private final BoundedLaneExecutor executor;
+    private final LoadSheddingFilter filter;
+
+    LoadSheddingHttpServer(HttpServer delegate, BoundedLaneExecutor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+        this.filter = new LoadSheddingFilter(executor);
+        delegate.setExecutor(executor);
+    }
+
+    @Override
+    public void bind(InetSocketAddress addr, int backlog) throws IOException {
+        delegate.bind(addr, backlog);
+    }
+
+    @Override
+    public void start() {
+        delegate.start();
+    }
+
+    /**
+     * Replaces the lane executor of the wrapped server. The filter keeps shedding on heap pressure
+     * but requests are no longer bounded by the lane queue.
+     */
+    @Override
+    public void setExecutor(Executor executor) {
+        delegate.setExecutor(executor);
+    }
+
+    @Override
+    public Executor getExecutor() {
+        return delegate.getExecutor();
+    }
+
+    @Override
+    public void stop(int delay) {
+        delegate.stop(delay);
+        executor.shutdown();
+    }
+
+    @Override
+    public HttpContext createContext(String path, HttpHandler handler) {
+        HttpContext context = delegate.createContext(path, handler);
+        context.getFilters().add(filter);
+        return context;
+    }
+
+    @Override
+    public HttpContext createContext(String path) {
+        HttpContext context = delegate.createContext(path);
+        context.getFilters().add(filter);
+        return context;
+    }
+
+    @Override
+    public void removeContext(String path) throws IllegalArgumentException {
+        delegate.removeContext(path);
+    }
+
+    @Override
+    public void removeContext(HttpContext context) {
+        delegate.removeContext(context);
+    }
+
+    @Override
+    public InetSocketAddress getAddress() {
+        return delegate.getAddress();
+    }
+
+    /**
+     * Answers with a 503 instead of running the handler when the request did not fit in the lane
+     * queue or when the heap is filling up, so that the PA process sheds load before it runs out of
+     * memory.
+     */
+    static class LoadSheddingFilter extends Filter {
+        private final BoundedLaneExecutor executor;
+
+        LoadSheddingFilter(BoundedLaneExecutor executor) {
+            this.executor = executor;
+        }
+
+        @Override
+        public void doFilter(HttpExchange exchange, Chain chain) throws IOException {
+            if (BoundedLaneExecutor.isShedding() || executor.isHeapAboveShedThreshold()) {
+                BoundedLaneExecutor.recordShed(executor.getLane());
+                try {
+                    exchange.getResponseHeaders().set(RETRY_AFTER_HEADER, RETRY_AFTER_SECONDS);
+                    exchange.sendResponseHeaders(HttpURLConnection.HTTP_UNAVAILABLE, -1);
+                } finally {
+                    exchange.close();
+                }
+                return;
+            }
+            chain.doFilter(exchange);
+        }
+
+        @Override
+        public String description() {
+            return "Sheds requests when the " + executor.getLane() + " lane is overloaded";
+        }
+    }
+}
@@ -26,8 +26,12 @@ import org.opensearch.performanceanalyzer.commons.stats.measurements.Measurement
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
 import org.opensearch.performanceanalyzer.config.TroubleshootingConfig;
 import org.opensearch.performanceanalyzer.core.Util;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgetManager;
+import org.opensearch.performanceanalyzer.memory.MemoryComponent;
 import org.opensearch.performanceanalyzer.metrics.MetricsRestUtil;
 import org.opensearch.performanceanalyzer.metrics.handler.MetricsServerHandler;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsQueryCache;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsRetentionStore;
 import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
 import org.opensearch.performanceanalyzer.net.NetClient;
 import org.opensearch.performanceanalyzer.net.NetServer;
@@ -95,6 +99,10 @@ public class PerformanceAnalyzerApp {
         PluginSettings settings = PluginSettings.instance();
         if (ConfigStatus.INSTANCE.haveValidConfig()) {
             AppContext appContext = new AppContext();
+            MemoryBudgetManager.getInstance()
+                    .register(MemoryComponent.METRICS_QUERY_CACHE, MetricsQueryCache.instance());
+            MemoryBudgetManager.getInstance()
+                    .register(MemoryComponent.METRICS_RETENTION, MetricsRetentionStore.instance());
             PERIODIC_SAMPLERS =
                     new PeriodicSamplers(
                             ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR,
@@ -249,6 +257,8 @@ public class PerformanceAnalyzerApp {
                                                     true,
                                                     appContext);
                                     ReaderMetricsProcessor.setCurrentInstance(mp);
+                                    MemoryBudgetManager.getInstance()
+                                            .register(MemoryComponent.READER_SNAPSHOTS, mp);
                                     mp.run();
                                 } catch (Throwable e) {
                                     retryAttemptLeft--;
@@ -370,6 +380,7 @@ public class PerformanceAnalyzerApp {
         allSamplers.add(RcaStateSamplers.getRcaEnabledSampler(appContext));
         allSamplers.add(new BatchMetricsEnabledSampler(appContext));
         allSamplers.add(new MetricsDBFileSampler(appContext));
+        allSamplers.add(MemoryBudgetManager.getInstance());
 
         return allSamplers;
     }
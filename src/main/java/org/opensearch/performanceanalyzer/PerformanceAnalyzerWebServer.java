@@ -14,7 +14,6 @@ import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.security.KeyStore;
 import java.security.Security;
-import java.util.concurrent.Executors;
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.KeyManagerFactory;
@@ -24,6 +23,8 @@ import javax.net.ssl.SSLParameters;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.opensearch.performanceanalyzer.threads.BoundedLaneExecutor;
+import org.opensearch.performanceanalyzer.threads.ServerLane;
 
 public class PerformanceAnalyzerWebServer {
 
@@ -45,8 +46,8 @@ public class PerformanceAnalyzerWebServer {
             } else {
                 server = createHttpServer(webServerPort, hostFromSetting);
             }
-            server.setExecutor(Executors.newCachedThreadPool());
-            return server;
+            return new LoadSheddingHttpServer(
+                    server, new BoundedLaneExecutor(ServerLane.HTTP_QUERY));
         } catch (java.net.BindException ex) {
             LOG.error("Could not create HttpServer on port {}", webServerPort, ex);
             Runtime.getRuntime().halt(1);
@@ -0,0 +1,238 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.decisionmaker.actions;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
+
+/**
+ * Delivers the actions published by the decision maker to the {@link ActionListener}s away from the
+ * RCA scheduler thread, so that a slow listener plugin can't stall the evaluation of the graph.
+ *
+ * <p>Each listener has its own bounded queue and receives its actions in order, one at a time, on a
+ * delivery pool shared by all listeners. When the queue of a listener is full, new actions for it
+ * are dropped; the other listeners are not affected. A call to a listener that takes longer than
+ * the timeout is interrupted.
+ *
+ * <p>The pool size, queue size and timeout can be set in performance-analyzer.properties with
+ * action-dispatch-threads, action-dispatch-queue-size and action-listener-timeout-millis.
+ */
+public class ActionDispatcher {
+    private static final Logger LOG = LogManager.getLogger(ActionDispatcher.class);
+
+    public static final String THREADS_CONF_NAME = "action-dispatch-threads";
+    public static final String QUEUE_SIZE_CONF_NAME = "action-dispatch-queue-size";
+    public static final String TIMEOUT_CONF_NAME = "action-listener-timeout-millis";
+
+    static final int DEFAULT_THREADS = 2;
+    static final int DEFAULT_QUEUE_SIZE = 64;
+    static final long DEFAULT_TIMEOUT_MILLIS = 10_000;
+
+    /**
+     * The pools are shared by the dispatchers of all the publishers, so that the graphs created by
+     * RCA restarts don't leave threads behind.
+     */
+    private static class SharedPools {
+        static final ExecutorService DELIVERY_POOL =
+                Executors.newFixedThreadPool(
+                        (int) readSetting(THREADS_CONF_NAME, DEFAULT_THREADS),
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("pa-action-dispatch-%d")
+                                .setDaemon(true)
+                                .build());
+        static final ScheduledExecutorService WATCHDOG =
+                Executors.newSingleThreadScheduledExecutor(
+                        new ThreadFactoryBuilder()
+                                .setNameFormat("pa-action-dispatch-watchdog")
+                                .setDaemon(true)
+                                .build());
+    }
+
+    private final ExecutorService deliveryPool;
+    private final ScheduledExecutorService watchdog;
+    private final int queueSize;
+    private final long timeoutMillis;
+    private final List<ListenerQueue> listenerQueues;
+
+    public ActionDispatcher() {
+        this(
+                SharedPools.DELIVERY_POOL,
+                SharedPools.WATCHDOG,
+                (int) readSetting(QUEUE_SIZE_CONF_NAME, DEFAULT_QUEUE_SIZE),
+                readSetting(TIMEOUT_CONF_NAME, DEFAULT_TIMEOUT_MILLIS));
+    }
+
+    @VisibleForTesting
+    ActionDispatcher(
+            ExecutorService deliveryPool,
+            ScheduledExecutorService watchdog,
+            int queueSize,
+            long timeoutMillis) {
+        this.deliveryPool = deliveryPool;
+        this.watchdog = watchdog;
+        this.queueSize = queueSize;
+        this.timeoutMillis = timeoutMillis;
+        this.listenerQueues = new CopyOnWriteArrayList<>();
+    }
+
+    private static long readSetting(String key, long defaultValue) {
+        String value = PluginSettings.instance().getSettingValue(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed > 0 && parsed <= Integer.MAX_VALUE) {
+                return parsed;
+            }
+            LOG.warn("Value {} of {} is out of range, using {}", value, key, defaultValue);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value {} for {}, using {}", value, key, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    public void register(ActionListener listener) {
+        listenerQueues.add(new ListenerQueue(listener));
+    }
+
+    /**
+     * Queues the action for every registered listener and returns without waiting for them.
+     *
+     * @param action The published action.
+     */
+    public void dispatch(Action action) {
+        for (ListenerQueue listenerQueue : listenerQueues) {
+            listenerQueue.offer(action);
+        }
+    }
+
+    /**
+     * @return true if no listener has an action queued or being delivered.
+     */
+    @VisibleForTesting
+    boolean isIdle() {
+        return listenerQueues.stream().allMatch(ListenerQueue::isIdle);
+    }
+
+    private class ListenerQueue implements Runnable {
+        private final ActionListener listener;
+        private final String name;
+        private final BlockingQueue<Action> queue;
+
+        /** Set while a delivery task for this listener is queued or running on the pool. */
+        private final AtomicBoolean scheduled;
+
+        ListenerQueue(ActionListener listener) {
+            this.listener = listener;
+            this.name = listener.getClass().getSimpleName();
+            this.queue = new ArrayBlockingQueue<>(queueSize);
+            this.scheduled = new AtomicBoolean(false);
+        }
+
+        void offer(Action action) {
+            if (!queue.offer(action)) {
+                LOG.warn("Dropping action {} as the queue of listener {} is full", action, name);
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.ACTION_LISTENER_DROPPED, name, 1);
+            }
+            schedule();
+        }
+
+        boolean isIdle() {
+            return queue.isEmpty() && !scheduled.get();
+        }
+
+        /** Makes sure a single delivery task drains the queue, so the actions stay in order. */
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    deliveryPool.execute(this);
+                } catch (RejectedExecutionException e) {
+                    scheduled.set(false);
+                    LOG.error("Unable to schedule the delivery of actions to {}", name, e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Action action;
+                while ((action = queue.poll()) != null) {
+                    deliver(action);
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // An action may have been queued after the last poll but before the flag was cleared.
+            if (!queue.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void deliver(Action action) {
+            final Thread deliveryThread = Thread.currentThread();
+            final AtomicBoolean done = new AtomicBoolean(false);
+            ScheduledFuture<?> timeout =
+                    watchdog.schedule(
+                            () -> {
+                                synchronized (done) {
+                                    if (!done.get()) {
+                                        LOG.warn(
+                                                "Listener {} did not handle action {} within {}ms",
+                                                name,
+                                                action,
+                                                timeoutMillis);
+                                        ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                                                RcaRuntimeMetrics.ACTION_LISTENER_TIMED_OUT,
+                                                name,
+                                                1);
+                                        deliveryThread.interrupt();
+                                    }
+                                }
+                            },
+                            timeoutMillis,
+                            TimeUnit.MILLISECONDS);
+
+            long startTime = System.currentTimeMillis();
+            try {
+                listener.actionPublished(action);
+            } catch (Exception e) {
+                LOG.error("Listener {} failed to handle action {}", name, action, e);
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.ACTION_LISTENER_FAILED, name, 1);
+            } finally {
+                synchronized (done) {
+                    done.set(true);
+                }
+                timeout.cancel(false);
+                // Don't let the interrupt of a timed out call leak into the next delivery.
+                Thread.interrupted();
+            }
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.ACTION_LISTENER_DELIVERY_TIME,
+                    name,
+                    System.currentTimeMillis() - startTime);
+        }
+    }
+}
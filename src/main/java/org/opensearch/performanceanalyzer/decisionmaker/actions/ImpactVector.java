@@ -6,10 +6,17 @@
 package org.opensearch.performanceanalyzer.decisionmaker.actions;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Objects;
 
+/**
+ * The pressure heading of an action for each {@link Dimension}.
+ *
+ * <p>The impacts are packed into a single int, two bits per dimension: the bit of the dimension's
+ * ordinal is set if the action increases pressure on it and the same bit in the upper half is set
+ * if it decreases pressure. A dimension with neither bit set is not impacted. This keeps the
+ * vectors small and lets the flip flop checks compare all the dimensions at once.
+ */
 public class ImpactVector {
 
     public enum Dimension {
@@ -27,33 +34,95 @@ public class ImpactVector {
         DECREASES_PRESSURE
     }
 
-    private Map<Dimension, Impact> impactMap = new HashMap<>();
+    private static final int DECREASES_SHIFT = 16;
+    private static final int DIMENSION_MASK = (1 << Dimension.values().length) - 1;
 
-    public ImpactVector() {
-        for (Dimension d : Dimension.values()) {
-            impactMap.put(d, Impact.NO_IMPACT);
+    static {
+        if (Dimension.values().length > DECREASES_SHIFT) {
+            throw new IllegalStateException("Too many dimensions to pack into an ImpactVector");
         }
     }
 
+    private int impacts = 0;
+
+    public ImpactVector() {}
+
     public Map<Dimension, Impact> getImpact() {
+        Map<Dimension, Impact> impactMap = new EnumMap<>(Dimension.class);
+        for (Dimension d : Dimension.values()) {
+            impactMap.put(d, getImpact(d));
+        }
         return Collections.unmodifiableMap(impactMap);
     }
 
+    public Impact getImpact(Dimension dimension) {
+        int bit = 1 << dimension.ordinal();
+        if ((increasesPressureMask() & bit) != 0) {
+            return Impact.INCREASES_PRESSURE;
+        }
+        if ((decreasesPressureMask() & bit) != 0) {
+            return Impact.DECREASES_PRESSURE;
+        }
+        return Impact.NO_IMPACT;
+    }
+
+    /**
+     * @return A mask with the bit of each dimension's ordinal set if this vector increases pressure
+     *     on it.
+     */
+    public int increasesPressureMask() {
+        return impacts & DIMENSION_MASK;
+    }
+
+    /**
+     * @return A mask with the bit of each dimension's ordinal set if this vector decreases pressure
+     *     on it.
+     */
+    public int decreasesPressureMask() {
+        return (impacts >>> DECREASES_SHIFT) & DIMENSION_MASK;
+    }
+
+    /**
+     * @param impact The impact to look for.
+     * @return The number of dimensions with the given impact.
+     */
+    public int countDimensions(Impact impact) {
+        switch (impact) {
+            case INCREASES_PRESSURE:
+                return Integer.bitCount(increasesPressureMask());
+            case DECREASES_PRESSURE:
+                return Integer.bitCount(decreasesPressureMask());
+            default:
+                return Dimension.values().length
+                        - Integer.bitCount(increasesPressureMask() | decreasesPressureMask());
+        }
+    }
+
     public void increasesPressure(Dimension... dimensions) {
         for (Dimension dimension : dimensions) {
-            impactMap.put(dimension, Impact.INCREASES_PRESSURE);
+            setImpact(dimension, Impact.INCREASES_PRESSURE);
         }
     }
 
     public void decreasesPressure(Dimension... dimensions) {
         for (Dimension dimension : dimensions) {
-            impactMap.put(dimension, Impact.DECREASES_PRESSURE);
+            setImpact(dimension, Impact.DECREASES_PRESSURE);
         }
     }
 
     public void noImpact(Dimension... dimensions) {
         for (Dimension dimension : dimensions) {
-            impactMap.put(dimension, Impact.NO_IMPACT);
+            setImpact(dimension, Impact.NO_IMPACT);
+        }
+    }
+
+    private void setImpact(Dimension dimension, Impact impact) {
+        int bit = 1 << dimension.ordinal();
+        impacts &= ~(bit | (bit << DECREASES_SHIFT));
+        if (impact == Impact.INCREASES_PRESSURE) {
+            impacts |= bit;
+        } else if (impact == Impact.DECREASES_PRESSURE) {
+            impacts |= bit << DECREASES_SHIFT;
         }
     }
 
@@ -73,11 +142,11 @@ public class ImpactVector {
             return false;
         }
         ImpactVector that = (ImpactVector) o;
-        return Objects.equals(impactMap, that.impactMap);
+        return impacts == that.impacts;
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(impactMap);
+        return Integer.hashCode(impacts);
     }
 }
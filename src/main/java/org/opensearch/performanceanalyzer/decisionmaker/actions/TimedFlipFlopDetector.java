@@ -5,11 +5,12 @@
 
 package org.opensearch.performanceanalyzer.decisionmaker.actions;
 
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Clock;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
-import org.opensearch.performanceanalyzer.collections.TimeExpiringSet;
-import org.opensearch.performanceanalyzer.decisionmaker.actions.ImpactVector.Dimension;
 import org.opensearch.performanceanalyzer.decisionmaker.actions.ImpactVector.Impact;
 import org.opensearch.performanceanalyzer.rca.store.rca.cluster.NodeKey;
 
@@ -19,32 +20,38 @@ import org.opensearch.performanceanalyzer.rca.store.rca.cluster.NodeKey;
  * <p>This class defines a flip flop as an {@link Impact#DECREASES_PRESSURE}s followed by an {@link
  * Impact#INCREASES_PRESSURE}s to be a flip flops.
  *
- * <p>This class stores a {@link TimeExpiringSet} of {@link ImpactVector}s per {@link NodeKey} that
- * are used to determine these flip flops.
+ * <p>As only the decreases of the recorded actions can make a later action a flip flop, this class
+ * keeps, per {@link NodeKey}, a ring of time buckets holding the bitwise OR of the {@link
+ * ImpactVector#decreasesPressureMask()}s recorded during that bucket. An action is tested with a
+ * single AND of its increases against the OR of the live buckets, instead of comparing it with
+ * every recorded vector.
+ *
+ * <p>The expiry is tracked with the granularity of a bucket, 1/{@link #BUCKETS_PER_EXPIRY} of the
+ * expiry duration. A recorded action may therefore be remembered up to one bucket longer than the
+ * expiry duration, but never shorter, which errs on the side of stability.
  */
 public class TimedFlipFlopDetector implements FlipFlopDetector {
-    private Map<NodeKey, TimeExpiringSet<ImpactVector>> flipFlopMap;
-    private long expiryDuration;
-    private TimeUnit expiryUnit;
+    @VisibleForTesting static final int BUCKETS_PER_EXPIRY = 62;
+
+    // Two extra slots for the partially expired oldest bucket and the current one.
+    private static final int RING_SIZE = BUCKETS_PER_EXPIRY + 2;
+
+    private final Map<NodeKey, DecreaseRing> flipFlopMap;
+    private final long expiryMillis;
+    private final long bucketMillis;
+    private final Clock clock;
 
     public TimedFlipFlopDetector(long duration, TimeUnit unit) {
-        flipFlopMap = new HashMap<>();
-        this.expiryDuration = duration;
-        this.expiryUnit = unit;
+        this(duration, unit, Clock.systemUTC());
     }
 
-    /**
-     * Tests if (prev, curr) is a flip flopping sequence of impacts.
-     *
-     * <p>Only an increase following a decrease is considered a flip flop. Therefore, if prev
-     * decreases pressure and curr increases pressure, then (prev, curr) is a flip flop.
-     *
-     * @param prev The {@link Impact} that curr is compared against
-     * @param curr The {@link Impact} that you'd like to test and apply
-     * @return Whether or not (prev, curr) is a flip flopping sequence of impacts
-     */
-    protected boolean isFlipFlopImpact(Impact prev, Impact curr) {
-        return prev.equals(Impact.DECREASES_PRESSURE) && curr.equals(Impact.INCREASES_PRESSURE);
+    @VisibleForTesting
+    TimedFlipFlopDetector(long duration, TimeUnit unit, Clock clock) {
+        this.flipFlopMap = new HashMap<>();
+        this.expiryMillis = unit.toMillis(duration);
+        this.bucketMillis =
+                Math.max(1L, (expiryMillis + BUCKETS_PER_EXPIRY - 1) / BUCKETS_PER_EXPIRY);
+        this.clock = clock;
     }
 
     /**
@@ -56,23 +63,28 @@ public class TimedFlipFlopDetector implements FlipFlopDetector {
      * flip flop impact. Note that (HEAP: DECREASE) followed by (CPU: INCREASE) is not a flip flop
      * because HEAP =/= CPU.
      *
-     * @param prev The first {@link ImpactVector}. Its Impacts appear on the LHS of calls to {@link
-     *     this#isFlipFlopImpact(Impact, Impact)}
-     * @param curr The second {@link ImpactVector}. Its Impacts appear on the RHS of calls to {@link
-     *     this#isFlipFlopImpact(Impact, Impact)}.
+     * <p>Only an increase following a decrease is considered a flip flop. The dimensions are
+     * compared all at once, as the AND of the decreases of prev with the increases of curr.
+     *
+     * @param prev The first {@link ImpactVector}, whose decreases curr is compared against
+     * @param curr The second {@link ImpactVector}, whose increases you'd like to test and apply
      * @return true if the impact for any given Dimension in curr is a flip flop Impact when
      *     compared to the impact for a given dimension in prev
      */
     protected boolean isFlipFlopVector(ImpactVector prev, ImpactVector curr) {
-        Map<Dimension, Impact> currentImpact = curr.getImpact();
-        for (Map.Entry<Dimension, Impact> impactEntry : prev.getImpact().entrySet()) {
-            Dimension dim = impactEntry.getKey();
-            Impact vImpact = currentImpact.get(dim);
-            if (isFlipFlopImpact(impactEntry.getValue(), vImpact)) {
-                return true;
-            }
-        }
-        return false;
+        return isFlipFlopMask(prev.decreasesPressureMask(), curr);
+    }
+
+    /**
+     * The bitwise form of {@link this#isFlipFlopVector(ImpactVector, ImpactVector)}.
+     *
+     * @param decreases The decreases of one or more previous vectors, as returned by {@link
+     *     ImpactVector#decreasesPressureMask()}
+     * @param curr The {@link ImpactVector} that you'd like to test and apply
+     * @return true if curr increases pressure on any dimension in decreases
+     */
+    private boolean isFlipFlopMask(int decreases, ImpactVector curr) {
+        return (decreases & curr.increasesPressureMask()) != 0;
     }
 
     /**
@@ -83,16 +95,11 @@ public class TimedFlipFlopDetector implements FlipFlopDetector {
      */
     @Override
     public void recordAction(Action action) {
+        long bucket = clock.millis() / bucketMillis;
         for (Map.Entry<NodeKey, ImpactVector> entry : action.impact().entrySet()) {
-            flipFlopMap.compute(
-                    entry.getKey(),
-                    (k, v) -> {
-                        if (v == null) {
-                            v = new TimeExpiringSet<>(expiryDuration, expiryUnit);
-                        }
-                        v.add(entry.getValue());
-                        return v;
-                    });
+            flipFlopMap
+                    .computeIfAbsent(entry.getKey(), k -> new DecreaseRing())
+                    .record(bucket, entry.getValue().decreasesPressureMask());
         }
     }
 
@@ -105,21 +112,53 @@ public class TimedFlipFlopDetector implements FlipFlopDetector {
      */
     @Override
     public boolean isFlipFlop(Action action) {
+        long now = clock.millis();
         for (Map.Entry<NodeKey, ImpactVector> entry : action.impact().entrySet()) {
-            TimeExpiringSet<ImpactVector> previousImpacts = flipFlopMap.get(entry.getKey());
-            if (previousImpacts == null) {
+            DecreaseRing previousDecreases = flipFlopMap.get(entry.getKey());
+            if (previousDecreases == null) {
                 continue;
             }
-            // Weakly-consistent iteration over the previousImpacts
-            // If one of these impacts expires during our iteration we may incorrectly determine
-            // action to be a flip flop until the subsequent call of this function. This is OK for
-            // our use case since we're always erring on the side of stability
-            for (ImpactVector impactVector : previousImpacts) {
-                if (isFlipFlopVector(impactVector, entry.getValue())) {
-                    return true;
-                }
+            int decreases = previousDecreases.liveDecreases(now);
+            if (decreases == 0) {
+                flipFlopMap.remove(entry.getKey());
+            } else if (isFlipFlopMask(decreases, entry.getValue())) {
+                return true;
             }
         }
         return false;
     }
+
+    /** The decreases recorded for a node, in time buckets indexed by bucket number mod size. */
+    private class DecreaseRing {
+        private final long[] bucketNumbers = new long[RING_SIZE];
+        private final int[] decreases = new int[RING_SIZE];
+
+        DecreaseRing() {
+            Arrays.fill(bucketNumbers, -1L);
+        }
+
+        void record(long bucket, int decreaseMask) {
+            int slot = (int) (bucket % RING_SIZE);
+            if (bucketNumbers[slot] != bucket) {
+                bucketNumbers[slot] = bucket;
+                decreases[slot] = 0;
+            }
+            decreases[slot] |= decreaseMask;
+        }
+
+        /**
+         * @return The OR of the decreases recorded in the buckets that ended less than the expiry
+         *     duration before now.
+         */
+        int liveDecreases(long now) {
+            int live = 0;
+            for (int slot = 0; slot < RING_SIZE; slot++) {
+                long bucket = bucketNumbers[slot];
+                if (bucket >= 0 && (bucket + 1) * bucketMillis + expiryMillis > now) {
+                    live |= decreases[slot];
+                }
+            }
+            return live;
+        }
+    }
 }
@@ -14,6 +14,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.decisionmaker.actions.Action;
+import org.opensearch.performanceanalyzer.decisionmaker.actions.ActionDispatcher;
 import org.opensearch.performanceanalyzer.decisionmaker.actions.ActionListener;
 import org.opensearch.performanceanalyzer.decisionmaker.actions.FlipFlopDetector;
 import org.opensearch.performanceanalyzer.decisionmaker.actions.TimedFlipFlopDetector;
@@ -31,12 +32,12 @@ public class Publisher extends NonLeafNode<EmptyFlowUnit> {
     private Collator collator;
     private FlipFlopDetector flipFlopDetector;
     private boolean isMuted = false;
-    private List<ActionListener> actionListeners;
+    private final ActionDispatcher actionDispatcher;
 
     public Publisher(int evalIntervalSeconds, Collator collator) {
         super(0, evalIntervalSeconds);
         this.collator = collator;
-        this.actionListeners = new ArrayList<>();
+        this.actionDispatcher = new ActionDispatcher();
         // TODO please bring in guice so we can configure this with DI
         this.flipFlopDetector = new TimedFlipFlopDetector(1, TimeUnit.HOURS);
     }
@@ -55,9 +56,7 @@ public class Publisher extends NonLeafNode<EmptyFlowUnit> {
             for (Action action : decision.getActions()) {
                 if (!flipFlopDetector.isFlipFlop(action)) {
                     flipFlopDetector.recordAction(action);
-                    for (ActionListener listener : actionListeners) {
-                        listener.actionPublished(action);
-                    }
+                    actionDispatcher.dispatch(action);
                     actionsPublished.add(action);
                 }
             }
@@ -88,10 +87,12 @@ public class Publisher extends NonLeafNode<EmptyFlowUnit> {
     /**
      * Register an action listener with Publisher
      *
-     * <p>The listener is notified whenever an action is published
+     * <p>The listener is notified whenever an action is published. The notification is delivered
+     * asynchronously by the {@link ActionDispatcher}, so the listener must not assume it runs on
+     * the RCA scheduler thread.
      */
     public void addActionListener(ActionListener listener) {
-        actionListeners.add(listener);
+        actionDispatcher.register(listener);
     }
 
     /** Publisher does not have downstream nodes and does not emit flow units */
@@ -183,11 +183,7 @@ public class Collator extends Decider {
         private int getImpactedDimensionCount(final Action action, Impact requiredImpact) {
             int count = 0;
             for (ImpactVector impactVector : action.impact().values()) {
-                for (Impact impact : impactVector.getImpact().values()) {
-                    if (impact.equals(requiredImpact)) {
-                        count++;
-                    }
-                }
+                count += impactVector.countDimensions(requiredImpact);
             }
             return count;
         }
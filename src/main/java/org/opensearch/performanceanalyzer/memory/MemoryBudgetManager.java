@@ -0,0 +1,128 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.memory;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.commons.stats.collectors.SampleAggregator;
+import org.opensearch.performanceanalyzer.commons.stats.emitters.ISampler;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
+
+/**
+ * Accounts for the memory held by the components of the PA process and keeps each of them within
+ * its budget, so that a component that grows with the size of the cluster degrades gracefully
+ * instead of taking the 64MB JVM down with an OutOfMemoryError.
+ *
+ * <p>The manager runs with the periodic samplers: each run it reports the estimated footprint of
+ * every registered component and asks those over budget to shrink. When the heap is above {@link
+ * #HEAP_PRESSURE_THRESHOLD} of its max, the budgets of the components on the heap are halved so
+ * that they give memory back before the JVM runs out of it.
+ */
+public class MemoryBudgetManager implements ISampler {
+    private static final Logger LOG = LogManager.getLogger(MemoryBudgetManager.class);
+
+    /** The fraction of the max heap above which the budgets of the on-heap components shrink. */
+    public static final double HEAP_PRESSURE_THRESHOLD = 0.8;
+
+    private static volatile MemoryBudgetManager instance = null;
+
+    private final MemoryMXBean memoryMXBean;
+    private final Map<MemoryComponent, MemoryBudgeted> components;
+
+    @VisibleForTesting
+    MemoryBudgetManager(MemoryMXBean memoryMXBean) {
+        this.memoryMXBean = memoryMXBean;
+        this.components = new ConcurrentHashMap<>();
+    }
+
+    public static MemoryBudgetManager getInstance() {
+        if (instance == null) {
+            synchronized (MemoryBudgetManager.class) {
+                if (instance == null) {
+                    instance = new MemoryBudgetManager(ManagementFactory.getMemoryMXBean());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Starts accounting for a component. A component registered again, e.g. by a restarted reader,
+     * replaces the previous one.
+     *
+     * @param component The component.
+     * @param budgeted What holds the memory of the component.
+     */
+    public void register(MemoryComponent component, MemoryBudgeted budgeted) {
+        components.put(component, budgeted);
+    }
+
+    /**
+     * Stops accounting for a component, if it was not replaced by another one since.
+     *
+     * @param component The component.
+     * @param budgeted What was registered for the component.
+     */
+    public void unregister(MemoryComponent component, MemoryBudgeted budgeted) {
+        components.remove(component, budgeted);
+    }
+
+    @Override
+    public void sample(SampleAggregator sampleCollector) {
+        boolean heapUnderPressure = isHeapUnderPressure();
+        for (Map.Entry<MemoryComponent, MemoryBudgeted> entry : components.entrySet()) {
+            MemoryComponent component = entry.getKey();
+            MemoryBudgeted budgeted = entry.getValue();
+            try {
+                long used = budgeted.estimateRetainedBytes();
+                sampleCollector.updateStat(component.getUsageMetric(), used);
+
+                long budget = getBudgetBytes(component, heapUnderPressure);
+                if (used > budget) {
+                    LOG.warn(
+                            "{} holds an estimated {} bytes, over its budget of {} bytes",
+                            component,
+                            used,
+                            budget);
+                    ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                            RcaRuntimeMetrics.MEMORY_BUDGET_EXCEEDED, component.toString(), 1);
+                    budgeted.shrinkTo(budget);
+                }
+            } catch (Exception e) {
+                LOG.error("Unable to enforce the memory budget of {}", component, e);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    long getBudgetBytes(MemoryComponent component, boolean heapUnderPressure) {
+        long budget = component.getBudgetBytes();
+        if (heapUnderPressure && component.isOnHeap()) {
+            return budget / 2;
+        }
+        return budget;
+    }
+
+    private boolean isHeapUnderPressure() {
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        if (heap.getMax() <= 0) {
+            return false;
+        }
+        return (double) heap.getUsed() / heap.getMax() >= HEAP_PRESSURE_THRESHOLD;
+    }
+
+    @VisibleForTesting
+    void clear() {
+        components.clear();
+    }
+}
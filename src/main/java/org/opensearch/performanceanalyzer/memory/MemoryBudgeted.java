@@ -0,0 +1,24 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.memory;
+
+/** A component whose footprint is accounted for and bounded by the {@link MemoryBudgetManager}. */
+public interface MemoryBudgeted {
+    /**
+     * @return An estimate of the bytes the component holds on to. It is called from the sampler
+     *     thread, so it should be cheap and must not block on the work of the component.
+     */
+    long estimateRetainedBytes();
+
+    /**
+     * Called when the estimate went over the budget of the component. The component should give up
+     * what it can lose or rebuild, e.g. by keeping less history or dropping the least valuable
+     * entries, till it is back within the budget.
+     *
+     * @param budgetBytes The number of bytes the component may hold on to.
+     */
+    void shrinkTo(long budgetBytes);
+}
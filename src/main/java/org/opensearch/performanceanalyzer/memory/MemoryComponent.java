@@ -0,0 +1,87 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.memory;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.JvmMetrics;
+
+/**
+ * The components of the PA process that hold on to a sizeable and variable amount of memory, each
+ * with its own budget enforced by the {@link MemoryBudgetManager}. The budget of each component can
+ * be overridden in performance-analyzer.properties with the key {@code <component>-budget-mb}.
+ */
+public enum MemoryComponent {
+    /**
+     * The snapshots of the writer windows the reader keeps in its in-memory SQLite database. They
+     * live outside of the heap.
+     */
+    READER_SNAPSHOTS("reader-snapshots", 16, false, JvmMetrics.READER_SNAPSHOTS_MEM),
+
+    /** The flow units received from the other nodes and not yet consumed by the RCA graph. */
+    RECEIVED_FLOW_UNITS("received-flow-units", 8, true, JvmMetrics.RECEIVED_FLOW_UNITS_MEM),
+
+    /** The rendered responses of the metrics API for the latest window. */
+    METRICS_QUERY_CACHE("metrics-query-cache", 4, true, JvmMetrics.METRICS_QUERY_CACHE_MEM),
+
+    /** The recent history of the MetricsDB tables, for the time range queries of the API. */
+    METRICS_RETENTION("metrics-retention", 16, true, JvmMetrics.METRICS_RETENTION_MEM);
+
+    private static final Logger LOG = LogManager.getLogger(MemoryComponent.class);
+
+    private final String componentName;
+    private final long defaultBudgetMb;
+    private final boolean onHeap;
+    private final JvmMetrics usageMetric;
+
+    MemoryComponent(
+            String componentName, long defaultBudgetMb, boolean onHeap, JvmMetrics usageMetric) {
+        this.componentName = componentName;
+        this.defaultBudgetMb = defaultBudgetMb;
+        this.onHeap = onHeap;
+        this.usageMetric = usageMetric;
+    }
+
+    /**
+     * @return The number of bytes the component may hold on to.
+     */
+    public long getBudgetBytes() {
+        String key = componentName + "-budget-mb";
+        String value = PluginSettings.instance().getSettingValue(key, null);
+        long budgetMb = defaultBudgetMb;
+        if (value != null) {
+            try {
+                long parsed = Long.parseLong(value.trim());
+                if (parsed > 0) {
+                    budgetMb = parsed;
+                } else {
+                    LOG.warn("Value {} of {} should be positive", value, key);
+                }
+            } catch (NumberFormatException e) {
+                LOG.warn("Invalid value {} for {}, using {}", value, key, defaultBudgetMb);
+            }
+        }
+        return budgetMb * 1024 * 1024;
+    }
+
+    /**
+     * @return true if the component holds on to heap memory, so that its budget shrinks when the
+     *     heap fills up.
+     */
+    public boolean isOnHeap() {
+        return onHeap;
+    }
+
+    public JvmMetrics getUsageMetric() {
+        return usageMetric;
+    }
+
+    @Override
+    public String toString() {
+        return componentName;
+    }
+}
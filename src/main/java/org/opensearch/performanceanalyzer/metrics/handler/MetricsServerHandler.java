@@ -5,16 +5,18 @@
 
 package org.opensearch.performanceanalyzer.metrics.handler;
 
+import io.grpc.Status;
 import io.grpc.stub.StreamObserver;
 import java.util.List;
 import java.util.Map;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
-import org.jooq.Record;
-import org.jooq.Result;
 import org.opensearch.performanceanalyzer.grpc.MetricsRequest;
 import org.opensearch.performanceanalyzer.grpc.MetricsResponse;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsQueryCache;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsRetentionStore;
+import org.opensearch.performanceanalyzer.reader.MetricsDemandRegistry;
 import org.opensearch.performanceanalyzer.reader.ReaderMetricsProcessor;
 
 public class MetricsServerHandler {
@@ -35,9 +37,45 @@ public class MetricsServerHandler {
             List<String> aggList = request.getAggListList();
             List<String> dimList = request.getDimListList();
 
+            if (request.getEndTime() != 0) {
+                MetricsRetentionStore store = MetricsRetentionStore.instance();
+                MetricsRetentionStore.TimeRange range;
+                try {
+                    range =
+                            store.checkRange(
+                                    metricList,
+                                    aggList,
+                                    request.getStartTime(),
+                                    request.getEndTime(),
+                                    request.getStep(),
+                                    System.currentTimeMillis());
+                } catch (IllegalArgumentException e) {
+                    responseObserver.onError(
+                            Status.INVALID_ARGUMENT
+                                    .withDescription(e.getMessage())
+                                    .asRuntimeException());
+                    return;
+                }
+                MetricsDemandRegistry.getInstance().recordQueryDemand(metricList);
+                sendResponse(
+                        store.getResponse(
+                                metricList,
+                                aggList,
+                                dimList,
+                                range.getStartTime(),
+                                range.getEndTime(),
+                                range.getStepMillis()),
+                        responseObserver);
+                return;
+            }
             collectStats(db, dbTimestamp, metricList, aggList, dimList, responseObserver);
         } catch (Exception e) {
             LOG.error("Exception during collecting API data", e);
+            responseObserver.onError(
+                    Status.INTERNAL
+                            .withDescription(e.getMessage())
+                            .withCause(e)
+                            .asRuntimeException());
         }
     }
 
@@ -49,20 +87,10 @@ public class MetricsServerHandler {
             List<String> dimList,
             StreamObserver<MetricsResponse> responseObserver)
             throws Exception {
-        String localResponse;
-        if (db != null) {
-            Result<Record> metricResult = db.queryMetric(metricList, aggList, dimList);
-            if (metricResult == null) {
-                localResponse = "{}";
-            } else {
-                localResponse = metricResult.formatJSON();
-            }
-        } else {
-            // Empty JSON.
-            localResponse = "{}";
-        }
+        MetricsDemandRegistry.getInstance().recordQueryDemand(metricList);
         String localResponseWithTimestamp =
-                String.format("{\"timestamp\": %d, \"data\": %s}", dbTimestamp, localResponse);
+                MetricsQueryCache.instance()
+                        .getResponse(db, dbTimestamp, metricList, aggList, dimList);
         sendResponse(localResponseWithTimestamp, responseObserver);
     }
 
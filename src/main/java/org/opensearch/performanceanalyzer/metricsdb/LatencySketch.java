@@ -0,0 +1,245 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A mergeable quantile sketch of latencies, in the style of DDSketch: the values are counted in
+ * logarithmic buckets whose bounds grow by a factor of {@code (1 + accuracy) / (1 - accuracy)}, so
+ * every quantile it returns is within {@code accuracy} of the exact quantile, relatively. Two
+ * sketches of the same accuracy merge by adding their bucket counts, which is what lets the
+ * sketches of a shard operation be combined across windows and nodes.
+ *
+ * <p>The sketch is stored in MetricsDB in its serialized form, see {@link #serialize()}. It is not
+ * thread safe.
+ */
+public class LatencySketch {
+    public static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+
+    /** The most buckets a sketch keeps, the lowest buckets are collapsed beyond it. */
+    static final int MAX_BUCKETS = 2048;
+
+    private static final String FORMAT_VERSION = "v1";
+    private static final String FIELD_SEPARATOR = "|";
+    private static final String BUCKET_SEPARATOR = ",";
+    private static final String COUNT_SEPARATOR = ":";
+
+    private final double relativeAccuracy;
+    private final double logGamma;
+
+    /** Map of bucket index to the number of values in the bucket. */
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+
+    /** The number of values that are zero or negative, which have no logarithmic bucket. */
+    private long zeroCount;
+
+    private long count;
+    private double sum;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public LatencySketch() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    public LatencySketch(double relativeAccuracy) {
+        if (relativeAccuracy <= 0 || relativeAccuracy >= 1) {
+            throw new IllegalArgumentException(
+                    "Relative accuracy should be in (0, 1): " + relativeAccuracy);
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.logGamma = Math.log((1 + relativeAccuracy) / (1 - relativeAccuracy));
+    }
+
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        if (value <= 0) {
+            zeroCount++;
+        } else {
+            buckets.merge(indexOf(value), 1L, Long::sum);
+            collapseIfNeeded();
+        }
+        count++;
+        sum += value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /**
+     * Adds the values of another sketch to this one.
+     *
+     * @param other A sketch of the same relative accuracy.
+     */
+    public void merge(LatencySketch other) {
+        if (Double.compare(relativeAccuracy, other.relativeAccuracy) != 0) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Cannot merge sketches of accuracy %s and %s",
+                            relativeAccuracy, other.relativeAccuracy));
+        }
+        if (other.count == 0) {
+            return;
+        }
+        for (Map.Entry<Integer, Long> bucket : other.buckets.entrySet()) {
+            buckets.merge(bucket.getKey(), bucket.getValue(), Long::sum);
+        }
+        collapseIfNeeded();
+        zeroCount += other.zeroCount;
+        count += other.count;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /**
+     * @param quantile The quantile, between 0 and 1.
+     * @return The estimated value at the quantile, or NaN if the sketch is empty.
+     */
+    public double getQuantile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException("Quantile should be in [0, 1]: " + quantile);
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        final double rank = quantile * (count - 1);
+        long seen = zeroCount;
+        if (seen > rank) {
+            return Math.max(min, Math.min(0, max));
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                // The exact extremes are kept, the estimate never falls outside of them.
+                return Math.max(min, Math.min(max, valueOf(bucket.getKey())));
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public double getMin() {
+        return count == 0 ? Double.NaN : min;
+    }
+
+    public double getMax() {
+        return count == 0 ? Double.NaN : max;
+    }
+
+    public double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * @return The sketch as a compact string: the format version, the accuracy, the zero count, the
+     *     count, sum, min and max, and the non empty buckets as index:count pairs.
+     */
+    public String serialize() {
+        StringBuilder builder =
+                new StringBuilder(FORMAT_VERSION)
+                        .append(FIELD_SEPARATOR)
+                        .append(relativeAccuracy)
+                        .append(FIELD_SEPARATOR)
+                        .append(zeroCount)
+                        .append(FIELD_SEPARATOR)
+                        .append(count)
+                        .append(FIELD_SEPARATOR)
+                        .append(sum)
+                        .append(FIELD_SEPARATOR)
+                        .append(getMin())
+                        .append(FIELD_SEPARATOR)
+                        .append(getMax())
+                        .append(FIELD_SEPARATOR);
+        Iterator<Map.Entry<Integer, Long>> iterator = buckets.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Long> bucket = iterator.next();
+            builder.append(bucket.getKey()).append(COUNT_SEPARATOR).append(bucket.getValue());
+            if (iterator.hasNext()) {
+                builder.append(BUCKET_SEPARATOR);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @param serialized A sketch serialized by {@link #serialize()}.
+     * @return The sketch.
+     * @throws IllegalArgumentException if the string is not a serialized sketch.
+     */
+    public static LatencySketch deserialize(String serialized) {
+        String[] fields = serialized.split("\\" + FIELD_SEPARATOR, -1);
+        if (fields.length != 8 || !FORMAT_VERSION.equals(fields[0])) {
+            throw new IllegalArgumentException("Not a serialized latency sketch: " + serialized);
+        }
+        try {
+            LatencySketch sketch = new LatencySketch(Double.parseDouble(fields[1]));
+            sketch.zeroCount = Long.parseLong(fields[2]);
+            sketch.count = Long.parseLong(fields[3]);
+            sketch.sum = Double.parseDouble(fields[4]);
+            if (sketch.count > 0) {
+                sketch.min = Double.parseDouble(fields[5]);
+                sketch.max = Double.parseDouble(fields[6]);
+            }
+            if (!fields[7].isEmpty()) {
+                for (String bucket : fields[7].split(BUCKET_SEPARATOR)) {
+                    int separator = bucket.indexOf(COUNT_SEPARATOR);
+                    sketch.buckets.put(
+                            Integer.parseInt(bucket.substring(0, separator)),
+                            Long.parseLong(bucket.substring(separator + 1)));
+                }
+            }
+            return sketch;
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Not a serialized latency sketch: " + serialized, e);
+        }
+    }
+
+    /**
+     * @param serializedSketches Sketches serialized by {@link #serialize()}, for instance the
+     *     sketches of a shard operation read from several windows or received from several nodes.
+     * @return The merge of the sketches, which is empty if there are none.
+     */
+    public static LatencySketch mergeAll(Iterable<String> serializedSketches) {
+        LatencySketch merged = null;
+        for (String serialized : serializedSketches) {
+            LatencySketch sketch = deserialize(serialized);
+            if (merged == null) {
+                merged = sketch;
+            } else {
+                merged.merge(sketch);
+            }
+        }
+        return merged == null ? new LatencySketch() : merged;
+    }
+
+    private int indexOf(double value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /** The value the bucket stands for, within the relative accuracy of all its values. */
+    private double valueOf(int index) {
+        return 2 * Math.exp(index * logGamma) / (1 + Math.exp(logGamma));
+    }
+
+    private void collapseIfNeeded() {
+        while (buckets.size() > MAX_BUCKETS) {
+            Map.Entry<Integer, Long> lowest = buckets.pollFirstEntry();
+            buckets.merge(buckets.firstKey(), lowest.getValue(), Long::sum);
+        }
+    }
+}
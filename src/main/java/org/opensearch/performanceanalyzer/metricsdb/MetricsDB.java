@@ -6,6 +6,7 @@
 package org.opensearch.performanceanalyzer.metricsdb;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
@@ -21,7 +22,9 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
 import org.apache.logging.log4j.LogManager;
@@ -51,6 +54,14 @@ import org.opensearch.performanceanalyzer.reader.Removable;
  *
  * <p>RSS table |sum|avg|max|min| index|shard|role| +---+---+---+---+---------+-----+----+ | 30| 15|
  * 20| 10|nyc_taxis| 1| N/A|
+ *
+ * <p>A metric can also have a sketch table, see {@link #getSketchTableName(String)}, with a
+ * serialized {@link LatencySketch} per row instead of the four aggregations. The quantile
+ * aggregations of the metric are computed from it.
+ *
+ * <p>The reader writes a window through the connection created with it. Once the window is
+ * complete, see {@link #makeReadOnly()}, the queries go to read only connections of the window
+ * instead, so that the RCA graph and the REST handlers query it concurrently.
  */
 @SuppressWarnings("serial")
 public class MetricsDB implements Removable {
@@ -60,14 +71,34 @@ public class MetricsDB implements Removable {
     private static final String DB_FILE_PREFIX_PATH_DEFAULT = "/tmp/metricsdb_";
     private static final String DB_FILE_PREFIX_PATH_CONF_NAME = "metrics-db-file-prefix-path";
     private static final String DB_URL = "jdbc:sqlite:";
+
+    /** The connection of the writer, null if the window was opened read only. */
     private final Connection conn;
+
     private final DSLContext create;
+
+    /** The read only connections, null while the window is written. */
+    private volatile MetricsDBReadPool readPool;
+
     public static final String SUM = "sum";
     public static final String AVG = "avg";
     public static final String MIN = "min";
     public static final String MAX = "max";
+    public static final String P50 = "p50";
+    public static final String P90 = "p90";
+    public static final String P99 = "p99";
     public static final Set<String> AGG_VALUES =
-            Collections.unmodifiableSet(new HashSet<>(Arrays.asList(SUM, AVG, MIN, MAX)));
+            Collections.unmodifiableSet(
+                    new HashSet<>(Arrays.asList(SUM, AVG, MIN, MAX, P50, P90, P99)));
+
+    /** The quantile of each quantile aggregation. */
+    public static final Map<String, Double> QUANTILE_AGGS =
+            ImmutableMap.of(P50, 0.5, P90, 0.9, P99, 0.99);
+
+    /** The column of the sketch tables holding the serialized sketch. */
+    public static final String SKETCH = "sketch";
+
+    private static final String SKETCH_TABLE_SUFFIX = "_Sketch";
 
     private long windowStartTime;
 
@@ -79,6 +110,14 @@ public class MetricsDB implements Removable {
         return getDBFilePath(windowStartTime);
     }
 
+    /**
+     * @param metric The name of a metric.
+     * @return The name of the table holding the sketches of the metric.
+     */
+    public static String getSketchTableName(String metric) {
+        return metric + SKETCH_TABLE_SUFFIX;
+    }
+
     public static String getFilePrefix() {
         return PluginSettings.instance()
                 .getSettingValue(DB_FILE_PREFIX_PATH_CONF_NAME, DB_FILE_PREFIX_PATH_DEFAULT);
@@ -98,11 +137,20 @@ public class MetricsDB implements Removable {
         create = DSL.using(conn, SQLDialect.SQLITE);
     }
 
+    private MetricsDB(long windowStartTime, MetricsDBReadPool readPool) {
+        this.windowStartTime = windowStartTime;
+        this.conn = null;
+        // Only builds the queries, they run on the connections of the pool.
+        this.create = DSL.using(SQLDialect.SQLITE);
+        this.readPool = readPool;
+    }
+
     /**
-     * Returns a MetricsDB handle associated with an existing metricsdb file.
+     * Returns a read only MetricsDB handle associated with an existing metricsdb file. The file
+     * should be complete, as the files of the past windows are.
      *
      * @param windowStartTime the timestamp associated with an existing metricsdb file
-     * @return a MetricsDB handle associated with the metricsdb file
+     * @return a read only MetricsDB handle associated with the metricsdb file
      * @throws Exception if the metricsdb file does not exist or is invalid
      */
     public static MetricsDB fetchExisting(long windowStartTime) throws Exception {
@@ -113,11 +161,52 @@ public class MetricsDB implements Removable {
             throw new FileNotFoundException(
                     String.format("MetricsDB file %s could not be found.", filePath));
         }
-        return new MetricsDB(windowStartTime);
+        return new MetricsDB(windowStartTime, new MetricsDBReadPool(filePath));
+    }
+
+    /**
+     * Marks the window as complete: the writer committed its last change, so the queries from now
+     * on go to read only connections that memory map the file and do not contend with each other.
+     */
+    public void makeReadOnly() {
+        if (readPool == null) {
+            readPool = new MetricsDBReadPool(getDBFilePath());
+        }
+    }
+
+    public boolean isReadOnly() {
+        return readPool != null;
+    }
+
+    /** A query run by {@link #read(Query)}. */
+    @FunctionalInterface
+    public interface Query<T, E extends Exception> {
+        T run(DSLContext context) throws E;
+    }
+
+    /**
+     * Runs a query on a read only connection of the window if it is complete, on the connection of
+     * the writer otherwise. The records the query returns should be fetched before it returns.
+     *
+     * @param query The query.
+     * @return The result of the query.
+     * @throws E the exception of the query.
+     */
+    public <T, E extends Exception> T read(Query<T, E> query) throws E {
+        final MetricsDBReadPool pool = readPool;
+        if (pool == null) {
+            return query.run(create);
+        }
+        final MetricsDBReadPool.Reader reader = pool.borrow();
+        try {
+            return query.run(reader.getContext());
+        } finally {
+            pool.release(reader);
+        }
     }
 
     public void close() throws Exception {
-        conn.close();
+        remove();
     }
 
     public void createMetric(Metric<?> metric, List<String> dimensions) {
@@ -146,6 +235,71 @@ public class MetricsDB implements Removable {
         return create.batch(create.insertInto(DSL.table(metric.getName())).values(dummyValues));
     }
 
+    /**
+     * Creates the sketch table of a metric, with a column per dimension and the sketch column.
+     *
+     * @param metric The name of the metric.
+     * @param dimensions The dimensions of the sketches.
+     */
+    public void createSketchMetric(String metric, List<String> dimensions) {
+        String tableName = getSketchTableName(metric);
+        if (DBUtils.checkIfTableExists(create, tableName)) {
+            return;
+        }
+        List<Field<?>> fields = DBUtils.getFieldsFromList(dimensions);
+        fields.add(DSL.field(SKETCH, String.class));
+        create.createTable(tableName).columns(fields).execute();
+    }
+
+    /**
+     * Starts a batch insert in the sketch table of a metric, each row binds the dimensions in order
+     * and then the serialized sketch.
+     */
+    public BatchBindStep startBatchPutSketch(String metric, List<String> dimensions) {
+        return startBatchPut(getSketchTableName(metric), dimensions.size() + 1);
+    }
+
+    /**
+     * Merges the sketches of a metric by dimensions.
+     *
+     * @param metric The name of the metric.
+     * @param dimensions The dimensions to group the sketches by, the dimensions the sketch table
+     *     does not have group as null.
+     * @return Map of the values of the dimensions, in order, to the merged sketch. The map is empty
+     *     if the metric has no sketch table.
+     */
+    public Map<List<String>, LatencySketch> querySketches(String metric, List<String> dimensions) {
+        return read(context -> querySketches(context, metric, dimensions));
+    }
+
+    private static Map<List<String>, LatencySketch> querySketches(
+            DSLContext context, String metric, List<String> dimensions) {
+        String tableName = getSketchTableName(metric);
+        Map<List<String>, LatencySketch> sketches = new LinkedHashMap<>();
+        if (!DBUtils.checkIfTableExists(context, tableName)) {
+            return sketches;
+        }
+        for (Record record : context.select().from(DSL.table(tableName)).fetch()) {
+            Object serialized = record.get(SKETCH);
+            if (serialized == null) {
+                continue;
+            }
+            List<String> key = new ArrayList<>(dimensions.size());
+            for (String dimension : dimensions) {
+                Object value = record.field(dimension) == null ? null : record.get(dimension);
+                key.add(value == null ? null : value.toString());
+            }
+            LatencySketch sketch = LatencySketch.deserialize(serialized.toString());
+            LatencySketch merged = sketches.get(key);
+            if (merged == null) {
+                sketches.put(key, sketch);
+            } else {
+                merged.merge(sketch);
+            }
+        }
+        return sketches;
+    }
+
     public BatchBindStep startBatchPut(String tableName, int dimNum) {
         if (dimNum < 1 || !DBUtils.checkIfTableExists(create, tableName)) {
             throw new IllegalArgumentException(
@@ -186,6 +340,16 @@ public class MetricsDB implements Removable {
     public List<TableLike<Record>> getAggregatedMetricTables(
             List<String> metrics, List<String> aggregations, List<String> dimensions)
             throws Exception {
+        return read(
+                context -> getAggregatedMetricTables(context, metrics, aggregations, dimensions));
+    }
+
+    private static List<TableLike<Record>> getAggregatedMetricTables(
+            DSLContext context,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
         List<TableLike<Record>> tList = new ArrayList<>();
         List<Field<?>> groupByFields = DBUtils.getFieldsFromList(dimensions);
 
@@ -208,11 +372,11 @@ public class MetricsDB implements Removable {
             } else {
                 throw new Exception("Unknown agg type");
             }
-            if (!DBUtils.checkIfTableExists(create, metrics.get(i))) {
+            if (!DBUtils.checkIfTableExists(context, metrics.get(i))) {
                 tList.add(null);
             } else {
                 tList.add(
-                        create.select(selectFields)
+                        context.select(selectFields)
                                 .from(DSL.table(metric))
                                 .groupBy(groupByFields)
                                 .asTable());
@@ -238,18 +402,116 @@ public class MetricsDB implements Removable {
      * |shard|indexName| cpu| rss| +-----+---------+-----+-----+ |0 |sonested | 10| 54| |1 |sonested
      * | 20| null| |2 |sonested | null| 47|
      *
+     * <p>The quantile aggregations, see {@link #QUANTILE_AGGS}, are computed from the sketch table
+     * of their metric and joined to the other metrics by dimensions.
+     *
      * @param metrics a list of metrics we want to query
      * @param aggregations aggregation we want to use for each metric
      * @param dimensions dimension we want to use for each metric
      * @return result of query
-     * @throws Exception if one of the aggregations contains sth other than "sum", "avg", "min", and
-     *     "max".
+     * @throws Exception if one of the aggregations is not in {@link #AGG_VALUES}.
      */
     public Result<Record> queryMetric(
             List<String> metrics, List<String> aggregations, List<String> dimensions)
             throws Exception {
+        return read(context -> queryMetric(context, metrics, aggregations, dimensions));
+    }
+
+    private static Result<Record> queryMetric(
+            DSLContext context,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
+        List<String> sqlMetrics = new ArrayList<>();
+        List<String> sqlAggregations = new ArrayList<>();
+        for (int i = 0; i < metrics.size(); i++) {
+            if (!QUANTILE_AGGS.containsKey(aggregations.get(i))) {
+                sqlMetrics.add(metrics.get(i));
+                sqlAggregations.add(aggregations.get(i));
+            }
+        }
+        if (sqlMetrics.size() == metrics.size()) {
+            return queryAggregatedMetric(context, metrics, aggregations, dimensions);
+        }
+
+        Result<Record> sqlResult =
+                sqlMetrics.isEmpty()
+                        ? null
+                        : queryAggregatedMetric(context, sqlMetrics, sqlAggregations, dimensions);
+        Map<List<String>, Object[]> rows = new LinkedHashMap<>();
+        if (sqlResult != null) {
+            for (Record record : sqlResult) {
+                Object[] row = getRow(rows, record, dimensions, metrics.size());
+                for (String metric : sqlMetrics) {
+                    Object value = record.get(metric);
+                    row[dimensions.size() + metrics.indexOf(metric)] =
+                            value == null ? null : Double.parseDouble(value.toString());
+                }
+            }
+        }
+        for (int i = 0; i < metrics.size(); i++) {
+            Double quantile = QUANTILE_AGGS.get(aggregations.get(i));
+            if (quantile == null) {
+                continue;
+            }
+            Map<List<String>, LatencySketch> sketches =
+                    querySketches(context, metrics.get(i), dimensions);
+            if (sketches.isEmpty()) {
+                LOG.info(
+                        "{} metric has no sketch. Returning null for the metric/dimension.",
+                        metrics.get(i));
+            }
+            for (Map.Entry<List<String>, LatencySketch> sketch : sketches.entrySet()) {
+                Object[] row =
+                        rows.computeIfAbsent(sketch.getKey(), k -> newRow(k, metrics.size()));
+                row[dimensions.size() + i] = sketch.getValue().getQuantile(quantile);
+            }
+        }
+        if (sqlResult == null && rows.isEmpty()) {
+            return null;
+        }
+
+        List<Field<?>> fields = DBUtils.getFieldsFromList(dimensions);
+        for (String metric : metrics) {
+            fields.add(DSL.field(DSL.name(metric), Double.class));
+        }
+        Field<?>[] fieldArray = fields.toArray(new Field<?>[0]);
+        Result<Record> result = context.newResult(fieldArray);
+        for (Object[] row : rows.values()) {
+            Record record = context.newRecord(fieldArray);
+            record.fromArray(row);
+            result.add(record);
+        }
+        return result;
+    }
+
+    private static Object[] getRow(
+            Map<List<String>, Object[]> rows, Record record, List<String> dimensions, int size) {
+        List<String> key = new ArrayList<>(dimensions.size());
+        for (String dimension : dimensions) {
+            Object value = record.get(dimension);
+            key.add(value == null ? null : value.toString());
+        }
+        return rows.computeIfAbsent(key, k -> newRow(k, size));
+    }
+
+    private static Object[] newRow(List<String> key, int metricCount) {
+        Object[] row = new Object[key.size() + metricCount];
+        for (int i = 0; i < key.size(); i++) {
+            row[i] = key.get(i);
+        }
+        return row;
+    }
+
+    private static Result<Record> queryAggregatedMetric(
+            DSLContext context,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
         List<TableLike<Record>> tList =
-                getAggregatedMetricTables(metrics, aggregations, dimensions);
+                getAggregatedMetricTables(context, metrics, aggregations, dimensions);
 
         // Join all the individual metric tables to generate the final table.
         Select<Record> finalTable = null;
@@ -265,7 +527,7 @@ public class MetricsDB implements Removable {
             }
             List<Field<?>> selectFields =
                     DBUtils.getSelectFieldsForMetricName(metrics.get(i), metrics, dimensions);
-            Select<Record> curTable = create.select(selectFields).from(metricTable);
+            Select<Record> curTable = context.select(selectFields).from(metricTable);
 
             if (finalTable == null) {
                 finalTable = curTable;
@@ -282,7 +544,7 @@ public class MetricsDB implements Removable {
         if (finalTable == null) {
             return null;
         }
-        return create.select(allFields).from(finalTable).groupBy(groupByFields).fetch();
+        return context.select(allFields).from(finalTable).groupBy(groupByFields).fetch();
     }
 
     /**
@@ -292,7 +554,7 @@ public class MetricsDB implements Removable {
      * @return the result of the query
      */
     public Result<Record> queryMetric(String metric) throws DataAccessException {
-        return create.select().from(DSL.table(metric)).fetch();
+        return read(context -> context.select().from(DSL.table(metric)).fetch());
     }
 
     /**
@@ -305,27 +567,39 @@ public class MetricsDB implements Removable {
      */
     public Result<Record> queryMetric(String metric, Collection<String> dimensions, int limit)
             throws DataAccessException {
-        if (!DBUtils.checkIfTableExists(create, metric)) {
-            return null;
-        }
         if (limit < 0) {
             throw new IllegalArgumentException("Limit must be non-negative");
         }
-        List<Field<?>> fields = DBUtils.getFieldsFromList(dimensions);
-        fields.add(DSL.field(SUM, Double.class));
-        fields.add(DSL.field(AVG, Double.class));
-        fields.add(DSL.field(MIN, Double.class));
-        fields.add(DSL.field(MAX, Double.class));
-        return create.select(fields).from(DSL.table(metric)).limit(limit).fetch();
+        return read(
+                context -> {
+                    if (!DBUtils.checkIfTableExists(context, metric)) {
+                        return null;
+                    }
+                    List<Field<?>> fields = DBUtils.getFieldsFromList(dimensions);
+                    fields.add(DSL.field(SUM, Double.class));
+                    fields.add(DSL.field(AVG, Double.class));
+                    fields.add(DSL.field(MIN, Double.class));
+                    fields.add(DSL.field(MAX, Double.class));
+                    return context.select(fields).from(DSL.table(metric)).limit(limit).fetch();
+                });
     }
 
     public void commit() throws Exception {
+        if (conn == null) {
+            throw new IllegalStateException("MetricsDB " + getDBFilePath() + " is read only");
+        }
         conn.commit();
     }
 
     @Override
     public void remove() throws Exception {
-        conn.close();
+        final MetricsDBReadPool pool = readPool;
+        if (pool != null) {
+            pool.close();
+        }
+        if (conn != null) {
+            conn.close();
+        }
     }
 
     /** Deletes the underlying metricsdb file. */
@@ -389,11 +663,15 @@ public class MetricsDB implements Removable {
         return found;
     }
 
+    /**
+     * @return The context of the writer. The queries should go through {@link #read(Query)}, which
+     *     runs them on the read only connections once the window is complete.
+     */
     public DSLContext getDSLContext() {
         return create;
     }
 
     public boolean metricExists(String metric) {
-        return DBUtils.checkIfTableExists(create, metric);
+        return read(context -> DBUtils.checkIfTableExists(context, metric));
     }
 }
@@ -0,0 +1,166 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.DSLContext;
+import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
+import org.sqlite.SQLiteConfig;
+import org.sqlite.SQLiteOpenMode;
+
+/**
+ * The read only connections to a complete MetricsDB window. A window is not written to once the
+ * reader committed it, so its file is opened as immutable: SQLite then takes no locks and memory
+ * maps the file, which lets the readers share the pages of the page cache.
+ *
+ * <p>A reader borrows a connection for the duration of a query. The pool keeps at most {@link
+ * #POOL_SIZE_CONF_NAME} idle connections, a reader that finds none opens a connection of its own
+ * rather than wait, so that the readers never block each other.
+ */
+class MetricsDBReadPool {
+    private static final Logger LOG = LogManager.getLogger(MetricsDBReadPool.class);
+
+    /** The number of idle read only connections kept per MetricsDB window. */
+    static final String POOL_SIZE_CONF_NAME = "metricsdb-read-pool-size";
+
+    static final int DEFAULT_POOL_SIZE = 2;
+
+    /** The most bytes of a window SQLite memory maps, MetricsDB files are a few MB. */
+    private static final long MMAP_SIZE_BYTES = 64L * 1024 * 1024;
+
+    private final String url;
+    private final BlockingQueue<Reader> idle;
+    private volatile boolean closed;
+
+    MetricsDBReadPool(final String filePath) {
+        this(filePath, readPoolSize());
+    }
+
+    @VisibleForTesting
+    MetricsDBReadPool(final String filePath, final int poolSize) {
+        this.url = "jdbc:sqlite:file:" + filePath + "?immutable=1";
+        this.idle = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    private static int readPoolSize() {
+        String value = PluginSettings.instance().getSettingValue(POOL_SIZE_CONF_NAME, null);
+        if (value == null) {
+            return DEFAULT_POOL_SIZE;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+            LOG.warn(
+                    "Value {} of {} should be positive, using {}",
+                    value,
+                    POOL_SIZE_CONF_NAME,
+                    DEFAULT_POOL_SIZE);
+        } catch (NumberFormatException e) {
+            LOG.warn(
+                    "Invalid value {} for {}, using {}",
+                    value,
+                    POOL_SIZE_CONF_NAME,
+                    DEFAULT_POOL_SIZE);
+        }
+        return DEFAULT_POOL_SIZE;
+    }
+
+    /**
+     * @return An idle connection of the pool, or a new one if there is none.
+     * @throws DataAccessException if the window could not be opened.
+     */
+    Reader borrow() {
+        Reader reader = idle.poll();
+        if (reader != null) {
+            return reader;
+        }
+        try {
+            return new Reader(open());
+        } catch (SQLException e) {
+            StatsCollector.instance()
+                    .logException(StatExceptionCode.READER_METRICSDB_ACCESS_ERRORS);
+            throw new DataAccessException("Unable to open " + url, e);
+        }
+    }
+
+    /** Gives a connection back to the pool, which closes it if it already has enough. */
+    void release(final Reader reader) {
+        if (!closed && idle.offer(reader)) {
+            // The pool may have been closed while the connection was given back.
+            if (closed && idle.remove(reader)) {
+                reader.close();
+            }
+            return;
+        }
+        reader.close();
+    }
+
+    /** Closes the idle connections, the borrowed ones are closed when they are given back. */
+    void close() {
+        closed = true;
+        Reader reader;
+        while ((reader = idle.poll()) != null) {
+            reader.close();
+        }
+    }
+
+    @VisibleForTesting
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    private Connection open() throws SQLException {
+        SQLiteConfig config = new SQLiteConfig();
+        config.setReadOnly(true);
+        config.setOpenMode(SQLiteOpenMode.OPEN_URI);
+        Connection connection = DriverManager.getConnection(url, config.toProperties());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA mmap_size = " + MMAP_SIZE_BYTES);
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+        return connection;
+    }
+
+    /** A read only connection and the jOOQ context bound to it. */
+    static final class Reader {
+        private final Connection connection;
+        private final DSLContext context;
+
+        private Reader(final Connection connection) {
+            this.connection = connection;
+            this.context = DSL.using(connection, SQLDialect.SQLITE);
+        }
+
+        DSLContext getContext() {
+            return context;
+        }
+
+        private void close() {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                LOG.error("Unable to close a read only MetricsDB connection", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgeted;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
+
+/**
+ * Caches the rendered response of a metrics query for the latest MetricsDB window.
+ *
+ * <p>Every client polling the metrics API with the same metrics, aggregations and dimensions gets
+ * the same answer until the reader publishes the next window, so the query is run and rendered only
+ * once per window. Identical requests that arrive while the query is running wait for that
+ * computation instead of starting their own, for at most {@link #WAIT_TIMEOUT_MILLIS}. The entries
+ * of a window are dropped as soon as a request for a newer window comes in.
+ */
+public class MetricsQueryCache implements MemoryBudgeted {
+    private static final Logger LOG = LogManager.getLogger(MetricsQueryCache.class);
+
+    /** The number of distinct queries cached for a window. */
+    static final int MAX_ENTRIES = 64;
+
+    /**
+     * How long a request waits for the identical query already running. A query still running by
+     * then is evicted, so that the next request runs its own.
+     */
+    static final long WAIT_TIMEOUT_MILLIS = 5000;
+
+    private static final MetricsQueryCache INSTANCE =
+            new MetricsQueryCache(MAX_ENTRIES, WAIT_TIMEOUT_MILLIS);
+
+    private final int maxEntries;
+    private final long waitTimeoutMillis;
+    private final ConcurrentHashMap<QueryKey, CompletableFuture<String>> entries;
+    private volatile long windowTimestamp;
+
+    @VisibleForTesting
+    MetricsQueryCache(int maxEntries, long waitTimeoutMillis) {
+        this.maxEntries = maxEntries;
+        this.waitTimeoutMillis = waitTimeoutMillis;
+        this.entries = new ConcurrentHashMap<>();
+        this.windowTimestamp = Long.MIN_VALUE;
+    }
+
+    public static MetricsQueryCache instance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the response of the query for the given window, in the format sent by the metrics
+     * API: {@code {"timestamp": <window>, "data": <rows as json>}}.
+     *
+     * @param db The MetricsDB of the window, can be null if there is no data.
+     * @param dbTimestamp The start time of the window.
+     * @param metrics The metrics to query.
+     * @param aggregations The aggregation of each metric.
+     * @param dimensions The dimensions to group by.
+     * @return The rendered response.
+     * @throws Exception if the query fails, the failure is not cached.
+     * @throws TimeoutException if the identical query already running did not complete in time.
+     */
+    public String getResponse(
+            MetricsDB db,
+            long dbTimestamp,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
+        if (dbTimestamp > windowTimestamp) {
+            advanceWindow(dbTimestamp);
+        }
+        if (dbTimestamp < windowTimestamp) {
+            // The request raced with the publication of a newer window, don't cache stale data.
+            return render(db, dbTimestamp, metrics, aggregations, dimensions);
+        }
+
+        QueryKey key = new QueryKey(dbTimestamp, metrics, aggregations, dimensions);
+        CompletableFuture<String> pending = entries.get(key);
+        if (pending == null) {
+            if (entries.size() >= maxEntries) {
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.METRICS_QUERY_CACHE_MISS, 1);
+                return render(db, dbTimestamp, metrics, aggregations, dimensions);
+            }
+            CompletableFuture<String> computation = new CompletableFuture<>();
+            pending = entries.putIfAbsent(key, computation);
+            if (pending == null) {
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.METRICS_QUERY_CACHE_MISS, 1);
+                return compute(key, computation, db, metrics, aggregations, dimensions);
+            }
+        }
+        ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                RcaRuntimeMetrics.METRICS_QUERY_CACHE_HIT, 1);
+        return await(key, pending);
+    }
+
+    private synchronized void advanceWindow(long dbTimestamp) {
+        if (dbTimestamp > windowTimestamp) {
+            LOG.debug(
+                    "Metrics window moved to {}, dropping {} entries", dbTimestamp, entries.size());
+            entries.clear();
+            windowTimestamp = dbTimestamp;
+        }
+    }
+
+    private String compute(
+            QueryKey key,
+            CompletableFuture<String> computation,
+            MetricsDB db,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
+        try {
+            String response = render(db, key.dbTimestamp, metrics, aggregations, dimensions);
+            computation.complete(response);
+            return response;
+        } catch (Exception e) {
+            // Let the next request retry instead of serving the failure for the whole window.
+            entries.remove(key, computation);
+            computation.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    private String await(QueryKey key, CompletableFuture<String> pending) throws Exception {
+        try {
+            return pending.get(waitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            LOG.warn("Metrics query still running after {} ms, evicting it", waitTimeoutMillis);
+            entries.remove(key, pending);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String render(
+            MetricsDB db,
+            long dbTimestamp,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions)
+            throws Exception {
+        String localResponse;
+        if (db != null) {
+            Result<Record> metricResult = db.queryMetric(metrics, aggregations, dimensions);
+            if (metricResult == null) {
+                localResponse = "{}";
+            } else {
+                localResponse = metricResult.formatJSON();
+            }
+        } else {
+            // Empty JSON.
+            localResponse = "{}";
+        }
+        return String.format("{\"timestamp\": %d, \"data\": %s}", dbTimestamp, localResponse);
+    }
+
+    /**
+     * The responses are mostly ASCII JSON, which takes a byte per character in a compact string.
+     * The queries still running are not accounted for.
+     */
+    @Override
+    public long estimateRetainedBytes() {
+        long bytes = 0;
+        for (CompletableFuture<String> entry : entries.values()) {
+            String response = entry.getNow(null);
+            if (response != null) {
+                bytes += response.length();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Drops the cached responses of the window. The queries asked for again are run against the
+     * MetricsDB and cached anew.
+     */
+    @Override
+    public void shrinkTo(long budgetBytes) {
+        LOG.warn(
+                "Dropping {} cached responses to stay within {} bytes",
+                entries.size(),
+                budgetBytes);
+        entries.clear();
+    }
+
+    @VisibleForTesting
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * A query as seen by MetricsDB. The order of the metrics and dimensions is kept as it decides
+     * the order of the columns in the response.
+     */
+    private static final class QueryKey {
+        private final long dbTimestamp;
+        private final List<String> metrics;
+        private final List<String> aggregations;
+        private final List<String> dimensions;
+        private final int hash;
+
+        QueryKey(
+                long dbTimestamp,
+                List<String> metrics,
+                List<String> aggregations,
+                List<String> dimensions) {
+            this.dbTimestamp = dbTimestamp;
+            this.metrics = normalize(metrics);
+            this.aggregations = normalize(aggregations);
+            this.dimensions = normalize(dimensions);
+            this.hash = Objects.hash(dbTimestamp, this.metrics, this.aggregations, this.dimensions);
+        }
+
+        private static List<String> normalize(List<String> values) {
+            List<String> normalized = new ArrayList<>(values.size());
+            for (String value : values) {
+                normalized.add(value.trim());
+            }
+            return normalized;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof QueryKey)) {
+                return false;
+            }
+            QueryKey other = (QueryKey) o;
+            return dbTimestamp == other.dbTimestamp
+                    && metrics.equals(other.metrics)
+                    && aggregations.equals(other.aggregations)
+                    && dimensions.equals(other.dimensions);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
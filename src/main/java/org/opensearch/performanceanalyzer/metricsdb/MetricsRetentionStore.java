@@ -0,0 +1,797 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.opensearch.performanceanalyzer.DBUtils;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgeted;
+
+/**
+ * Keeps the recent history of the MetricsDB tables in memory, at several resolutions, so that the
+ * metrics API can answer for a time range without batch metrics, which keep every window on disk.
+ *
+ * <p>Each resolution is a ring of buckets of a fixed step, e.g. the last 10 minutes at 5 seconds
+ * and the last hour at 1 minute. A window is merged into its bucket of each resolution, and the
+ * bucket of the oldest step is reused once the ring wraps around.
+ *
+ * <p>For each dimension tuple of a table, a bucket keeps the total of the sum column, the mean of
+ * the avg column over the windows the tuple was seen in, the min of the min column and the max of
+ * the max column, and the bucket counts its windows. The sum of a step is its total over the
+ * windows of the step, a tuple missing from a window counting as 0 in it, so that the values keep
+ * the scale of a single window whatever the step.
+ */
+public class MetricsRetentionStore implements MemoryBudgeted {
+    private static final Logger LOG = LogManager.getLogger(MetricsRetentionStore.class);
+
+    /**
+     * The resolutions kept, as comma separated {@code <step seconds>:<retention minutes>}. The
+     * steps must be multiples of the 5 seconds of a window.
+     */
+    static final String RESOLUTIONS_CONF_NAME = "metrics-retention-resolutions";
+
+    static final String DEFAULT_RESOLUTIONS = "5:10,60:60";
+
+    private static final long WINDOW_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    /** How far past the current time a range may end, for the clocks of the nodes to differ. */
+    private static final long MAX_CLOCK_SKEW_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /** A rough size of a point: its key, its arrays and its map entry. */
+    private static final long POINT_BYTES = 192;
+
+    /** The columns of a MetricsDB table, in the order of the values of a point. */
+    private static final List<String> AGGREGATIONS =
+            ImmutableList.of(MetricsDB.SUM, MetricsDB.AVG, MetricsDB.MIN, MetricsDB.MAX);
+
+    /** The resolutions, finest first. */
+    private final List<Resolution> resolutions;
+
+    private volatile long retainedPoints;
+
+    private static final class Holder {
+        private static final MetricsRetentionStore INSTANCE =
+                new MetricsRetentionStore(readResolutions());
+    }
+
+    @VisibleForTesting
+    MetricsRetentionStore(String resolutions) {
+        this.resolutions = parseResolutions(resolutions);
+    }
+
+    public static MetricsRetentionStore instance() {
+        return Holder.INSTANCE;
+    }
+
+    private static String readResolutions() {
+        String value = PluginSettings.instance().getSettingValue(RESOLUTIONS_CONF_NAME, null);
+        if (value == null) {
+            return DEFAULT_RESOLUTIONS;
+        }
+        try {
+            parseResolutions(value);
+            return value;
+        } catch (IllegalArgumentException e) {
+            LOG.warn(
+                    "Invalid value {} for {}, using {}: {}",
+                    value,
+                    RESOLUTIONS_CONF_NAME,
+                    DEFAULT_RESOLUTIONS,
+                    e.getMessage());
+            return DEFAULT_RESOLUTIONS;
+        }
+    }
+
+    private static List<Resolution> parseResolutions(String value) {
+        List<Resolution> parsed = new ArrayList<>();
+        for (String resolution : value.split(",")) {
+            String[] parts = resolution.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(resolution + " is not <step>:<retention>");
+            }
+            long stepMillis = TimeUnit.SECONDS.toMillis(Long.parseLong(parts[0].trim()));
+            long retentionMillis = TimeUnit.MINUTES.toMillis(Long.parseLong(parts[1].trim()));
+            if (stepMillis <= 0 || stepMillis % WINDOW_MILLIS != 0) {
+                throw new IllegalArgumentException(
+                        parts[0] + " is not a positive multiple of 5 seconds");
+            }
+            if (retentionMillis < stepMillis) {
+                throw new IllegalArgumentException(parts[1] + " minutes is shorter than a step");
+            }
+            parsed.add(new Resolution(stepMillis, (int) (retentionMillis / stepMillis)));
+        }
+        parsed.sort(Comparator.comparingLong(r -> r.stepMillis));
+        return ImmutableList.copyOf(parsed);
+    }
+
+    /**
+     * Adds a complete MetricsDB window to the history.
+     *
+     * @param windowStartTime The start time of the window.
+     * @param db The MetricsDB of the window.
+     * @param tables The tables to keep, those missing from the window are skipped.
+     */
+    public void add(long windowStartTime, MetricsDB db, Collection<String> tables) {
+        add(windowStartTime, db.read(context -> readTables(context, tables)));
+    }
+
+    @VisibleForTesting
+    synchronized void add(long windowStartTime, Map<String, Table> window) {
+        long points = 0;
+        for (Resolution resolution : resolutions) {
+            Bucket bucket = resolution.bucketFor(windowStartTime);
+            if (bucket != null) {
+                bucket.merge(window);
+            }
+            points += resolution.countPoints();
+        }
+        retainedPoints = points;
+    }
+
+    private static Map<String, Table> readTables(DSLContext context, Collection<String> tables) {
+        Map<String, Table> window = new HashMap<>();
+        for (String name : tables) {
+            if (!DBUtils.checkIfTableExists(context, name)) {
+                continue;
+            }
+            Result<Record> records = context.select().from(DSL.table(name)).fetch();
+            List<String> dimensions = new ArrayList<>();
+            for (Field<?> field : records.fields()) {
+                if (!AGGREGATIONS.contains(field.getName())) {
+                    dimensions.add(field.getName());
+                }
+            }
+            Table table = new Table(dimensions);
+            for (Record record : records) {
+                String[] key = new String[dimensions.size()];
+                for (int i = 0; i < key.length; i++) {
+                    Object value = record.get(dimensions.get(i));
+                    key[i] = value == null ? null : value.toString();
+                }
+                double[] values = new double[AGGREGATIONS.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = toDouble(record.get(AGGREGATIONS.get(i)));
+                }
+                table.merge(Arrays.asList(key), new Point(values));
+            }
+            window.put(name, table);
+        }
+        return window;
+    }
+
+    private static double toDouble(Object value) {
+        if (value == null) {
+            return Double.NaN;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue();
+        }
+        return Double.parseDouble(value.toString());
+    }
+
+    /**
+     * @param startTime The start of the range asked for.
+     * @param now The current time.
+     * @return The step of the finest resolution that still holds startTime, -1 if none does.
+     */
+    public long getStepMillis(long startTime, long now) {
+        for (Resolution resolution : resolutions) {
+            if (startTime >= now - resolution.getRetentionMillis()) {
+                return resolution.stepMillis;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @param stepMillis The step asked for.
+     * @return How far back a range can start at that step, 0 if no resolution divides the step.
+     */
+    public long getRetentionMillis(long stepMillis) {
+        long retentionMillis = 0;
+        for (Resolution resolution : resolutions) {
+            if (stepMillis % resolution.stepMillis == 0) {
+                retentionMillis = Math.max(retentionMillis, resolution.getRetentionMillis());
+            }
+        }
+        return retentionMillis;
+    }
+
+    /**
+     * Checks a time range query of the metrics API, the same for the REST and the gRPC queries.
+     *
+     * @param metrics The metrics to query.
+     * @param aggregations The aggregation of each metric.
+     * @param startTime The start of the range.
+     * @param endTime The end of the range.
+     * @param stepMillis The step asked for.
+     * @param now The current time.
+     * @return The range to query, which ends no later than now.
+     * @throws IllegalArgumentException if the query is invalid or older than the history kept.
+     */
+    public TimeRange checkRange(
+            List<String> metrics,
+            List<String> aggregations,
+            long startTime,
+            long endTime,
+            long stepMillis,
+            long now) {
+        if (metrics.size() != aggregations.size()) {
+            throw new IllegalArgumentException(
+                    "metrics/aggregations should have the same number of entries.");
+        }
+        for (String aggregation : aggregations) {
+            if (!AGGREGATIONS.contains(aggregation)) {
+                throw new IllegalArgumentException(
+                        String.format("%s is not supported for a time range.", aggregation));
+            }
+        }
+        if (stepMillis <= 0 || stepMillis % WINDOW_MILLIS != 0) {
+            throw new IllegalArgumentException("step should be a multiple of 5 seconds.");
+        }
+        if (startTime >= endTime) {
+            throw new IllegalArgumentException("starttime should be before endtime.");
+        }
+        if (endTime > now + MAX_CLOCK_SKEW_MILLIS) {
+            throw new IllegalArgumentException("endtime should not be in the future.");
+        }
+        if (startTime < now - getRetentionMillis(stepMillis)) {
+            throw new IllegalArgumentException(
+                    "starttime is older than the metrics history kept at that step.");
+        }
+        return new TimeRange(startTime, Math.min(endTime, now), stepMillis);
+    }
+
+    /**
+     * Returns the response of the query over a time range, in the format sent by the metrics API
+     * for a range: {@code {"step": <step>, "data": {"<time>": <rows as json>, ...}}}. The rows of a
+     * time are those MetricsDB returns for a window, see {@link MetricsDB#queryMetric(List, List,
+     * List)}. The times without data are left out.
+     *
+     * <p>The tables are only kept while the RCA graph reads them or the API queried them recently,
+     * so a metric nobody asked for has no history yet. The response is then an error naming those
+     * metrics, {@code {"error": "..."}}, rather than a range without data.
+     *
+     * @param metrics The metrics to query.
+     * @param aggregations The aggregation of each metric, quantiles are not kept.
+     * @param dimensions The dimensions to group by.
+     * @param startTime The start of the range, included.
+     * @param endTime The end of the range, excluded.
+     * @param stepMillis The step of the times of the response.
+     * @return The rendered response.
+     */
+    public String getResponse(
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions,
+            long startTime,
+            long endTime,
+            long stepMillis) {
+        List<String> missing = getMetricsWithoutHistory(metrics);
+        if (!missing.isEmpty()) {
+            return "{\"error\": \"There is no history for "
+                    + String.join(", ", missing)
+                    + " yet, a metric is kept from its first query on.\"}";
+        }
+        StringBuilder response = new StringBuilder();
+        response.append("{\"step\": ").append(stepMillis).append(", \"data\": {");
+        boolean first = true;
+        for (Map.Entry<Long, Result<Record>> entry :
+                query(metrics, aggregations, dimensions, startTime, endTime, stepMillis)
+                        .entrySet()) {
+            if (!first) {
+                response.append(", ");
+            }
+            first = false;
+            response.append('"').append(entry.getKey()).append("\": ");
+            response.append(entry.getValue().formatJSON());
+        }
+        return response.append("}}").toString();
+    }
+
+    /**
+     * @return The metrics that no bucket of any resolution holds, in the order asked for.
+     */
+    @VisibleForTesting
+    synchronized List<String> getMetricsWithoutHistory(List<String> metrics) {
+        List<String> missing = new ArrayList<>();
+        for (String metric : new LinkedHashSet<>(metrics)) {
+            boolean found = false;
+            for (Resolution resolution : resolutions) {
+                if (resolution.holdsTable(metric)) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                missing.add(metric);
+            }
+        }
+        return missing;
+    }
+
+    @VisibleForTesting
+    NavigableMap<Long, Result<Record>> query(
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions,
+            long startTime,
+            long endTime,
+            long stepMillis) {
+        if (stepMillis <= 0) {
+            throw new IllegalArgumentException("step should be positive, got " + stepMillis);
+        }
+        NavigableMap<Long, Result<Record>> results = new TreeMap<>();
+        long now = System.currentTimeMillis();
+        if (startTime < 0 || startTime > now) {
+            return results;
+        }
+        // The buckets of the steps are copied under the lock, the rows built outside of it.
+        List<Bucket> steps = new ArrayList<>();
+        Collection<String> tables = new LinkedHashSet<>(metrics);
+        synchronized (this) {
+            Resolution resolution = resolutionFor(startTime, stepMillis);
+            if (resolution == null) {
+                return results;
+            }
+            long first = startTime - startTime % stepMillis;
+            // A range never goes past the windows written so far nor past the history kept, so
+            // that it spans at most the buckets of the ring.
+            long last = Math.min(endTime, Math.min(now, first + resolution.getRetentionMillis()));
+            long count =
+                    Math.min((last - first + stepMillis - 1) / stepMillis, resolution.ring.length);
+            long span = Math.min(stepMillis, resolution.getRetentionMillis());
+            for (long i = 0; i < count; i++) {
+                long time = first + i * stepMillis;
+                Bucket step = new Bucket(time);
+                for (long bucketTime = time;
+                        bucketTime < time + span;
+                        bucketTime += resolution.stepMillis) {
+                    Bucket bucket = resolution.getBucket(bucketTime);
+                    if (bucket != null) {
+                        step.mergeAll(bucket, tables);
+                    }
+                }
+                steps.add(step);
+            }
+        }
+        for (Bucket step : steps) {
+            Result<Record> result =
+                    rollUp(step.tables, step.windows, metrics, aggregations, dimensions);
+            if (result != null) {
+                results.put(step.start, result);
+            }
+        }
+        return results;
+    }
+
+    /** The finest resolution that divides the step and holds the start of the range. */
+    private Resolution resolutionFor(long startTime, long stepMillis) {
+        Resolution longest = null;
+        for (Resolution resolution : resolutions) {
+            if (stepMillis % resolution.stepMillis != 0) {
+                continue;
+            }
+            if (resolution.holds(startTime)) {
+                return resolution;
+            }
+            if (longest == null || resolution.getRetentionMillis() > longest.getRetentionMillis()) {
+                longest = resolution;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Groups the points of the tables by the dimensions asked for, the same way MetricsDB groups
+     * the rows of a window: the sum of the sums, the mean of the avgs, the min of the mins and the
+     * max of the maxs. The sums are then divided by the number of windows of the step.
+     *
+     * @return The rows, ordered by dimensions, null if none of the metrics has a table.
+     */
+    private static Result<Record> rollUp(
+            Map<String, Table> tables,
+            int windows,
+            List<String> metrics,
+            List<String> aggregations,
+            List<String> dimensions) {
+        Map<List<String>, double[]> values = new HashMap<>();
+        Map<List<String>, int[]> counts = new HashMap<>();
+        boolean found = false;
+        for (int m = 0; m < metrics.size(); m++) {
+            Table table = tables.get(metrics.get(m));
+            if (table == null) {
+                continue;
+            }
+            found = true;
+            int aggregation = AGGREGATIONS.indexOf(aggregations.get(m));
+            int[] dimensionIndexes = new int[dimensions.size()];
+            for (int d = 0; d < dimensionIndexes.length; d++) {
+                dimensionIndexes[d] = table.dimensions.indexOf(dimensions.get(d));
+            }
+            for (Map.Entry<List<String>, Point> entry : table.points.entrySet()) {
+                double value = entry.getValue().values[aggregation];
+                if (Double.isNaN(value)) {
+                    continue;
+                }
+                String[] key = new String[dimensionIndexes.length];
+                for (int d = 0; d < key.length; d++) {
+                    key[d] =
+                            dimensionIndexes[d] < 0
+                                    ? null
+                                    : entry.getKey().get(dimensionIndexes[d]);
+                }
+                List<String> group = Arrays.asList(key);
+                double[] groupValues = values.get(group);
+                if (groupValues == null) {
+                    groupValues = new double[metrics.size()];
+                    values.put(group, groupValues);
+                    counts.put(group, new int[metrics.size()]);
+                }
+                int[] groupCounts = counts.get(group);
+                if (groupCounts[m] == 0) {
+                    groupValues[m] = value;
+                } else if (MetricsDB.MIN.equals(aggregations.get(m))) {
+                    groupValues[m] = Math.min(groupValues[m], value);
+                } else if (MetricsDB.MAX.equals(aggregations.get(m))) {
+                    groupValues[m] = Math.max(groupValues[m], value);
+                } else {
+                    groupValues[m] += value;
+                }
+                groupCounts[m]++;
+            }
+        }
+        if (!found) {
+            return null;
+        }
+
+        List<Field<?>> fields = new ArrayList<>();
+        for (String dimension : dimensions) {
+            fields.add(DSL.field(DSL.name(dimension), String.class));
+        }
+        for (String metric : metrics) {
+            fields.add(DSL.field(DSL.name(metric), Double.class));
+        }
+        DSLContext context = DSL.using(SQLDialect.SQLITE);
+        Result<Record> result = context.newResult(fields);
+        List<List<String>> groups = new ArrayList<>(values.keySet());
+        groups.sort(MetricsRetentionStore::compareGroups);
+        for (List<String> group : groups) {
+            double[] groupValues = values.get(group);
+            int[] groupCounts = counts.get(group);
+            Object[] row = new Object[dimensions.size() + metrics.size()];
+            for (int d = 0; d < dimensions.size(); d++) {
+                row[d] = group.get(d);
+            }
+            for (int m = 0; m < metrics.size(); m++) {
+                if (groupCounts[m] == 0) {
+                    continue;
+                }
+                if (MetricsDB.AVG.equals(aggregations.get(m))) {
+                    row[dimensions.size() + m] = groupValues[m] / groupCounts[m];
+                } else if (MetricsDB.SUM.equals(aggregations.get(m))) {
+                    row[dimensions.size() + m] = groupValues[m] / windows;
+                } else {
+                    row[dimensions.size() + m] = groupValues[m];
+                }
+            }
+            Record record = context.newRecord(fields);
+            record.fromArray(row);
+            result.add(record);
+        }
+        return result;
+    }
+
+    private static int compareGroups(List<String> left, List<String> right) {
+        for (int i = 0; i < left.size(); i++) {
+            String l = left.get(i);
+            String r = right.get(i);
+            int cmp;
+            if (l == null) {
+                cmp = r == null ? 0 : -1;
+            } else {
+                cmp = r == null ? 1 : l.compareTo(r);
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    private static void merge(Map<String, Table> into, String name, Table table) {
+        Table current = into.get(name);
+        if (current == null) {
+            current = new Table(table.dimensions);
+            into.put(name, current);
+        }
+        current.mergeAll(table);
+    }
+
+    /** Each point takes about the same memory, whatever its resolution. */
+    @Override
+    public long estimateRetainedBytes() {
+        return retainedPoints * POINT_BYTES;
+    }
+
+    /**
+     * Drops the oldest buckets of every resolution till the history fits in the budget. The
+     * resolutions then answer for shorter ranges till they fill up again.
+     */
+    @Override
+    public synchronized void shrinkTo(long budgetBytes) {
+        long budgetPoints = budgetBytes / POINT_BYTES;
+        long points = retainedPoints;
+        LOG.warn("Dropping the oldest metrics history to stay within {} bytes", budgetBytes);
+        while (points > budgetPoints) {
+            long dropped = 0;
+            for (Resolution resolution : resolutions) {
+                dropped += resolution.dropOldest();
+            }
+            if (dropped == 0) {
+                break;
+            }
+            points -= dropped;
+        }
+        retainedPoints = points;
+    }
+
+    /** The time range of a query, in milliseconds. */
+    public static final class TimeRange {
+        private final long startTime;
+        private final long endTime;
+        private final long stepMillis;
+
+        private TimeRange(long startTime, long endTime, long stepMillis) {
+            this.startTime = startTime;
+            this.endTime = endTime;
+            this.stepMillis = stepMillis;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getEndTime() {
+            return endTime;
+        }
+
+        public long getStepMillis() {
+            return stepMillis;
+        }
+    }
+
+    /** A ring of buckets of the same step. */
+    private static final class Resolution {
+        private final long stepMillis;
+        private final Bucket[] ring;
+
+        private Resolution(long stepMillis, int buckets) {
+            this.stepMillis = stepMillis;
+            this.ring = new Bucket[buckets];
+        }
+
+        private long getRetentionMillis() {
+            return stepMillis * ring.length;
+        }
+
+        private int indexOf(long bucketStart) {
+            return (int) Math.floorMod(bucketStart / stepMillis, (long) ring.length);
+        }
+
+        /**
+         * @return The bucket of the time, which replaces the oldest bucket of the ring if needed,
+         *     or null if the time is older than the ring.
+         */
+        private Bucket bucketFor(long time) {
+            long bucketStart = time - time % stepMillis;
+            int index = indexOf(bucketStart);
+            Bucket bucket = ring[index];
+            if (bucket != null && bucket.start == bucketStart) {
+                return bucket;
+            }
+            if (bucket != null && bucket.start > bucketStart) {
+                return null;
+            }
+            bucket = new Bucket(bucketStart);
+            ring[index] = bucket;
+            return bucket;
+        }
+
+        private Bucket getBucket(long bucketStart) {
+            Bucket bucket = ring[indexOf(bucketStart)];
+            return bucket != null && bucket.start == bucketStart ? bucket : null;
+        }
+
+        private boolean holds(long time) {
+            long bucketStart = time - time % stepMillis;
+            for (Bucket bucket : ring) {
+                if (bucket != null && bucket.start <= bucketStart) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private boolean holdsTable(String table) {
+            for (Bucket bucket : ring) {
+                if (bucket != null && bucket.tables.containsKey(table)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private long countPoints() {
+            long points = 0;
+            for (Bucket bucket : ring) {
+                if (bucket != null) {
+                    points += bucket.countPoints();
+                }
+            }
+            return points;
+        }
+
+        /**
+         * @return The number of points dropped.
+         */
+        private long dropOldest() {
+            int oldest = -1;
+            for (int i = 0; i < ring.length; i++) {
+                if (ring[i] != null && (oldest < 0 || ring[i].start < ring[oldest].start)) {
+                    oldest = i;
+                }
+            }
+            if (oldest < 0) {
+                return 0;
+            }
+            long points = ring[oldest].countPoints();
+            ring[oldest] = null;
+            return points;
+        }
+    }
+
+    /** The tables of the windows of a step. */
+    private static final class Bucket {
+        private final long start;
+        private final Map<String, Table> tables = new HashMap<>();
+        private int windows;
+
+        private Bucket(long start) {
+            this.start = start;
+        }
+
+        private void merge(Map<String, Table> window) {
+            for (Map.Entry<String, Table> entry : window.entrySet()) {
+                MetricsRetentionStore.merge(tables, entry.getKey(), entry.getValue());
+            }
+            windows++;
+        }
+
+        /** Copies the tables of another bucket, the tables not listed are left out. */
+        private void mergeAll(Bucket bucket, Collection<String> names) {
+            for (String name : names) {
+                Table table = bucket.tables.get(name);
+                if (table != null) {
+                    MetricsRetentionStore.merge(tables, name, table);
+                }
+            }
+            windows += bucket.windows;
+        }
+
+        private long countPoints() {
+            long points = 0;
+            for (Table table : tables.values()) {
+                points += table.points.size();
+            }
+            return points;
+        }
+    }
+
+    /** The points of a MetricsDB table by dimension tuple. */
+    @VisibleForTesting
+    static final class Table {
+        private final List<String> dimensions;
+        private final Map<List<String>, Point> points = new HashMap<>();
+
+        @VisibleForTesting
+        Table(List<String> dimensions) {
+            this.dimensions = dimensions;
+        }
+
+        @VisibleForTesting
+        void merge(List<String> key, Point point) {
+            Point current = points.get(key);
+            if (current == null) {
+                points.put(key, point.copy());
+            } else {
+                current.merge(point);
+            }
+        }
+
+        private void mergeAll(Table table) {
+            if (!dimensions.equals(table.dimensions)) {
+                // The dimensions of a table only change with the version of the writer.
+                LOG.debug("Dimensions changed from {} to {}", dimensions, table.dimensions);
+                return;
+            }
+            for (Map.Entry<List<String>, Point> entry : table.points.entrySet()) {
+                merge(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * The total of the sums, the mean of the avgs, the min and the max of a dimension tuple over
+     * some windows, NaN if it has none. Each value counts the windows it was seen in, so that the
+     * means merge exactly.
+     */
+    @VisibleForTesting
+    static final class Point {
+        private final double[] values;
+        private final int[] windows;
+
+        @VisibleForTesting
+        Point(double... values) {
+            this.values = values.clone();
+            this.windows = new int[values.length];
+            for (int i = 0; i < values.length; i++) {
+                windows[i] = Double.isNaN(values[i]) ? 0 : 1;
+            }
+        }
+
+        private Point(double[] values, int[] windows) {
+            this.values = values.clone();
+            this.windows = windows.clone();
+        }
+
+        private Point copy() {
+            return new Point(values, windows);
+        }
+
+        private void merge(Point other) {
+            for (int i = 0; i < values.length; i++) {
+                if (other.windows[i] == 0) {
+                    continue;
+                }
+                if (windows[i] == 0) {
+                    values[i] = other.values[i];
+                } else if (i == AGGREGATIONS.indexOf(MetricsDB.MIN)) {
+                    values[i] = Math.min(values[i], other.values[i]);
+                } else if (i == AGGREGATIONS.indexOf(MetricsDB.MAX)) {
+                    values[i] = Math.max(values[i], other.values[i]);
+                } else if (i == AGGREGATIONS.indexOf(MetricsDB.SUM)) {
+                    values[i] += other.values[i];
+                } else {
+                    values[i] =
+                            (values[i] * windows[i] + other.values[i] * other.windows[i])
+                                    / (windows[i] + other.windows[i]);
+                }
+                windows[i] += other.windows[i];
+            }
+        }
+    }
+}
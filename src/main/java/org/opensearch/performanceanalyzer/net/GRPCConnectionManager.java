@@ -6,25 +6,39 @@
 package org.opensearch.performanceanalyzer.net;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import io.grpc.ConnectivityState;
 import io.grpc.ManagedChannel;
-import io.grpc.ManagedChannelBuilder;
 import io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.NettyChannelBuilder;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import java.io.File;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import javax.annotation.Nullable;
 import javax.net.ssl.SSLException;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.CertificateUtils;
 import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
 import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc;
 import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc.InterNodeRpcServiceStub;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
 
 /**
@@ -33,17 +47,63 @@ import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
  *
  * <p>It also listens to cluster state changes and manages handling connections to the changed
  * hosts.
+ *
+ * <p>The channels to all the hosts share one TLS context, one bounded Netty event loop group and
+ * one executor, so the number of hosts costs neither certificate parsing nor threads. The TLS
+ * context is built again when the certificate files change; the channels built before keep the
+ * previous one until they are rebuilt.
  */
 public class GRPCConnectionManager {
 
     private static final Logger LOG = LogManager.getLogger(GRPCConnectionManager.class);
     private static final int MAX_RETRY_ATTEMPTS = 2;
+
+    public static final String EVENT_LOOP_THREADS_CONF_NAME = "grpc-client-event-loop-threads";
+    static final int DEFAULT_EVENT_LOOP_THREADS = 2;
+
+    public static final String EXECUTOR_THREADS_CONF_NAME = "grpc-client-executor-threads";
+    static final int DEFAULT_EXECUTOR_THREADS = 2;
+
+    public static final String KEEPALIVE_CONF_NAME = "grpc-client-keepalive-seconds";
+    static final int DEFAULT_KEEPALIVE_SECONDS = 60;
+
+    /** The shortest keepalive interval the server accepts from the clients. */
+    public static final int MIN_KEEPALIVE_SECONDS = 30;
+
+    static final int KEEPALIVE_TIMEOUT_SECONDS = 20;
+
+    public static final String IDLE_TIMEOUT_CONF_NAME = "grpc-client-idle-timeout-seconds";
+    static final int DEFAULT_IDLE_TIMEOUT_SECONDS = 300;
+
+    private static final String EXECUTOR_THREAD_NAME_FORMAT = "pa-grpc-client-%d";
+    private static final String EVENT_LOOP_THREAD_NAME_FORMAT = "pa-grpc-client-event-loop-%d";
+
     private final int port;
     // TLS certificate, private key, and trusted root CA files
     private File certFile;
     private File pkeyFile;
     private File trustedCasFile;
 
+    private final int eventLoopThreads;
+    private final int executorThreads;
+    private final int keepAliveSeconds;
+    private final int idleTimeoutSeconds;
+
+    /** The event loop group shared by the channels, created with the first channel. */
+    private EventLoopGroup eventLoopGroup;
+
+    /** The executor running the callbacks of the channels, created with the first channel. */
+    private ExecutorService channelExecutor;
+
+    /** The TLS context shared by the channels, and the state of the files it was built from. */
+    private SslContext sslContext;
+
+    private long sslContextFilesStamp;
+
+    /** Map of remote hostId to the number of times the connection to that host was lost. */
+    private final ConcurrentMap<InstanceDetails.Id, AtomicLong> reconnectCounts =
+            new ConcurrentHashMap<>();
+
     /** Map of remote hostId to a Netty channel to that host. */
     private ConcurrentMap<InstanceDetails.Id, AtomicReference<ManagedChannel>> perHostChannelMap =
             new ConcurrentHashMap<>();
@@ -59,13 +119,7 @@ public class GRPCConnectionManager {
     private final boolean shouldUseHttps;
 
     public GRPCConnectionManager(final boolean shouldUseHttps) {
-        this.shouldUseHttps = shouldUseHttps;
-        this.port = 0;
-        if (shouldUseHttps) {
-            this.certFile = CertificateUtils.getClientCertificateFile();
-            this.pkeyFile = CertificateUtils.getClientPrivateKeyFile();
-            this.trustedCasFile = CertificateUtils.getClientTrustedCasFile();
-        }
+        this(shouldUseHttps, 0);
     }
 
     /**
@@ -82,6 +136,32 @@ public class GRPCConnectionManager {
             this.pkeyFile = CertificateUtils.getClientPrivateKeyFile();
             this.trustedCasFile = CertificateUtils.getClientTrustedCasFile();
         }
+        this.eventLoopThreads =
+                readPositive(EVENT_LOOP_THREADS_CONF_NAME, DEFAULT_EVENT_LOOP_THREADS);
+        this.executorThreads = readPositive(EXECUTOR_THREADS_CONF_NAME, DEFAULT_EXECUTOR_THREADS);
+        this.keepAliveSeconds =
+                Math.max(
+                        MIN_KEEPALIVE_SECONDS,
+                        readPositive(KEEPALIVE_CONF_NAME, DEFAULT_KEEPALIVE_SECONDS));
+        this.idleTimeoutSeconds =
+                readPositive(IDLE_TIMEOUT_CONF_NAME, DEFAULT_IDLE_TIMEOUT_SECONDS);
+    }
+
+    private static int readPositive(final String key, final int defaultValue) {
+        String value = PluginSettings.instance().getSettingValue(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+            LOG.warn("Value {} of {} should be positive, using {}", value, key, defaultValue);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value {} for {}, using {}", value, key, defaultValue);
+        }
+        return defaultValue;
     }
 
     @VisibleForTesting
@@ -120,6 +200,12 @@ public class GRPCConnectionManager {
      */
     private synchronized InterNodeRpcServiceStub addOrUpdateClientStubForHost(
             final InstanceDetails remoteHost) {
+        // Another thread may have built the stub since the caller looked it up.
+        final AtomicReference<InterNodeRpcServiceStub> stubAtomicReference =
+                perHostClientStubMap.get(remoteHost.getInstanceId());
+        if (stubAtomicReference != null && stubAtomicReference.get() != null) {
+            return stubAtomicReference.get();
+        }
         final InterNodeRpcServiceStub stub = buildStubForHost(remoteHost);
         perHostClientStubMap.computeIfAbsent(
                 remoteHost.getInstanceId(), s -> new AtomicReference<>());
@@ -127,16 +213,56 @@ public class GRPCConnectionManager {
         return stub;
     }
 
+    /**
+     * @param remoteHost The id of a host.
+     * @return The state of the channel to the host, or null if there is no channel to it.
+     */
+    @Nullable
+    public ConnectivityState getChannelState(final InstanceDetails.Id remoteHost) {
+        final AtomicReference<ManagedChannel> channelReference = perHostChannelMap.get(remoteHost);
+        if (channelReference == null || channelReference.get() == null) {
+            return null;
+        }
+        return channelReference.get().getState(false);
+    }
+
+    /**
+     * @return The state of the channel to each host there is a channel to.
+     */
+    public Map<InstanceDetails.Id, ConnectivityState> getChannelStates() {
+        final Map<InstanceDetails.Id, ConnectivityState> states = new HashMap<>();
+        for (final InstanceDetails.Id remoteHost : perHostChannelMap.keySet()) {
+            final ConnectivityState state = getChannelState(remoteHost);
+            if (state != null) {
+                states.put(remoteHost, state);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * @param remoteHost The id of a host.
+     * @return The number of times the connection to the host failed or its channel was rebuilt.
+     */
+    public long getReconnectCount(final InstanceDetails.Id remoteHost) {
+        final AtomicLong count = reconnectCounts.get(remoteHost);
+        return count == null ? 0 : count.get();
+    }
+
     public void shutdown() {
         removeAllStubs();
         terminateAllConnections();
+        shutdownSharedResources();
     }
 
     private ManagedChannel getChannelForHost(final InstanceDetails remoteHost) {
         final AtomicReference<ManagedChannel> managedChannelAtomicReference =
                 perHostChannelMap.get(remoteHost.getInstanceId());
         if (managedChannelAtomicReference != null) {
-            return managedChannelAtomicReference.get();
+            final ManagedChannel channel = managedChannelAtomicReference.get();
+            if (channel != null && !channel.isShutdown()) {
+                return channel;
+            }
         }
 
         return addOrUpdateChannelForHost(remoteHost);
@@ -151,52 +277,162 @@ public class GRPCConnectionManager {
      */
     private synchronized ManagedChannel addOrUpdateChannelForHost(
             final InstanceDetails remoteHost) {
+        final InstanceDetails.Id remoteHostId = remoteHost.getInstanceId();
+        final AtomicReference<ManagedChannel> current = perHostChannelMap.get(remoteHostId);
+        // Another thread may have built the channel since the caller looked it up.
+        if (current != null && current.get() != null && !current.get().isShutdown()) {
+            return current.get();
+        }
+        // The channel is only installed once built, a failed build leaves no entry behind.
         final ManagedChannel channel = buildChannelForHost(remoteHost);
-        perHostChannelMap.computeIfAbsent(remoteHost.getInstanceId(), s -> new AtomicReference<>());
-        perHostChannelMap.get(remoteHost.getInstanceId()).set(channel);
+        if (reconnectCounts.containsKey(remoteHostId)) {
+            recordReconnect(remoteHostId);
+        } else {
+            reconnectCounts.put(remoteHostId, new AtomicLong());
+        }
+        perHostChannelMap.computeIfAbsent(remoteHostId, s -> new AtomicReference<>()).set(channel);
+        watchChannelState(remoteHostId, channel, channel.getState(false));
         return channel;
     }
 
     private ManagedChannel buildChannelForHost(final InstanceDetails remoteHost) {
-        return shouldUseHttps ? buildSecureChannel(remoteHost) : buildInsecureChannel(remoteHost);
+        final NettyChannelBuilder builder =
+                NettyChannelBuilder.forAddress(
+                                remoteHost.getInstanceIp().toString(), getPortFromHost(remoteHost))
+                        .eventLoopGroup(getEventLoopGroup())
+                        .channelType(NioSocketChannel.class)
+                        .executor(getChannelExecutor())
+                        .keepAliveTime(keepAliveSeconds, TimeUnit.SECONDS)
+                        .keepAliveTimeout(KEEPALIVE_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                        .idleTimeout(idleTimeoutSeconds, TimeUnit.SECONDS)
+                        .enableRetry()
+                        .maxRetryAttempts(MAX_RETRY_ATTEMPTS);
+        if (shouldUseHttps) {
+            builder.sslContext(getSslContext());
+        } else {
+            builder.usePlaintext();
+        }
+        return builder.build();
     }
 
-    private int getPortFromHost(final InstanceDetails remoteHost) {
-        int port = this.port != 0 ? this.port : remoteHost.getGrpcPort();
-        if (port == -1) {
-            throw new IllegalArgumentException("Invalid port for grpc: " + port);
+    /**
+     * Counts the transient failures of the channel until it is shut down or is no longer the
+     * channel to the host.
+     */
+    private void watchChannelState(
+            final InstanceDetails.Id remoteHost,
+            final ManagedChannel channel,
+            final ConnectivityState currentState) {
+        channel.notifyWhenStateChanged(
+                currentState,
+                () -> {
+                    final ConnectivityState newState = channel.getState(false);
+                    if (newState == ConnectivityState.SHUTDOWN
+                            || !isCurrentChannel(remoteHost, channel)) {
+                        return;
+                    }
+                    if (newState == ConnectivityState.TRANSIENT_FAILURE) {
+                        recordReconnect(remoteHost);
+                    }
+                    watchChannelState(remoteHost, channel, newState);
+                });
+    }
+
+    private boolean isCurrentChannel(
+            final InstanceDetails.Id remoteHost, final ManagedChannel channel) {
+        final AtomicReference<ManagedChannel> channelReference = perHostChannelMap.get(remoteHost);
+        return channelReference != null && channelReference.get() == channel;
+    }
+
+    private void recordReconnect(final InstanceDetails.Id remoteHost) {
+        reconnectCounts.computeIfAbsent(remoteHost, k -> new AtomicLong()).incrementAndGet();
+        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                RcaGraphMetrics.RCA_NETWORK_RECONNECT_COUNT, remoteHost.toString(), 1);
+    }
+
+    private synchronized EventLoopGroup getEventLoopGroup() {
+        if (eventLoopGroup == null) {
+            eventLoopGroup =
+                    new NioEventLoopGroup(
+                            eventLoopThreads,
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat(EVENT_LOOP_THREAD_NAME_FORMAT)
+                                    .setDaemon(true)
+                                    .build());
         }
-        return port;
+        return eventLoopGroup;
     }
 
-    private ManagedChannel buildInsecureChannel(final InstanceDetails remoteHost) {
-        return ManagedChannelBuilder.forAddress(
-                        remoteHost.getInstanceIp().toString(), getPortFromHost(remoteHost))
-                .usePlaintext()
-                .enableRetry()
-                .maxRetryAttempts(MAX_RETRY_ATTEMPTS)
-                .build();
+    private synchronized ExecutorService getChannelExecutor() {
+        if (channelExecutor == null) {
+            channelExecutor =
+                    Executors.newFixedThreadPool(
+                            executorThreads,
+                            new ThreadFactoryBuilder()
+                                    .setNameFormat(EXECUTOR_THREAD_NAME_FORMAT)
+                                    .setDaemon(true)
+                                    .build());
+        }
+        return channelExecutor;
     }
 
-    private ManagedChannel buildSecureChannel(final InstanceDetails remoteHost) {
-        try {
-            SslContextBuilder sslContextBuilder =
-                    GrpcSslContexts.forClient().keyManager(certFile, pkeyFile);
-            if (trustedCasFile != null) {
-                sslContextBuilder.trustManager(trustedCasFile);
+    /**
+     * @return The TLS context of the channels, built again if the certificate files changed since
+     *     it was built.
+     */
+    @VisibleForTesting
+    synchronized SslContext getSslContext() {
+        final long filesStamp = getSslFilesStamp();
+        if (sslContext == null || filesStamp != sslContextFilesStamp) {
+            try {
+                SslContextBuilder sslContextBuilder =
+                        GrpcSslContexts.forClient().keyManager(certFile, pkeyFile);
+                if (trustedCasFile != null) {
+                    sslContextBuilder.trustManager(trustedCasFile);
+                }
+                if (sslContext != null) {
+                    LOG.info("Certificate files changed, reloading the gRPC client TLS context");
+                }
+                sslContext = sslContextBuilder.build();
+                sslContextFilesStamp = filesStamp;
+            } catch (SSLException e) {
+                LOG.error("Unable to build an SSL gRPC client.", e);
+
+                // Wrap the SSL Exception in a generic RTE and re-throw.
+                throw new RuntimeException(e);
             }
-            return NettyChannelBuilder.forAddress(
-                            remoteHost.getInstanceIp().toString(), getPortFromHost(remoteHost))
-                    .sslContext(sslContextBuilder.build())
-                    .enableRetry()
-                    .maxRetryAttempts(MAX_RETRY_ATTEMPTS)
-                    .build();
-        } catch (SSLException e) {
-            LOG.error("Unable to build an SSL gRPC client.", e);
+        }
+        return sslContext;
+    }
+
+    private long getSslFilesStamp() {
+        long stamp = 1;
+        for (final File file : new File[] {certFile, pkeyFile, trustedCasFile}) {
+            if (file != null) {
+                stamp = 31 * stamp + file.lastModified();
+                stamp = 31 * stamp + file.length();
+            }
+        }
+        return stamp;
+    }
 
-            // Wrap the SSL Exception in a generic RTE and re-throw.
-            throw new RuntimeException(e);
+    private synchronized void shutdownSharedResources() {
+        if (eventLoopGroup != null) {
+            eventLoopGroup.shutdownGracefully(0, 1, TimeUnit.SECONDS);
+            eventLoopGroup = null;
+        }
+        if (channelExecutor != null) {
+            channelExecutor.shutdown();
+            channelExecutor = null;
+        }
+    }
+
+    private int getPortFromHost(final InstanceDetails remoteHost) {
+        int port = this.port != 0 ? this.port : remoteHost.getGrpcPort();
+        if (port == -1) {
+            throw new IllegalArgumentException("Invalid port for grpc: " + port);
         }
+        return port;
     }
 
     private InterNodeRpcServiceStub buildStubForHost(final InstanceDetails remoteHost) {
@@ -216,6 +452,10 @@ public class GRPCConnectionManager {
                 perHostChannelMap.entrySet()) {
             LOG.debug("shutting down connection to host: {}", entry.getKey());
             ManagedChannel channel = entry.getValue().get();
+            if (channel == null) {
+                perHostChannelMap.remove(entry.getKey());
+                continue;
+            }
             channel.shutdownNow();
             try {
                 if (!channel.awaitTermination(1, TimeUnit.MINUTES)) {
@@ -238,8 +478,29 @@ public class GRPCConnectionManager {
      *
      * @param remoteHost the host to which we want to terminate connection from.
      */
-    public void terminateConnection(InstanceDetails.Id remoteHost) {
+    public synchronized void terminateConnection(InstanceDetails.Id remoteHost) {
         perHostClientStubMap.remove(remoteHost);
-        perHostChannelMap.remove(remoteHost);
+        final AtomicReference<ManagedChannel> channelReference =
+                perHostChannelMap.remove(remoteHost);
+        if (channelReference != null && channelReference.get() != null) {
+            // Let the calls in flight complete, the next call builds a new channel.
+            channelReference.get().shutdown();
+        }
+    }
+
+    /**
+     * Terminates the connections to the hosts that left the cluster and forgets their reconnect
+     * counts.
+     *
+     * @param hosts The ids of the hosts of the cluster.
+     */
+    public void retainHosts(final Set<String> hosts) {
+        for (final InstanceDetails.Id remoteHost : perHostChannelMap.keySet()) {
+            if (!hosts.contains(remoteHost.toString())) {
+                LOG.debug("Host {} left the cluster, closing its channel", remoteHost);
+                terminateConnection(remoteHost);
+            }
+        }
+        reconnectCounts.keySet().removeIf(remoteHost -> !hosts.contains(remoteHost.toString()));
     }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.net;
+
+import io.grpc.ForwardingServerCallListener;
+import io.grpc.Metadata;
+import io.grpc.MethodDescriptor;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallExecutorSupplier;
+import io.grpc.ServerCallHandler;
+import io.grpc.ServerInterceptor;
+import io.grpc.Status;
+import java.util.concurrent.Executor;
+import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc;
+import org.opensearch.performanceanalyzer.threads.BoundedLaneExecutor;
+
+/**
+ * Routes the RPCs of the {@link NetServer} to their lane and fails new calls fast with {@code
+ * UNAVAILABLE} when the lane is already saturated or the heap is above the lane's shed threshold.
+ * The RCA data-plane RPCs (publish, subscribe) and the ad-hoc getMetrics RPC use different lanes so
+ * that a nodes=all metrics query can not delay flow units and vice versa.
+ *
+ * <p>The callbacks of a call already started are rejected by a full lane too: they then run on the
+ * shedding thread of the lane, and the call is closed with {@code RESOURCE_EXHAUSTED} instead of
+ * reaching the service.
+ */
+public class LoadSheddingInterceptor implements ServerInterceptor, ServerCallExecutorSupplier {
+    private static final String GET_METRICS_METHOD =
+            InterNodeRpcServiceGrpc.getGetMetricsMethod().getFullMethodName();
+
+    private final BoundedLaneExecutor dataPlaneExecutor;
+    private final BoundedLaneExecutor queryExecutor;
+
+    public LoadSheddingInterceptor(
+            BoundedLaneExecutor dataPlaneExecutor, BoundedLaneExecutor queryExecutor) {
+        this.dataPlaneExecutor = dataPlaneExecutor;
+        this.queryExecutor = queryExecutor;
+    }
+
+    BoundedLaneExecutor laneFor(MethodDescriptor<?, ?> method) {
+        if (GET_METRICS_METHOD.equals(method.getFullMethodName())) {
+            return queryExecutor;
+        }
+        return dataPlaneExecutor;
+    }
+
+    @Override
+    public <ReqT, RespT> Executor getExecutor(ServerCall<ReqT, RespT> call, Metadata metadata) {
+        return laneFor(call.getMethodDescriptor());
+    }
+
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(
+            ServerCall<ReqT, RespT> call, Metadata headers, ServerCallHandler<ReqT, RespT> next) {
+        BoundedLaneExecutor lane = laneFor(call.getMethodDescriptor());
+        if (BoundedLaneExecutor.isShedding()
+                || lane.isSaturated()
+                || lane.isHeapAboveShedThreshold()) {
+            BoundedLaneExecutor.recordShed(lane.getLane());
+            call.close(
+                    Status.UNAVAILABLE.withDescription(
+                            "The " + lane.getLane() + " lane is overloaded, retry later"),
+                    new Metadata());
+            return new ServerCall.Listener<ReqT>() {};
+        }
+        return new SheddingListener<>(next.startCall(call, headers), call, lane);
+    }
+
+    /** Closes the call instead of forwarding the callbacks that were shed by the lane. */
+    static class SheddingListener<ReqT, RespT>
+            extends ForwardingServerCallListener.SimpleForwardingServerCallListener<ReqT> {
+        private final ServerCall<ReqT, RespT> call;
+        private final BoundedLaneExecutor lane;
+        private boolean closed;
+
+        SheddingListener(
+                ServerCall.Listener<ReqT> delegate,
+                ServerCall<ReqT, RespT> call,
+                BoundedLaneExecutor lane) {
+            super(delegate);
+            this.call = call;
+            this.lane = lane;
+        }
+
+        /** The callbacks of a call are serialized, so the flag needs no synchronization. */
+        private boolean shed() {
+            if (closed) {
+                return true;
+            }
+            if (!BoundedLaneExecutor.isShedding()) {
+                return false;
+            }
+            closed = true;
+            BoundedLaneExecutor.recordShed(lane.getLane());
+            call.close(
+                    Status.RESOURCE_EXHAUSTED.withDescription(
+                            "The " + lane.getLane() + " lane is overloaded, retry later"),
+                    new Metadata());
+            return true;
+        }
+
+        @Override
+        public void onMessage(ReqT message) {
+            if (!shed()) {
+                super.onMessage(message);
+            }
+        }
+
+        @Override
+        public void onHalfClose() {
+            if (!shed()) {
+                super.onHalfClose();
+            }
+        }
+
+        @Override
+        public void onReady() {
+            if (!shed()) {
+                super.onReady();
+            }
+        }
+    }
+}
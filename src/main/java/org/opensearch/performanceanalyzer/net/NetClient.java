@@ -21,6 +21,8 @@ import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc;
 import org.opensearch.performanceanalyzer.grpc.MetricsRequest;
 import org.opensearch.performanceanalyzer.grpc.MetricsResponse;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
 import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
 import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
@@ -86,6 +88,41 @@ public class NetClient {
         }
     }
 
+    /**
+     * Sends the subscription requests to several vertices of a remote host in one RPC.
+     *
+     * @param remoteHost The host to which the subscription requests need to be sent to.
+     * @param subscribeBatchMessage The subscription requests.
+     * @param serverResponseStream The stream for the server to respond on.
+     */
+    public void subscribeBatch(
+            final InstanceDetails remoteHost,
+            final SubscribeBatchMessage subscribeBatchMessage,
+            StreamObserver<SubscribeBatchResponse> serverResponseStream) {
+        LOG.debug(
+                "Trying to send {} intent messages to {}",
+                subscribeBatchMessage.getSubscribeMessagesCount(),
+                remoteHost);
+        try {
+            connectionManager
+                    .getClientStubForHost(remoteHost)
+                    .subscribeBatch(subscribeBatchMessage, serverResponseStream);
+            for (final SubscribeMessage subscribeMessage :
+                    subscribeBatchMessage.getSubscribeMessagesList()) {
+                ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                        RcaGraphMetrics.NET_BYTES_OUT,
+                        subscribeMessage.getRequesterGraphNode(),
+                        subscribeMessage.getSerializedSize());
+            }
+        } catch (StatusRuntimeException sre) {
+            LOG.error(
+                    "Encountered an error trying to subscribe in batch. Status: {}",
+                    sre.getStatus(),
+                    sre);
+            StatsCollector.instance().logException(StatExceptionCode.RCA_NETWORK_ERROR);
+        }
+    }
+
     /**
      * Gets a stream from the remote host to write flow units to. If there are failures while
      * writing to the stream, the subscribers will fail and trigger a new subscription which
@@ -7,6 +7,7 @@ package org.opensearch.performanceanalyzer.net;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.grpc.Server;
+import io.grpc.ServerInterceptors;
 import io.grpc.netty.GrpcSslContexts;
 import io.grpc.netty.NettyServerBuilder;
 import io.grpc.stub.StreamObserver;
@@ -16,7 +17,6 @@ import io.netty.handler.ssl.ClientAuth;
 import io.netty.handler.ssl.SslContextBuilder;
 import java.io.File;
 import java.io.IOException;
-import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLException;
 import org.apache.logging.log4j.LogManager;
@@ -29,11 +29,15 @@ import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc;
 import org.opensearch.performanceanalyzer.grpc.MetricsRequest;
 import org.opensearch.performanceanalyzer.grpc.MetricsResponse;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
 import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
 import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
 import org.opensearch.performanceanalyzer.metrics.handler.MetricsServerHandler;
 import org.opensearch.performanceanalyzer.rca.net.handler.PublishRequestHandler;
 import org.opensearch.performanceanalyzer.rca.net.handler.SubscribeServerHandler;
+import org.opensearch.performanceanalyzer.threads.BoundedLaneExecutor;
+import org.opensearch.performanceanalyzer.threads.ServerLane;
 
 /** Class that runs the RPC server and implements the RPC methods. */
 public class NetServer extends InterNodeRpcServiceGrpc.InterNodeRpcServiceImplBase
@@ -62,6 +66,12 @@ public class NetServer extends InterNodeRpcServiceGrpc.InterNodeRpcServiceImplBa
     /** The server instance. */
     protected Server server;
 
+    /** Runs the publish and subscribe RPCs. */
+    private BoundedLaneExecutor dataPlaneExecutor;
+
+    /** Runs the getMetrics RPCs. */
+    private BoundedLaneExecutor queryExecutor;
+
     private volatile boolean attemptedShutdown;
 
     public NetServer(final int port, final int numServerThreads, final boolean useHttps) {
@@ -120,15 +130,23 @@ public class NetServer extends InterNodeRpcServiceGrpc.InterNodeRpcServiceImplBa
     }
 
     private NettyServerBuilder buildBaseServer() {
+        dataPlaneExecutor = new BoundedLaneExecutor(ServerLane.RPC_DATA_PLANE);
+        queryExecutor = new BoundedLaneExecutor(ServerLane.RPC_QUERY);
+        LoadSheddingInterceptor interceptor =
+                new LoadSheddingInterceptor(dataPlaneExecutor, queryExecutor);
         return NettyServerBuilder.forPort(port)
-                .addService(this)
+                .addService(ServerInterceptors.intercept(this, interceptor))
+                .executor(dataPlaneExecutor)
+                .callExecutor(interceptor)
                 .bossEventLoopGroup(new NioEventLoopGroup(numServerThreads))
                 .workerEventLoopGroup(new NioEventLoopGroup(numServerThreads))
-                .channelType(NioServerSocketChannel.class);
+                .channelType(NioServerSocketChannel.class)
+                // Accept the keepalive pings of the clients, see GRPCConnectionManager.
+                .permitKeepAliveTime(GRPCConnectionManager.MIN_KEEPALIVE_SECONDS, TimeUnit.SECONDS);
     }
 
     private Server buildHttpServer() {
-        return buildBaseServer().executor(Executors.newSingleThreadExecutor()).build();
+        return buildBaseServer().build();
     }
 
     protected Server buildHttpsServer(File trustedCasFile, File certFile, File pkeyFile)
@@ -184,6 +202,31 @@ public class NetServer extends InterNodeRpcServiceGrpc.InterNodeRpcServiceImplBa
         }
     }
 
+    /**
+     *
+     *
+     * <pre>
+     * Sends the subscription requests to several vertices of this node at once.
+     * </pre>
+     *
+     * @param request The subscribe requests.
+     * @param responseObserver The response stream to which the subscription statuses are written
+     *     to, in the order of the requests.
+     */
+    @Override
+    public void subscribeBatch(
+            final SubscribeBatchMessage request,
+            final StreamObserver<SubscribeBatchResponse> responseObserver) {
+        if (subscribeHandler != null) {
+            subscribeHandler.handleBatchSubscriptionRequest(request, responseObserver);
+        } else {
+            LOG.error("Subscribe batch request received before handler is set.");
+            responseObserver.onError(
+                    new UnsupportedOperationException(
+                            "No rpc handler found for " + "subscribeBatch/"));
+        }
+    }
+
     @Override
     public void getMetrics(
             MetricsRequest request, StreamObserver<MetricsResponse> responseObserver) {
@@ -261,6 +304,12 @@ public class NetServer extends InterNodeRpcServiceGrpc.InterNodeRpcServiceImplBa
                 Thread.currentThread().interrupt();
             }
         }
+        if (dataPlaneExecutor != null) {
+            dataPlaneExecutor.shutdown();
+        }
+        if (queryExecutor != null) {
+            queryExecutor.shutdown();
+        }
     }
 
     public void setAttemptedShutdown() {
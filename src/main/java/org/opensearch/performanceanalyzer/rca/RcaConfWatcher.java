@@ -0,0 +1,114 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Tells the {@link RcaController} when the rca.conf it runs with has to be read again, so that the
+ * file is parsed only when it was changed instead of on every state check.
+ *
+ * <p>The directory of the file is registered with a {@link WatchService} so that edits in place and
+ * files moved over the conf are both seen. The modification time of the file is checked as well
+ * because some platforms only poll for watch events every few seconds.
+ */
+public class RcaConfWatcher implements Closeable {
+    private static final Logger LOG = LogManager.getLogger(RcaConfWatcher.class);
+
+    private WatchService watchService;
+    private Path watchedFile;
+    private long lastModifiedTime;
+
+    /**
+     * @param confFile The conf file the controller wants to run with. This can change when the role
+     *     of the node changes.
+     * @return true if the file has changed since the previous call or if this is the first call for
+     *     the file.
+     */
+    public synchronized boolean hasChanged(Path confFile) {
+        Path file = confFile.toAbsolutePath();
+        if (!file.equals(watchedFile)) {
+            watch(file);
+            return true;
+        }
+        boolean changed = drainEvents();
+        long modifiedTime = file.toFile().lastModified();
+        if (modifiedTime != lastModifiedTime) {
+            lastModifiedTime = modifiedTime;
+            changed = true;
+        }
+        return changed;
+    }
+
+    private void watch(Path file) {
+        close();
+        watchedFile = file;
+        lastModifiedTime = file.toFile().lastModified();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent()
+                    .register(
+                            watchService,
+                            StandardWatchEventKinds.ENTRY_CREATE,
+                            StandardWatchEventKinds.ENTRY_MODIFY);
+            LOG.info("Watching {} for changes", file);
+        } catch (IOException | UnsupportedOperationException e) {
+            LOG.warn(
+                    "Could not watch {}, relying on its modification time: {}",
+                    file,
+                    e.getMessage());
+            close();
+        }
+    }
+
+    private boolean drainEvents() {
+        if (watchService == null) {
+            return false;
+        }
+        boolean changed = false;
+        try {
+            WatchKey key;
+            while ((key = watchService.poll()) != null) {
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || watchedFile.getFileName().equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                if (!key.reset()) {
+                    LOG.warn("The directory of {} is no longer watched", watchedFile);
+                    close();
+                    break;
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            watchService = null;
+        }
+        return changed;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                LOG.debug("Error closing the watch service of {}", watchedFile, e);
+            }
+            watchService = null;
+        }
+    }
+}
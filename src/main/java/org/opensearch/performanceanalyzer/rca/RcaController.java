@@ -33,10 +33,13 @@ import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
 import org.opensearch.performanceanalyzer.core.Util;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgetManager;
+import org.opensearch.performanceanalyzer.memory.MemoryComponent;
 import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
 import org.opensearch.performanceanalyzer.net.NetClient;
 import org.opensearch.performanceanalyzer.net.NetServer;
 import org.opensearch.performanceanalyzer.rca.exceptions.MalformedConfig;
+import org.opensearch.performanceanalyzer.rca.framework.api.Metric;
 import org.opensearch.performanceanalyzer.rca.framework.core.*;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
@@ -53,7 +56,9 @@ import org.opensearch.performanceanalyzer.rca.persistence.Persistable;
 import org.opensearch.performanceanalyzer.rca.persistence.PersistenceFactory;
 import org.opensearch.performanceanalyzer.rca.scheduler.RCAScheduler;
 import org.opensearch.performanceanalyzer.rca.scheduler.RcaSchedulerState;
+import org.opensearch.performanceanalyzer.reader.MetricsDemandRegistry;
 import org.opensearch.performanceanalyzer.rest.QueryActionRequestHandler;
+import org.opensearch.performanceanalyzer.rest.QueryProfileRequestHandler;
 import org.opensearch.performanceanalyzer.rest.QueryRcaRequestHandler;
 import org.opensearch.performanceanalyzer.threads.ThreadProvider;
 
@@ -96,9 +101,11 @@ public class RcaController {
     private HttpServer httpServer;
     private QueryRcaRequestHandler queryRcaRequestHandler;
     private QueryActionRequestHandler queryActionRequestHandler;
+    private QueryProfileRequestHandler queryProfileRequestHandler;
 
     private SubscriptionManager subscriptionManager;
     private volatile RcaConf rcaConf;
+    private final RcaConfWatcher rcaConfWatcher = new RcaConfWatcher();
 
     private final String RCA_ENABLED_CONF_LOCATION;
     private final long rcaStateCheckIntervalMillis;
@@ -141,6 +148,7 @@ public class RcaController {
         nodeStateManager = new NodeStateManager(this.appContext);
         queryRcaRequestHandler = new QueryRcaRequestHandler(this.appContext);
         queryActionRequestHandler = new QueryActionRequestHandler(this.appContext);
+        queryProfileRequestHandler = new QueryProfileRequestHandler();
         this.rcaScheduler = null;
         this.rcaStateCheckIntervalMillis = rcaStateCheckIntervalMillis;
         this.roleCheckPeriodicity = nodeRoleCheckPeriodicityMillis;
@@ -181,6 +189,7 @@ public class RcaController {
 
             subscriptionManager.setCurrentLocus(rcaConf.getTagMap().get("locus"));
             this.connectedComponents = getRcaGraphComponents(rcaConf);
+            declareMetricsDemand(connectedComponents);
 
             // Mute the rca nodes after the graph creation and before the scheduler start
             readAndUpdateMutedComponentsDuringStart();
@@ -193,7 +202,10 @@ public class RcaController {
             queryRcaRequestHandler.setPersistable(persistenceProvider);
             addActionsRequestHandler();
             queryActionRequestHandler.setPersistable(persistenceProvider);
+            addProfileRequestHandler();
             receivedFlowUnitStore = new ReceivedFlowUnitStore(rcaConf.getPerVertexBufferLength());
+            MemoryBudgetManager.getInstance()
+                    .register(MemoryComponent.RECEIVED_FLOW_UNITS, receivedFlowUnitStore);
             WireHopper net =
                     new WireHopper(
                             nodeStateManager,
@@ -220,9 +232,15 @@ public class RcaController {
 
             rcaNetServer.setSendDataHandler(
                     new PublishRequestHandler(
-                            nodeStateManager, receivedFlowUnitStore, networkThreadPoolReference));
+                            nodeStateManager,
+                            receivedFlowUnitStore,
+                            networkThreadPoolReference,
+                            net.getFlowUnitRelay()));
             rcaNetServer.setSubscribeHandler(
-                    new SubscribeServerHandler(subscriptionManager, networkThreadPoolReference));
+                    new SubscribeServerHandler(
+                            subscriptionManager,
+                            networkThreadPoolReference,
+                            net.getFlowUnitRelay()));
 
             Thread rcaSchedulerThread =
                     threadProvider.createThreadForRunnable(
@@ -263,6 +281,8 @@ public class RcaController {
         rcaScheduler.shutdown();
         rcaNetClient.stop();
         rcaNetServer.stop();
+        MemoryBudgetManager.getInstance()
+                .unregister(MemoryComponent.RECEIVED_FLOW_UNITS, receivedFlowUnitStore);
         receivedFlowUnitStore.drainAll();
         networkThreadPoolReference.get().shutdown();
         try {
@@ -275,6 +295,8 @@ public class RcaController {
             Thread.currentThread().interrupt();
         }
         removeRcaRequestHandler();
+        removeProfileRequestHandler();
+        MetricsDemandRegistry.getInstance().clearGraphDemand();
         Stats.getInstance().reset();
     }
 
@@ -289,6 +311,10 @@ public class RcaController {
         return RcaControllerHelper.pickRcaConfForRole(role);
     }
 
+    protected String getRcaConfPathForMyRole(AllMetrics.NodeRole role) {
+        return RcaControllerHelper.pickRcaConfPathForRole(role);
+    }
+
     public void run() {
         long tick = 0;
         long nodeRoleCheckInTicks = roleCheckPeriodicity / rcaStateCheckIntervalMillis;
@@ -306,7 +332,7 @@ public class RcaController {
 
                 // If RCA is enabled, update Analysis graph with Muted RCAs value
                 if (rcaEnabled) {
-                    rcaConf = getRcaConfForMyRole(currentRole);
+                    reloadRcaConfIfChanged();
                     LOG.debug("Updating Analysis Graph with Muted RCAs");
                     readAndUpdateMutedComponents();
                 }
@@ -433,6 +459,54 @@ public class RcaController {
         return true;
     }
 
+    /**
+     * Parses the rca.conf for the current role again if the file has changed and applies what
+     * changed to the running framework in place: the muted nodes (see {@link
+     * #readAndUpdateMutedComponents()}), the settings the graph nodes read and the tags that decide
+     * what is evaluated locally. The scheduler keeps running and the graph nodes keep their state.
+     * The sections that are wired in when the framework starts, such as the datastore or the
+     * network queue length, are only picked up by the next restart.
+     */
+    private void reloadRcaConfIfChanged() {
+        Path confPath = Paths.get(getRcaConfPathForMyRole(currentRole));
+        if (rcaConf != null && !rcaConfWatcher.hasChanged(confPath)) {
+            return;
+        }
+        RcaConf oldConf = rcaConf;
+        RcaConf newConf = getRcaConfForMyRole(currentRole);
+        rcaConf = newConf;
+        if (oldConf == null
+                || rcaScheduler == null
+                || rcaScheduler.getState() != RcaSchedulerState.STATE_STARTED
+                || !Objects.equals(oldConf.getConfigFileLoc(), newConf.getConfigFileLoc())) {
+            // Nothing runs with the previous conf or the role has changed, in which case the
+            // scheduler is restarted with the new conf anyway.
+            return;
+        }
+
+        RcaConfDiff diff = RcaConfDiff.between(oldConf, newConf);
+        if (diff.isEmpty()) {
+            return;
+        }
+        LOG.info("rca.conf changed, sections to apply: {}", diff);
+        for (RcaConfDiff.Section section : diff.getChangedSections()) {
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.RCA_CONF_SECTIONS_CHANGED, section.name(), 1);
+        }
+        if (diff.hasChanged(RcaConfDiff.Section.TAGS)) {
+            subscriptionManager.setCurrentLocus(newConf.getTagMap().get("locus"));
+            rcaScheduler.updateRcaConf(newConf, true);
+        } else if (diff.hasChanged(RcaConfDiff.Section.NODE_SETTINGS)) {
+            rcaScheduler.updateRcaConf(newConf, false);
+        }
+        if (diff.hasChanged(RcaConfDiff.Section.RUNTIME)) {
+            LOG.warn(
+                    "The datastore, graph, network or buffer settings in {} changed. They will be "
+                            + "applied when RCA is restarted.",
+                    newConf.getConfigFileLoc());
+        }
+    }
+
     /**
      * Reads the mutedRCAList value from the rca.conf file, performs validation on the param value
      * provided and on successful validation, updates the AnalysisGraph with muted RCA value.
@@ -501,6 +575,29 @@ public class RcaController {
         }
     }
 
+    /** Lets the reader skip emitting the MetricsDB tables no metric node in the graph reads. */
+    private static void declareMetricsDemand(List<ConnectedComponent> components) {
+        Set<String> tables = new HashSet<>();
+        for (ConnectedComponent component : components) {
+            for (Node<?> node : component.getAllNodes()) {
+                if (node instanceof Metric) {
+                    tables.addAll(((Metric) node).getTablesRead());
+                }
+            }
+        }
+        MetricsDemandRegistry.getInstance().setGraphDemand(tables);
+    }
+
+    private void removeProfileRequestHandler() {
+        try {
+            httpServer.removeContext(Util.PROFILE_QUERY_URL);
+        } catch (IllegalArgumentException e) {
+            LOG.debug(
+                    "Http(s) context for path: {} was not found to remove.",
+                    Util.PROFILE_QUERY_URL);
+        }
+    }
+
     public static String getCatClusterManagerUrl() {
         return RcaControllerHelper.CAT_CLUSTER_MANAGER_URL;
     }
@@ -537,6 +634,10 @@ public class RcaController {
                 Util.LEGACY_OPENDISTRO_ACTIONS_QUERY_URL, queryActionRequestHandler);
     }
 
+    private void addProfileRequestHandler() {
+        httpServer.createContext(Util.PROFILE_QUERY_URL, queryProfileRequestHandler);
+    }
+
     public void setDeliberateInterrupt() {
         deliberateInterrupt = true;
     }
@@ -45,23 +45,31 @@ public class RcaControllerHelper {
      * @return The configuration based on the role.
      */
     public static RcaConf pickRcaConfForRole(final AllMetrics.NodeRole nodeRole) {
+        return new RcaConf(pickRcaConfPathForRole(nodeRole));
+    }
+
+    /**
+     * @param nodeRole The role of the node(data/eligible cluster_manager/elected cluster_manager)
+     * @return The path of the configuration for the role.
+     */
+    public static String pickRcaConfPathForRole(final AllMetrics.NodeRole nodeRole) {
         if (AllMetrics.NodeRole.ELECTED_CLUSTER_MANAGER == nodeRole) {
             LOG.debug("picking elected cluster_manager conf");
-            return new RcaConf(ELECTED_CLUSTER_MANAGER_RCA_CONF_PATH);
+            return ELECTED_CLUSTER_MANAGER_RCA_CONF_PATH;
         }
 
         if (AllMetrics.NodeRole.CLUSTER_MANAGER == nodeRole) {
             LOG.debug("picking idle cluster_manager conf");
-            return new RcaConf(CLUSTER_MANAGER_RCA_CONF_PATH);
+            return CLUSTER_MANAGER_RCA_CONF_PATH;
         }
 
         if (AllMetrics.NodeRole.DATA == nodeRole) {
             LOG.debug("picking data node conf");
-            return new RcaConf(RCA_CONF_PATH);
+            return RCA_CONF_PATH;
         }
 
         LOG.debug("picking default conf");
-        return new RcaConf(RCA_CONF_PATH);
+        return RCA_CONF_PATH;
     }
 
     /**
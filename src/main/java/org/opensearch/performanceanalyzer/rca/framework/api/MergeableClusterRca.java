@@ -0,0 +1,27 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.api;
+
+/**
+ * A cluster level vertex whose input from a node level vertex can be pre-merged by the aggregators
+ * of a two level topology, see {@link
+ * org.opensearch.performanceanalyzer.rca.net.AggregationTopology}.
+ *
+ * <p>The partial aggregate an aggregator builds for its group of data nodes is the latest flow unit
+ * of the upstream vertex from each node of the group. The cluster manager merges the partials of
+ * the aggregators and its own input by keeping the latest flow unit per node. This loses nothing
+ * for the vertices that only read the latest flow unit of each node, and those are the vertices
+ * that should declare it.
+ */
+public interface MergeableClusterRca {
+
+    /**
+     * @param upstreamVertex The name of a node level vertex this vertex reads from the network.
+     * @return true if the flow units of the upstream vertex can be pre-merged per node by the
+     *     aggregators before reaching this vertex.
+     */
+    boolean canMergePartials(String upstreamVertex);
+}
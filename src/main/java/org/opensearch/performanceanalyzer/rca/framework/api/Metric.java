@@ -5,6 +5,7 @@
 
 package org.opensearch.performanceanalyzer.rca.framework.api;
 
+import java.util.Collection;
 import java.util.Collections;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -45,6 +46,14 @@ public abstract class Metric extends LeafNode<MetricFlowUnit> {
         return name;
     }
 
+    /**
+     * @return The MetricsDB tables this metric reads, to let the reader skip emitting the tables no
+     *     metric in the graph reads.
+     */
+    public Collection<String> getTablesRead() {
+        return Collections.singletonList(name);
+    }
+
     public MetricFlowUnit gather(Queryable queryable) {
         LOG.debug("Trying to gather metrics for {}", name);
         MetricsDB db;
@@ -5,9 +5,16 @@
 
 package org.opensearch.performanceanalyzer.rca.framework.api.aggregators;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Deque;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
 
 /**
  * This is a generic sliding window for RCA sampling. The default behavior is to store the
@@ -85,4 +92,47 @@ public class SlidingWindow<E extends SlidingWindowData> {
     public void clear() {
         this.windowDeque.clear();
     }
+
+    /**
+     * Writes the entries of the window, oldest first, so that they can be replayed through {@link
+     * #next} by {@link #readCheckpoint} after a restart.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the output can't be written.
+     */
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        out.writeInt(windowDeque.size());
+        Iterator<E> it = windowDeque.descendingIterator();
+        while (it.hasNext()) {
+            E e = it.next();
+            out.writeLong(e.getTimeStamp());
+            out.writeDouble(e.getValue());
+        }
+    }
+
+    /**
+     * Replaces the contents of the window with the entries written by {@link #writeCheckpoint}. The
+     * entries are replayed through {@link #next} so that subclasses rebuild their own state, and
+     * the entries that have expired in the meantime are pruned by the next data point.
+     *
+     * @param in The input to read from.
+     * @param entryFactory Creates an entry from its timestamp and value.
+     * @throws IOException If the input can't be read. The window is left unchanged then.
+     */
+    public void readCheckpoint(DataInput in, BiFunction<Long, Double, E> entryFactory)
+            throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            throw new IOException("Invalid sliding window size: " + size);
+        }
+        List<E> entries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long timeStamp = in.readLong();
+            double value = in.readDouble();
+            entries.add(entryFactory.apply(timeStamp, value));
+        }
+        clear();
+        sum = 0.0;
+        entries.forEach(this::next);
+    }
 }
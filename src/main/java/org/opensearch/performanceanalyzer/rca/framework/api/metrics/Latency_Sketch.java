@@ -0,0 +1,23 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.api.metrics;
+
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.rca.framework.api.Metric;
+
+/**
+ * The latency sketches of the shard operations, one per operation, shard, index and role, in the
+ * {@link MetricsDB#SKETCH} column. See {@link
+ * org.opensearch.performanceanalyzer.metricsdb.LatencySketch#mergeAll(Iterable)} to merge them.
+ */
+public class Latency_Sketch extends Metric {
+    public Latency_Sketch(long evaluationIntervalSeconds) {
+        super(
+                MetricsDB.getSketchTableName(AllMetrics.CommonMetric.LATENCY.toString()),
+                evaluationIntervalSeconds);
+    }
+}
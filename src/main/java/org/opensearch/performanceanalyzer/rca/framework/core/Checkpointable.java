@@ -0,0 +1,40 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.core;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Implemented by the graph nodes that accumulate state across evaluations, such as sliding windows,
+ * and want it to survive a restart of the RCA agent. The state of such nodes is checkpointed by the
+ * {@link org.opensearch.performanceanalyzer.rca.persistence.GraphCheckpointStore} and handed back
+ * to them when the scheduler starts again, so that they don't have to fill their windows from
+ * scratch before they can detect anything.
+ *
+ * <p>Both methods are called from the scheduler thread between two runs of the graph, never while
+ * the node is being evaluated. Nodes are identified by {@link Node#name()}.
+ */
+public interface Checkpointable {
+
+    /**
+     * Writes the state of the node.
+     *
+     * @param out The output to write to.
+     * @throws IOException If the output can't be written.
+     */
+    void writeCheckpoint(DataOutput out) throws IOException;
+
+    /**
+     * Restores the state written by {@link #writeCheckpoint}. The checkpoint can be older than the
+     * sliding windows of the node, so entries should be pruned by their own timestamps.
+     *
+     * @param in The input to read from.
+     * @throws IOException If the checkpoint can't be read or doesn't match the node.
+     */
+    void readCheckpoint(DataInput in) throws IOException;
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.core;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The sections of rca.conf that differ between two parsed versions of the file. The sections are
+ * grouped by what it takes to apply them to a running RCA framework.
+ */
+public class RcaConfDiff {
+
+    public enum Section {
+        /** muted-rcas, muted-deciders and muted-actions; applied through {@link Stats}. */
+        MUTES,
+
+        /**
+         * The settings the graph nodes read in {@link Node#readRcaConf(RcaConf)}: rca, decider and
+         * action config settings and the bucketization tunings. Applied to the live nodes.
+         */
+        NODE_SETTINGS,
+
+        /** The tags decide which nodes are evaluated locally, so the tasklets are rebuilt. */
+        TAGS,
+
+        /**
+         * The datastore, the analysis graph, the network and the buffer sizes. These are wired into
+         * the framework when it starts and are only applied by the next restart.
+         */
+        RUNTIME
+    }
+
+    private final Set<Section> changedSections;
+
+    private RcaConfDiff(Set<Section> changedSections) {
+        this.changedSections = Collections.unmodifiableSet(changedSections);
+    }
+
+    public static RcaConfDiff between(RcaConf oldConf, RcaConf newConf) {
+        if (oldConf == null || newConf == null || oldConf.conf == null || newConf.conf == null) {
+            return new RcaConfDiff(EnumSet.allOf(Section.class));
+        }
+        EnumSet<Section> changed = EnumSet.noneOf(Section.class);
+        if (!Objects.equals(oldConf.getMutedRcaList(), newConf.getMutedRcaList())
+                || !Objects.equals(oldConf.getMutedDeciderList(), newConf.getMutedDeciderList())
+                || !Objects.equals(oldConf.getMutedActionList(), newConf.getMutedActionList())) {
+            changed.add(Section.MUTES);
+        }
+        if (!Objects.equals(
+                        oldConf.conf.getRcaConfigSettings(), newConf.conf.getRcaConfigSettings())
+                || !Objects.equals(
+                        oldConf.getDeciderConfigSettings(), newConf.getDeciderConfigSettings())
+                || !Objects.equals(
+                        oldConf.getActionConfigSettings(), newConf.getActionConfigSettings())
+                || !Objects.equals(
+                        oldConf.conf.getBucketizationTunings(),
+                        newConf.conf.getBucketizationTunings())) {
+            changed.add(Section.NODE_SETTINGS);
+        }
+        if (!Objects.equals(oldConf.getTagMap(), newConf.getTagMap())) {
+            changed.add(Section.TAGS);
+        }
+        if (!Objects.equals(oldConf.getRcaStoreLoc(), newConf.getRcaStoreLoc())
+                || !Objects.equals(oldConf.getThresholdStoreLoc(), newConf.getThresholdStoreLoc())
+                || oldConf.getNewRcaCheckPeriodicityMins()
+                        != newConf.getNewRcaCheckPeriodicityMins()
+                || oldConf.getNewThresholdCheckPeriodicityMins()
+                        != newConf.getNewThresholdCheckPeriodicityMins()
+                || !Objects.equals(oldConf.getPeerIpList(), newConf.getPeerIpList())
+                || !Objects.equals(oldConf.getDatastore(), newConf.getDatastore())
+                || !Objects.equals(
+                        oldConf.getAnalysisGraphEntryPoint(), newConf.getAnalysisGraphEntryPoint())
+                || oldConf.getNetworkQueueLength() != newConf.getNetworkQueueLength()
+                || oldConf.getPerVertexBufferLength() != newConf.getPerVertexBufferLength()) {
+            changed.add(Section.RUNTIME);
+        }
+        return new RcaConfDiff(changed);
+    }
+
+    public boolean hasChanged(Section section) {
+        return changedSections.contains(section);
+    }
+
+    public boolean isEmpty() {
+        return changedSections.isEmpty();
+    }
+
+    public Set<Section> getChangedSections() {
+        return changedSections;
+    }
+
+    @Override
+    public String toString() {
+        return changedSections.toString();
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.metrics;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+
+/**
+ * Profiles the evaluation of each graph node on the thread of its tasklet: the wall time, the CPU
+ * time of the thread and the bytes it allocated. The last {@link #WINDOW_SAMPLES} evaluations of
+ * each node are kept to report rolling percentiles, so that the nodes that dominate the footprint
+ * of the RCA framework can be told apart from the ones that wait on the MetricsDB.
+ *
+ * <p>The CPU time and allocations are read from the {@link com.sun.management.ThreadMXBean} and are
+ * reported as -1 on JVMs that don't support them.
+ */
+public class GraphNodeProfiler {
+    private static final Logger LOG = LogManager.getLogger(GraphNodeProfiler.class);
+
+    /** The number of the latest evaluations of a node the percentiles are computed over. */
+    public static final int WINDOW_SAMPLES = 120;
+
+    private static final double[] PERCENTILES = {50, 90, 99};
+
+    private static volatile GraphNodeProfiler instance = null;
+
+    private final com.sun.management.ThreadMXBean threadMXBean;
+    private final boolean cpuTimeEnabled;
+    private final boolean allocationEnabled;
+    private final Map<String, NodeProfile> profiles = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    GraphNodeProfiler(java.lang.management.ThreadMXBean threadMXBean) {
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean) {
+            this.threadMXBean = (com.sun.management.ThreadMXBean) threadMXBean;
+        } else {
+            this.threadMXBean = null;
+        }
+        this.cpuTimeEnabled = enableCpuTime(threadMXBean);
+        this.allocationEnabled = enableAllocation(this.threadMXBean);
+    }
+
+    public static GraphNodeProfiler getInstance() {
+        if (instance == null) {
+            synchronized (GraphNodeProfiler.class) {
+                if (instance == null) {
+                    instance = new GraphNodeProfiler(ManagementFactory.getThreadMXBean());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private static boolean enableCpuTime(java.lang.management.ThreadMXBean threadMXBean) {
+        try {
+            if (threadMXBean.isCurrentThreadCpuTimeSupported()) {
+                if (!threadMXBean.isThreadCpuTimeEnabled()) {
+                    threadMXBean.setThreadCpuTimeEnabled(true);
+                }
+                return true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOG.warn("Thread CPU time is not available for profiling the graph nodes", e);
+        }
+        return false;
+    }
+
+    private static boolean enableAllocation(com.sun.management.ThreadMXBean threadMXBean) {
+        if (threadMXBean == null) {
+            return false;
+        }
+        try {
+            if (threadMXBean.isThreadAllocatedMemorySupported()) {
+                if (!threadMXBean.isThreadAllocatedMemoryEnabled()) {
+                    threadMXBean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return true;
+            }
+        } catch (UnsupportedOperationException | SecurityException e) {
+            LOG.warn("Thread allocations are not available for profiling the graph nodes", e);
+        }
+        return false;
+    }
+
+    /**
+     * Runs the evaluation of a graph node on the current thread and records what it cost.
+     *
+     * @param graphNode The name of the graph node being evaluated.
+     * @param evaluation The evaluation of the node.
+     */
+    public void profile(final String graphNode, final Runnable evaluation) {
+        long tid = Thread.currentThread().getId();
+        long cpuStart = cpuTimeEnabled ? threadMXBean.getCurrentThreadCpuTime() : 0;
+        long allocatedStart = allocationEnabled ? threadMXBean.getThreadAllocatedBytes(tid) : 0;
+        long wallStart = System.nanoTime();
+        try {
+            evaluation.run();
+        } finally {
+            long wallNanos = System.nanoTime() - wallStart;
+            long cpuNanos = cpuTimeEnabled ? threadMXBean.getCurrentThreadCpuTime() - cpuStart : -1;
+            long allocatedBytes =
+                    allocationEnabled
+                            ? threadMXBean.getThreadAllocatedBytes(tid) - allocatedStart
+                            : -1;
+            record(graphNode, wallNanos, cpuNanos, allocatedBytes);
+        }
+    }
+
+    @VisibleForTesting
+    void record(String graphNode, long wallNanos, long cpuNanos, long allocatedBytes) {
+        profiles.computeIfAbsent(graphNode, k -> new NodeProfile())
+                .add(wallNanos, cpuNanos, allocatedBytes);
+        if (cpuNanos >= 0) {
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.GRAPH_NODE_OPERATE_CPU_TIME,
+                    graphNode,
+                    TimeUnit.NANOSECONDS.toMicros(cpuNanos));
+        }
+        if (allocatedBytes >= 0) {
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.GRAPH_NODE_OPERATE_ALLOCATED_BYTES, graphNode, allocatedBytes);
+        }
+    }
+
+    /**
+     * @param top The maximum number of graph nodes to report, or a non positive number for all.
+     * @return The rolling percentiles of the graph nodes, those that used the most CPU over the
+     *     window first.
+     */
+    public JsonObject toJson(int top) {
+        List<Map.Entry<String, long[][]>> snapshots = new ArrayList<>();
+        for (Map.Entry<String, NodeProfile> entry : profiles.entrySet()) {
+            snapshots.add(Map.entry(entry.getKey(), entry.getValue().snapshot()));
+        }
+        // Nodes are ranked by CPU and then wall time, as the CPU time may not be available.
+        snapshots.sort(
+                Comparator.comparingLong((Map.Entry<String, long[][]> e) -> sum(e.getValue()[1]))
+                        .thenComparingLong(e -> sum(e.getValue()[0]))
+                        .reversed());
+
+        JsonArray nodes = new JsonArray();
+        for (Map.Entry<String, long[][]> entry : snapshots) {
+            if (top > 0 && nodes.size() >= top) {
+                break;
+            }
+            long[][] samples = entry.getValue();
+            JsonObject node = new JsonObject();
+            node.addProperty("name", entry.getKey());
+            node.addProperty("samples", samples[0].length);
+            node.add("wallMicros", percentiles(samples[0], true));
+            node.add("cpuMicros", percentiles(samples[1], true));
+            node.add("allocatedBytes", percentiles(samples[2], false));
+            nodes.add(node);
+        }
+        JsonObject result = new JsonObject();
+        result.addProperty("windowSamples", WINDOW_SAMPLES);
+        result.addProperty("cpuTimeEnabled", cpuTimeEnabled);
+        result.addProperty("allocationEnabled", allocationEnabled);
+        result.add("graphNodes", nodes);
+        return result;
+    }
+
+    private static long sum(long[] samples) {
+        long sum = 0;
+        for (long sample : samples) {
+            sum += sample;
+        }
+        return sum;
+    }
+
+    private static JsonObject percentiles(long[] samples, boolean nanosToMicros) {
+        JsonObject result = new JsonObject();
+        long[] sorted = Arrays.copyOf(samples, samples.length);
+        Arrays.sort(sorted);
+        for (double percentile : PERCENTILES) {
+            result.addProperty(
+                    "p" + (int) percentile,
+                    convert(percentileOf(sorted, percentile), nanosToMicros));
+        }
+        result.addProperty("max", convert(percentileOf(sorted, 100), nanosToMicros));
+        return result;
+    }
+
+    private static long percentileOf(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return -1;
+        }
+        int rank = (int) Math.ceil(percentile / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static long convert(long value, boolean nanosToMicros) {
+        return nanosToMicros && value > 0 ? TimeUnit.NANOSECONDS.toMicros(value) : value;
+    }
+
+    @VisibleForTesting
+    void clear() {
+        profiles.clear();
+    }
+
+    /** The last {@link #WINDOW_SAMPLES} evaluations of a graph node in ring buffers. */
+    private static class NodeProfile {
+        private final long[] wallNanos = new long[WINDOW_SAMPLES];
+        private final long[] cpuNanos = new long[WINDOW_SAMPLES];
+        private final long[] allocatedBytes = new long[WINDOW_SAMPLES];
+        private int next;
+        private int count;
+
+        synchronized void add(long wall, long cpu, long allocated) {
+            wallNanos[next] = wall;
+            cpuNanos[next] = cpu;
+            allocatedBytes[next] = allocated;
+            next = (next + 1) % WINDOW_SAMPLES;
+            count = Math.min(count + 1, WINDOW_SAMPLES);
+        }
+
+        /**
+         * @return The wall times, CPU times and allocations in the window, in that order.
+         */
+        synchronized long[][] snapshot() {
+            return new long[][] {
+                Arrays.copyOf(wallNanos, count),
+                Arrays.copyOf(cpuNanos, count),
+                Arrays.copyOf(allocatedBytes, count)
+            };
+        }
+    }
+}
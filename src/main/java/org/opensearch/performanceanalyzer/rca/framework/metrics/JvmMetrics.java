@@ -14,7 +14,13 @@ import org.opensearch.performanceanalyzer.commons.stats.metrics.StatsType;
 public enum JvmMetrics implements MeasurementSet {
     JVM_FREE_MEM_SAMPLER("JvmFreeMem", "bytes"),
     JVM_TOTAL_MEM_SAMPLER("JvmTotalMem", "bytes"),
-    THREAD_COUNT("ThreadCount", "count");
+    THREAD_COUNT("ThreadCount", "count"),
+
+    // The estimated footprint of the components bounded by the MemoryBudgetManager.
+    READER_SNAPSHOTS_MEM("ReaderSnapshotsMem", "bytes"),
+    RECEIVED_FLOW_UNITS_MEM("ReceivedFlowUnitsMem", "bytes"),
+    METRICS_QUERY_CACHE_MEM("MetricsQueryCacheMem", "bytes"),
+    METRICS_RETENTION_MEM("MetricsRetentionMem", "bytes");
 
     private String name;
     private String unit;
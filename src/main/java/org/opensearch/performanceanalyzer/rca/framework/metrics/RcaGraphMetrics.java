@@ -27,6 +27,20 @@ public enum RcaGraphMetrics implements MeasurementSet {
             StatsType.LATENCIES,
             Arrays.asList(Statistics.MAX, Statistics.MEAN, Statistics.SUM)),
 
+    /** Measures the CPU time of the tasklet thread spent evaluating a graph node. */
+    GRAPH_NODE_OPERATE_CPU_TIME(
+            "OperateCpuTime",
+            "micros",
+            StatsType.LATENCIES,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN, Statistics.SUM)),
+
+    /** Measures the bytes allocated by the tasklet thread while evaluating a graph node. */
+    GRAPH_NODE_OPERATE_ALLOCATED_BYTES(
+            "OperateAllocatedBytes",
+            "bytes",
+            StatsType.LATENCIES,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN, Statistics.SUM)),
+
     /** Measures the time taken to call gather on metrics */
     METRIC_GATHER_CALL(
             "MetricGatherCall",
@@ -63,6 +77,13 @@ public enum RcaGraphMetrics implements MeasurementSet {
             StatsType.STATS_DATA,
             Collections.singletonList(Statistics.NAMED_COUNTERS)),
 
+    /** Number of times the connection to a host was lost or rebuilt, per host. */
+    RCA_NETWORK_RECONNECT_COUNT(
+            "RcaNetworkReconnectCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
     /** Number of Network Error encountered per node. */
     RCA_NETWORK_ERROR(
             "RcaNetworkError",
@@ -84,6 +105,34 @@ public enum RcaGraphMetrics implements MeasurementSet {
             StatsType.STATS_DATA,
             Collections.singletonList(Statistics.NAMED_COUNTERS)),
 
+    /** Number of flow units published without their summary as it didn't change. */
+    RCA_NODES_FU_DELTA_PUBLISH_COUNT(
+            "RcaFlowUnitDeltaPublishCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of unchanged flow units dropped as the keyframe they refer to was not received. */
+    RCA_NODES_FU_DELTA_MISSING_KEYFRAME(
+            "RcaFlowUnitDeltaMissingKeyframe",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of flow units relayed by an aggregator to the cluster manager. */
+    RCA_NODES_FU_RELAY_COUNT(
+            "RcaFlowUnitRelayCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of flow units an aggregator merged away as a later one came from the same node. */
+    RCA_NODES_FU_RELAY_MERGED_COUNT(
+            "RcaFlowUnitRelayMergedCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
     /** Number of nodes that are currently receiving flow units from upstream nodes. */
     RCA_NODES_FU_CONSUME_COUNT(
             "RcaFlowUnitConsumeCount",
@@ -98,11 +147,46 @@ public enum RcaGraphMetrics implements MeasurementSet {
             StatsType.STATS_DATA,
             Collections.singletonList(Statistics.NAMED_COUNTERS)),
 
+    /** Number of batched subscribe RPCs sent per remote host. */
+    RCA_NODES_SUB_BATCH_COUNT(
+            "RcaSubscriptionBatchCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of subscriptions not sent again as a request for them was in flight, per node. */
+    RCA_NODES_SUB_COALESCED_COUNT(
+            "RcaSubscriptionCoalescedCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of times the subscriptions to a remote host were deferred by the rate limit. */
+    RCA_NODES_SUB_DEFERRED_COUNT(
+            "RcaSubscriptionDeferredCount",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
     /** Number of subscriptions acknowledged per node. */
     RCA_NODES_SUB_ACK_COUNT(
             "RcaSubscriptionAckCount",
             "namedCount",
             StatsType.STATS_DATA,
+            Collections.singletonList(Statistics.NAMED_COUNTERS)),
+
+    /** Number of received flow units buffered for a vertex when it is drained, per vertex. */
+    RCA_VERTEX_RX_BUFFER_DEPTH(
+            "RcaVertexRxBufferDepth",
+            "count",
+            StatsType.STATS_DATA,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN)),
+
+    /** Number of received flow units dropped before their vertex read them, per vertex. */
+    RCA_VERTEX_RX_DROPPED_COUNT(
+            "RcaVertexRxDroppedCount",
+            "namedCount",
+            StatsType.STATS_DATA,
             Collections.singletonList(Statistics.NAMED_COUNTERS));
 
     /** What we want to appear as the metric name. */
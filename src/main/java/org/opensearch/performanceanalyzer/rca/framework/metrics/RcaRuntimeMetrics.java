@@ -5,6 +5,7 @@
 
 package org.opensearch.performanceanalyzer.rca.framework.metrics;
 
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import org.opensearch.performanceanalyzer.commons.stats.eval.Statistics;
@@ -57,7 +58,76 @@ public enum RcaRuntimeMetrics implements MeasurementSet {
     MAX_TRANSPORT_THREAD_BLOCKED_TIME(
             "MaxTransportThreadBlockedTime", "seconds", StatsType.LATENCIES, Statistics.MAX),
     MAX_TRANSPORT_THREAD_WAITED_TIME(
-            "MaxTransportThreadWaitedTime", "seconds", StatsType.LATENCIES, Statistics.MAX);
+            "MaxTransportThreadWaitedTime", "seconds", StatsType.LATENCIES, Statistics.MAX),
+
+    /** The number of tasks waiting in the queue of a server lane when a new one is submitted. */
+    SERVER_LANE_QUEUE_DEPTH(
+            "ServerLaneQueueDepth",
+            "count",
+            StatsType.STATS_DATA,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN)),
+
+    /** The number of tasks that did not fit in the queue of a server lane. */
+    SERVER_LANE_REJECTED(
+            "ServerLaneRejected", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS),
+
+    /** The number of requests answered with 503/UNAVAILABLE because the server was overloaded. */
+    SERVER_LANE_REQUESTS_SHED(
+            "ServerLaneRequestsShed",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Statistics.NAMED_COUNTERS),
+
+    /** The number of metrics API queries answered from the cached response of the window. */
+    METRICS_QUERY_CACHE_HIT("MetricsQueryCacheHit"),
+
+    /** The number of metrics API queries that had to run against MetricsDB. */
+    METRICS_QUERY_CACHE_MISS("MetricsQueryCacheMiss"),
+
+    /** The sections of rca.conf that changed while the RCA scheduler was running. */
+    RCA_CONF_SECTIONS_CHANGED(
+            "RcaConfSectionsChanged",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Statistics.NAMED_COUNTERS),
+
+    /** The number of checkpoints of the RCA graph state written to disk. */
+    RCA_GRAPH_CHECKPOINT_WRITTEN("RcaGraphCheckpointWritten"),
+
+    /** The graph nodes whose state was restored from a checkpoint when the scheduler started. */
+    RCA_GRAPH_NODES_RESTORED(
+            "RcaGraphNodesRestored", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS),
+
+    /** The number of times a checkpoint of the RCA graph state could not be written or read. */
+    RCA_GRAPH_CHECKPOINT_ERROR("RcaGraphCheckpointError"),
+
+    /** The time an action listener took to handle a published action, per listener. */
+    ACTION_LISTENER_DELIVERY_TIME(
+            "ActionListenerDeliveryTime",
+            "millis",
+            StatsType.LATENCIES,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN)),
+
+    /** The actions not delivered to a listener because its queue was full, per listener. */
+    ACTION_LISTENER_DROPPED(
+            "ActionListenerDropped", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS),
+
+    /** The listener calls that were interrupted for taking longer than the timeout. */
+    ACTION_LISTENER_TIMED_OUT(
+            "ActionListenerTimedOut",
+            "namedCount",
+            StatsType.STATS_DATA,
+            Statistics.NAMED_COUNTERS),
+
+    /** The listener calls that threw an exception, per listener. */
+    ACTION_LISTENER_FAILED(
+            "ActionListenerFailed", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS),
+
+    /**
+     * The times a component was found over its memory budget and asked to shrink, per component.
+     */
+    MEMORY_BUDGET_EXCEEDED(
+            "MemoryBudgetExceeded", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS);
 
     /** What we want to appear as the metric name. */
     private String name;
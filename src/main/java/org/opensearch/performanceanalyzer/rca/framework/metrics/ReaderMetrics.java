@@ -91,6 +91,24 @@ public enum ReaderMetrics implements MeasurementSet {
             "millis",
             StatsType.LATENCIES,
             Statistics.SUM),
+
+    /**
+     * Tracks the reader cycles that took longer than a sampling interval and the writer windows
+     * that were processed late. Windows too far behind to be caught up are skipped; windows caught
+     * up on the fast path are emitted without the shard request metrics.
+     */
+    READER_CYCLE_OVERRUN("ReaderCycleOverrun"),
+    READER_WINDOW_BACKLOG(
+            "ReaderWindowBacklog",
+            "count",
+            StatsType.STATS_DATA,
+            Arrays.asList(Statistics.MAX, Statistics.MEAN)),
+    READER_SKIPPED_WINDOWS("ReaderSkippedWindows", "count", StatsType.STATS_DATA, Statistics.SUM),
+    READER_DEGRADED_WINDOWS("ReaderDegradedWindows", "count", StatsType.STATS_DATA, Statistics.SUM),
+
+    /** Tracks the emitters skipped because nobody reads the tables they write, by emitter. */
+    READER_SKIPPED_EMITTERS(
+            "ReaderSkippedEmitters", "namedCount", StatsType.STATS_DATA, Statistics.NAMED_COUNTERS),
     ;
 
     /** What we want to appear as the metric name. */
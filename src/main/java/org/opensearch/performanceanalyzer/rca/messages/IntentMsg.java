@@ -23,6 +23,13 @@ public class IntentMsg {
      */
     Map<String, String> rcaConfTags;
 
+    /**
+     * Whether the requesting node can have the flow units of the destination node pre-merged per
+     * host by the aggregators, see {@link
+     * org.opensearch.performanceanalyzer.rca.framework.api.MergeableClusterRca}.
+     */
+    boolean mergeablePartials;
+
     public String getRequesterGraphNode() {
         return requesterGraphNode;
     }
@@ -35,13 +42,26 @@ public class IntentMsg {
         return rcaConfTags;
     }
 
+    public boolean isMergeablePartials() {
+        return mergeablePartials;
+    }
+
     public IntentMsg(
             String requesterGraphNode,
             String destinationGraphNode,
             Map<String, String> rcaConfTags) {
+        this(requesterGraphNode, destinationGraphNode, rcaConfTags, false);
+    }
+
+    public IntentMsg(
+            String requesterGraphNode,
+            String destinationGraphNode,
+            Map<String, String> rcaConfTags,
+            boolean mergeablePartials) {
         this.requesterGraphNode = requesterGraphNode;
         this.destinationGraphNode = destinationGraphNode;
         this.rcaConfTags = rcaConfTags;
+        this.mergeablePartials = mergeablePartials;
     }
 
     @Override
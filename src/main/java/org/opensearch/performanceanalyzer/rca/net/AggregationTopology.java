@@ -0,0 +1,176 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+/**
+ * The optional two level topology through which the data nodes publish their node level flow units
+ * to the cluster manager. When it is enabled, the data nodes are split in groups of about {@link
+ * #FANOUT_CONF_NAME} nodes, each led by an aggregator: it subscribes to the flow units of the other
+ * nodes of its group on behalf of the cluster manager and relays them merged, see {@link
+ * FlowUnitRelay}. The cluster manager then only subscribes to the aggregators, which keeps the
+ * number of streams it terminates independent of the cluster size.
+ *
+ * <p>The groups only depend on the ids of the data nodes of the cluster, so the cluster manager and
+ * the aggregators compute the same groups from their own view of the cluster. The aggregators are
+ * the nodes with the lowest hash of their id and each other node joins the aggregator with the
+ * highest hash of the pair (rendezvous hashing), so a node joining or leaving the cluster only
+ * moves the nodes of its own group, or the few nodes a new aggregator takes over. The elected
+ * cluster manager is never an aggregator.
+ */
+public class AggregationTopology {
+    private static final Logger LOG = LogManager.getLogger(AggregationTopology.class);
+
+    /** The number of data nodes per aggregator, the topology is flat if it is not set. */
+    public static final String FANOUT_CONF_NAME = "cluster-aggregation-fanout";
+
+    static final int DISABLED_FANOUT = 0;
+
+    private static final HashFunction HASH = Hashing.murmur3_128();
+
+    private final int fanout;
+
+    public AggregationTopology() {
+        this(readFanout());
+    }
+
+    @VisibleForTesting
+    AggregationTopology(int fanout) {
+        this.fanout = fanout;
+    }
+
+    private static int readFanout() {
+        String value = PluginSettings.instance().getSettingValue(FANOUT_CONF_NAME, null);
+        if (value == null) {
+            return DISABLED_FANOUT;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 1) {
+                return parsed;
+            }
+            LOG.warn(
+                    "Value {} of {} should be greater than 1, using a flat topology",
+                    value,
+                    FANOUT_CONF_NAME);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value {} for {}, using a flat topology", value, FANOUT_CONF_NAME);
+        }
+        return DISABLED_FANOUT;
+    }
+
+    public boolean isEnabled() {
+        return fanout > 1;
+    }
+
+    /**
+     * @param dataNodes The data nodes of the cluster.
+     * @return Map of the id of each data node to the aggregator of its group, which may be the node
+     *     itself. The map is empty if the topology is flat or the cluster has too few data nodes
+     *     for more than one group.
+     */
+    public ImmutableMap<InstanceDetails.Id, InstanceDetails> assign(
+            final List<InstanceDetails> dataNodes) {
+        if (!isEnabled()) {
+            return ImmutableMap.of();
+        }
+        final List<InstanceDetails> candidates = new ArrayList<>();
+        for (final InstanceDetails dataNode : dataNodes) {
+            if (!dataNode.getIsClusterManager()) {
+                candidates.add(dataNode);
+            }
+        }
+        if (candidates.size() <= fanout) {
+            return ImmutableMap.of();
+        }
+        candidates.sort(
+                Comparator.comparingLong((InstanceDetails node) -> hash(node.getInstanceId()))
+                        .thenComparing(node -> node.getInstanceId().toString()));
+        final List<InstanceDetails> aggregators =
+                candidates.subList(0, (candidates.size() + fanout - 1) / fanout);
+
+        final ImmutableMap.Builder<InstanceDetails.Id, InstanceDetails> assignment =
+                ImmutableMap.builder();
+        for (final InstanceDetails candidate : candidates) {
+            final InstanceDetails.Id id = candidate.getInstanceId();
+            InstanceDetails aggregator = null;
+            long highest = Long.MIN_VALUE;
+            for (final InstanceDetails other : aggregators) {
+                if (other.getInstanceId().equals(id)) {
+                    aggregator = other;
+                    break;
+                }
+                final long pairHash = hash(id, other.getInstanceId());
+                if (aggregator == null || pairHash > highest) {
+                    aggregator = other;
+                    highest = pairHash;
+                }
+            }
+            assignment.put(id, aggregator);
+        }
+        return assignment.build();
+    }
+
+    private static long hash(final InstanceDetails.Id id) {
+        return HASH.hashString(id.toString(), StandardCharsets.UTF_8).asLong();
+    }
+
+    private static long hash(final InstanceDetails.Id node, final InstanceDetails.Id aggregator) {
+        return HASH.newHasher()
+                .putString(node.toString(), StandardCharsets.UTF_8)
+                .putChar('/')
+                .putString(aggregator.toString(), StandardCharsets.UTF_8)
+                .hash()
+                .asLong();
+    }
+
+    /**
+     * @param node The id of a node of the cluster.
+     * @param assignment The assignment of the data nodes to their aggregators, see {@link
+     *     #assign(List)}.
+     * @return true if the flow units of the node reach the cluster manager through an aggregator.
+     */
+    public static boolean isRelayed(
+            final InstanceDetails.Id node,
+            final ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment) {
+        final InstanceDetails aggregator = assignment.get(node);
+        return aggregator != null && !aggregator.getInstanceId().equals(node);
+    }
+
+    /**
+     * @param aggregator The id of a node of the cluster.
+     * @param dataNodes The data nodes of the cluster.
+     * @return The other data nodes of the group of the node if it is an aggregator, an empty list
+     *     otherwise.
+     */
+    public ImmutableList<InstanceDetails> getAssignedNodes(
+            final InstanceDetails.Id aggregator, final List<InstanceDetails> dataNodes) {
+        final ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment = assign(dataNodes);
+        final ImmutableList.Builder<InstanceDetails> assigned = ImmutableList.builder();
+        for (final InstanceDetails dataNode : dataNodes) {
+            final InstanceDetails nodeAggregator = assignment.get(dataNode.getInstanceId());
+            if (nodeAggregator != null
+                    && nodeAggregator.getInstanceId().equals(aggregator)
+                    && !dataNode.getInstanceId().equals(aggregator)) {
+                assigned.add(dataNode);
+            }
+        }
+        return assigned.build();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
+
+/**
+ * Rebuilds the flow units sent as unchanged by a {@link FlowUnitDeltaEncoder} from the last full
+ * message received for the same vertex from the same host. The keyframes of the hosts that left the
+ * cluster are dropped by {@link #retainHosts(Set)}.
+ */
+public class FlowUnitDeltaDecoder {
+    private static final Logger LOG = LogManager.getLogger(FlowUnitDeltaDecoder.class);
+
+    /** Map of vertex to the last full message received from each host for that vertex. */
+    private final ConcurrentMap<String, ConcurrentMap<String, FlowUnitMessage>> keyframeMap =
+            new ConcurrentHashMap<>();
+
+    /**
+     * @param message The message received from the network.
+     * @return The full message, or null if the message refers to a keyframe that was not received.
+     *     The publisher sends a new keyframe within its keyframe interval.
+     */
+    @Nullable
+    public FlowUnitMessage decode(final FlowUnitMessage message) {
+        final ConcurrentMap<String, FlowUnitMessage> keyframes =
+                keyframeMap.computeIfAbsent(message.getGraphNode(), k -> new ConcurrentHashMap<>());
+        if (!message.getUnchangedSinceKeyframe()) {
+            keyframes.put(message.getNode(), message);
+            return message;
+        }
+
+        final FlowUnitMessage keyframe = keyframes.get(message.getNode());
+        if (keyframe == null || keyframe.getTimeStamp() != message.getKeyframeTimeStamp()) {
+            LOG.debug(
+                    "rca: Dropping unchanged flow unit for {} from {} without its keyframe",
+                    message.getGraphNode(),
+                    message.getNode());
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.RCA_NODES_FU_DELTA_MISSING_KEYFRAME, message.getGraphNode(), 1);
+            return null;
+        }
+        return keyframe.toBuilder().setTimeStamp(message.getTimeStamp()).build();
+    }
+
+    /**
+     * Drops the keyframes of the hosts that are no longer in the cluster.
+     *
+     * @param hosts The ids of the hosts in the cluster.
+     */
+    public void retainHosts(final Set<String> hosts) {
+        for (final ConcurrentMap<String, FlowUnitMessage> keyframes : keyframeMap.values()) {
+            keyframes.keySet().retainAll(hosts);
+        }
+    }
+
+    @VisibleForTesting
+    int getKeyframeCount() {
+        int count = 0;
+        for (final ConcurrentMap<String, FlowUnitMessage> keyframes : keyframeMap.values()) {
+            count += keyframes.size();
+        }
+        return count;
+    }
+}
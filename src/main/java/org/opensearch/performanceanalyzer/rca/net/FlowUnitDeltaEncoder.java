@@ -0,0 +1,158 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+/**
+ * Encodes the flow units published for a vertex to a subscriber against the last full message, the
+ * keyframe, sent for that vertex to that subscriber.
+ *
+ * <p>Most data nodes are healthy and stable, so they keep publishing the same summaries every
+ * evaluation. When a flow unit has the same summary and resource context as the keyframe, only its
+ * timestamp and the timestamp of the keyframe are sent and the subscriber reuses the keyframe, see
+ * {@link FlowUnitDeltaDecoder}. A full keyframe is sent at least every keyframe interval, so a
+ * subscriber that missed one gets back in sync after a few evaluations.
+ *
+ * <p>Only subscribers that announced that they can decode deltas, with the {@link
+ * #SUPPORTS_DELTA_TAG} of their subscription, are sent deltas. Their state is reset when they
+ * subscribe again and when the connection to them is terminated, so that the next flow unit sent to
+ * them is a keyframe.
+ */
+public class FlowUnitDeltaEncoder {
+    private static final Logger LOG = LogManager.getLogger(FlowUnitDeltaEncoder.class);
+
+    /** The subscribe message tag set by the subscribers that can decode unchanged flow units. */
+    public static final String SUPPORTS_DELTA_TAG = "flowunit-delta";
+
+    public static final String KEYFRAME_INTERVAL_CONF_NAME = "flow-unit-keyframe-interval";
+    static final int DEFAULT_KEYFRAME_INTERVAL = 12;
+
+    private final int keyframeInterval;
+
+    /** Map of vertex to the encoding state of each of its delta capable subscribers. */
+    private final ConcurrentMap<String, ConcurrentMap<InstanceDetails.Id, Keyframe>> keyframeMap =
+            new ConcurrentHashMap<>();
+
+    public FlowUnitDeltaEncoder() {
+        this(readKeyframeInterval());
+    }
+
+    @VisibleForTesting
+    FlowUnitDeltaEncoder(int keyframeInterval) {
+        this.keyframeInterval = keyframeInterval;
+    }
+
+    private static int readKeyframeInterval() {
+        String value = PluginSettings.instance().getSettingValue(KEYFRAME_INTERVAL_CONF_NAME, null);
+        if (value == null) {
+            return DEFAULT_KEYFRAME_INTERVAL;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+            LOG.warn(
+                    "Value {} of {} should be positive, using {}",
+                    value,
+                    KEYFRAME_INTERVAL_CONF_NAME,
+                    DEFAULT_KEYFRAME_INTERVAL);
+        } catch (NumberFormatException e) {
+            LOG.warn(
+                    "Invalid value {} for {}, using {}",
+                    value,
+                    KEYFRAME_INTERVAL_CONF_NAME,
+                    DEFAULT_KEYFRAME_INTERVAL);
+        }
+        return DEFAULT_KEYFRAME_INTERVAL;
+    }
+
+    /**
+     * Starts encoding the flow units of the vertex for the subscriber from a fresh keyframe.
+     *
+     * @param graphNode The vertex the host subscribed to.
+     * @param subscriber The subscribing host.
+     * @param supportsDelta Whether the subscriber can decode unchanged flow units.
+     */
+    public void resync(
+            final String graphNode, final InstanceDetails.Id subscriber, boolean supportsDelta) {
+        if (supportsDelta && keyframeInterval > 1) {
+            keyframeMap
+                    .computeIfAbsent(graphNode, k -> new ConcurrentHashMap<>())
+                    .put(subscriber, new Keyframe());
+        } else {
+            forget(graphNode, subscriber);
+        }
+    }
+
+    /**
+     * Stops encoding the flow units of the vertex for the subscriber.
+     *
+     * @param graphNode The vertex.
+     * @param subscriber The host that no longer receives its flow units.
+     */
+    public void forget(final String graphNode, final InstanceDetails.Id subscriber) {
+        ConcurrentMap<InstanceDetails.Id, Keyframe> subscribers = keyframeMap.get(graphNode);
+        if (subscribers != null) {
+            subscribers.remove(subscriber);
+        }
+    }
+
+    /**
+     * @param graphNode The vertex that produced the flow unit.
+     * @param subscriber The host the flow unit is sent to.
+     * @param message The full flow unit message.
+     * @return The message to send: the full message if it is a keyframe, or a message with only the
+     *     timestamps if the subscriber can reuse its keyframe.
+     */
+    public FlowUnitMessage encode(
+            final String graphNode,
+            final InstanceDetails.Id subscriber,
+            final FlowUnitMessage message) {
+        ConcurrentMap<InstanceDetails.Id, Keyframe> subscribers = keyframeMap.get(graphNode);
+        Keyframe keyframe = subscribers == null ? null : subscribers.get(subscriber);
+        if (keyframe == null) {
+            return message;
+        }
+
+        FlowUnitMessage content = message.toBuilder().clearTimeStamp().build();
+        synchronized (keyframe) {
+            if (content.equals(keyframe.content) && keyframe.sentSinceKeyframe < keyframeInterval) {
+                keyframe.sentSinceKeyframe++;
+                return FlowUnitMessage.newBuilder()
+                        .setGraphNode(message.getGraphNode())
+                        .setNode(message.getNode())
+                        .setTimeStamp(message.getTimeStamp())
+                        .setUnchangedSinceKeyframe(true)
+                        .setKeyframeTimeStamp(keyframe.timeStamp)
+                        .build();
+            }
+            keyframe.content = content;
+            keyframe.timeStamp = message.getTimeStamp();
+            keyframe.sentSinceKeyframe = 1;
+            return message;
+        }
+    }
+
+    /** The last full message sent for a vertex to a subscriber. */
+    private static class Keyframe {
+        /** The keyframe without its timestamp, null until the first one is sent. */
+        private FlowUnitMessage content;
+
+        private long timeStamp;
+
+        /** The number of flow units sent since the keyframe, including the keyframe itself. */
+        private int sentSinceKeyframe;
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableMap;
+import io.grpc.stub.StreamObserver;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.grpc.PublishResponse;
+import org.opensearch.performanceanalyzer.grpc.PublishResponse.PublishResponseStatus;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
+import org.opensearch.performanceanalyzer.rca.messages.UnicastIntentMsg;
+import org.opensearch.performanceanalyzer.rca.net.tasks.UnicastSubscriptionTxTask;
+import org.opensearch.performanceanalyzer.rca.util.ClusterUtils;
+
+/**
+ * The aggregator side of the {@link AggregationTopology}. When the cluster manager subscribes to a
+ * vertex with the {@link #RELAY_TAG}, an aggregator subscribes to that vertex on the other data
+ * nodes of its group and relays their flow units to the cluster manager, pre-merged: only the
+ * latest flow unit of each node received since the last relay is sent, see {@link
+ * org.opensearch.performanceanalyzer.rca.framework.api.MergeableClusterRca}.
+ *
+ * <p>The relayed flow units keep the node that produced them, so the cluster manager decodes and
+ * consumes them as if they came from that node. They are sent when the aggregator publishes its own
+ * flow unit for the vertex, which happens once per evaluation of the vertex, and are encoded
+ * against their own keyframes per producing node.
+ *
+ * <p>On the cluster manager, the relay also decides which nodes are left to their aggregator: a
+ * node is subscribed to directly while its aggregator is not in the cluster or has not published
+ * the vertex for {@link #FAILOVER_INTERVALS} evaluation intervals, see {@link
+ * #isRelayedByHealthyAggregator}.
+ */
+public class FlowUnitRelay {
+    private static final Logger LOG = LogManager.getLogger(FlowUnitRelay.class);
+
+    /** The subscribe message tag set by the cluster manager to have the aggregators relay. */
+    public static final String RELAY_TAG = "relay";
+
+    /** How long an aggregator waits for flow units of a node before subscribing to it again. */
+    static final long RESUBSCRIBE_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(1);
+
+    /**
+     * The number of evaluation intervals the cluster manager waits for the flow units of an
+     * aggregator before subscribing directly to the nodes of its group.
+     */
+    static final int FAILOVER_INTERVALS = 3;
+
+    private static final String SEPARATOR = ".";
+
+    private final AggregationTopology topology;
+    private final NetClient netClient;
+    private final SubscriptionManager subscriptionManager;
+    private final NodeStateManager nodeStateManager;
+    private final AtomicReference<ExecutorService> executorReference;
+    private final AppContext appContext;
+
+    /** Encodes the relayed flow units, keyed by vertex and producing node, per cluster manager. */
+    private final FlowUnitDeltaEncoder deltaEncoder = new FlowUnitDeltaEncoder();
+
+    /** Map of vertex to the state of its relay, for the vertices this node relays. */
+    private final ConcurrentMap<String, Relay> relays = new ConcurrentHashMap<>();
+
+    /** The vertices the graph on this node reads from the network. */
+    private final Set<String> locallyRead = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Map of vertex and aggregator to the time the cluster manager started to read the vertex
+     * through the aggregator.
+     */
+    private final ConcurrentMap<String, Long> aggregatorsSince = new ConcurrentHashMap<>();
+
+    private Clock clock = Clock.systemUTC();
+
+    public FlowUnitRelay(
+            final AggregationTopology topology,
+            final NetClient netClient,
+            final SubscriptionManager subscriptionManager,
+            final NodeStateManager nodeStateManager,
+            final AtomicReference<ExecutorService> executorReference,
+            final AppContext appContext) {
+        this.topology = topology;
+        this.netClient = netClient;
+        this.subscriptionManager = subscriptionManager;
+        this.nodeStateManager = nodeStateManager;
+        this.executorReference = executorReference;
+        this.appContext = appContext;
+    }
+
+    public boolean isEnabled() {
+        return topology.isEnabled();
+    }
+
+    public AggregationTopology getTopology() {
+        return topology;
+    }
+
+    @VisibleForTesting
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @param tags The tags of a subscription.
+     * @return The tags with the {@link #RELAY_TAG} added.
+     */
+    public static Map<String, String> withRelayTag(final Map<String, String> tags) {
+        final Map<String, String> relayTags = new HashMap<>(tags);
+        relayTags.put(RELAY_TAG, Boolean.TRUE.toString());
+        return relayTags;
+    }
+
+    /**
+     * Records that the graph on this node reads the vertex from the network, so its flow units are
+     * also buffered for the graph when this node relays them.
+     *
+     * @param graphNode The vertex read from the network.
+     */
+    public void markLocallyRead(final String graphNode) {
+        locallyRead.add(graphNode);
+    }
+
+    /**
+     * Starts relaying the flow units of the vertex of the data nodes of this node's group to the
+     * cluster manager. Nothing is relayed if this node is not an aggregator.
+     *
+     * @param graphNode The vertex the cluster manager subscribed to.
+     * @param requesterGraphNode The vertex of the cluster manager that reads the flow units.
+     * @param target The cluster manager.
+     * @param locus The locus of the vertex.
+     */
+    public void addRelay(
+            final String graphNode,
+            final String requesterGraphNode,
+            final InstanceDetails.Id target,
+            final String locus) {
+        if (!topology.isEnabled()) {
+            return;
+        }
+        final List<InstanceDetails> assignedNodes =
+                topology.getAssignedNodes(
+                        appContext.getMyInstanceDetails().getInstanceId(),
+                        appContext.getDataNodeInstances());
+        if (assignedNodes.isEmpty()) {
+            LOG.debug("rca: Not an aggregator, not relaying {} to {}", graphNode, target);
+            return;
+        }
+        final Relay relay =
+                relays.computeIfAbsent(graphNode, k -> new Relay(requesterGraphNode, locus));
+        relay.targets.add(target);
+        // The target may have restarted and lost its keyframes.
+        relay.synced.removeIf(key -> key.endsWith(SEPARATOR + target));
+        relay.lastSubscribed.clear();
+        subscribeToStaleNodes(graphNode, relay, assignedNodes);
+        LOG.info("rca: Relaying {} of {} nodes to {}", graphNode, assignedNodes.size(), target);
+    }
+
+    /**
+     * Decides, on the cluster manager, whether a node that has not published the vertex recently is
+     * left to its aggregator to resubscribe to. The aggregator gets {@link #FAILOVER_INTERVALS}
+     * evaluation intervals from the time the cluster manager first relies on it to publish the
+     * vertex, after which the node is subscribed to directly until the aggregator publishes again.
+     *
+     * @param graphNode The vertex read through the aggregators.
+     * @param node The node that has not published the vertex recently.
+     * @param assignment The assignment of the data nodes to their aggregators, see {@link
+     *     AggregationTopology#assign(List)}.
+     * @param intervalMillis The evaluation interval of the vertex.
+     * @return true if the node publishes through an aggregator that is in the cluster and healthy.
+     */
+    public boolean isRelayedByHealthyAggregator(
+            final String graphNode,
+            final InstanceDetails.Id node,
+            final ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment,
+            final long intervalMillis) {
+        if (!AggregationTopology.isRelayed(node, assignment)) {
+            return false;
+        }
+        final InstanceDetails.Id aggregator = assignment.get(node).getInstanceId();
+        final String key = graphNode + SEPARATOR + aggregator;
+        if (!ClusterUtils.isHostIdInCluster(aggregator, appContext.getAllClusterInstances())) {
+            aggregatorsSince.remove(key);
+            return false;
+        }
+        final long now = clock.millis();
+        final long lastHeard =
+                Math.max(
+                        aggregatorsSince.computeIfAbsent(key, k -> now),
+                        nodeStateManager.getLastReceivedTimestamp(graphNode, aggregator));
+        if (now - lastHeard <= FAILOVER_INTERVALS * intervalMillis) {
+            return true;
+        }
+        LOG.debug("rca: Aggregator {} of {} is silent for {}", aggregator, node, graphNode);
+        return false;
+    }
+
+    /**
+     * Forgets the aggregators that left the cluster.
+     *
+     * @param hosts The ids of the hosts of the cluster.
+     */
+    public void retainAggregators(final Set<String> hosts) {
+        aggregatorsSince
+                .keySet()
+                .removeIf(key -> !hosts.contains(key.substring(key.indexOf(SEPARATOR) + 1)));
+    }
+
+    /**
+     * @param graphNode A vertex.
+     * @return true if this node relays the flow units of the vertex.
+     */
+    public boolean isRelaying(final String graphNode) {
+        return relays.containsKey(graphNode);
+    }
+
+    /**
+     * Buffers a flow unit received from a data node of this node's group for the next relay.
+     *
+     * @param message The decoded flow unit message.
+     * @return true if the flow unit is only needed by the relay, false if the graph on this node
+     *     also reads it.
+     */
+    public boolean offer(final FlowUnitMessage message) {
+        final String graphNode = message.getGraphNode();
+        final Relay relay = relays.get(graphNode);
+        if (relay == null) {
+            return false;
+        }
+        final InstanceDetails.Id origin = new InstanceDetails.Id(message.getNode());
+        if (relay.pending.containsKey(origin)) {
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.RCA_NODES_FU_RELAY_MERGED_COUNT, graphNode, 1);
+        }
+        relay.pending.merge(
+                origin,
+                message,
+                (buffered, received) ->
+                        received.getTimeStamp() >= buffered.getTimeStamp() ? received : buffered);
+        return !locallyRead.contains(graphNode);
+    }
+
+    /**
+     * Sends the flow units buffered for the vertex to the cluster managers and subscribes again to
+     * the nodes of the group that stopped sending theirs.
+     *
+     * @param graphNode The vertex whose flow units are relayed.
+     */
+    public void flush(final String graphNode) {
+        final Relay relay = relays.get(graphNode);
+        if (relay == null) {
+            return;
+        }
+        final List<InstanceDetails> clusterInstances = appContext.getAllClusterInstances();
+        relay.targets.removeIf(target -> !ClusterUtils.isHostIdInCluster(target, clusterInstances));
+        if (relay.targets.isEmpty()) {
+            LOG.info("rca: No cluster manager left to relay {} to", graphNode);
+            relays.remove(graphNode, relay);
+            return;
+        }
+        final List<InstanceDetails> assignedNodes =
+                topology.getAssignedNodes(
+                        appContext.getMyInstanceDetails().getInstanceId(),
+                        appContext.getDataNodeInstances());
+        if (assignedNodes.isEmpty()) {
+            LOG.info("rca: No longer an aggregator, not relaying {} anymore", graphNode);
+            relays.remove(graphNode, relay);
+            return;
+        }
+        retainMembers(graphNode, relay, assignedNodes);
+
+        final List<FlowUnitMessage> batch = new ArrayList<>();
+        for (final Map.Entry<InstanceDetails.Id, FlowUnitMessage> entry :
+                relay.pending.entrySet()) {
+            if (relay.pending.remove(entry.getKey(), entry.getValue())) {
+                batch.add(entry.getValue());
+            }
+        }
+        for (final InstanceDetails.Id target : relay.targets) {
+            for (final FlowUnitMessage message : batch) {
+                publish(graphNode, relay, target, message);
+            }
+        }
+
+        subscribeToStaleNodes(graphNode, relay, assignedNodes);
+    }
+
+    /**
+     * Forgets the nodes the topology assigned to another aggregator, although they may still be in
+     * the cluster. Their flow units reach the cluster manager through their new aggregator or
+     * directly, relaying them as well would hand it stale copies.
+     */
+    private void retainMembers(
+            final String graphNode, final Relay relay, final List<InstanceDetails> assignedNodes) {
+        final Set<InstanceDetails.Id> members = new HashSet<>();
+        for (final InstanceDetails node : assignedNodes) {
+            members.add(node.getInstanceId());
+        }
+        relay.pending.keySet().retainAll(members);
+        relay.lastSubscribed.keySet().retainAll(members);
+        // A node that comes back to the group starts again from a keyframe.
+        relay.synced.removeIf(
+                key -> {
+                    final String node = key.substring(graphNode.length() + 1);
+                    return members.stream()
+                            .noneMatch(member -> node.startsWith(member + SEPARATOR));
+                });
+    }
+
+    private void publish(
+            final String graphNode,
+            final Relay relay,
+            final InstanceDetails.Id target,
+            final FlowUnitMessage message) {
+        final String key = graphNode + SEPARATOR + message.getNode();
+        if (relay.synced.add(key + SEPARATOR + target)) {
+            deltaEncoder.resync(key, target, true);
+        }
+        final FlowUnitMessage encoded = deltaEncoder.encode(key, target, message);
+        LOG.debug("rca: [relay-tx]: {} from {} -> {}", graphNode, message.getNode(), target);
+        netClient.publish(
+                appContext.getInstanceById(target),
+                encoded,
+                new StreamObserver<PublishResponse>() {
+                    @Override
+                    public void onNext(final PublishResponse value) {
+                        if (value.getDataStatus() == PublishResponseStatus.NODE_SHUTDOWN) {
+                            relay.targets.remove(target);
+                            netClient.flushStream(target);
+                        }
+                    }
+
+                    @Override
+                    public void onError(final Throwable t) {
+                        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                                RcaGraphMetrics.RCA_NETWORK_ERROR, graphNode, 1);
+                        LOG.error("rca: Encountered an exception while relaying: ", t);
+                        // The next flow units go out as keyframes on a new stream.
+                        relay.synced.removeIf(k -> k.endsWith(SEPARATOR + target));
+                        netClient.flushStream(target);
+                    }
+
+                    @Override
+                    public void onCompleted() {
+                        LOG.debug("rca: Server closed the relay channel!");
+                    }
+                });
+        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                RcaGraphMetrics.RCA_NODES_FU_RELAY_COUNT, graphNode, 1);
+    }
+
+    private void subscribeToStaleNodes(
+            final String graphNode, final Relay relay, final List<InstanceDetails> assignedNodes) {
+        final long now = clock.millis();
+        for (final InstanceDetails node : assignedNodes) {
+            final long lastHeard =
+                    Math.max(
+                            nodeStateManager.getLastReceivedTimestamp(
+                                    graphNode, node.getInstanceId()),
+                            relay.lastSubscribed.getOrDefault(node.getInstanceId(), 0L));
+            if (now - lastHeard <= RESUBSCRIBE_INTERVAL_MILLIS) {
+                continue;
+            }
+            final ExecutorService executor = executorReference.get();
+            if (executor == null) {
+                return;
+            }
+            try {
+                executor.execute(
+                        new UnicastSubscriptionTxTask(
+                                netClient,
+                                new UnicastIntentMsg(
+                                        relay.requesterGraphNode,
+                                        graphNode,
+                                        ImmutableMap.of(
+                                                RcaConsts.RcaTagConstants.TAG_LOCUS, relay.locus),
+                                        node),
+                                subscriptionManager,
+                                nodeStateManager,
+                                appContext));
+                relay.lastSubscribed.put(node.getInstanceId(), now);
+            } catch (final RejectedExecutionException ree) {
+                LOG.warn("Dropped sending relay subscription because the threadpool queue is full");
+                StatsCollector.instance()
+                        .logException(StatExceptionCode.RCA_NETWORK_THREADPOOL_QUEUE_FULL_ERROR);
+            }
+        }
+    }
+
+    @VisibleForTesting
+    int getPendingCount(final String graphNode) {
+        final Relay relay = relays.get(graphNode);
+        return relay == null ? 0 : relay.pending.size();
+    }
+
+    /** The state of the relay of a vertex. */
+    private static class Relay {
+        private final String requesterGraphNode;
+        private final String locus;
+
+        /** The cluster managers the flow units are relayed to. */
+        private final Set<InstanceDetails.Id> targets = ConcurrentHashMap.newKeySet();
+
+        /** The keys, producing node and target, the delta encoder was resynced for. */
+        private final Set<String> synced = ConcurrentHashMap.newKeySet();
+
+        /** The latest flow unit of each producing node received since the last relay. */
+        private final ConcurrentMap<InstanceDetails.Id, FlowUnitMessage> pending =
+                new ConcurrentHashMap<>();
+
+        /** The last time a subscription was sent to each node of the group. */
+        private final ConcurrentMap<InstanceDetails.Id, Long> lastSubscribed =
+                new ConcurrentHashMap<>();
+
+        Relay(final String requesterGraphNode, final String locus) {
+            this.requesterGraphNode = requesterGraphNode;
+            this.locus = locus;
+        }
+    }
+}
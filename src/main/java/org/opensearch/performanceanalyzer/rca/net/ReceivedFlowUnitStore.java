@@ -5,31 +5,46 @@
 
 package org.opensearch.performanceanalyzer.rca.net;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
 import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgeted;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
 
 /**
  * An intermediate buffer that holds flow units received for different vertices from across the
  * cluster.
+ *
+ * <p>Each vertex has a ring buffer of a fixed size. The gRPC threads that receive the flow units
+ * add to it without taking a lock and, when it is full, overwrite the oldest flow unit: the RCAs
+ * want the newest data. The flow units are taken out in the order they were added, by the scheduler
+ * thread that runs the vertex, or by the memory budget when it sheds load.
  */
-public class ReceivedFlowUnitStore {
+public class ReceivedFlowUnitStore implements MemoryBudgeted {
 
     private static final Logger LOG = LogManager.getLogger(ReceivedFlowUnitStore.class);
 
-    /** Map of vertex to a queue of flow units received for that vertex. */
-    private ConcurrentMap<String, BlockingQueue<FlowUnitMessage>> flowUnitMap =
-            new ConcurrentHashMap<>();
+    /** Map of vertex to the ring buffer of flow units received for that vertex. */
+    private final ConcurrentMap<String, VertexBuffer> flowUnitMap = new ConcurrentHashMap<>();
+
+    /** Rebuilds the flow units that were sent as unchanged since their keyframe. */
+    private final FlowUnitDeltaDecoder deltaDecoder = new FlowUnitDeltaDecoder();
 
     /** The per vertex flow unit queue size. */
     private final int perNodeFlowUnitQSize;
@@ -39,28 +54,43 @@ public class ReceivedFlowUnitStore {
     }
 
     public ReceivedFlowUnitStore(final int perNodeFlowUnitQSize) {
+        if (perNodeFlowUnitQSize <= 0) {
+            throw new IllegalArgumentException(
+                    "The per vertex flow unit queue size should be positive: "
+                            + perNodeFlowUnitQSize);
+        }
         this.perNodeFlowUnitQSize = perNodeFlowUnitQSize;
     }
 
+    public FlowUnitDeltaDecoder getDeltaDecoder() {
+        return deltaDecoder;
+    }
+
     /**
-     * Adds the received flow unit from the network to a dedicated queue for holding flow units for
-     * this particular vertex. This queue is then consumed by the wirehopper when the time comes to
-     * execute the vertex.
+     * Adds the received flow unit from the network to a dedicated ring buffer for holding flow
+     * units for this particular vertex. This buffer is then consumed by the wirehopper when the
+     * time comes to execute the vertex.
      *
      * @param graphNode The vertex for which we need to store the remote flow units for.
      * @param flowUnitMessage The actual flow unit message protobuf object that we received from the
      *     network that needs to be stored.
-     * @return true if the enqueue operation succeeded, false if the queue was full and we have to
-     *     drop the flow unit.
+     * @return true if the flow unit was buffered without loss, false if the buffer was full and a
+     *     flow unit had to be dropped to make room for the newest one.
      */
     public boolean enqueue(final String graphNode, final FlowUnitMessage flowUnitMessage) {
-        flowUnitMap.computeIfAbsent(graphNode, s -> new ArrayBlockingQueue<>(perNodeFlowUnitQSize));
-        BlockingQueue<FlowUnitMessage> existingQueue = flowUnitMap.get(graphNode);
-        boolean retValue = existingQueue.offer(flowUnitMessage);
+        VertexBuffer buffer = flowUnitMap.get(graphNode);
+        if (buffer == null) {
+            buffer =
+                    flowUnitMap.computeIfAbsent(
+                            graphNode, s -> new VertexBuffer(perNodeFlowUnitQSize));
+        }
+        boolean retValue = buffer.offer(flowUnitMessage);
         if (!retValue) {
-            LOG.warn("Dropped flow unit because per vertex queue is full");
+            LOG.warn("Dropped the oldest flow unit because per vertex queue is full");
             StatsCollector.instance()
                     .logException(StatExceptionCode.RCA_VERTEX_RX_BUFFER_FULL_ERROR);
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.RCA_VERTEX_RX_DROPPED_COUNT, graphNode, 1);
         }
 
         return retValue;
@@ -74,26 +104,281 @@ public class ReceivedFlowUnitStore {
      */
     public ImmutableList<FlowUnitMessage> drainNode(final String graphNode) {
         LOG.debug("Draining flow units for vertex: {}", graphNode);
-        final List<FlowUnitMessage> tempList = new ArrayList<>();
-        BlockingQueue<FlowUnitMessage> existing = flowUnitMap.get(graphNode);
+        VertexBuffer existing = flowUnitMap.get(graphNode);
         if (existing == null) {
             LOG.debug("Nothing in the FlowUnitStore for vertex: {}", graphNode);
             return ImmutableList.of();
         }
 
-        existing.drainTo(tempList);
-        LOG.debug("Available flow units for vertex: {}, flowUnits: {}", graphNode, tempList);
+        final ImmutableList.Builder<FlowUnitMessage> drained = ImmutableList.builder();
+        int count;
+        synchronized (existing) {
+            count = existing.drainTo(drained::add);
+        }
+        recordDepth(graphNode, count);
+        return drained.build();
+    }
+
+    /**
+     * Drains the flow units enqueued for the vertex without copying them into a new list. This is
+     * what the vertices use on every run; the buffer of each vertex only ever has the scheduler
+     * thread running the vertex as its reader.
+     *
+     * @param graphNode The vertex whose flow units needed to be drained.
+     * @return A read only view of the flow units received from the network for the vertex. The view
+     *     is reused, and so only valid until the next drain of the vertex.
+     */
+    public List<FlowUnitMessage> drainNodeView(final String graphNode) {
+        VertexBuffer existing = flowUnitMap.get(graphNode);
+        if (existing == null) {
+            LOG.debug("Nothing in the FlowUnitStore for vertex: {}", graphNode);
+            return Collections.emptyList();
+        }
 
-        return ImmutableList.copyOf(tempList);
+        int count;
+        synchronized (existing) {
+            existing.drained.clear();
+            count = existing.drainTo(existing.drained::add);
+        }
+        recordDepth(graphNode, count);
+        return existing.drainedView;
+    }
+
+    /**
+     * @param graphNode The vertex.
+     * @return The number of flow units buffered for the vertex.
+     */
+    @VisibleForTesting
+    int getDepth(final String graphNode) {
+        VertexBuffer existing = flowUnitMap.get(graphNode);
+        if (existing == null) {
+            return 0;
+        }
+        synchronized (existing) {
+            return existing.size();
+        }
+    }
+
+    /**
+     * @param graphNode The vertex.
+     * @return The number of flow units of the vertex dropped to make room for newer ones or to stay
+     *     within the memory budget.
+     */
+    public long getDroppedCount(final String graphNode) {
+        VertexBuffer existing = flowUnitMap.get(graphNode);
+        return existing == null ? 0 : existing.dropped.get();
+    }
+
+    private static void recordDepth(final String graphNode, final int count) {
+        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                RcaGraphMetrics.RCA_VERTEX_RX_BUFFER_DEPTH, graphNode, count);
+    }
+
+    /**
+     * The footprint of the buffered flow units is estimated from their serialized size, which the
+     * protobuf messages compute once and cache.
+     */
+    @Override
+    public long estimateRetainedBytes() {
+        long bytes = 0;
+        for (VertexBuffer buffer : flowUnitMap.values()) {
+            synchronized (buffer) {
+                bytes += buffer.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Drops the oldest flow units of the vertices that buffered the most, so that the vertices fed
+     * by a few nodes keep their flow units while a vertex fanned in from the whole cluster loses
+     * the part of its backlog it would likely have found stale anyway.
+     */
+    @Override
+    public void shrinkTo(long budgetBytes) {
+        Map<String, Long> vertexBytes = new HashMap<>();
+        long bytes = 0;
+        for (Map.Entry<String, VertexBuffer> entry : flowUnitMap.entrySet()) {
+            long size;
+            synchronized (entry.getValue()) {
+                size = entry.getValue().sizeInBytes();
+            }
+            vertexBytes.put(entry.getKey(), size);
+            bytes += size;
+        }
+
+        int dropped = 0;
+        while (bytes > budgetBytes && !vertexBytes.isEmpty()) {
+            String largest =
+                    Collections.max(vertexBytes.entrySet(), Map.Entry.comparingByValue()).getKey();
+            VertexBuffer buffer = flowUnitMap.get(largest);
+            FlowUnitMessage oldest;
+            synchronized (buffer) {
+                oldest = buffer.poll();
+            }
+            if (oldest == null) {
+                vertexBytes.remove(largest);
+                continue;
+            }
+            buffer.dropped.incrementAndGet();
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.RCA_VERTEX_RX_DROPPED_COUNT, largest, 1);
+            int size = oldest.getSerializedSize();
+            vertexBytes.merge(largest, (long) -size, Long::sum);
+            bytes -= size;
+            dropped++;
+        }
+        if (dropped > 0) {
+            LOG.warn(
+                    "Dropped {} buffered flow units to stay within {} bytes", dropped, budgetBytes);
+        }
     }
 
     /** Drains out all the flow units for all nodes. */
     public List<FlowUnitMessage> drainAll() {
         List<FlowUnitMessage> drained = new ArrayList<>();
         for (final String graphNode : flowUnitMap.keySet()) {
-            ImmutableList<FlowUnitMessage> messages = drainNode(graphNode);
-            drained.addAll(messages);
+            drained.addAll(drainNode(graphNode));
         }
         return drained;
     }
+
+    /** A flow unit and its sequence number in the ring buffer of its vertex. */
+    private static final class Slot {
+        private final long sequence;
+        private final FlowUnitMessage message;
+
+        Slot(final long sequence, final FlowUnitMessage message) {
+            this.sequence = sequence;
+            this.message = message;
+        }
+    }
+
+    /**
+     * The ring buffer of a vertex. The writers claim a sequence number and swap their flow unit in
+     * the slot of the sequence, unless a newer one got there first. The reader takes the slots out
+     * in sequence order by swapping them for null, so that a flow unit is either read or
+     * overwritten, never both. The reads must hold the lock of the buffer, the writes never do.
+     */
+    private static final class VertexBuffer {
+        private final int capacity;
+        private final AtomicReferenceArray<Slot> slots;
+
+        /** The next sequence number to hand out to a writer. */
+        private final AtomicLong tail = new AtomicLong();
+
+        /**
+         * The next sequence number to read, only written under the lock of the buffer. The writers
+         * read it to find out that the reader already went past their sequence.
+         */
+        private volatile long head;
+
+        private final AtomicLong dropped = new AtomicLong();
+
+        /** The list the flow units are drained into, reused across drains. */
+        private final List<FlowUnitMessage> drained = new ArrayList<>();
+
+        private final List<FlowUnitMessage> drainedView = Collections.unmodifiableList(drained);
+
+        VertexBuffer(final int capacity) {
+            this.capacity = capacity;
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        /**
+         * @return false if a flow unit was dropped to make room.
+         */
+        boolean offer(final FlowUnitMessage message) {
+            final long sequence = tail.getAndIncrement();
+            final int index = indexOf(sequence);
+            final Slot slot = new Slot(sequence, message);
+            while (true) {
+                final Slot current = slots.get(index);
+                if (sequence < head || (current != null && current.sequence > sequence)) {
+                    // This writer was lapped by a newer flow unit or the reader already went past
+                    // its sequence, so it is the one dropped.
+                    dropped.incrementAndGet();
+                    return false;
+                }
+                if (slots.compareAndSet(index, current, slot)) {
+                    if (sequence < head) {
+                        // The reader went past the sequence while the flow unit was stored, it
+                        // would never be read. The writer that overwrites it counts the drop.
+                        if (current != null) {
+                            dropped.incrementAndGet();
+                        }
+                        if (slots.compareAndSet(index, slot, null)) {
+                            dropped.incrementAndGet();
+                        }
+                        return false;
+                    }
+                    if (current != null) {
+                        dropped.incrementAndGet();
+                        return false;
+                    }
+                    return true;
+                }
+            }
+        }
+
+        /**
+         * @return The oldest flow unit of the buffer, or null if it has none yet.
+         */
+        FlowUnitMessage poll() {
+            final long end = tail.get();
+            long sequence = Math.max(head, end - capacity);
+            while (sequence < end) {
+                final int index = indexOf(sequence);
+                final Slot slot = slots.get(index);
+                if (slot == null || slot.sequence < sequence) {
+                    // The writer of this sequence has not stored its flow unit yet.
+                    break;
+                }
+                if (slot.sequence == sequence && slots.compareAndSet(index, slot, null)) {
+                    head = sequence + 1;
+                    return slot.message;
+                }
+                // Overwritten by a newer flow unit, its writer counted the drop.
+                sequence++;
+            }
+            head = sequence;
+            return null;
+        }
+
+        int drainTo(final Consumer<FlowUnitMessage> sink) {
+            int count = 0;
+            FlowUnitMessage message;
+            while ((message = poll()) != null) {
+                sink.accept(message);
+                count++;
+            }
+            return count;
+        }
+
+        int size() {
+            int size = 0;
+            for (int i = 0; i < capacity; i++) {
+                final Slot slot = slots.get(i);
+                if (slot != null && slot.sequence >= head) {
+                    size++;
+                }
+            }
+            return size;
+        }
+
+        long sizeInBytes() {
+            long bytes = 0;
+            for (int i = 0; i < capacity; i++) {
+                final Slot slot = slots.get(i);
+                if (slot != null && slot.sequence >= head) {
+                    bytes += slot.message.getSerializedSize();
+                }
+            }
+            return bytes;
+        }
+
+        private int indexOf(final long sequence) {
+            return (int) (sequence % capacity);
+        }
+    }
 }
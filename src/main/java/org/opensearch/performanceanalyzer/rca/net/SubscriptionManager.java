@@ -39,6 +39,9 @@ public class SubscriptionManager {
     private final ConcurrentMap<String, Set<InstanceDetails.Id>> subscriberMap =
             new ConcurrentHashMap<>();
 
+    /** Encodes the flow units sent to the subscribers against their last keyframes. */
+    private final FlowUnitDeltaEncoder deltaEncoder = new FlowUnitDeltaEncoder();
+
     /** The current locus of the node. */
     private volatile String currentLocus;
 
@@ -66,6 +69,7 @@ public class SubscriptionManager {
                 subscriberMap.remove(graphNode);
             }
         }
+        deltaEncoder.forget(graphNode, remoteHost);
         connectionManager.terminateConnection(remoteHost);
     }
 
@@ -78,8 +82,26 @@ public class SubscriptionManager {
      * @return A SubscriptionStatus protobuf message that contains the status for the subscription
      *     request.
      */
-    public synchronized SubscriptionStatus addSubscriber(
+    public SubscriptionStatus addSubscriber(
             final String graphNode, final InstanceDetails.Id subscriberHostId, final String loci) {
+        return addSubscriber(graphNode, subscriberHostId, loci, false);
+    }
+
+    /**
+     * Adds a new host as a subscriber to a vertex. Caller: subscription receiver thread.
+     *
+     * @param graphNode The vertex to which the host wants to subscribe to.
+     * @param subscriberHostId The host that wants to subscribe.
+     * @param loci The locus which the subscribing host is interested in.
+     * @param supportsDelta Whether the host can decode flow units sent as unchanged.
+     * @return A SubscriptionStatus protobuf message that contains the status for the subscription
+     *     request.
+     */
+    public synchronized SubscriptionStatus addSubscriber(
+            final String graphNode,
+            final InstanceDetails.Id subscriberHostId,
+            final String loci,
+            final boolean supportsDelta) {
         final List<String> vertexLoci =
                 Arrays.asList(loci.split(RcaConsts.RcaTagConstants.SEPARATOR));
         if (!vertexLoci.contains(currentLocus)) {
@@ -97,11 +119,17 @@ public class SubscriptionManager {
         // visible
         // to subsequent reads.
         subscriberMap.put(graphNode, currentSubscribers);
+        // The subscriber may have restarted and lost its keyframes.
+        deltaEncoder.resync(graphNode, subscriberHostId, supportsDelta);
 
         LOG.debug("locus matched. Added subscriber {} for {}", subscriberHostId, graphNode);
         return SubscriptionStatus.SUCCESS;
     }
 
+    public FlowUnitDeltaEncoder getDeltaEncoder() {
+        return deltaEncoder;
+    }
+
     /**
      * Check if a vertex has downstream subscribers. Callers: flow unit send thread.
      *
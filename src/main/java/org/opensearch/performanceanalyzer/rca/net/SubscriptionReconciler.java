@@ -0,0 +1,377 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.net.tasks.SubscriptionTxTask;
+import org.opensearch.performanceanalyzer.rca.util.ClusterUtils;
+
+/**
+ * Coalesces the subscriptions the remote vertices ask for during a run of the graph and sends them
+ * once the run is over, with one subscribe RPC per remote host for all the vertices it is asked
+ * for. A subscription whose request is still in flight is not asked for again, and at most {@link
+ * #MAX_HOSTS_PER_RUN_CONF_NAME} hosts are sent requests per run, the other hosts are sent theirs in
+ * the next runs. This keeps a cluster manager failover from turning into a storm of subscribe RPCs.
+ *
+ * <p>The hosts that do not implement the batched RPC are sent one request per vertex.
+ */
+public class SubscriptionReconciler {
+    private static final Logger LOG = LogManager.getLogger(SubscriptionReconciler.class);
+
+    /** The most hosts the subscription requests are sent to after a run of the graph. */
+    public static final String MAX_HOSTS_PER_RUN_CONF_NAME = "subscription-max-hosts-per-run";
+
+    static final int DEFAULT_MAX_HOSTS_PER_RUN = 32;
+
+    /** How long a request without a response keeps its subscription from being asked again. */
+    static final long IN_FLIGHT_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final String SEPARATOR = ".";
+
+    private final NetClient netClient;
+    private final SubscriptionManager subscriptionManager;
+    private final NodeStateManager nodeStateManager;
+    private final AtomicReference<ExecutorService> executorReference;
+    private final AppContext appContext;
+    private final int maxHostsPerRun;
+
+    /** Map of remote host to the subscriptions to ask it for, in the order they were asked for. */
+    private final Map<InstanceDetails.Id, PendingHost> pendingHosts = new LinkedHashMap<>();
+
+    /** Map of vertex.host to the time the subscription request was sent, until its response. */
+    private final ConcurrentMap<String, Long> inFlight = new ConcurrentHashMap<>();
+
+    /** The hosts that do not implement the batched subscribe RPC. */
+    private final Set<InstanceDetails.Id> unbatchedHosts = ConcurrentHashMap.newKeySet();
+
+    private Clock clock = Clock.systemUTC();
+
+    public SubscriptionReconciler(
+            final NetClient netClient,
+            final SubscriptionManager subscriptionManager,
+            final NodeStateManager nodeStateManager,
+            final AtomicReference<ExecutorService> executorReference,
+            final AppContext appContext) {
+        this(
+                netClient,
+                subscriptionManager,
+                nodeStateManager,
+                executorReference,
+                appContext,
+                readMaxHostsPerRun());
+    }
+
+    @VisibleForTesting
+    SubscriptionReconciler(
+            final NetClient netClient,
+            final SubscriptionManager subscriptionManager,
+            final NodeStateManager nodeStateManager,
+            final AtomicReference<ExecutorService> executorReference,
+            final AppContext appContext,
+            final int maxHostsPerRun) {
+        this.netClient = netClient;
+        this.subscriptionManager = subscriptionManager;
+        this.nodeStateManager = nodeStateManager;
+        this.executorReference = executorReference;
+        this.appContext = appContext;
+        this.maxHostsPerRun = maxHostsPerRun;
+    }
+
+    private static int readMaxHostsPerRun() {
+        String value = PluginSettings.instance().getSettingValue(MAX_HOSTS_PER_RUN_CONF_NAME, null);
+        if (value == null) {
+            return DEFAULT_MAX_HOSTS_PER_RUN;
+        }
+        try {
+            int parsed = Integer.parseInt(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+            LOG.warn(
+                    "Value {} of {} should be positive, using {}",
+                    value,
+                    MAX_HOSTS_PER_RUN_CONF_NAME,
+                    DEFAULT_MAX_HOSTS_PER_RUN);
+        } catch (NumberFormatException e) {
+            LOG.warn(
+                    "Invalid value {} for {}, using {}",
+                    value,
+                    MAX_HOSTS_PER_RUN_CONF_NAME,
+                    DEFAULT_MAX_HOSTS_PER_RUN);
+        }
+        return DEFAULT_MAX_HOSTS_PER_RUN;
+    }
+
+    @VisibleForTesting
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * Asks for the subscription to a vertex on a remote host, sent by the next {@link #reconcile()}
+     * unless a request for it is already in flight.
+     *
+     * @param vertex The vertex whose flow units are needed.
+     * @param tags The tags of the vertex.
+     * @param remoteHost The host to subscribe to.
+     */
+    public synchronized void request(
+            final String vertex, final Map<String, String> tags, final InstanceDetails remoteHost) {
+        final Long sentAt = inFlight.get(inFlightKey(vertex, remoteHost.getInstanceId()));
+        if (sentAt != null && clock.millis() - sentAt < IN_FLIGHT_TIMEOUT_MILLIS) {
+            ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                    RcaGraphMetrics.RCA_NODES_SUB_COALESCED_COUNT, vertex, 1);
+            return;
+        }
+        pendingHosts
+                .computeIfAbsent(remoteHost.getInstanceId(), k -> new PendingHost(remoteHost))
+                .vertices
+                .put(vertex, tags);
+    }
+
+    /**
+     * Sends the subscriptions asked for since the last call, one RPC per remote host, to at most
+     * {@link #MAX_HOSTS_PER_RUN_CONF_NAME} hosts. Called after each run of the graph.
+     */
+    public void reconcile() {
+        final List<InstanceDetails> clusterInstances = appContext.getAllClusterInstances();
+        forgetHostsOutOf(clusterInstances);
+        final List<PendingHost> hostsToSend = new ArrayList<>();
+        synchronized (this) {
+            final Iterator<PendingHost> iterator = pendingHosts.values().iterator();
+            while (iterator.hasNext()) {
+                final PendingHost pendingHost = iterator.next();
+                final InstanceDetails.Id hostId = pendingHost.instance.getInstanceId();
+                if (!ClusterUtils.isHostIdInCluster(hostId, clusterInstances)) {
+                    iterator.remove();
+                } else if (hostsToSend.size() < maxHostsPerRun) {
+                    hostsToSend.add(pendingHost);
+                    iterator.remove();
+                } else {
+                    ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                            RcaGraphMetrics.RCA_NODES_SUB_DEFERRED_COUNT, hostId.toString(), 1);
+                }
+            }
+        }
+
+        final ExecutorService executor = executorReference.get();
+        if (executor == null) {
+            return;
+        }
+        for (final PendingHost pendingHost : hostsToSend) {
+            markInFlight(pendingHost);
+            try {
+                executor.execute(() -> send(pendingHost));
+            } catch (final RejectedExecutionException ree) {
+                clearInFlight(pendingHost);
+                LOG.warn(
+                        "Dropped sending subscription request because the threadpool queue is "
+                                + "full");
+                StatsCollector.instance()
+                        .logException(StatExceptionCode.RCA_NETWORK_THREADPOOL_QUEUE_FULL_ERROR);
+            }
+        }
+    }
+
+    /**
+     * Drops the requests in flight to the hosts that left the cluster, whose responses may never
+     * come, and whether they implement the batched RPC.
+     */
+    private void forgetHostsOutOf(final List<InstanceDetails> clusterInstances) {
+        final Set<String> hosts = new HashSet<>();
+        for (final InstanceDetails instance : clusterInstances) {
+            hosts.add(instance.getInstanceId().toString());
+        }
+        inFlight.keySet()
+                .removeIf(key -> !hosts.contains(key.substring(key.indexOf(SEPARATOR) + 1)));
+        unbatchedHosts.removeIf(host -> !hosts.contains(host.toString()));
+    }
+
+    @VisibleForTesting
+    synchronized int getPendingHostCount() {
+        return pendingHosts.size();
+    }
+
+    @VisibleForTesting
+    boolean isInFlight(final String vertex, final InstanceDetails.Id remoteHost) {
+        return inFlight.containsKey(inFlightKey(vertex, remoteHost));
+    }
+
+    private void send(final PendingHost pendingHost) {
+        final InstanceDetails remoteHost = pendingHost.instance;
+        if (pendingHost.vertices.size() == 1
+                || unbatchedHosts.contains(remoteHost.getInstanceId())) {
+            for (final Map.Entry<String, Map<String, String>> vertex :
+                    pendingHost.vertices.entrySet()) {
+                netClient.subscribe(
+                        remoteHost,
+                        SubscriptionTxTask.buildSubscribeMessage(
+                                appContext, "", vertex.getKey(), vertex.getValue()),
+                        new VertexResponseHandler(remoteHost, vertex.getKey()));
+                countRequest(vertex.getKey());
+            }
+            return;
+        }
+
+        final SubscribeBatchMessage.Builder batch = SubscribeBatchMessage.newBuilder();
+        for (final Map.Entry<String, Map<String, String>> vertex :
+                pendingHost.vertices.entrySet()) {
+            batch.addSubscribeMessages(
+                    SubscriptionTxTask.buildSubscribeMessage(
+                            appContext, "", vertex.getKey(), vertex.getValue()));
+            countRequest(vertex.getKey());
+        }
+        LOG.debug(
+                "rca: [sub-tx]: {} vertices to {}",
+                pendingHost.vertices.size(),
+                remoteHost.getInstanceId());
+        netClient.subscribeBatch(remoteHost, batch.build(), new BatchResponseHandler(pendingHost));
+        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                RcaGraphMetrics.RCA_NODES_SUB_BATCH_COUNT,
+                remoteHost.getInstanceId().toString(),
+                1);
+    }
+
+    private static void countRequest(final String vertex) {
+        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                RcaGraphMetrics.RCA_NODES_SUB_REQ_COUNT, ":" + vertex, 1);
+    }
+
+    private void markInFlight(final PendingHost pendingHost) {
+        final long now = clock.millis();
+        for (final String vertex : pendingHost.vertices.keySet()) {
+            inFlight.put(inFlightKey(vertex, pendingHost.instance.getInstanceId()), now);
+        }
+    }
+
+    private void clearInFlight(final PendingHost pendingHost) {
+        for (final String vertex : pendingHost.vertices.keySet()) {
+            inFlight.remove(inFlightKey(vertex, pendingHost.instance.getInstanceId()));
+        }
+    }
+
+    private static String inFlightKey(final String vertex, final InstanceDetails.Id remoteHost) {
+        return vertex + SEPARATOR + remoteHost;
+    }
+
+    /** The subscriptions to ask a remote host for, by vertex. */
+    private static class PendingHost {
+        private final InstanceDetails instance;
+        private final Map<String, Map<String, String>> vertices = new LinkedHashMap<>();
+
+        PendingHost(final InstanceDetails instance) {
+            this.instance = instance;
+        }
+    }
+
+    /** Handles the response to the subscription to one vertex and ends its flight. */
+    private class VertexResponseHandler implements StreamObserver<SubscribeResponse> {
+        private final SubscribeResponseHandler delegate;
+        private final String key;
+
+        VertexResponseHandler(final InstanceDetails remoteHost, final String vertex) {
+            this.delegate =
+                    new SubscribeResponseHandler(
+                            subscriptionManager, nodeStateManager, remoteHost, vertex);
+            this.key = inFlightKey(vertex, remoteHost.getInstanceId());
+        }
+
+        @Override
+        public void onNext(SubscribeResponse subscribeResponse) {
+            delegate.onNext(subscribeResponse);
+            inFlight.remove(key);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            delegate.onError(t);
+            inFlight.remove(key);
+        }
+
+        @Override
+        public void onCompleted() {
+            delegate.onCompleted();
+        }
+    }
+
+    /**
+     * Handles the response to a batch, in the order of its requests. If the remote host does not
+     * implement the batched RPC, the subscriptions are asked for again one by one in the next run.
+     */
+    private class BatchResponseHandler implements StreamObserver<SubscribeBatchResponse> {
+        private final PendingHost pendingHost;
+
+        BatchResponseHandler(final PendingHost pendingHost) {
+            this.pendingHost = pendingHost;
+        }
+
+        @Override
+        public void onNext(SubscribeBatchResponse subscribeBatchResponse) {
+            final Iterator<String> vertices = pendingHost.vertices.keySet().iterator();
+            for (final SubscribeResponse response :
+                    subscribeBatchResponse.getSubscribeResponsesList()) {
+                if (!vertices.hasNext()) {
+                    break;
+                }
+                new SubscribeResponseHandler(
+                                subscriptionManager,
+                                nodeStateManager,
+                                pendingHost.instance,
+                                vertices.next())
+                        .onNext(response);
+            }
+            clearInFlight(pendingHost);
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            final InstanceDetails.Id hostId = pendingHost.instance.getInstanceId();
+            if (Status.fromThrowable(t).getCode() == Status.Code.UNIMPLEMENTED) {
+                LOG.info(
+                        "{} does not support batched subscriptions, subscribing one by one",
+                        hostId);
+                unbatchedHosts.add(hostId);
+            } else {
+                LOG.error("Encountered an error while processing subscription batch stream", t);
+            }
+            clearInFlight(pendingHost);
+        }
+
+        @Override
+        public void onCompleted() {
+            LOG.debug("Finished subscription batch for {}.", pendingHost.instance.getInstanceId());
+        }
+    }
+}
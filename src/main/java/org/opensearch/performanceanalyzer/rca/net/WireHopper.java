@@ -7,8 +7,11 @@ package org.opensearch.performanceanalyzer.rca.net;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -23,10 +26,9 @@ import org.opensearch.performanceanalyzer.rca.framework.core.Node;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
 import org.opensearch.performanceanalyzer.rca.messages.DataMsg;
 import org.opensearch.performanceanalyzer.rca.messages.IntentMsg;
-import org.opensearch.performanceanalyzer.rca.messages.UnicastIntentMsg;
 import org.opensearch.performanceanalyzer.rca.net.tasks.BroadcastSubscriptionTxTask;
 import org.opensearch.performanceanalyzer.rca.net.tasks.FlowUnitTxTask;
-import org.opensearch.performanceanalyzer.rca.net.tasks.UnicastSubscriptionTxTask;
+import org.opensearch.performanceanalyzer.rca.net.tasks.RelayedSubscriptionTxTask;
 import org.opensearch.performanceanalyzer.rca.util.ClusterUtils;
 
 public class WireHopper {
@@ -42,6 +44,15 @@ public class WireHopper {
     private final ReceivedFlowUnitStore receivedFlowUnitStore;
     private final AppContext appContext;
 
+    /** Relays flow units to the cluster manager if this node is an aggregator. */
+    private final FlowUnitRelay flowUnitRelay;
+
+    /** The vertices this node subscribed to through the aggregators. */
+    private final Set<String> relayedVertices = ConcurrentHashMap.newKeySet();
+
+    /** Sends the subscriptions the remote vertices need, batched per host, after each run. */
+    private final SubscriptionReconciler subscriptionReconciler;
+
     public WireHopper(
             final NodeStateManager nodeStateManager,
             final NetClient netClient,
@@ -49,21 +60,75 @@ public class WireHopper {
             final AtomicReference<ExecutorService> executorReference,
             final ReceivedFlowUnitStore receivedFlowUnitStore,
             final AppContext appContext) {
+        this(
+                nodeStateManager,
+                netClient,
+                subscriptionManager,
+                executorReference,
+                receivedFlowUnitStore,
+                appContext,
+                new AggregationTopology());
+    }
+
+    public WireHopper(
+            final NodeStateManager nodeStateManager,
+            final NetClient netClient,
+            final SubscriptionManager subscriptionManager,
+            final AtomicReference<ExecutorService> executorReference,
+            final ReceivedFlowUnitStore receivedFlowUnitStore,
+            final AppContext appContext,
+            final AggregationTopology aggregationTopology) {
         this.netClient = netClient;
         this.subscriptionManager = subscriptionManager;
         this.nodeStateManager = nodeStateManager;
         this.executorReference = executorReference;
         this.receivedFlowUnitStore = receivedFlowUnitStore;
         this.appContext = appContext;
+        this.flowUnitRelay =
+                new FlowUnitRelay(
+                        aggregationTopology,
+                        netClient,
+                        subscriptionManager,
+                        nodeStateManager,
+                        executorReference,
+                        appContext);
+        this.subscriptionReconciler =
+                new SubscriptionReconciler(
+                        netClient,
+                        subscriptionManager,
+                        nodeStateManager,
+                        executorReference,
+                        appContext);
     }
 
     public void sendIntent(IntentMsg msg) {
         ExecutorService executor = executorReference.get();
         if (executor != null) {
             try {
-                executor.execute(
-                        new BroadcastSubscriptionTxTask(
-                                netClient, msg, subscriptionManager, nodeStateManager, appContext));
+                if (msg.isMergeablePartials() && flowUnitRelay.isEnabled()) {
+                    // The aggregators pre-merge the flow units of the other data nodes.
+                    relayedVertices.add(msg.getDestinationGraphNode());
+                    executor.execute(
+                            new RelayedSubscriptionTxTask(
+                                    netClient,
+                                    new IntentMsg(
+                                            msg.getRequesterGraphNode(),
+                                            msg.getDestinationGraphNode(),
+                                            FlowUnitRelay.withRelayTag(msg.getRcaConfTags()),
+                                            true),
+                                    subscriptionManager,
+                                    nodeStateManager,
+                                    appContext,
+                                    flowUnitRelay.getTopology()));
+                } else {
+                    executor.execute(
+                            new BroadcastSubscriptionTxTask(
+                                    netClient,
+                                    msg,
+                                    subscriptionManager,
+                                    nodeStateManager,
+                                    appContext));
+                }
             } catch (final RejectedExecutionException ree) {
                 LOG.warn("Dropped sending subscription because the threadpool queue is full");
                 StatsCollector.instance()
@@ -78,6 +143,10 @@ public class WireHopper {
             try {
                 executor.execute(
                         new FlowUnitTxTask(netClient, subscriptionManager, msg, appContext));
+                final String sourceGraphNode = msg.getSourceGraphNode();
+                if (flowUnitRelay.isRelaying(sourceGraphNode)) {
+                    executor.execute(() -> flowUnitRelay.flush(sourceGraphNode));
+                }
             } catch (final RejectedExecutionException ree) {
                 LOG.warn("Dropped sending flow unit because the threadpool queue is full");
                 StatsCollector.instance()
@@ -91,11 +160,16 @@ public class WireHopper {
         return appContext;
     }
 
+    /**
+     * @param node The vertex to read the flow units of.
+     * @return The flow units received for the vertex since its last read. The list is reused by the
+     *     store, so it is only valid until the next read of the vertex.
+     */
     public List<FlowUnitMessage> readFromWire(Node<?> node) {
         final String nodeName = node.name();
         final long intervalInSeconds = node.getEvaluationIntervalSeconds();
-        final ImmutableList<FlowUnitMessage> remoteFlowUnits =
-                receivedFlowUnitStore.drainNode(nodeName);
+        final List<FlowUnitMessage> remoteFlowUnits = receivedFlowUnitStore.drainNodeView(nodeName);
+        flowUnitRelay.markLocallyRead(nodeName);
 
         // Publishers are a set of cluster-instances that send out flowUnits for the corresponding
         // graph node,
@@ -113,33 +187,47 @@ public class WireHopper {
                 nodeStateManager.getStaleOrNotSubscribedNodes(
                         nodeName, 2 * intervalInSeconds * MS_IN_S, publisherSet);
 
+        // The hosts that publish through a healthy aggregator are resubscribed to by their
+        // aggregator, the others are subscribed to directly.
+        final boolean relayed = relayedVertices.contains(nodeName);
+        final ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment =
+                relayed
+                        ? flowUnitRelay.getTopology().assign(appContext.getDataNodeInstances())
+                        : ImmutableMap.of();
+
         // There are some stale hosts from which this node hasn't received any FLowUnits. This might
         // be because the remote node
-        // restarted and lost out subscription msg. Therefore, we resend it.
+        // restarted and lost out subscription msg. Therefore, we resend it, batched with the
+        // subscriptions of the other vertices to the same host once the run is over.
         for (final InstanceDetails instance : hostsToSubscribeTo) {
-            final ExecutorService executor = executorReference.get();
-            if (executor != null) {
-                try {
-                    executor.execute(
-                            new UnicastSubscriptionTxTask(
-                                    netClient,
-                                    new UnicastIntentMsg("", nodeName, node.getTags(), instance),
-                                    subscriptionManager,
-                                    nodeStateManager,
-                                    appContext));
-                } catch (final RejectedExecutionException ree) {
-                    LOG.warn(
-                            "Dropped sending subscription request because the threadpool queue is "
-                                    + "full");
-                    StatsCollector.instance()
-                            .logException(
-                                    StatExceptionCode.RCA_NETWORK_THREADPOOL_QUEUE_FULL_ERROR);
-                }
+            if (!relayed) {
+                subscriptionReconciler.request(nodeName, node.getTags(), instance);
+            } else if (!AggregationTopology.isRelayed(instance.getInstanceId(), assignment)) {
+                subscriptionReconciler.request(
+                        nodeName, FlowUnitRelay.withRelayTag(node.getTags()), instance);
+            } else if (!flowUnitRelay.isRelayedByHealthyAggregator(
+                    nodeName, instance.getInstanceId(), assignment, intervalInSeconds * MS_IN_S)) {
+                subscriptionReconciler.request(nodeName, node.getTags(), instance);
             }
         }
         return remoteFlowUnits;
     }
 
+    /**
+     * Sends the subscriptions the remote vertices asked for during the last run of the graph, and
+     * drops the keyframes, aggregators and connections of the hosts that left the cluster.
+     */
+    public void reconcileSubscriptions() {
+        subscriptionReconciler.reconcile();
+        final Set<String> hosts = new HashSet<>();
+        for (final InstanceDetails instance : appContext.getAllClusterInstances()) {
+            hosts.add(instance.getInstanceId().toString());
+        }
+        receivedFlowUnitStore.getDeltaDecoder().retainHosts(hosts);
+        flowUnitRelay.retainAggregators(hosts);
+        netClient.getConnectionManager().retainHosts(hosts);
+    }
+
     @VisibleForTesting
     public void shutdownAll() {
         executorReference.get().shutdown();
@@ -162,6 +250,15 @@ public class WireHopper {
         return executorReference;
     }
 
+    public FlowUnitRelay getFlowUnitRelay() {
+        return flowUnitRelay;
+    }
+
+    @VisibleForTesting
+    public SubscriptionReconciler getSubscriptionReconciler() {
+        return subscriptionReconciler;
+    }
+
     @VisibleForTesting
     public ReceivedFlowUnitStore getReceivedFlowUnitStore() {
         return receivedFlowUnitStore;
@@ -21,6 +21,7 @@ import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse.PublishResponseStatus;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
 import org.opensearch.performanceanalyzer.rca.net.ReceivedFlowUnitStore;
 import org.opensearch.performanceanalyzer.rca.net.tasks.FlowUnitRxTask;
@@ -32,6 +33,7 @@ public class PublishRequestHandler {
     private final AtomicReference<ExecutorService> executorReference;
     private final NodeStateManager nodeStateManager;
     private final ReceivedFlowUnitStore receivedFlowUnitStore;
+    private final FlowUnitRelay flowUnitRelay;
     private List<SendDataClientStreamUpdateConsumer> dataClientStreamList =
             Collections.synchronizedList(new ArrayList<>());
 
@@ -39,9 +41,18 @@ public class PublishRequestHandler {
             NodeStateManager nodeStateManager,
             ReceivedFlowUnitStore receivedFlowUnitStore,
             final AtomicReference<ExecutorService> executorReference) {
+        this(nodeStateManager, receivedFlowUnitStore, executorReference, null);
+    }
+
+    public PublishRequestHandler(
+            NodeStateManager nodeStateManager,
+            ReceivedFlowUnitStore receivedFlowUnitStore,
+            final AtomicReference<ExecutorService> executorReference,
+            final FlowUnitRelay flowUnitRelay) {
         this.executorReference = executorReference;
         this.nodeStateManager = nodeStateManager;
         this.receivedFlowUnitStore = receivedFlowUnitStore;
+        this.flowUnitRelay = flowUnitRelay;
     }
 
     public StreamObserver<FlowUnitMessage> getClientStream(
@@ -101,7 +112,10 @@ public class PublishRequestHandler {
                 try {
                     executorService.execute(
                             new FlowUnitRxTask(
-                                    nodeStateManager, receivedFlowUnitStore, flowUnitMessage));
+                                    nodeStateManager,
+                                    receivedFlowUnitStore,
+                                    flowUnitMessage,
+                                    flowUnitRelay));
                     ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
                             RcaGraphMetrics.NET_BYTES_IN,
                             flowUnitMessage.getGraphNode(),
@@ -6,6 +6,8 @@
 package org.opensearch.performanceanalyzer.rca.net.handler;
 
 import io.grpc.stub.StreamObserver;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -14,9 +16,12 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
 import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
 import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
 import org.opensearch.performanceanalyzer.rca.net.requests.CompositeSubscribeRequest;
 import org.opensearch.performanceanalyzer.rca.net.tasks.SubscriptionRxTask;
@@ -25,14 +30,24 @@ import org.opensearch.performanceanalyzer.rca.net.tasks.SubscriptionRxTask;
 public class SubscribeServerHandler {
 
     private static final Logger LOG = LogManager.getLogger(SubscribeServerHandler.class);
+    private static final String SUBSCRIBE_BATCH_STAT_KEY = "subscribeBatch";
     private final AtomicReference<ExecutorService> executorServiceAtomicReference;
     private final SubscriptionManager subscriptionManager;
+    private final FlowUnitRelay flowUnitRelay;
 
     public SubscribeServerHandler(
             final SubscriptionManager subscriptionManager,
             final AtomicReference<ExecutorService> executorServiceAtomicReference) {
+        this(subscriptionManager, executorServiceAtomicReference, null);
+    }
+
+    public SubscribeServerHandler(
+            final SubscriptionManager subscriptionManager,
+            final AtomicReference<ExecutorService> executorServiceAtomicReference,
+            final FlowUnitRelay flowUnitRelay) {
         this.executorServiceAtomicReference = executorServiceAtomicReference;
         this.subscriptionManager = subscriptionManager;
+        this.flowUnitRelay = flowUnitRelay;
     }
 
     public void handleSubscriptionRequest(
@@ -44,7 +59,8 @@ public class SubscribeServerHandler {
         if (executorService != null) {
             try {
                 executorService.execute(
-                        new SubscriptionRxTask(subscriptionManager, subscribeRequest));
+                        new SubscriptionRxTask(
+                                subscriptionManager, subscribeRequest, flowUnitRelay));
                 ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
                         RcaGraphMetrics.NET_BYTES_IN,
                         subscribeRequest.getSubscribeMessage().getRequesterGraphNode(),
@@ -57,4 +73,98 @@ public class SubscribeServerHandler {
             }
         }
     }
+
+    /**
+     * Processes the subscription requests of a batch in one task, in order, and responds once all
+     * of them are processed.
+     *
+     * @param request The subscribe requests.
+     * @param responseObserver The stream to send the statuses of the requests on.
+     */
+    public void handleBatchSubscriptionRequest(
+            final SubscribeBatchMessage request,
+            final StreamObserver<SubscribeBatchResponse> responseObserver) {
+        final BatchResponseCollector collector =
+                new BatchResponseCollector(request.getSubscribeMessagesCount(), responseObserver);
+        final List<SubscriptionRxTask> tasks = new ArrayList<>();
+        for (int i = 0; i < request.getSubscribeMessagesCount(); i++) {
+            tasks.add(
+                    new SubscriptionRxTask(
+                            subscriptionManager,
+                            new CompositeSubscribeRequest(
+                                    request.getSubscribeMessages(i), collector.observerFor(i)),
+                            flowUnitRelay));
+        }
+        final ExecutorService executorService = executorServiceAtomicReference.get();
+        if (executorService != null) {
+            try {
+                executorService.execute(() -> tasks.forEach(SubscriptionRxTask::run));
+                ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                        RcaGraphMetrics.NET_BYTES_IN,
+                        SUBSCRIBE_BATCH_STAT_KEY,
+                        request.getSerializedSize());
+            } catch (final RejectedExecutionException ree) {
+                LOG.warn(
+                        "Dropped processing subscription batch because the network threadpool is full");
+                StatsCollector.instance()
+                        .logException(StatExceptionCode.RCA_NETWORK_THREADPOOL_QUEUE_FULL_ERROR);
+            }
+        }
+    }
+
+    /**
+     * Collects the responses of the requests of a batch, each written to its own stream by {@link
+     * SubscriptionRxTask}, into the response of the batch.
+     */
+    private static class BatchResponseCollector {
+        private final SubscribeResponse[] responses;
+        private final StreamObserver<SubscribeBatchResponse> responseObserver;
+        private int pending;
+
+        BatchResponseCollector(
+                final int size, final StreamObserver<SubscribeBatchResponse> responseObserver) {
+            this.responses = new SubscribeResponse[size];
+            this.responseObserver = responseObserver;
+            this.pending = size;
+            if (size == 0) {
+                complete();
+            }
+        }
+
+        StreamObserver<SubscribeResponse> observerFor(final int index) {
+            return new StreamObserver<SubscribeResponse>() {
+                @Override
+                public void onNext(SubscribeResponse subscribeResponse) {
+                    onResponse(index, subscribeResponse);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    LOG.error("Error while processing subscription {} of a batch", index, t);
+                }
+
+                @Override
+                public void onCompleted() {}
+            };
+        }
+
+        private synchronized void onResponse(
+                final int index, final SubscribeResponse subscribeResponse) {
+            if (responses[index] == null) {
+                responses[index] = subscribeResponse;
+                if (--pending == 0) {
+                    complete();
+                }
+            }
+        }
+
+        private void complete() {
+            final SubscribeBatchResponse.Builder builder = SubscribeBatchResponse.newBuilder();
+            for (final SubscribeResponse response : responses) {
+                builder.addSubscribeResponses(response);
+            }
+            responseObserver.onNext(builder.build());
+            responseObserver.onCompleted();
+        }
+    }
 }
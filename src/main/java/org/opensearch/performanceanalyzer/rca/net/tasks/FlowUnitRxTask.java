@@ -11,6 +11,7 @@ import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
 import org.opensearch.performanceanalyzer.rca.net.ReceivedFlowUnitStore;
 
@@ -28,13 +29,25 @@ public class FlowUnitRxTask implements Runnable {
     /** The flow unit message object to buffer. */
     private final FlowUnitMessage flowUnitMessage;
 
+    /** The relay the flow units of relayed vertices go to, may be null. */
+    private final FlowUnitRelay flowUnitRelay;
+
     public FlowUnitRxTask(
             final NodeStateManager nodeStateManager,
             final ReceivedFlowUnitStore receivedFlowUnitStore,
             final FlowUnitMessage flowUnitMessage) {
+        this(nodeStateManager, receivedFlowUnitStore, flowUnitMessage, null);
+    }
+
+    public FlowUnitRxTask(
+            final NodeStateManager nodeStateManager,
+            final ReceivedFlowUnitStore receivedFlowUnitStore,
+            final FlowUnitMessage flowUnitMessage,
+            final FlowUnitRelay flowUnitRelay) {
         this.nodeStateManager = nodeStateManager;
         this.receivedFlowUnitStore = receivedFlowUnitStore;
         this.flowUnitMessage = flowUnitMessage;
+        this.flowUnitRelay = flowUnitRelay;
     }
 
     /**
@@ -49,9 +62,17 @@ public class FlowUnitRxTask implements Runnable {
 
         nodeStateManager.updateReceiveTime(host, vertex, System.currentTimeMillis());
         LOG.debug("rca: [pub-rx]: {} <- {}", vertex, host);
-        if (!receivedFlowUnitStore.enqueue(vertex, flowUnitMessage)) {
+        final FlowUnitMessage decodedMessage =
+                receivedFlowUnitStore.getDeltaDecoder().decode(flowUnitMessage);
+        if (decodedMessage == null) {
+            return;
+        }
+        if (flowUnitRelay != null && flowUnitRelay.offer(decodedMessage)) {
+            return;
+        }
+        if (!receivedFlowUnitStore.enqueue(vertex, decodedMessage)) {
             LOG.warn(
-                    "Dropped a flow unit because the vertex buffer was full for vertex: {}",
+                    "Dropped the oldest flow unit because the vertex buffer was full for vertex: {}",
                     vertex);
         }
         ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
@@ -11,6 +11,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.AppContext;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse;
 import org.opensearch.performanceanalyzer.grpc.PublishResponse.PublishResponseStatus;
 import org.opensearch.performanceanalyzer.net.NetClient;
@@ -18,6 +19,7 @@ import org.opensearch.performanceanalyzer.rca.framework.core.GenericFlowUnit;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
 import org.opensearch.performanceanalyzer.rca.messages.DataMsg;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitDeltaEncoder;
 import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
 
 /** Task that sends a flow unit to a remote host. */
@@ -61,13 +63,26 @@ public class FlowUnitTxTask implements Runnable {
             final Set<InstanceDetails.Id> downstreamHostIds =
                     subscriptionManager.getSubscribersFor(sourceGraphNode);
             LOG.debug("{} has downstream subscribers: {}", sourceGraphNode, downstreamHostIds);
+            final FlowUnitDeltaEncoder deltaEncoder = subscriptionManager.getDeltaEncoder();
             for (final InstanceDetails.Id downstreamHostId : downstreamHostIds) {
                 for (final GenericFlowUnit flowUnit : dataMsg.getFlowUnits()) {
                     LOG.debug("rca: [pub-tx]: {} -> {}", sourceGraphNode, downstreamHostId);
+                    final FlowUnitMessage flowUnitMessage =
+                            deltaEncoder.encode(
+                                    sourceGraphNode,
+                                    downstreamHostId,
+                                    flowUnit.buildFlowUnitMessage(
+                                            sourceGraphNode,
+                                            openSearchInstanceDetails.getInstanceId()));
+                    if (flowUnitMessage.getUnchangedSinceKeyframe()) {
+                        ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
+                                RcaGraphMetrics.RCA_NODES_FU_DELTA_PUBLISH_COUNT,
+                                sourceGraphNode,
+                                1);
+                    }
                     client.publish(
                             appContext.getInstanceById(downstreamHostId),
-                            flowUnit.buildFlowUnitMessage(
-                                    sourceGraphNode, openSearchInstanceDetails.getInstanceId()),
+                            flowUnitMessage,
                             new StreamObserver<PublishResponse>() {
                                 @Override
                                 public void onNext(final PublishResponse value) {
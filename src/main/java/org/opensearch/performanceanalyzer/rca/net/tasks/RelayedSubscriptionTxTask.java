@@ -0,0 +1,53 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net.tasks;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.Set;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.messages.IntentMsg;
+import org.opensearch.performanceanalyzer.rca.net.AggregationTopology;
+import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
+import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
+
+/**
+ * Task that broadcasts a subscription request to the peers that do not publish through an
+ * aggregator: the aggregators relay the flow units of the other data nodes of their group.
+ */
+public class RelayedSubscriptionTxTask extends BroadcastSubscriptionTxTask {
+
+    private final AggregationTopology topology;
+
+    private final AppContext appContext;
+
+    public RelayedSubscriptionTxTask(
+            NetClient netClient,
+            IntentMsg intentMsg,
+            SubscriptionManager subscriptionManager,
+            NodeStateManager nodeStateManager,
+            final AppContext appContext,
+            final AggregationTopology topology) {
+        super(netClient, intentMsg, subscriptionManager, nodeStateManager, appContext);
+        this.topology = topology;
+        this.appContext = appContext;
+    }
+
+    @Override
+    protected Set<InstanceDetails> getPeerInstances() {
+        final ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment =
+                topology.assign(appContext.getDataNodeInstances());
+        final ImmutableSet.Builder<InstanceDetails> peers = ImmutableSet.builder();
+        for (final InstanceDetails peer : super.getPeerInstances()) {
+            if (!AggregationTopology.isRelayed(peer.getInstanceId(), assignment)) {
+                peers.add(peer);
+            }
+        }
+        return peers.build();
+    }
+}
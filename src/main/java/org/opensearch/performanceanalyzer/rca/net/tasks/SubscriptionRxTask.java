@@ -15,6 +15,8 @@ import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
 import org.opensearch.performanceanalyzer.grpc.SubscribeResponse.SubscriptionStatus;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitDeltaEncoder;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
 import org.opensearch.performanceanalyzer.rca.net.requests.CompositeSubscribeRequest;
 
@@ -29,11 +31,22 @@ public class SubscriptionRxTask implements Runnable {
     /** The subscribe message with the response stream. */
     private final CompositeSubscribeRequest compositeSubscribeRequest;
 
+    /** The relay to start when the subscriber asks this node to relay, may be null. */
+    private final FlowUnitRelay flowUnitRelay;
+
     public SubscriptionRxTask(
             final SubscriptionManager subscriptionManager,
             final CompositeSubscribeRequest compositeSubscribeRequest) {
+        this(subscriptionManager, compositeSubscribeRequest, null);
+    }
+
+    public SubscriptionRxTask(
+            final SubscriptionManager subscriptionManager,
+            final CompositeSubscribeRequest compositeSubscribeRequest,
+            final FlowUnitRelay flowUnitRelay) {
         this.subscriptionManager = subscriptionManager;
         this.compositeSubscribeRequest = compositeSubscribeRequest;
+        this.flowUnitRelay = flowUnitRelay;
     }
 
     /**
@@ -50,7 +63,22 @@ public class SubscriptionRxTask implements Runnable {
         final String locus = tags.getOrDefault("locus", "");
         final SubscriptionStatus subscriptionStatus =
                 subscriptionManager.addSubscriber(
-                        request.getDestinationGraphNode(), requesterHostId, locus);
+                        request.getDestinationGraphNode(),
+                        requesterHostId,
+                        locus,
+                        Boolean.parseBoolean(
+                                tags.getOrDefault(
+                                        FlowUnitDeltaEncoder.SUPPORTS_DELTA_TAG, "false")));
+
+        if (flowUnitRelay != null
+                && subscriptionStatus == SubscriptionStatus.SUCCESS
+                && tags.containsKey(FlowUnitRelay.RELAY_TAG)) {
+            flowUnitRelay.addRelay(
+                    request.getDestinationGraphNode(),
+                    request.getRequesterGraphNode(),
+                    requesterHostId,
+                    locus);
+        }
 
         LOG.debug(
                 "rca: [sub-rx]: {} <- {} from {} Result: {}",
@@ -16,6 +16,8 @@ import org.opensearch.performanceanalyzer.net.NetClient;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
 import org.opensearch.performanceanalyzer.rca.messages.IntentMsg;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitDeltaEncoder;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
 import org.opensearch.performanceanalyzer.rca.net.SubscribeResponseHandler;
 import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
@@ -59,14 +61,7 @@ public abstract class SubscriptionTxTask implements Runnable {
             final Map<String, String> tags) {
         LOG.debug("rca: [sub-tx]: {} -> {} to {}", requesterVertex, destinationVertex, remoteHost);
         final SubscribeMessage subscribeMessage =
-                SubscribeMessage.newBuilder()
-                        .setDestinationGraphNode(destinationVertex)
-                        .setRequesterGraphNode(requesterVertex)
-                        .putTags("locus", tags.get("locus"))
-                        .putTags(
-                                "requester",
-                                appContext.getMyInstanceDetails().getInstanceId().toString())
-                        .build();
+                buildSubscribeMessage(appContext, requesterVertex, destinationVertex, tags);
         netClient.subscribe(
                 remoteHost,
                 subscribeMessage,
@@ -78,6 +73,36 @@ public abstract class SubscriptionTxTask implements Runnable {
                 1);
     }
 
+    /**
+     * Builds the subscription request of this node to a vertex of a remote host.
+     *
+     * @param appContext The context of this node.
+     * @param requesterVertex The vertex that needs the flow units.
+     * @param destinationVertex The vertex whose flow units are needed.
+     * @param tags The tags of the requester vertex.
+     * @return The subscribe message.
+     */
+    public static SubscribeMessage buildSubscribeMessage(
+            final AppContext appContext,
+            final String requesterVertex,
+            final String destinationVertex,
+            final Map<String, String> tags) {
+        final SubscribeMessage.Builder subscribeMessageBuilder =
+                SubscribeMessage.newBuilder()
+                        .setDestinationGraphNode(destinationVertex)
+                        .setRequesterGraphNode(requesterVertex)
+                        .putTags("locus", tags.get("locus"))
+                        .putTags(
+                                "requester",
+                                appContext.getMyInstanceDetails().getInstanceId().toString())
+                        .putTags(FlowUnitDeltaEncoder.SUPPORTS_DELTA_TAG, "true");
+        if (tags.containsKey(FlowUnitRelay.RELAY_TAG)) {
+            subscribeMessageBuilder.putTags(
+                    FlowUnitRelay.RELAY_TAG, tags.get(FlowUnitRelay.RELAY_TAG));
+        }
+        return subscribeMessageBuilder.build();
+    }
+
     protected Set<InstanceDetails> getPeerInstances() {
         return appContext.getPeerInstances();
     }
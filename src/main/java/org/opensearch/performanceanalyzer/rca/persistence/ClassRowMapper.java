@@ -0,0 +1,231 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.persistence;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+
+/**
+ * The row mapper for a persisted class. It is built once per class when the field registry for the
+ * class is created and binds the getter and the setter of every persisted field to a {@link
+ * MethodHandle}. Writing or reading a row then invokes the bound handles instead of looking up and
+ * calling {@link Method#invoke} for every field of every object.
+ *
+ * <p>The handles are adapted to the erased {@code (Object)Object} and {@code (Object,Object)void}
+ * shapes so that they can be invoked exactly. Primitive values are still boxed at the jOOQ boundary
+ * as the insert and the fetched records only deal with Objects.
+ */
+final class ClassRowMapper {
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE =
+            MethodType.methodType(void.class, Object.class, Object.class);
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class);
+
+    enum ColumnKind {
+        /** A primitive or a String, persisted as is. */
+        VALUE,
+        /** A user-defined type persisted in its own table and referred to by its row ID. */
+        REFERENCE,
+        /** A collection of user-defined types, referred to by a JSON array of table and row IDs. */
+        COLLECTION_REFERENCE
+    }
+
+    static final class ColumnMapping {
+        private final String fieldName;
+        private final ColumnKind kind;
+        private final Class<?> type;
+        private final Class<?> collectionElementType;
+        private final Field<?> column;
+        private final MethodHandle getter;
+        private final MethodHandle setter;
+
+        private ColumnMapping(
+                String fieldName,
+                ColumnKind kind,
+                Class<?> type,
+                Class<?> collectionElementType,
+                Field<?> column,
+                MethodHandle getter,
+                MethodHandle setter) {
+            this.fieldName = fieldName;
+            this.kind = kind;
+            this.type = type;
+            this.collectionElementType = collectionElementType;
+            this.column = column;
+            this.getter = getter;
+            this.setter = setter;
+        }
+
+        String getFieldName() {
+            return fieldName;
+        }
+
+        ColumnKind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return The type returned by the getter and accepted by the setter of the field.
+         */
+        Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return The element type of a collection reference or null for other kinds.
+         */
+        Class<?> getCollectionElementType() {
+            return collectionElementType;
+        }
+
+        /**
+         * @return The jOOQ column this field is written to.
+         */
+        Field<?> getColumn() {
+            return column;
+        }
+
+        Object get(Object obj) throws InvocationTargetException {
+            try {
+                return (Object) getter.invokeExact(obj);
+            } catch (Throwable th) {
+                throw new InvocationTargetException(th);
+            }
+        }
+
+        void set(Object obj, Object value) throws InvocationTargetException {
+            try {
+                setter.invokeExact(obj, value);
+            } catch (Throwable th) {
+                throw new InvocationTargetException(th);
+            }
+        }
+    }
+
+    private final Class<?> clz;
+    private final List<ColumnMapping> columnMappings;
+    private final Map<String, ColumnMapping> fieldNameToColumnMapping;
+    private MethodHandle constructor;
+
+    private ClassRowMapper(Class<?> clz, List<ColumnMapping> columnMappings) {
+        this.clz = clz;
+        this.columnMappings = Collections.unmodifiableList(columnMappings);
+        this.fieldNameToColumnMapping = new HashMap<>();
+        for (ColumnMapping mapping : columnMappings) {
+            fieldNameToColumnMapping.put(mapping.getFieldName(), mapping);
+        }
+    }
+
+    /**
+     * @return The mappings in the order in which the columns are written.
+     */
+    List<ColumnMapping> getColumnMappings() {
+        return columnMappings;
+    }
+
+    ColumnMapping getColumnMapping(String fieldName) {
+        return fieldNameToColumnMapping.get(fieldName);
+    }
+
+    /**
+     * Creates an empty instance of the mapped class to be filled in by the setters. The no-arg
+     * constructor is only bound on the first read as classes that are only ever written are not
+     * required to have one.
+     */
+    Object newInstance()
+            throws NoSuchMethodException, IllegalAccessException, InvocationTargetException {
+        if (constructor == null) {
+            constructor =
+                    MethodHandles.lookup()
+                            .unreflectConstructor(clz.getDeclaredConstructor())
+                            .asType(CONSTRUCTOR_TYPE);
+        }
+        try {
+            return (Object) constructor.invokeExact();
+        } catch (Throwable th) {
+            throw new InvocationTargetException(th);
+        }
+    }
+
+    static Builder builder(Class<?> clz) {
+        return new Builder(clz);
+    }
+
+    static final class Builder {
+        private final Class<?> clz;
+        private final MethodHandles.Lookup lookup;
+        private final List<ColumnMapping> columnMappings;
+
+        private Builder(Class<?> clz) {
+            this.clz = clz;
+            this.lookup = MethodHandles.lookup();
+            this.columnMappings = new ArrayList<>();
+        }
+
+        /**
+         * Binds the getter and setter of a persisted field.
+         *
+         * @param field The field annotated with {@link ValueColumn} or {@link RefColumn}.
+         * @param getter The public getter found for the field.
+         * @param setter The public setter found for the field.
+         * @param collectionElementType The type argument of the getter if the field is a collection
+         *     reference, null otherwise.
+         * @throws IllegalAccessException If the methods cannot be accessed from this package.
+         */
+        Builder addColumn(
+                java.lang.reflect.Field field,
+                Method getter,
+                Method setter,
+                Class<?> collectionElementType)
+                throws IllegalAccessException {
+            Class<?> type = getter.getReturnType();
+            String fieldName = field.getName();
+            ColumnKind kind;
+            Field<?> column;
+            if (field.isAnnotationPresent(RefColumn.class)) {
+                String columnName = SQLitePersistor.NESTED_OBJECT_COLUMN_PREFIX + fieldName;
+                if (Collection.class.isAssignableFrom(type)) {
+                    kind = ColumnKind.COLLECTION_REFERENCE;
+                    column = DSL.field(DSL.name(columnName), String.class);
+                } else {
+                    kind = ColumnKind.REFERENCE;
+                    column = DSL.field(DSL.name(columnName), Integer.class);
+                }
+            } else if (type.isPrimitive() || type == String.class) {
+                kind = ColumnKind.VALUE;
+                column = DSL.field(DSL.name(fieldName), type);
+            } else {
+                // Neither a primitive nor a String, such columns were never written.
+                return this;
+            }
+            columnMappings.add(
+                    new ColumnMapping(
+                            fieldName,
+                            kind,
+                            type,
+                            kind == ColumnKind.COLLECTION_REFERENCE ? collectionElementType : null,
+                            column,
+                            lookup.unreflect(getter).asType(GETTER_TYPE),
+                            lookup.unreflect(setter).asType(SETTER_TYPE)));
+            return this;
+        }
+
+        ClassRowMapper build() {
+            return new ClassRowMapper(clz, columnMappings);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.persistence;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.Nullable;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
+import org.opensearch.performanceanalyzer.rca.framework.core.Node;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
+
+/**
+ * Keeps a binary checkpoint of the state of the {@link Checkpointable} graph nodes, so that a
+ * restarted RCA agent doesn't start with empty sliding windows.
+ *
+ * <p>The checkpoint is written by the scheduler thread every few minutes and when the scheduler
+ * shuts down, and is read once, when the scheduler task is first created. A checkpoint older than
+ * the configured max age is ignored. The file holds a header with the time it was written and one
+ * length-prefixed blob per node, so a node whose state can't be read doesn't affect the others. The
+ * file is written to a temporary file first and moved over the previous checkpoint.
+ *
+ * <p>Checkpointing is disabled by default and is configured in performance-analyzer.properties.
+ */
+public class GraphCheckpointStore {
+    private static final Logger LOG = LogManager.getLogger(GraphCheckpointStore.class);
+
+    public static final String ENABLED_CONF_NAME = "rca-graph-checkpoint-enabled";
+    public static final String PATH_CONF_NAME = "rca-graph-checkpoint-path";
+    public static final String INTERVAL_CONF_NAME = "rca-graph-checkpoint-interval-seconds";
+    public static final String MAX_AGE_CONF_NAME = "rca-graph-checkpoint-max-age-seconds";
+
+    static final String DEFAULT_PATH = "/tmp/rca_graph.checkpoint";
+    static final long DEFAULT_INTERVAL_SECONDS = 300;
+    static final long DEFAULT_MAX_AGE_SECONDS = 900;
+
+    private static final int MAGIC = 0x5243_4b50;
+    private static final int VERSION = 1;
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final long intervalMillis;
+    private final long maxAgeMillis;
+    private final Clock clock;
+
+    private boolean restoreAttempted;
+    private long lastCheckpointMillis;
+
+    @VisibleForTesting
+    GraphCheckpointStore(Path path, long intervalMillis, long maxAgeMillis, Clock clock) {
+        this.path = path;
+        this.intervalMillis = intervalMillis;
+        this.maxAgeMillis = maxAgeMillis;
+        this.clock = clock;
+        this.restoreAttempted = false;
+        this.lastCheckpointMillis = clock.millis();
+    }
+
+    /**
+     * @return The store configured in performance-analyzer.properties, or null if checkpointing is
+     *     not enabled.
+     */
+    @Nullable
+    public static GraphCheckpointStore fromSettings() {
+        PluginSettings settings = PluginSettings.instance();
+        if (!Boolean.parseBoolean(settings.getSettingValue(ENABLED_CONF_NAME, "false").trim())) {
+            return null;
+        }
+        Path path = Paths.get(settings.getSettingValue(PATH_CONF_NAME, DEFAULT_PATH).trim());
+        long intervalSeconds = readSeconds(settings, INTERVAL_CONF_NAME, DEFAULT_INTERVAL_SECONDS);
+        long maxAgeSeconds = readSeconds(settings, MAX_AGE_CONF_NAME, DEFAULT_MAX_AGE_SECONDS);
+        LOG.info(
+                "RCA graph checkpoints enabled at {}, every {}s, restored if younger than {}s",
+                path,
+                intervalSeconds,
+                maxAgeSeconds);
+        return new GraphCheckpointStore(
+                path,
+                TimeUnit.SECONDS.toMillis(intervalSeconds),
+                TimeUnit.SECONDS.toMillis(maxAgeSeconds),
+                Clock.systemUTC());
+    }
+
+    private static long readSeconds(PluginSettings settings, String key, long defaultValue) {
+        String value = settings.getSettingValue(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            long parsed = Long.parseLong(value.trim());
+            if (parsed > 0) {
+                return parsed;
+            }
+            LOG.warn("Value {} of {} should be positive, using {}", value, key, defaultValue);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value {} for {}, using {}", value, key, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Hands the checkpointed state to the nodes. Only the first call reads the checkpoint: the
+     * scheduler task can be rebuilt later on while the nodes keep running, and their live state
+     * must not be replaced by an older one.
+     *
+     * @param nodes The locally evaluated graph nodes.
+     * @return The number of nodes whose state was restored.
+     */
+    public synchronized int restore(Collection<Node<?>> nodes) {
+        if (restoreAttempted) {
+            return 0;
+        }
+        restoreAttempted = true;
+        if (!Files.exists(path)) {
+            LOG.info("No RCA graph checkpoint at {}", path);
+            return 0;
+        }
+
+        Map<String, byte[]> states;
+        long createdAt;
+        try (DataInputStream in =
+                new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                LOG.warn("Ignoring {} as it is not an RCA graph checkpoint of this version", path);
+                return 0;
+            }
+            createdAt = in.readLong();
+            long age = clock.millis() - createdAt;
+            if (age < 0 || age > maxAgeMillis) {
+                LOG.info("Ignoring the RCA graph checkpoint at {} written {}ms ago", path, age);
+                return 0;
+            }
+            int count = in.readInt();
+            states = new HashMap<>();
+            for (int i = 0; i < count; i++) {
+                String name = in.readUTF();
+                byte[] state = new byte[in.readInt()];
+                in.readFully(state);
+                states.put(name, state);
+            }
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Unable to read the RCA graph checkpoint at {}", path, e);
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.RCA_GRAPH_CHECKPOINT_ERROR, 1);
+            return 0;
+        }
+
+        int restored = 0;
+        for (Map.Entry<String, Checkpointable> entry : checkpointableNodes(nodes).entrySet()) {
+            byte[] state = states.get(entry.getKey());
+            if (state == null) {
+                continue;
+            }
+            try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(state))) {
+                entry.getValue().readCheckpoint(in);
+                restored++;
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.RCA_GRAPH_NODES_RESTORED, entry.getKey(), 1);
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Unable to restore the checkpointed state of {}", entry.getKey(), e);
+                ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                        RcaRuntimeMetrics.RCA_GRAPH_CHECKPOINT_ERROR, 1);
+            }
+        }
+        LOG.info(
+                "Restored {} RCA graph nodes from the checkpoint written {}ms ago",
+                restored,
+                clock.millis() - createdAt);
+        return restored;
+    }
+
+    /**
+     * Writes a checkpoint if the configured interval has passed since the last one.
+     *
+     * @param nodes The locally evaluated graph nodes.
+     */
+    public synchronized void checkpointIfDue(Collection<Node<?>> nodes) {
+        if (clock.millis() - lastCheckpointMillis >= intervalMillis) {
+            checkpoint(nodes);
+        }
+    }
+
+    /**
+     * Writes the state of the checkpointable nodes, replacing the previous checkpoint.
+     *
+     * @param nodes The locally evaluated graph nodes.
+     */
+    public synchronized void checkpoint(Collection<Node<?>> nodes) {
+        lastCheckpointMillis = clock.millis();
+        Map<String, Checkpointable> checkpointables = checkpointableNodes(nodes);
+        if (checkpointables.isEmpty()) {
+            return;
+        }
+
+        Path tmpPath = path.resolveSibling(path.getFileName() + TMP_SUFFIX);
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            ByteArrayOutputStream state = new ByteArrayOutputStream();
+            try (DataOutputStream out =
+                    new DataOutputStream(
+                            new BufferedOutputStream(Files.newOutputStream(tmpPath)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeLong(lastCheckpointMillis);
+                out.writeInt(checkpointables.size());
+                for (Map.Entry<String, Checkpointable> entry : checkpointables.entrySet()) {
+                    state.reset();
+                    entry.getValue().writeCheckpoint(new DataOutputStream(state));
+                    out.writeUTF(entry.getKey());
+                    out.writeInt(state.size());
+                    state.writeTo(out);
+                }
+            }
+            Files.move(
+                    tmpPath,
+                    path,
+                    StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.RCA_GRAPH_CHECKPOINT_WRITTEN, 1);
+            LOG.debug("Checkpointed {} RCA graph nodes to {}", checkpointables.size(), path);
+        } catch (IOException | RuntimeException e) {
+            LOG.error("Unable to write the RCA graph checkpoint to {}", path, e);
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.RCA_GRAPH_CHECKPOINT_ERROR, 1);
+        }
+    }
+
+    /**
+     * The nodes are identified by their names in the checkpoint, so a name that is used by more
+     * than one checkpointable node is left out.
+     */
+    private static Map<String, Checkpointable> checkpointableNodes(Collection<Node<?>> nodes) {
+        Map<String, Checkpointable> checkpointables = new LinkedHashMap<>();
+        Set<String> duplicates = new HashSet<>();
+        for (Node<?> node : nodes) {
+            if (node instanceof Checkpointable
+                    && checkpointables.put(node.name(), (Checkpointable) node) != null) {
+                duplicates.add(node.name());
+            }
+        }
+        for (String name : duplicates) {
+            LOG.warn("More than one graph node is named {}, its state is not checkpointed", name);
+            checkpointables.remove(name);
+        }
+        return checkpointables;
+    }
+
+    @VisibleForTesting
+    Path getPath() {
+        return path;
+    }
+}
@@ -63,16 +63,6 @@ class SQLitePersistor extends PersistorBase {
         NEITHER
     }
 
-    private static class GetterSetterPairs {
-        Method getter = null;
-        Method setter = null;
-    }
-
-    private static class ColumnValuePair {
-        Field<?> field;
-        Object value;
-    }
-
     private static final String DB_URL = "jdbc:sqlite:";
     private DSLContext create;
     private Map<String, List<Field<?>>> jooqTableColumns;
@@ -89,21 +79,18 @@ class SQLitePersistor extends PersistorBase {
     private static final String ROW_IDS_JSON_KEY = "rowIds";
 
     /**
-     * This is for efficient lookup of the getter and setter methods for all the persistable Fields
+     * This is for efficient lookup of the bound getters and setters for all the persistable Fields
      * of a class. This map can be in-memory and does not need to be re-created during DB file
      * rotations as we don't support dynamic class loading and rotating the DB files should not
      * change the members of the class.
      */
-    private Map<Class<?>, Map<java.lang.reflect.Field, GetterSetterPairs>>
-            fieldGetterSetterPairsMap;
-
-    private Map<Class<?>, Map<String, GetterSetterPairs>> classFieldNamesToGetterSetterMap;
+    private Map<Class<?>, ClassRowMapper> classRowMappers;
 
     // When persisting an object in the DB, is a getter for the Object is annotated with @AColumn
     // and @ATable, then the return type Object is
     // persisted in a a different table and the primary key of the other table is persisted as a
     // pointer in the outer object table.
-    private static final String NESTED_OBJECT_COLUMN_PREFIX = "__table__";
+    static final String NESTED_OBJECT_COLUMN_PREFIX = "__table__";
 
     private static int id_test = 1;
 
@@ -118,8 +105,7 @@ class SQLitePersistor extends PersistorBase {
         create = DSL.using(conn, SQLDialect.SQLITE);
         jooqTableColumns = new HashMap<>();
         tableNameToJavaClassMap = new HashMap<>();
-        this.fieldGetterSetterPairsMap = new HashMap<>();
-        this.classFieldNamesToGetterSetterMap = new HashMap<>();
+        this.classRowMappers = new HashMap<>();
     }
 
     // This updates the DSL context based on a new SQLite connection
@@ -346,11 +332,10 @@ class SQLitePersistor extends PersistorBase {
                     InvocationTargetException,
                     InstantiationException {
 
-        Map<String, GetterSetterPairs> fieldNameToGetterSetterMap =
-                classFieldNamesToGetterSetterMap.get(clz);
+        ClassRowMapper rowMapper = getOrCreateRowMapper(clz);
         String primaryKeyCol = SQLiteQueryUtils.getPrimaryKeyColumnName(tableName);
         Field<?>[] fields = record.fields();
-        T obj = clz.getDeclaredConstructor().newInstance();
+        T obj = clz.cast(rowMapper.newInstance());
 
         for (Field<?> jooqField : fields) {
             String columnName = jooqField.getName();
@@ -374,7 +359,8 @@ class SQLitePersistor extends PersistorBase {
                 if (jooqField.getType() == String.class) {
                     String value = (String) jooqField.getValue(record);
                     JsonArray array = new JsonParser().parse(value).getAsJsonArray();
-                    Method setter = fieldNameToGetterSetterMap.get(nestedTableName).setter;
+                    ClassRowMapper.ColumnMapping mapping =
+                            getColumnMapping(rowMapper, nestedTableName, jooqField, tableName);
 
                     List<Object> collection = new ArrayList<>();
                     for (JsonElement element : array) {
@@ -398,29 +384,14 @@ class SQLitePersistor extends PersistorBase {
                             collection.add(nestedObj);
                         }
                     }
-                    setter.invoke(obj, collection);
+                    mapping.set(obj, collection);
                 } else if (jooqField.getType() == Integer.class) {
                     // This references a row in a table.
-                    if (fieldNameToGetterSetterMap.get(nestedTableName) == null) {
-                        throw new IllegalStateException(
-                                "No Field Mapping exist for column name "
-                                        + jooqField.getName()
-                                        + " of table "
-                                        + tableName);
-                    }
-                    Method setter = fieldNameToGetterSetterMap.get(nestedTableName).setter;
-
-                    if (setter.getParameterTypes().length != 1) {
-                        throw new IllegalStateException(
-                                "A setter "
-                                        + setter.getName()
-                                        + " of class "
-                                        + clz.getSimpleName()
-                                        + " accepts more than one arguments.");
-                    }
+                    ClassRowMapper.ColumnMapping mapping =
+                            getColumnMapping(rowMapper, nestedTableName, jooqField, tableName);
 
                     // This gives the type of the setter parameter.
-                    Class<?> setterType = setter.getParameterTypes()[0];
+                    Class<?> setterType = mapping.getType();
                     int nestedRowId = record.getValue(jooqField, Integer.class);
 
                     // Now that we have the Type of the parameter and the rowID specifying the data
@@ -429,20 +400,44 @@ class SQLitePersistor extends PersistorBase {
                     // referenced Object
                     // and then invoke the setter with it.
                     Object nestedObj = read(setterType, nestedRowId);
-                    setter.invoke(obj, nestedObj);
+                    mapping.set(obj, nestedObj);
                 } else {
                     throw new IllegalStateException(
                             "ReferenceColumn can be either Integer or String.");
                 }
             } else {
                 // For all the other columns, we look for the corresponding setter.
-                Method setter = fieldNameToGetterSetterMap.get(jooqField.getName()).setter;
-                setter.invoke(obj, jooqField.getType().cast(jooqField.getValue(record)));
+                ClassRowMapper.ColumnMapping mapping =
+                        getColumnMapping(rowMapper, columnName, jooqField, tableName);
+                mapping.set(obj, jooqField.getType().cast(jooqField.getValue(record)));
             }
         }
         return obj;
     }
 
+    private ClassRowMapper.ColumnMapping getColumnMapping(
+            ClassRowMapper rowMapper, String fieldName, Field<?> jooqField, String tableName) {
+        ClassRowMapper.ColumnMapping mapping = rowMapper.getColumnMapping(fieldName);
+        if (mapping == null) {
+            throw new IllegalStateException(
+                    "No Field Mapping exist for column name "
+                            + jooqField.getName()
+                            + " of table "
+                            + tableName);
+        }
+        return mapping;
+    }
+
+    @VisibleForTesting
+    synchronized ClassRowMapper getOrCreateRowMapper(Class<?> clz)
+            throws NoSuchMethodException, IllegalAccessException {
+        ClassRowMapper rowMapper = classRowMappers.get(clz);
+        if (rowMapper == null) {
+            rowMapper = createFieldRegistry(clz);
+        }
+        return rowMapper;
+    }
+
     synchronized <T> void writeImpl(T obj)
             throws IllegalStateException,
                     IllegalArgumentException,
@@ -541,29 +536,27 @@ class SQLitePersistor extends PersistorBase {
 
     /**
      * Go over all the fields of the class and then filter out all that are annotated as @AColumn
-     * or @ATable. For those fields, try to figure out the getter and setters.
+     * or @ATable. For those fields, try to figure out the getter and setters and bind them into a
+     * row mapper for the class.
      *
      * @param clz The class whose field registry is to be created.
      * @param <T> The Generic type of the class.
+     * @return The row mapper for the class.
      * @throws IllegalStateException When getters and setters are not found for the field that is
      *     required to be persisted or they exist but are not public.
+     * @throws IllegalAccessException When the getters and setters cannot be bound.
      */
-    private <T> void createFieldRegistry(Class<T> clz)
-            throws IllegalStateException, NoSuchMethodException {
-        fieldGetterSetterPairsMap.putIfAbsent(clz, new HashMap<>());
-        classFieldNamesToGetterSetterMap.putIfAbsent(clz, new HashMap<>());
-
-        Map<java.lang.reflect.Field, GetterSetterPairs> fieldToGetterSetterMap =
-                fieldGetterSetterPairsMap.get(clz);
-        Map<String, GetterSetterPairs> fieldNameToGetterSetterMap =
-                classFieldNamesToGetterSetterMap.get(clz);
+    private <T> ClassRowMapper createFieldRegistry(Class<T> clz)
+            throws IllegalStateException, NoSuchMethodException, IllegalAccessException {
+        ClassRowMapper.Builder rowMapperBuilder = ClassRowMapper.builder(clz);
 
         for (java.lang.reflect.Field field : clz.getDeclaredFields()) {
             if (field.isAnnotationPresent(ValueColumn.class)
                     || field.isAnnotationPresent(RefColumn.class)) {
                 checkValidType(field, clz);
                 // Now we try to find the corresponding Getter and Setter for this field.
-                GetterSetterPairs pair = new GetterSetterPairs();
+                Method getter = null;
+                Method setter = null;
 
                 String capitalizedFieldName = capitalize(field.getName());
                 for (String prefix : GETTER_PREFIXES) {
@@ -587,7 +580,7 @@ class SQLitePersistor extends PersistorBase {
                         throw new NoSuchMethodException(sb.toString());
                     }
                     checkPublic(method);
-                    pair.getter = method;
+                    getter = method;
                     break;
                 }
                 for (String prefix : SETTER_PREFIXES) {
@@ -600,23 +593,30 @@ class SQLitePersistor extends PersistorBase {
                         // types.
                         Method method = clz.getDeclaredMethod(key, field.getType());
                         checkPublic(method);
-                        pair.setter = method;
+                        setter = method;
                         break;
                     } catch (NoSuchMethodException e) {
                     }
                 }
-                if (pair.getter == null) {
+                if (getter == null) {
                     throw new NoSuchMethodException(
                             getNoGetterSetterExist(clz, field, GetterOrSetter.GETTER));
                 }
-                if (pair.setter == null) {
+                if (setter == null) {
                     throw new NoSuchMethodException(
                             getNoGetterSetterExist(clz, field, GetterOrSetter.SETTER));
                 }
-                fieldToGetterSetterMap.put(field, pair);
-                fieldNameToGetterSetterMap.put(field.getName(), pair);
+                Class<?> collectionElementType = null;
+                if (field.isAnnotationPresent(RefColumn.class)
+                        && Collection.class.isAssignableFrom(getter.getReturnType())) {
+                    collectionElementType = getGenericParamTypeOfMethodReturn(getter);
+                }
+                rowMapperBuilder.addColumn(field, getter, setter, collectionElementType);
             }
         }
+        ClassRowMapper rowMapper = rowMapperBuilder.build();
+        classRowMappers.put(clz, rowMapper);
+        return rowMapper;
     }
 
     private String getNoGetterSetterExist(
@@ -645,23 +645,18 @@ class SQLitePersistor extends PersistorBase {
         return sb.toString();
     }
 
-    private <T> ColumnValuePair writeCollectionReferenceColumn(
-            java.lang.reflect.Field field, Method getter, T obj)
+    private <T> String writeCollectionReferenceColumn(ClassRowMapper.ColumnMapping mapping, T obj)
             throws InvocationTargetException,
                     IllegalAccessException,
                     SQLException,
                     NoSuchMethodException {
-        ColumnValuePair columnValuePair = new ColumnValuePair();
-        String columnName = NESTED_OBJECT_COLUMN_PREFIX + field.getName();
-
-        Collection<?> collection = (Collection<?>) getter.getReturnType().cast(getter.invoke(obj));
+        Collection<?> collection = (Collection<?>) mapping.get(obj);
+        Class<?> typeArgClass = mapping.getCollectionElementType();
         Map<String, List<Integer>> nestedPrimaryKeys = new HashMap<>();
         for (Object o : collection) {
             String myActualType = o.getClass().getSimpleName();
             nestedPrimaryKeys.putIfAbsent(myActualType, new ArrayList<>());
 
-            Class typeArgClass = getGenericParamTypeOfMethodReturn(getter);
-
             int id = writeImplInner(typeArgClass.cast(o));
             nestedPrimaryKeys.get(myActualType).add(id);
         }
@@ -677,9 +672,7 @@ class SQLitePersistor extends PersistorBase {
 
             json.add(jsonObject);
         }
-        columnValuePair.field = (DSL.field(DSL.name(columnName), String.class));
-        columnValuePair.value = json.toString();
-        return columnValuePair;
+        return json.toString();
     }
 
     private <T> int writeImplInner(T obj)
@@ -710,51 +703,35 @@ class SQLitePersistor extends PersistorBase {
                                 + "'. Please consider re-naming your classes.");
             }
             Objects.requireNonNull(
-                    fieldGetterSetterPairsMap.get(clz),
+                    classRowMappers.get(clz),
                     "Because the class is already persisted once, we should have the "
                             + "mapping for field to their corresponding getter and setters.");
-        } else {
-            createFieldRegistry(clz);
         }
+        ClassRowMapper rowMapper = getOrCreateRowMapper(clz);
 
-        Map<java.lang.reflect.Field, GetterSetterPairs> fieldToGetterSetterMap =
-                fieldGetterSetterPairsMap.get(clz);
-        List<Field<?>> fields = new ArrayList<>();
-        List<Object> values = new ArrayList<>();
-
-        for (Map.Entry<java.lang.reflect.Field, GetterSetterPairs> entry :
-                fieldToGetterSetterMap.entrySet()) {
-            Method getter = entry.getValue().getter;
-            java.lang.reflect.Field classField = entry.getKey();
-
-            String columnName = classField.getName();
-            Class<?> retType = getter.getReturnType();
-
-            if (classField.isAnnotationPresent(RefColumn.class)) {
-                columnName = NESTED_OBJECT_COLUMN_PREFIX + columnName;
-                if (Collection.class.isAssignableFrom(retType)) {
-                    ColumnValuePair columnValuePair =
-                            writeCollectionReferenceColumn(classField, getter, obj);
-                    fields.add(columnValuePair.field);
-                    values.add(columnValuePair.value);
-                } else {
+        List<ClassRowMapper.ColumnMapping> columnMappings = rowMapper.getColumnMappings();
+        List<Field<?>> fields = new ArrayList<>(columnMappings.size());
+        List<Object> values = new ArrayList<>(columnMappings.size());
+
+        for (ClassRowMapper.ColumnMapping mapping : columnMappings) {
+            switch (mapping.getKind()) {
+                case COLLECTION_REFERENCE:
+                    values.add(writeCollectionReferenceColumn(mapping, obj));
+                    break;
+                case REFERENCE:
                     // This is a user-defined class Type
-                    int id = writeImplInner(retType.cast(getter.invoke(obj)));
+                    int id = writeImplInner(mapping.getType().cast(mapping.get(obj)));
                     // Although the ID is long, we are persisting it as string because if there are
                     // multiple rows in the child table, that refer to
                     // the parent table row, then, the parent table should have a list of them. IN
                     // which case the value stored in the column will be
                     // of the form: [id1, id2, ..].
-                    fields.add(DSL.field(DSL.name(columnName), Integer.class));
                     values.add(id);
-                }
-            } else if (retType.isPrimitive()) {
-                fields.add(DSL.field(DSL.name(columnName), retType));
-                values.add(getter.invoke(obj));
-            } else if (retType == String.class) {
-                fields.add(DSL.field(DSL.name(columnName), String.class));
-                values.add(getter.invoke(obj));
+                    break;
+                default:
+                    values.add(mapping.get(obj));
             }
+            fields.add(mapping.getColumn());
         }
 
         if (fields.size() == 0) {
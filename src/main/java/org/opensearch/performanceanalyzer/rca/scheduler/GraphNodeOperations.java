@@ -9,6 +9,7 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.rca.framework.core.Stats;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.GraphNodeProfiler;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaGraphMetrics;
 
 public class GraphNodeOperations {
@@ -19,8 +20,13 @@ public class GraphNodeOperations {
             args.getNode().handleNodeMuted();
             return;
         }
-        args.getNode().generateFlowUnitListFromLocal(args);
-        args.getNode().persistFlowUnit(args);
+        GraphNodeProfiler.getInstance()
+                .profile(
+                        args.getNode().name(),
+                        () -> {
+                            args.getNode().generateFlowUnitListFromLocal(args);
+                            args.getNode().persistFlowUnit(args);
+                        });
         ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
                 RcaGraphMetrics.NUM_NODES_EXECUTED_LOCALLY, 1);
     }
@@ -28,7 +34,10 @@ public class GraphNodeOperations {
     // This is the abstraction for when the data arrives on the wire from a remote dependency.
     static void readFromWire(FlowUnitOperationArgWrapper args) {
         // flowUnits.forEach(i -> LOG.info("rca: Read from wire: {}", i));
-        args.getNode().generateFlowUnitListFromWire(args);
+        GraphNodeProfiler.getInstance()
+                .profile(
+                        args.getNode().name(),
+                        () -> args.getNode().generateFlowUnitListFromWire(args));
         ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
                 RcaGraphMetrics.NUM_NODES_EXECUTED_REMOTELY, 1);
     }
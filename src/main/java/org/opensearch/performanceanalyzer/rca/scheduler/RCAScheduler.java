@@ -25,6 +25,7 @@ import org.opensearch.performanceanalyzer.rca.framework.core.Queryable;
 import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
 import org.opensearch.performanceanalyzer.rca.framework.core.ThresholdMain;
 import org.opensearch.performanceanalyzer.rca.net.WireHopper;
+import org.opensearch.performanceanalyzer.rca.persistence.GraphCheckpointStore;
 import org.opensearch.performanceanalyzer.rca.persistence.Persistable;
 
 /**
@@ -44,7 +45,10 @@ public class RCAScheduler {
     private final AllMetrics.NodeRole role;
     private final AppContext appContext;
 
-    private RCASchedulerTask schedulerTask = null;
+    private volatile RCASchedulerTask schedulerTask = null;
+
+    /** Set when the tasklets have to be rebuilt from the connected components before a run. */
+    private volatile boolean rebuildSchedulerTask = false;
 
     final ThreadFactory schedThreadFactory;
 
@@ -56,9 +60,10 @@ public class RCAScheduler {
 
     List<ConnectedComponent> connectedComponents;
     volatile Queryable db;
-    RcaConf rcaConf;
+    volatile RcaConf rcaConf;
     ThresholdMain thresholdMain;
     Persistable persistable;
+    final GraphCheckpointStore checkpointStore;
     static final int PERIODICITY_SECONDS = 1;
     static final int PERIODICITY_IN_MS = PERIODICITY_SECONDS * 1000;
 
@@ -97,6 +102,7 @@ public class RCAScheduler {
         this.shutdownRequested = false;
         this.appContext = appContext;
         this.role = this.appContext.getMyInstanceDetails().getRole();
+        this.checkpointStore = GraphCheckpointStore.fromSettings();
     }
 
     public void start() {
@@ -120,16 +126,7 @@ public class RCAScheduler {
             return;
         }
 
-        schedulerTask =
-                new RCASchedulerTask(
-                        10000,
-                        rcaSchedulerPeriodicExecutor,
-                        connectedComponents,
-                        db,
-                        persistable,
-                        rcaConf,
-                        net,
-                        appContext);
+        schedulerTask = createSchedulerTask();
 
         schedulerState = RcaSchedulerState.STATE_STARTED;
         LOG.info(
@@ -142,6 +139,11 @@ public class RCAScheduler {
         while (schedulerState == RcaSchedulerState.STATE_STARTED) {
             try {
                 long startTime = System.currentTimeMillis();
+                if (rebuildSchedulerTask) {
+                    rebuildSchedulerTask = false;
+                    schedulerTask = createSchedulerTask();
+                    LOG.info("RCA: Rebuilt the scheduler task for the reloaded rca.conf");
+                }
                 schedulerTask.run();
                 long duration = System.currentTimeMillis() - startTime;
                 if (duration < PERIODICITY_IN_MS) {
@@ -157,6 +159,37 @@ public class RCAScheduler {
         }
     }
 
+    private RCASchedulerTask createSchedulerTask() {
+        return new RCASchedulerTask(
+                10000,
+                rcaSchedulerPeriodicExecutor,
+                connectedComponents,
+                db,
+                persistable,
+                rcaConf,
+                net,
+                appContext,
+                checkpointStore);
+    }
+
+    /**
+     * Applies a reloaded rca.conf to the running graph without restarting the scheduler. The graph
+     * nodes are kept, so they don't lose the state accumulated in their sliding windows.
+     *
+     * @param newConf The reloaded rca.conf.
+     * @param rebuildTasklets true if the change affects which nodes are evaluated locally, in which
+     *     case the tasklets are rebuilt from the connected components before the next run. Else the
+     *     local nodes only read their settings again.
+     */
+    public void updateRcaConf(final RcaConf newConf, boolean rebuildTasklets) {
+        this.rcaConf = newConf;
+        if (rebuildTasklets) {
+            rebuildSchedulerTask = true;
+        } else if (schedulerTask != null) {
+            schedulerTask.setNewConf(newConf);
+        }
+    }
+
     /**
      * Signal a shutdown on the scheduled pool first and then to the executor pool. Calling a
      * shutdown on them does not lead to immediate shutdown instead, they stop taking new tasks and
@@ -170,6 +203,9 @@ public class RCAScheduler {
         waitForShutdown(scheduledPool);
         rcaSchedulerPeriodicExecutor.shutdown();
         waitForShutdown(rcaSchedulerPeriodicExecutor);
+        if (schedulerTask != null) {
+            schedulerTask.checkpoint();
+        }
         try {
             persistable.close();
         } catch (SQLException e) {
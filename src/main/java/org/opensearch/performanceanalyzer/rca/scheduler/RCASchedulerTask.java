@@ -21,6 +21,7 @@ import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.AppContext;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.collectors.SampleAggregator;
+import org.opensearch.performanceanalyzer.rca.framework.api.MergeableClusterRca;
 import org.opensearch.performanceanalyzer.rca.framework.core.ConnectedComponent;
 import org.opensearch.performanceanalyzer.rca.framework.core.Node;
 import org.opensearch.performanceanalyzer.rca.framework.core.Queryable;
@@ -31,6 +32,7 @@ import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts.RcaTagCon
 import org.opensearch.performanceanalyzer.rca.framework.util.RcaUtil;
 import org.opensearch.performanceanalyzer.rca.messages.IntentMsg;
 import org.opensearch.performanceanalyzer.rca.net.WireHopper;
+import org.opensearch.performanceanalyzer.rca.persistence.GraphCheckpointStore;
 import org.opensearch.performanceanalyzer.rca.persistence.Persistable;
 
 public class RCASchedulerTask implements Runnable {
@@ -41,6 +43,9 @@ public class RCASchedulerTask implements Runnable {
     // This is to be used for tests only.
     private Queryable newDb = null;
 
+    /** A reloaded rca.conf to be read by the local nodes before the next run. */
+    private volatile RcaConf newConf = null;
+
     /**
      * This is a wrapper class for return type of createTaskletAndSendIntent method. This is
      * required because this method usually returns the tasklet created for a given graphNode.
@@ -84,6 +89,15 @@ public class RCASchedulerTask implements Runnable {
      */
     private final List<List<Tasklet>> locallyExecutableTasklets;
 
+    /** The graph nodes evaluated on this node, in the order they were read from the graph. */
+    private final List<Node<?>> locallyExecutableNodes;
+
+    /** Checkpoints the state of the local nodes across restarts; null if not enabled. */
+    private final GraphCheckpointStore checkpointStore;
+
+    /** The network proxy, which sends the subscriptions asked for during a run after it. */
+    private final WireHopper hopper;
+
     // TODO: Q/ : maybe the max Ticks should be determined by what the max periodicity the user has
     // specified for a
     //  graph node? If this periodicity is lower than that, then some nodes may never get executed.
@@ -100,9 +114,38 @@ public class RCASchedulerTask implements Runnable {
             final RcaConf conf,
             final WireHopper hopper,
             final AppContext appContext) {
+        this(
+                maxTicks,
+                executorPool,
+                connectedComponents,
+                db,
+                persistable,
+                conf,
+                hopper,
+                appContext,
+                null);
+    }
+
+    /**
+     * @param checkpointStore If not null, the local nodes are rehydrated from the last checkpoint
+     *     of their state when the first task is created, and checkpointed periodically after runs.
+     */
+    public RCASchedulerTask(
+            int maxTicks,
+            final ExecutorService executorPool,
+            final List<ConnectedComponent> connectedComponents,
+            final Queryable db,
+            final Persistable persistable,
+            final RcaConf conf,
+            final WireHopper hopper,
+            final AppContext appContext,
+            final GraphCheckpointStore checkpointStore) {
         this.maxTicks = maxTicks;
+        this.checkpointStore = checkpointStore;
+        this.hopper = hopper;
         this.executorPool = executorPool;
         this.remotelyDesirableNodeSet = new HashMap<>();
+        this.locallyExecutableNodes = new ArrayList<>();
         Map<Node<?>, Tasklet> nodeTaskletMap = new HashMap<>();
 
         List<List<Tasklet>> dependencyOrderedLocallyExecutables = Collections.emptyList();
@@ -124,6 +167,9 @@ public class RCASchedulerTask implements Runnable {
         this.locallyExecutableTasklets =
                 Collections.unmodifiableList(dependencyOrderedLocallyExecutables);
         LOG.debug("rca: locally executable tasklet size: {}", locallyExecutableTasklets.size());
+        if (checkpointStore != null) {
+            checkpointStore.restore(locallyExecutableNodes);
+        }
     }
 
     /**
@@ -197,6 +243,7 @@ public class RCASchedulerTask implements Runnable {
                     // This node will be executed locally, so add it to the set to keep track of
                     // this.
                     locallyExecutableSet.add(node);
+                    locallyExecutableNodes.add(node);
 
                     // read rca.conf to set threshold if needed.
                     node.readRcaConf(conf);
@@ -352,8 +399,15 @@ public class RCASchedulerTask implements Runnable {
                 "rca: Node '{}' sending intent to consume node: '{}'",
                 graphNode.name(),
                 upstreamNode.name());
+        final boolean mergeablePartials =
+                graphNode instanceof MergeableClusterRca
+                        && ((MergeableClusterRca) graphNode).canMergePartials(upstreamNode.name());
         IntentMsg msg =
-                new IntentMsg(graphNode.name(), upstreamNode.name(), upstreamNode.getTags());
+                new IntentMsg(
+                        graphNode.name(),
+                        upstreamNode.name(),
+                        upstreamNode.getTags(),
+                        mergeablePartials);
         hopper.sendIntent(msg);
 
         // This node is not locally present. So, we will add a virtual Tasklet that reads
@@ -379,6 +433,7 @@ public class RCASchedulerTask implements Runnable {
         test.updateStat(RcaGraphMetrics.NUM_GRAPH_NODES, Stats.getInstance().getTotalNodesCount());
 
         changeDbForTasklets();
+        changeConfForNodes();
         List<CompletableFuture<Void>> lastLevelTasks = createAsyncTasks();
         preWait();
         lastLevelTasks.forEach(CompletableFuture::join);
@@ -406,6 +461,24 @@ public class RCASchedulerTask implements Runnable {
         }
     }
 
+    /**
+     * Lets the locally evaluated nodes read the thresholds and settings of a reloaded rca.conf.
+     * This runs between two runs of the graph so that no node is evaluated while its settings
+     * change, and the nodes keep the state they have accumulated so far.
+     */
+    private void changeConfForNodes() {
+        RcaConf conf = newConf;
+        if (conf != null) {
+            newConf = null;
+            for (Node<?> node : locallyExecutableNodes) {
+                node.readRcaConf(conf);
+            }
+            LOG.info(
+                    "rca: applied the reloaded rca.conf to {} nodes",
+                    locallyExecutableNodes.size());
+        }
+    }
+
     protected List<CompletableFuture<Void>> createAsyncTasks() {
         Map<Tasklet, CompletableFuture<Void>> taskletFutureMap = new HashMap<>();
         List<CompletableFuture<Void>> lastLevel = new ArrayList<>();
@@ -437,10 +510,39 @@ public class RCASchedulerTask implements Runnable {
         ServiceMetrics.RCA_GRAPH_METRICS_AGGREGATOR.updateStat(
                 RcaGraphMetrics.NUM_GRAPH_NODES_MUTED,
                 Stats.getInstance().getMutedGraphNodesCount());
+
+        // The subscriptions the remote vertices asked for during the run go out batched per host.
+        if (hopper != null) {
+            hopper.reconcileSubscriptions();
+        }
+
+        // The checkpoint is taken after the run so that no node is evaluated while it is written.
+        if (checkpointStore != null) {
+            checkpointStore.checkpointIfDue(locallyExecutableNodes);
+        }
+    }
+
+    /**
+     * Checkpoints the state of the local nodes right away. Called on shutdown, once no tasklet is
+     * running anymore.
+     */
+    public void checkpoint() {
+        if (checkpointStore != null) {
+            checkpointStore.checkpoint(locallyExecutableNodes);
+        }
     }
 
     @VisibleForTesting
     public void setNewDb(Queryable newDb) {
         this.newDb = newDb;
     }
+
+    /**
+     * Requests the local nodes to read the given conf before the next run of the graph.
+     *
+     * @param newConf The reloaded rca.conf.
+     */
+    public void setNewConf(RcaConf newConf) {
+        this.newConf = newConf;
+    }
 }
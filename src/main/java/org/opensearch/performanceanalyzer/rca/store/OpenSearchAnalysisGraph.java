@@ -51,21 +51,12 @@ import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSum
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
 import org.opensearch.performanceanalyzer.rca.framework.core.Node;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardStore;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
 import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
 import org.opensearch.performanceanalyzer.rca.store.collector.NodeConfigClusterCollector;
 import org.opensearch.performanceanalyzer.rca.store.collector.NodeConfigCollector;
 import org.opensearch.performanceanalyzer.rca.store.metric.AggregateMetric;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.AvgCpuUtilByShardsMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.CpuUtilByShardsMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardAvgTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeAvgTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.HeapAllocRateTotalTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.ShardTotalDiskUsageTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.TotalCpuUtilForTotalNodeMetric;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.HeapAllocRateShardIndependentTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.ShardIndependentTemperatureCalculatorCpuUtilMetric;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
 import org.opensearch.performanceanalyzer.rca.store.rca.HighHeapUsageClusterRca;
 import org.opensearch.performanceanalyzer.rca.store.rca.HotNodeClusterRca;
 import org.opensearch.performanceanalyzer.rca.store.rca.HotNodeRca;
@@ -603,129 +594,55 @@ public class OpenSearchAnalysisGraph extends AnalysisGraph {
         LOG.info("Constructing temperature profile RCA components");
         ShardStore shardStore = new ShardStore();
 
-        HeapAllocRateByShardTemperatureCalculator heapAllocByShard =
-                new HeapAllocRateByShardTemperatureCalculator();
-        HeapAllocRateByShardAvgTemperatureCalculator heapAllocRateByShardAvg =
-                new HeapAllocRateByShardAvgTemperatureCalculator();
-        HeapAllocRateShardIndependentTemperatureCalculator shardIndependentHeapAllocRate =
-                new HeapAllocRateShardIndependentTemperatureCalculator();
-        HeapAllocRateTotalTemperatureCalculator heapAllocRateTotal =
-                new HeapAllocRateTotalTemperatureCalculator();
-
-        CpuUtilByShardsMetricBasedTemperatureCalculator cpuUtilByShard =
-                new CpuUtilByShardsMetricBasedTemperatureCalculator();
-        AvgCpuUtilByShardsMetricBasedTemperatureCalculator avgCpuUtilByShards =
-                new AvgCpuUtilByShardsMetricBasedTemperatureCalculator();
-        ShardIndependentTemperatureCalculatorCpuUtilMetric shardIndependentCpuUtilMetric =
-                new ShardIndependentTemperatureCalculatorCpuUtilMetric();
-        TotalCpuUtilForTotalNodeMetric cpuUtilPeakUsage = new TotalCpuUtilForTotalNodeMetric();
-
-        ShardSizeMetricBasedTemperatureCalculator shardSizeByShard =
-                new ShardSizeMetricBasedTemperatureCalculator();
-        ShardSizeAvgTemperatureCalculator shardSizeAvg = new ShardSizeAvgTemperatureCalculator();
-        ShardTotalDiskUsageTemperatureCalculator shardTotalDiskUsage =
-                new ShardTotalDiskUsageTemperatureCalculator();
+        // Each dimension is gathered with a single scan of its metric table, from which the
+        // dimension RCA derives the usage by shard, the average over the shards and the total usage
+        // of the node.
+        SingleScanTemperatureCalculator cpuUtilByShardGroup =
+                new SingleScanTemperatureCalculator(TemperatureDimension.CPU_Utilization);
+        SingleScanTemperatureCalculator heapAllocRateByShardGroup =
+                new SingleScanTemperatureCalculator(TemperatureDimension.Heap_AllocRate);
+        SingleScanTemperatureCalculator shardSizeByShardGroup =
+                new SingleScanTemperatureCalculator(TemperatureDimension.Shard_Size_In_Bytes);
 
         // heat map is developed only for data nodes.
-        cpuUtilByShard.addTag(
+        cpuUtilByShardGroup.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        avgCpuUtilByShards.addTag(
+        heapAllocRateByShardGroup.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        shardIndependentCpuUtilMetric.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        cpuUtilPeakUsage.addTag(
+        shardSizeByShardGroup.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
 
-        heapAllocByShard.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        heapAllocRateByShardAvg.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        shardIndependentHeapAllocRate.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        heapAllocRateTotal.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-
-        shardSizeByShard.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        shardSizeAvg.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        shardTotalDiskUsage.addTag(
-                RcaConsts.RcaTagConstants.TAG_LOCUS,
-                RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-
-        addLeaf(cpuUtilByShard);
-        addLeaf(avgCpuUtilByShards);
-        addLeaf(shardIndependentCpuUtilMetric);
-        addLeaf(cpuUtilPeakUsage);
-
-        addLeaf(heapAllocByShard);
-        addLeaf(heapAllocRateByShardAvg);
-        addLeaf(shardIndependentHeapAllocRate);
-        addLeaf(heapAllocRateTotal);
-
-        addLeaf(shardSizeByShard);
-        addLeaf(shardSizeAvg);
-        addLeaf(shardTotalDiskUsage);
+        addLeaf(cpuUtilByShardGroup);
+        addLeaf(heapAllocRateByShardGroup);
+        addLeaf(shardSizeByShardGroup);
 
         CpuUtilDimensionTemperatureRca cpuUtilHeat =
                 new CpuUtilDimensionTemperatureRca(
-                        EVALUATION_INTERVAL_SECONDS,
-                        shardStore,
-                        cpuUtilByShard,
-                        avgCpuUtilByShards,
-                        shardIndependentCpuUtilMetric,
-                        cpuUtilPeakUsage);
+                        EVALUATION_INTERVAL_SECONDS, shardStore, cpuUtilByShardGroup);
         cpuUtilHeat.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        cpuUtilHeat.addAllUpstreams(
-                Arrays.asList(
-                        cpuUtilByShard,
-                        avgCpuUtilByShards,
-                        shardIndependentCpuUtilMetric,
-                        cpuUtilPeakUsage));
+        cpuUtilHeat.addAllUpstreams(Collections.singletonList(cpuUtilByShardGroup));
 
         HeapAllocRateTemperatureRca heapAllocRateHeat =
                 new HeapAllocRateTemperatureRca(
-                        EVALUATION_INTERVAL_SECONDS,
-                        shardStore,
-                        heapAllocByShard,
-                        heapAllocRateByShardAvg,
-                        shardIndependentHeapAllocRate,
-                        heapAllocRateTotal);
+                        EVALUATION_INTERVAL_SECONDS, shardStore, heapAllocRateByShardGroup);
 
         heapAllocRateHeat.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        heapAllocRateHeat.addAllUpstreams(
-                Arrays.asList(
-                        heapAllocByShard,
-                        heapAllocRateByShardAvg,
-                        shardIndependentHeapAllocRate,
-                        heapAllocRateTotal));
+        heapAllocRateHeat.addAllUpstreams(Collections.singletonList(heapAllocRateByShardGroup));
 
         ShardSizeDimensionTemperatureRca shardSizeHeat =
                 new ShardSizeDimensionTemperatureRca(
-                        EVALUATION_INTERVAL_SECONDS,
-                        shardStore,
-                        shardSizeByShard,
-                        shardSizeAvg,
-                        shardTotalDiskUsage);
+                        EVALUATION_INTERVAL_SECONDS, shardStore, shardSizeByShardGroup);
         shardSizeHeat.addTag(
                 RcaConsts.RcaTagConstants.TAG_LOCUS,
                 RcaConsts.RcaTagConstants.LOCUS_DATA_CLUSTER_MANAGER_NODE);
-        shardSizeHeat.addAllUpstreams(
-                Arrays.asList(shardSizeByShard, shardSizeAvg, shardTotalDiskUsage));
+        shardSizeHeat.addAllUpstreams(Collections.singletonList(shardSizeByShardGroup));
 
         NodeTemperatureRca nodeTemperatureRca =
                 new NodeTemperatureRca(cpuUtilHeat, heapAllocRateHeat, shardSizeHeat);
@@ -7,6 +7,7 @@ package org.opensearch.performanceanalyzer.rca.store.metric;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import org.apache.logging.log4j.LogManager;
@@ -59,6 +60,11 @@ public class AggregateMetric extends Metric {
         }
     }
 
+    @Override
+    public Collection<String> getTablesRead() {
+        return Collections.singletonList(tableName);
+    }
+
     protected Result<Record> createDslAndFetch(
             final DSLContext context,
             final String tableName,
@@ -100,18 +106,23 @@ public class AggregateMetric extends Metric {
     public MetricFlowUnit gather(final Queryable queryable) {
         LOG.debug("Metric: Trying to gather metrics for {}", tableName);
         final Result<Record> result;
-        List<Field<?>> selectFieldsList;
         try {
             final MetricsDB db = queryable.getMetricsDB();
-            final DSLContext context = db.getDSLContext();
 
             final Field<?> aggDimension = getAggrDimension();
             final List<Field<?>> groupByFieldsList = getGroupByFieldsList();
-            selectFieldsList = getSelectFieldsList(groupByFieldsList, aggDimension);
+            final List<Field<?>> selectFieldsList =
+                    getSelectFieldsList(groupByFieldsList, aggDimension);
 
             result =
-                    createDslAndFetch(
-                            context, tableName, aggDimension, groupByFieldsList, selectFieldsList);
+                    db.read(
+                            context ->
+                                    createDslAndFetch(
+                                            context,
+                                            tableName,
+                                            aggDimension,
+                                            groupByFieldsList,
+                                            selectFieldsList));
         } catch (Exception e) {
             // TODO: Emit log/stats that gathering failed.
             LOG.error("RCA: Caught an exception while getting the DB {}", e.getMessage());
@@ -0,0 +1,71 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.store.metric.temperature;
+
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
+
+/**
+ * Scans the metric table of a dimension once and sums the resource usage by (index name, shard ID)
+ * pairs, over all the operations. The rows of the usage that is not accounted to a shard fall in
+ * the groups whose shard ID is null.
+ *
+ * <p>This is all the temperature of a dimension needs: the usage of each shard, the average over
+ * the shards, the shard independent usage and the total usage of the node are derived from these
+ * groups in a single pass by {@code DimensionalTemperatureCalculator}. It replaces the four queries
+ * of {@code ShardBasedTemperatureCalculator}, {@code AvgShardBasedTemperatureCalculator}, {@code
+ * ShardIndependentTemperatureCalculator} and {@code TotalNodeTemperatureCalculator} over the same
+ * table.
+ *
+ * <p>The result looks like:
+ *
+ * <p>[[IndexName, ShardID, sum], [geonames, 0, 0.35558242693567], [geonames, 2,
+ * 0.0320651297686606], [null, null, 0.126687941459211]]
+ */
+public class SingleScanTemperatureCalculator extends TemperatureMetricsBase {
+    public static final String INDEX_NAME_COLUMN = AllMetrics.CommonDimension.INDEX_NAME.toString();
+    public static final String SHARD_ID_COLUMN = AllMetrics.CommonDimension.SHARD_ID.toString();
+    public static final String SUM_COLUMN = "sum";
+
+    private static final String[] dimensions = {INDEX_NAME_COLUMN, SHARD_ID_COLUMN};
+
+    private final TemperatureDimension dimension;
+
+    public SingleScanTemperatureCalculator(TemperatureDimension dimension) {
+        super(dimension, dimensions);
+        this.dimension = dimension;
+    }
+
+    public TemperatureDimension getDimension() {
+        return dimension;
+    }
+
+    @Override
+    protected Field<?> getAggrDimension() {
+        return super.getAggrDimension().as(SUM_COLUMN);
+    }
+
+    @Override
+    protected Result<Record> createDslAndFetch(
+            final DSLContext context,
+            final String tableName,
+            final Field<?> aggDimension,
+            final List<Field<?>> groupByFieldsList,
+            final List<Field<?>> selectFieldsList) {
+        // select IndexName, ShardID, sum(max) as sum from <MetricTable> group by IndexName,
+        // ShardID order by sum desc;
+        return context.select(selectFieldsList)
+                .from(tableName)
+                .groupBy(groupByFieldsList)
+                .orderBy(aggDimension.desc())
+                .fetch();
+    }
+}
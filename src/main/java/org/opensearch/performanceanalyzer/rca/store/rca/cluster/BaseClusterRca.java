@@ -19,6 +19,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.api.MergeableClusterRca;
 import org.opensearch.performanceanalyzer.rca.framework.api.Rca;
 import org.opensearch.performanceanalyzer.rca.framework.api.Resources;
 import org.opensearch.performanceanalyzer.rca.framework.api.contexts.ResourceContext;
@@ -44,7 +45,8 @@ import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrap
  * generateNodeSummary(NodeKey) : how do we want to parse the table and generate summary for one
  * node.
  */
-public class BaseClusterRca extends Rca<ResourceFlowUnit<HotClusterSummary>> {
+public class BaseClusterRca extends Rca<ResourceFlowUnit<HotClusterSummary>>
+        implements MergeableClusterRca {
 
     private static final Logger LOG = LogManager.getLogger(BaseClusterRca.class);
     private static final int DEFAULT_NUM_OF_FLOWUNITS = 1;
@@ -217,6 +219,23 @@ public class BaseClusterRca extends Rca<ResourceFlowUnit<HotClusterSummary>> {
         return nodeSummary;
     }
 
+    /**
+     * The table only keeps the latest flow unit per node and upstream RCA unless a derived class
+     * keeps more, so the flow units of the upstream RCAs can be pre-merged per node on the way.
+     */
+    @Override
+    public boolean canMergePartials(String upstreamVertex) {
+        if (numOfFlowUnitsInMap != 1) {
+            return false;
+        }
+        for (Rca<ResourceFlowUnit<HotNodeSummary>> nodeRca : nodeRcas) {
+            if (nodeRca.name().equals(upstreamVertex)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     @Override
     public ResourceFlowUnit<HotClusterSummary> operate() {
         counter += 1;
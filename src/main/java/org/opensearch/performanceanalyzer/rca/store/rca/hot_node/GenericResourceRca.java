@@ -5,6 +5,9 @@
 
 package org.opensearch.performanceanalyzer.rca.store.rca.hot_node;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -24,13 +27,15 @@ import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.MetricFlo
 import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.TopConsumerSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
 
 /**
  * Generic resource type RCA. ideally this RCA can be extended to any resource type and calculate
  * the total resource usage & top consumers.
  */
-public class GenericResourceRca extends Rca<ResourceFlowUnit<HotResourceSummary>> {
+public class GenericResourceRca extends Rca<ResourceFlowUnit<HotResourceSummary>>
+        implements Checkpointable {
 
     private static final Logger LOG = LogManager.getLogger(GenericResourceRca.class);
     private static final int SLIDING_WINDOW_IN_MIN = 10;
@@ -192,6 +197,16 @@ public class GenericResourceRca extends Rca<ResourceFlowUnit<HotResourceSummary>
         }
     }
 
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        slidingWindow.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        slidingWindow.readCheckpoint(in, SlidingWindowData::new);
+    }
+
     // The intention of adding this RCA to collect/aggregate cpu usage on this node
     // the flowunit coming out of this RCA is supposed to be ingested by another
     // node level RCA. So we don't need to worry about serialization/de-serialization
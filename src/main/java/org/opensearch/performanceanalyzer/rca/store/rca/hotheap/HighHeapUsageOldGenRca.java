@@ -5,6 +5,9 @@
 
 package org.opensearch.performanceanalyzer.rca.store.rca.hotheap;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
@@ -22,6 +25,7 @@ import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceF
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.TopConsumerSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
 import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaVerticesMetrics;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
@@ -46,7 +50,8 @@ import org.opensearch.performanceanalyzer.rca.store.rca.OldGenRca;
  * Segments_Memory / Terms_Memory / StoredFields_Memory / TermVectors_Memory / Norms_Memory
  * Points_Memory / DocValues_Memory / IndexWriter_Memory / Bitset_Memory / VersionMap_Memory
  */
-public class HighHeapUsageOldGenRca extends OldGenRca<ResourceFlowUnit<HotResourceSummary>> {
+public class HighHeapUsageOldGenRca extends OldGenRca<ResourceFlowUnit<HotResourceSummary>>
+        implements Checkpointable {
 
     private static final Logger LOG = LogManager.getLogger(HighHeapUsageOldGenRca.class);
     private int counter;
@@ -203,6 +208,18 @@ public class HighHeapUsageOldGenRca extends OldGenRca<ResourceFlowUnit<HotResour
         topK = configObj.getTopK();
     }
 
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        gcEventSlidingWindow.writeCheckpoint(out);
+        minOldGenSlidingWindow.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        gcEventSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+        minOldGenSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+    }
+
     /**
      * This is a local node RCA which by definition can not be serialize/de-serialized over gRPC.
      */
@@ -5,6 +5,9 @@
 
 package org.opensearch.performanceanalyzer.rca.store.rca.hotheap;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
@@ -28,6 +31,7 @@ import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceF
 import org.opensearch.performanceanalyzer.rca.framework.api.persist.SQLParsingUtil;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
 import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaVerticesMetrics;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
@@ -40,7 +44,8 @@ import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrap
  * gen during the last time interval and then use it to calculate its moving average. If both the
  * promotion rate and young gen GC time reach the threshold, this node is marked as unhealthy.
  */
-public class HighHeapUsageYoungGenRca extends Rca<ResourceFlowUnit<HotResourceSummary>> {
+public class HighHeapUsageYoungGenRca extends Rca<ResourceFlowUnit<HotResourceSummary>>
+        implements Checkpointable {
 
     private static final Logger LOG = LogManager.getLogger(HighHeapUsageYoungGenRca.class);
     private static final String FULL_GC_TIME_TOO_HIGH = "fullGcTimeTooHigh";
@@ -430,6 +435,28 @@ public class HighHeapUsageYoungGenRca extends Rca<ResourceFlowUnit<HotResourceSu
         garbagePromotionPctThreshold = configObj.getGarbagePromotionPctThreshold();
     }
 
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        minorGcTimeDeque.writeCheckpoint(out);
+        fullGcTimeDeque.writeCheckpoint(out);
+        promotionRateDeque.writeCheckpoint(out);
+        garbagePromotedDeque.writeCheckpoint(out);
+        out.writeDouble(youngGenPromotedBytes);
+        out.writeDouble(maxOldGen);
+        out.writeDouble(prevOldGen);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        minorGcTimeDeque.readCheckpoint(in, SlidingWindowData::new);
+        fullGcTimeDeque.readCheckpoint(in, SlidingWindowData::new);
+        promotionRateDeque.readCheckpoint(in, SlidingWindowData::new);
+        garbagePromotedDeque.readCheckpoint(in, SlidingWindowData::new);
+        youngGenPromotedBytes = in.readDouble();
+        maxOldGen = in.readDouble();
+        prevOldGen = in.readDouble();
+    }
+
     /**
      * This is a local node RCA which by definition can not be serialize/de-serialized over gRPC.
      */
@@ -10,6 +10,9 @@ import static org.opensearch.performanceanalyzer.rca.framework.api.persist.SQLPa
 import static org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil.SEARCHBACKPRESSURE_SHARD;
 import static org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil.SEARCHBACKPRESSURE_TASK;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.time.Clock;
 import java.util.ArrayList;
 import java.util.Deque;
@@ -36,13 +39,15 @@ import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceF
 import org.opensearch.performanceanalyzer.rca.framework.api.persist.SQLParsingUtil;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
 import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
 import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
 import org.opensearch.performanceanalyzer.rca.store.rca.OldGenRca.MinMaxSlidingWindow;
 import org.opensearch.performanceanalyzer.rca.store.rca.searchbackpressure.model.SearchBackPressureRCAMetric;
 
-public class SearchBackPressureRCA extends Rca<ResourceFlowUnit<HotNodeSummary>> {
+public class SearchBackPressureRCA extends Rca<ResourceFlowUnit<HotNodeSummary>>
+        implements Checkpointable {
     private static final Logger LOG = LogManager.getLogger(SearchBackPressureRCA.class);
     private static final double BYTES_TO_GIGABYTES = Math.pow(1024, 3);
     private static final long EVAL_INTERVAL_IN_S = SearchBackPressureRcaConfig.EVAL_INTERVAL_IN_S;
@@ -175,6 +180,22 @@ public class SearchBackPressureRCA extends Rca<ResourceFlowUnit<HotNodeSummary>>
         LOG.debug("SearchBackPressureRCA initialized");
     }
 
+    @Override
+    public void writeCheckpoint(DataOutput out) throws IOException {
+        minHeapUsageSlidingWindow.writeCheckpoint(out);
+        maxHeapUsageSlidingWindow.writeCheckpoint(out);
+        shardJVMCancellationSlidingWindow.writeCheckpoint(out);
+        taskJVMCancellationSlidingWindow.writeCheckpoint(out);
+    }
+
+    @Override
+    public void readCheckpoint(DataInput in) throws IOException {
+        minHeapUsageSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+        maxHeapUsageSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+        shardJVMCancellationSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+        taskJVMCancellationSlidingWindow.readCheckpoint(in, SlidingWindowData::new);
+    }
+
     /*
      * generateFlowUnitListFromWire() compute the flow units from other hosts in the cluster
      * for a given Metric and try to send the subscription requests
@@ -7,7 +7,6 @@ package org.opensearch.performanceanalyzer.rca.store.rca.temperature;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicBoolean;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jooq.Record;
@@ -20,22 +19,12 @@ import org.opensearch.performanceanalyzer.rca.framework.core.temperature.HeatZon
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardStore;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureVector;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.TemperatureMetricsBase;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.calculators.AvgShardBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.calculators.ShardBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.calculators.TotalNodeTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.calculators.ShardIndependentTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
 import org.opensearch.performanceanalyzer.rca.store.rca.hotshard.IndexShardKey;
 
 public class DimensionalTemperatureCalculator {
     private static final Logger LOG = LogManager.getLogger(DimensionalTemperatureCalculator.class);
 
-    enum ColumnTypes {
-        IndexName,
-        ShardID,
-        sum;
-    }
-
     /**
      * The categorization of shards as hot, warm, lukeWarm and cold based on the average resource
      * utilization of the resource across all shards. This value is not the actual number but a
@@ -46,131 +35,86 @@ public class DimensionalTemperatureCalculator {
      * <p>The Node temperature as the actual value. (If normalized to 10 this will always be 10 as
      * this is the base for the normalization).
      *
-     * @param resourceByShardId This gives the resource utilization at a shard level
-     * @param resourceShardIndependent This is the additional component that use resource but cannot
-     *     be accounted for at a shard level. For example, HttpServer consuming CPU will form part
-     *     of this. Currently this is not used in the calculation for the mean node temperature.
-     *     This will be needed whenever we will auto-suggest the movement of shards across nodes.
-     *     Keeping it for future reference.
-     * @param resourcePeakUsage This is the total usage of the resource at the node level. This
-     *     should be the sum of the other two.
-     * @return The return is a composition of three things:
+     * <p>All of these are derived in a single pass over the groups of the metric table gathered by
+     * the {@link SingleScanTemperatureCalculator}:
+     *
+     * <ul>
+     *   <li>The groups with a shard ID give the resource utilization at a shard level and,
+     *       averaged, the average resource utilization across all shards.
+     *   <li>The groups without a shard ID add up to the shard independent usage of the resource.
+     *       For example, HttpServer consuming CPU will form part of this. Currently this is not
+     *       used in the calculation for the mean node temperature. This will be needed whenever we
+     *       will auto-suggest the movement of shards across nodes.
+     *   <li>All the groups add up to the total usage of the resource at the node level.
+     * </ul>
+     *
+     * @param shardStore The store of the shard profiles the temperature of each shard is added to.
+     * @param dimension The dimension the temperature is calculated for.
+     * @param usageByShardGroup The usage of the resource summed by index name and shard ID.
+     * @param threshold The normalized value used to assign the shards to heat zones.
+     * @return The temperature of the node along the dimension, or an empty flow unit if there are
+     *     no shards on the node.
      */
     public static DimensionalTemperatureFlowUnit getTemperatureForDimension(
             ShardStore shardStore,
             TemperatureDimension dimension,
-            ShardBasedTemperatureCalculator resourceByShardId,
-            AvgShardBasedTemperatureCalculator avgResUsageByAllShards,
-            ShardIndependentTemperatureCalculator resourceShardIndependent,
-            TotalNodeTemperatureCalculator resourcePeakUsage,
+            SingleScanTemperatureCalculator usageByShardGroup,
             TemperatureVector.NormalizedValue threshold) {
-
-        List<List<MetricFlowUnit>> allFlowUnits = new ArrayList<>();
-        List<MetricFlowUnit> shardIdBasedFlowUnits = resourceByShardId.getFlowUnits();
-        List<MetricFlowUnit> avgResUsageFlowUnits = avgResUsageByAllShards.getFlowUnits();
-        List<MetricFlowUnit> resourcePeakFlowUnits = resourcePeakUsage.getFlowUnits();
-        allFlowUnits.add(shardIdBasedFlowUnits);
-        allFlowUnits.add(avgResUsageFlowUnits);
-        allFlowUnits.add(resourcePeakFlowUnits);
-
-        AtomicBoolean emptyFlowUnit = new AtomicBoolean(false);
-        allFlowUnits.forEach(
-                flowUnitAcrossOneCalculator -> {
-                    if (flowUnitAcrossOneCalculator.get(0).isEmpty()) {
-                        LOG.debug("Empty flowUnitAcrossOneCalculator");
-                        emptyFlowUnit.set(true);
-                    }
-                });
-
-        if (emptyFlowUnit.get()) {
+        List<MetricFlowUnit> flowUnits = usageByShardGroup.getFlowUnits();
+        if (flowUnits.isEmpty() || flowUnits.get(0).isEmpty()) {
+            LOG.debug("Empty flow unit for {}", dimension);
             return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
         }
 
-        AtomicBoolean noEntriesInFlowUnit = new AtomicBoolean(false);
-        allFlowUnits.forEach(
-                flowUnitAcrossOneCalculator -> {
-                    if (flowUnitAcrossOneCalculator.get(0).getData().size() == 0) {
-                        LOG.debug("No Entries in flowUnits");
-                        noEntriesInFlowUnit.set(true);
-                    }
-                });
-
-        if (noEntriesInFlowUnit.get()) {
+        Result<Record> groups = flowUnits.get(0).getData();
+        if (groups == null || groups.isEmpty()) {
+            LOG.debug("No entries in the flow unit for {}", dimension);
             return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
         }
-
-        LOG.debug("shardIdBasedFlowUnits " + shardIdBasedFlowUnits.get(0).getData());
-        LOG.debug("avgResUsageFlowUnits " + avgResUsageFlowUnits.get(0).getData());
-        LOG.debug("resourcePeakFlowUnits " + resourcePeakFlowUnits.get(0).getData());
-        if (shardIdBasedFlowUnits.get(0).getData().get(0).size() != 3) {
+        if (groups.fields().length != 3) {
             // example:
-            // [0: [[IndexName, ShardID, sum], [geonames, 0, 0.35558242693567], [geonames, 2,
-            // 0.0320651297686606]]]
+            // [[IndexName, ShardID, sum], [geonames, 0, 0.35558242693567], [null, null,
+            // 0.126687941459211]]
             // we expect it to have three columns but the number of rows is determined by the
             // number of indices and shards in the node.
-            throw new IllegalArgumentException("Size more than expected: " + shardIdBasedFlowUnits);
+            throw new IllegalArgumentException("Size more than expected: " + groups);
         }
 
-        if (avgResUsageFlowUnits.get(0).getData().get(0).size() != 1) {
-            // example:
-            // [0: [shard_avg], [0.0123598766010401]]
-            // We expect it to have single column
-            throw new IllegalArgumentException(
-                    "Size more than expected:\n"
-                            + avgResUsageFlowUnits.get(0).getData()
-                            + "\n found: "
-                            + avgResUsageFlowUnits.get(0).getData().intoArrays().length);
+        List<Record> shardGroups = new ArrayList<>(groups.size());
+        double usageByShards = 0;
+        double usageShardIndependent = 0;
+        for (Record record : groups) {
+            Double usage =
+                    record.getValue(SingleScanTemperatureCalculator.SUM_COLUMN, Double.class);
+            double value = usage == null ? 0 : usage;
+            if (record.getValue(SingleScanTemperatureCalculator.SHARD_ID_COLUMN) == null) {
+                usageShardIndependent += value;
+            } else {
+                usageByShards += value;
+                shardGroups.add(record);
+            }
         }
 
-        if (resourcePeakFlowUnits.get(0).getData().get(0).size() != 1) {
-            // example:
-            // [0: [SUM_of_max], [0.03236403909818]]
-            // We expect it to have single column
-            throw new IllegalArgumentException(
-                    "Size more than expected: \n" + resourcePeakFlowUnits.get(0).getData());
+        if (shardGroups.isEmpty()) {
+            // This means that there are no shards on this node. So we will return an empty
+            // FlowUnit.
+            return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
         }
 
         // avgUsageAcrossShards contains the average of resource consumed over all the shards.
         // e.g. If Total CPU consumed by shards is 50% and total number of shards on the node
         // are 5, This would have the value as 10.
-        double avgUsageAcrossShards = -1.0;
-        try {
-            List<Double> values =
-                    avgResUsageFlowUnits
-                            .get(0)
-                            .getData()
-                            .getValues(AvgShardBasedTemperatureCalculator.SHARD_AVG, Double.class);
-            if (values != null && values.get(0) != null) {
-                avgUsageAcrossShards = values.get(0);
-            } else {
-                // This means that there are no shards on this node. So we will return an empty
-                // FlowUnit.
-                return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
-            }
-        } catch (Exception ex) {
-            LOG.error("DBError getting shard average:", ex);
-            return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
-        }
+        double avgUsageAcrossShards = usageByShards / shardGroups.size();
 
         // totalUsageInNode contains the value consumed by the resource on the node.
-        double totalUsageInNode = -1.0;
-        try {
-            List<Double> values =
-                    resourcePeakFlowUnits
-                            .get(0)
-                            .getData()
-                            .getValues(TemperatureMetricsBase.AGGR_OVER_AGGR_NAME, Double.class);
-            if (values != null && values.get(0) != null) {
-                totalUsageInNode = values.get(0);
-            } else {
-                // This means that there are no shards on this node. So we will return an empty
-                // FlowUnit.
-                return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
-            }
-        } catch (Exception ex) {
-            LOG.error("DBError getting shard average:", ex);
-            return new DimensionalTemperatureFlowUnit(System.currentTimeMillis());
-        }
+        double totalUsageInNode = usageByShards + usageShardIndependent;
+        LOG.debug(
+                "{}: shards={} avgAcrossShards={} shardIndependent={} total={}",
+                dimension,
+                shardGroups.size(),
+                avgUsageAcrossShards,
+                usageShardIndependent,
+                totalUsageInNode);
 
         // normalizedConsumptionAcrossShards contains average normalized value (on a scale of 10)
         // the of the resource
@@ -179,22 +123,24 @@ public class DimensionalTemperatureCalculator {
         TemperatureVector.NormalizedValue normalizedConsumptionAcrossShards =
                 TemperatureVector.NormalizedValue.calculate(avgUsageAcrossShards, totalUsageInNode);
 
-        // valuesOverShards contains the usage of resource over every shard.
-        Result<Record> valuesOverShards = shardIdBasedFlowUnits.get(0).getData();
-
         NodeLevelDimensionalSummary nodeDimensionProfile =
                 new NodeLevelDimensionalSummary(
                         dimension, normalizedConsumptionAcrossShards, totalUsageInNode);
 
-        // The shardIdBasedFlowUnits is supposed to contain one row per shard.
-        nodeDimensionProfile.setNumberOfShards(valuesOverShards.size());
+        // There is one group per shard.
+        nodeDimensionProfile.setNumberOfShards(shardGroups.size());
 
-        for (Record record : valuesOverShards) {
+        for (Record record : shardGroups) {
             // Each row has columns like:
             // IndexName, ShardID, sum
-            String indexName = record.getValue(ColumnTypes.IndexName.name(), String.class);
-            int shardId = record.getValue(ColumnTypes.ShardID.name(), Integer.class);
-            double usageByShard = record.getValue(ColumnTypes.sum.name(), Double.class);
+            String indexName =
+                    record.getValue(
+                            SingleScanTemperatureCalculator.INDEX_NAME_COLUMN, String.class);
+            int shardId =
+                    record.getValue(SingleScanTemperatureCalculator.SHARD_ID_COLUMN, Integer.class);
+            Double usage =
+                    record.getValue(SingleScanTemperatureCalculator.SUM_COLUMN, Double.class);
+            double usageByShard = usage == null ? 0 : usage;
 
             // normalizedConsumptionByShard contains the normalized value of the resource consumed
             // by this shard. e.g. If the If the total resource(CPU) used is 50% and
@@ -13,19 +13,13 @@ import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardSt
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureVector;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.AvgCpuUtilByShardsMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.CpuUtilByShardsMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.TotalCpuUtilForTotalNodeMetric;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.ShardIndependentTemperatureCalculatorCpuUtilMetric;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
 import org.opensearch.performanceanalyzer.rca.store.rca.temperature.DimensionalTemperatureCalculator;
 
 public class CpuUtilDimensionTemperatureRca extends Rca<DimensionalTemperatureFlowUnit> {
     private static final Logger LOG = LogManager.getLogger(CpuUtilDimensionTemperatureRca.class);
 
-    private final TotalCpuUtilForTotalNodeMetric CPU_UTIL_PEAK_USAGE;
-    private final CpuUtilByShardsMetricBasedTemperatureCalculator CPU_UTIL_BY_SHARD;
-    private final AvgCpuUtilByShardsMetricBasedTemperatureCalculator AVG_CPU_UTIL_BY_SHARD;
-    private final ShardIndependentTemperatureCalculatorCpuUtilMetric CPU_UTIL_SHARD_INDEPENDENT;
+    private final SingleScanTemperatureCalculator CPU_UTIL_BY_SHARD_GROUP;
 
     private final ShardStore shardStore;
 
@@ -36,15 +30,9 @@ public class CpuUtilDimensionTemperatureRca extends Rca<DimensionalTemperatureFl
     public CpuUtilDimensionTemperatureRca(
             final long evaluationIntervalSeconds,
             ShardStore shardStore,
-            CpuUtilByShardsMetricBasedTemperatureCalculator cpuUtilByShard,
-            AvgCpuUtilByShardsMetricBasedTemperatureCalculator avgCpuUtilByShards,
-            ShardIndependentTemperatureCalculatorCpuUtilMetric shardIndependentCpuUtilMetric,
-            TotalCpuUtilForTotalNodeMetric cpuUtilPeakUsage) {
+            SingleScanTemperatureCalculator cpuUtilByShardGroup) {
         super(evaluationIntervalSeconds);
-        this.CPU_UTIL_PEAK_USAGE = cpuUtilPeakUsage;
-        this.CPU_UTIL_BY_SHARD = cpuUtilByShard;
-        this.CPU_UTIL_SHARD_INDEPENDENT = shardIndependentCpuUtilMetric;
-        this.AVG_CPU_UTIL_BY_SHARD = avgCpuUtilByShards;
+        this.CPU_UTIL_BY_SHARD_GROUP = cpuUtilByShardGroup;
         this.shardStore = shardStore;
     }
 
@@ -59,10 +47,7 @@ public class CpuUtilDimensionTemperatureRca extends Rca<DimensionalTemperatureFl
                 DimensionalTemperatureCalculator.getTemperatureForDimension(
                         shardStore,
                         TemperatureDimension.CPU_Utilization,
-                        CPU_UTIL_BY_SHARD,
-                        AVG_CPU_UTIL_BY_SHARD,
-                        CPU_UTIL_SHARD_INDEPENDENT,
-                        CPU_UTIL_PEAK_USAGE,
+                        CPU_UTIL_BY_SHARD_GROUP,
                         THRESHOLD_NORMALIZED_VAL_FOR_HEAT_ZONE_ASSIGNMENT);
         LOG.info(
                 "CPU Utilization temperature calculated: {}",
@@ -13,10 +13,7 @@ import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardSt
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureVector;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardAvgTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.HeapAllocRateByShardTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.HeapAllocRateTotalTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.HeapAllocRateShardIndependentTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
 import org.opensearch.performanceanalyzer.rca.store.rca.temperature.DimensionalTemperatureCalculator;
 
 public class HeapAllocRateTemperatureRca extends Rca<DimensionalTemperatureFlowUnit> {
@@ -27,26 +24,16 @@ public class HeapAllocRateTemperatureRca extends Rca<DimensionalTemperatureFlowU
     private static final TemperatureVector.NormalizedValue
             THRESHOLD_NORMALIZED_VAL_FOR_HEAT_ZONE_ASSIGNMENT =
                     new TemperatureVector.NormalizedValue((short) 2);
-    private final HeapAllocRateByShardTemperatureCalculator HEAP_ALLOC_RATE_BY_SHARD;
-    private final HeapAllocRateByShardAvgTemperatureCalculator HEAP_ALLOC_RATE_BY_SHARD_AVG;
-    private final HeapAllocRateShardIndependentTemperatureCalculator
-            HEAP_ALLOC_RATE_SHARD_INDEPENDENT;
-    private final HeapAllocRateTotalTemperatureCalculator HEAP_ALLOC_RATE_TOTAL;
+    private final SingleScanTemperatureCalculator HEAP_ALLOC_RATE_BY_SHARD_GROUP;
     private final ShardStore SHARD_STORE;
 
     public HeapAllocRateTemperatureRca(
             final long evaluationIntervalSeconds,
             final ShardStore shardStore,
-            final HeapAllocRateByShardTemperatureCalculator heapAllocByShard,
-            final HeapAllocRateByShardAvgTemperatureCalculator heapAllocByShardAvg,
-            final HeapAllocRateShardIndependentTemperatureCalculator shardIndependentHeapAllocRate,
-            final HeapAllocRateTotalTemperatureCalculator heapAllocRateTotal) {
+            final SingleScanTemperatureCalculator heapAllocRateByShardGroup) {
         super(evaluationIntervalSeconds);
         this.SHARD_STORE = shardStore;
-        this.HEAP_ALLOC_RATE_BY_SHARD = heapAllocByShard;
-        this.HEAP_ALLOC_RATE_BY_SHARD_AVG = heapAllocByShardAvg;
-        this.HEAP_ALLOC_RATE_SHARD_INDEPENDENT = shardIndependentHeapAllocRate;
-        this.HEAP_ALLOC_RATE_TOTAL = heapAllocRateTotal;
+        this.HEAP_ALLOC_RATE_BY_SHARD_GROUP = heapAllocRateByShardGroup;
     }
 
     @Override
@@ -65,10 +52,7 @@ public class HeapAllocRateTemperatureRca extends Rca<DimensionalTemperatureFlowU
                 DimensionalTemperatureCalculator.getTemperatureForDimension(
                         SHARD_STORE,
                         TemperatureDimension.Heap_AllocRate,
-                        HEAP_ALLOC_RATE_BY_SHARD,
-                        HEAP_ALLOC_RATE_BY_SHARD_AVG,
-                        HEAP_ALLOC_RATE_SHARD_INDEPENDENT,
-                        HEAP_ALLOC_RATE_TOTAL,
+                        HEAP_ALLOC_RATE_BY_SHARD_GROUP,
                         THRESHOLD_NORMALIZED_VAL_FOR_HEAT_ZONE_ASSIGNMENT);
         LOG.info(
                 "Heap allocation rate temperature calculated: {}",
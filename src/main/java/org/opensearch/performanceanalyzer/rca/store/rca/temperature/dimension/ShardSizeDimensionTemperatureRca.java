@@ -13,10 +13,7 @@ import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardSt
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
 import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureVector;
 import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeAvgTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.ShardSizeMetricBasedTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.ShardTotalDiskUsageTemperatureCalculator;
-import org.opensearch.performanceanalyzer.rca.store.metric.temperature.shardIndependent.DiskUsageShardIndependentTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
 import org.opensearch.performanceanalyzer.rca.store.rca.temperature.DimensionalTemperatureCalculator;
 
 /*
@@ -31,22 +28,16 @@ public class ShardSizeDimensionTemperatureRca extends Rca<DimensionalTemperature
     private static final TemperatureVector.NormalizedValue
             THRESHOLD_NORMALIZED_VAL_FOR_HEAT_ZONE_ASSIGNMENT =
                     new TemperatureVector.NormalizedValue((short) 2);
-    private final ShardSizeMetricBasedTemperatureCalculator SHARD_SIZE_BY_SHARD;
-    private final ShardSizeAvgTemperatureCalculator SHARD_SIZE_AVG;
-    private final ShardTotalDiskUsageTemperatureCalculator SHARD_TOTAL_USAGE;
+    private final SingleScanTemperatureCalculator SHARD_SIZE_BY_SHARD_GROUP;
     private final ShardStore SHARD_STORE;
 
     public ShardSizeDimensionTemperatureRca(
             final long evaluationIntervalSeconds,
             final ShardStore shardStore,
-            final ShardSizeMetricBasedTemperatureCalculator shardSizeByShard,
-            final ShardSizeAvgTemperatureCalculator shardSizeAvg,
-            final ShardTotalDiskUsageTemperatureCalculator shardTotalDiskUsage) {
+            final SingleScanTemperatureCalculator shardSizeByShardGroup) {
         super(evaluationIntervalSeconds);
         this.SHARD_STORE = shardStore;
-        this.SHARD_SIZE_BY_SHARD = shardSizeByShard;
-        this.SHARD_SIZE_AVG = shardSizeAvg;
-        this.SHARD_TOTAL_USAGE = shardTotalDiskUsage;
+        this.SHARD_SIZE_BY_SHARD_GROUP = shardSizeByShardGroup;
     }
 
     @Override
@@ -65,10 +56,7 @@ public class ShardSizeDimensionTemperatureRca extends Rca<DimensionalTemperature
                 DimensionalTemperatureCalculator.getTemperatureForDimension(
                         SHARD_STORE,
                         TemperatureDimension.Shard_Size_In_Bytes,
-                        SHARD_SIZE_BY_SHARD,
-                        SHARD_SIZE_AVG,
-                        new DiskUsageShardIndependentTemperatureCalculator(),
-                        SHARD_TOTAL_USAGE,
+                        SHARD_SIZE_BY_SHARD_GROUP,
                         THRESHOLD_NORMALIZED_VAL_FOR_HEAT_ZONE_ASSIGNMENT);
         LOG.info(
                 "Shard Size temperature calculated: {}",
@@ -23,7 +23,6 @@ import org.jooq.Result;
 import org.jooq.SQLDialect;
 import org.jooq.SelectField;
 import org.jooq.SelectHavingStep;
-import org.jooq.SelectJoinStep;
 import org.jooq.impl.DSL;
 import org.opensearch.performanceanalyzer.DBUtils;
 import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
@@ -31,10 +30,6 @@ import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 public class MemoryDBSnapshot implements Removable {
     private static final Logger LOG = LogManager.getLogger(MemoryDBSnapshot.class);
 
-    private static final String WEIGHT = "weight";
-
-    private static final Field<Double> WEIGHT_FIELD = DSL.field(WEIGHT, Double.class);
-
     protected final DSLContext create;
     protected final String tableName;
 
@@ -178,6 +173,9 @@ public class MemoryDBSnapshot implements Removable {
      * Given metrics in two windows calculates a new window which overlaps with the given windows.
      * |------leftWindow-------|-------rightWindow--------| t a b |-----------alignedWindow------|
      *
+     * <p>The metrics of each dimension tuple are their average in both windows, weighted by t - a
+     * for the left window and b - t for the right one. See {@link WindowAligner#alignByWeight}.
+     *
      * <p>This method assumes that both left/right windows are greater than or equal to 5 seconds.
      *
      * @param leftWindow MemoryDBSnapshot for the /dev/shm/performanceanalyzer file written before
@@ -191,41 +189,28 @@ public class MemoryDBSnapshot implements Removable {
      */
     public void alignWindow(
             MemoryDBSnapshot leftWindow, MemoryDBSnapshot rightWindow, long t, long a, long b) {
-        ArrayList<SelectField<?>> alignedFields = new ArrayList<SelectField<?>>();
-        alignedFields.addAll(getDimensions());
-        for (Field<Double> metric : getMetrics()) {
-            alignedFields.add(DSL.sum(metric).div(DSL.sum(WEIGHT_FIELD)).as(metric));
+        List<String> dimensions = new ArrayList<>(getDimensions().size());
+        for (Field<String> dimension : getDimensions()) {
+            dimensions.add(dimension.getName());
         }
-
-        List<SelectField<?>> leftWinFields = new ArrayList<SelectField<?>>();
-        leftWinFields.addAll(getDimensions());
-        leftWinFields.add(DSL.val(t - a).as(WEIGHT));
-        for (Field<Double> metric : getMetrics()) {
-            leftWinFields.add(metric.mul(t - a).as(metric.getName()));
-        }
-        List<SelectField<?>> rightWinFields = new ArrayList<SelectField<?>>();
-        rightWinFields.addAll(getDimensions());
-        rightWinFields.add(DSL.val(b - t).as(WEIGHT));
+        List<String> metrics = new ArrayList<>(getMetrics().size());
         for (Field<Double> metric : getMetrics()) {
-            rightWinFields.add(metric.mul(b - t).as(metric.getName()));
+            metrics.add(metric.getName());
         }
 
-        SelectJoinStep<Record> recordsSource =
-                create.select(alignedFields)
-                        .from(
-                                create.select(leftWinFields)
-                                        .from(leftWindow.tableName)
-                                        .unionAll(
-                                                create.select(rightWinFields)
-                                                        .from(rightWindow.getTableName())));
-
-        if (getDimensions().isEmpty()) {
-            create.insertInto(DSL.table(this.tableName)).select(recordsSource).execute();
-        } else {
-            create.insertInto(DSL.table(this.tableName))
-                    .select(recordsSource.groupBy(getDimensions()))
-                    .execute();
-        }
+        WindowAligner.Columns left =
+                WindowAligner.load(
+                        create, leftWindow.tableName, dimensions, metrics, null, dimensions.size());
+        WindowAligner.Columns right =
+                WindowAligner.load(
+                        create,
+                        rightWindow.getTableName(),
+                        dimensions,
+                        metrics,
+                        null,
+                        dimensions.size());
+        insertMultiRows(
+                WindowAligner.alignByWeight(left, t - a, right, b - t).toArray(new Object[0][]));
     }
 
     /**
@@ -0,0 +1,142 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import com.google.common.annotations.VisibleForTesting;
+import java.time.Clock;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * The MetricsDB tables somebody reads: the metrics the RCA graph gathers and the metrics asked for
+ * through the metrics API recently. The reader only emits the tables in demand, as most of the
+ * tables in a window are never read when the RCA framework is the only consumer.
+ *
+ * <p>Nothing is known about the readers of the MetricsDB until the RCA graph declares its demand,
+ * so until then, and once the graph is torn down, every table is in demand. A table asked for
+ * through the API stays in demand for {@link #QUERY_DEMAND_TTL_MILLIS} after the last query; the
+ * first query for a table that is not in demand finds it from the next window on.
+ */
+public class MetricsDemandRegistry {
+    private static final Logger LOG = LogManager.getLogger(MetricsDemandRegistry.class);
+
+    /** How long a table asked for through the API stays in demand after the last query. */
+    public static final long QUERY_DEMAND_TTL_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static volatile MetricsDemandRegistry instance = null;
+
+    private Clock clock;
+
+    /** The tables the RCA graph reads, null if there is no graph. */
+    private volatile Set<String> graphDemand;
+
+    /** The tables asked for through the API, with the time they were last asked for. */
+    private final Map<String, Long> queryDemand;
+
+    @VisibleForTesting
+    MetricsDemandRegistry(Clock clock) {
+        this.clock = clock;
+        this.graphDemand = null;
+        this.queryDemand = new ConcurrentHashMap<>();
+    }
+
+    public static MetricsDemandRegistry getInstance() {
+        if (instance == null) {
+            synchronized (MetricsDemandRegistry.class) {
+                if (instance == null) {
+                    instance = new MetricsDemandRegistry(Clock.systemUTC());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Declares the tables read by the RCA graph, which makes the reader emit only the tables in
+     * demand.
+     *
+     * @param tables The tables read by the metric nodes of the graph.
+     */
+    public void setGraphDemand(Collection<String> tables) {
+        graphDemand = Collections.unmodifiableSet(new HashSet<>(tables));
+        LOG.info("RCA graph reads the MetricsDB tables: {}", graphDemand);
+    }
+
+    /** Drops the demand of the RCA graph, which makes the reader emit every table again. */
+    public void clearGraphDemand() {
+        graphDemand = null;
+    }
+
+    /**
+     * Records that the tables were asked for through the API.
+     *
+     * @param tables The tables in the query.
+     */
+    public void recordQueryDemand(Collection<String> tables) {
+        long now = clock.millis();
+        for (String table : tables) {
+            queryDemand.put(table, now);
+        }
+    }
+
+    /**
+     * @return true if only the tables in demand are emitted, false if every table is.
+     */
+    public boolean isSelective() {
+        return graphDemand != null;
+    }
+
+    /**
+     * @param table The name of a MetricsDB table.
+     * @return true if the table should be emitted.
+     */
+    public boolean isDemanded(String table) {
+        Set<String> graphTables = graphDemand;
+        if (graphTables == null || graphTables.contains(table)) {
+            return true;
+        }
+        Long lastQueried = queryDemand.get(table);
+        if (lastQueried == null) {
+            return false;
+        }
+        if (clock.millis() - lastQueried > QUERY_DEMAND_TTL_MILLIS) {
+            queryDemand.remove(table, lastQueried);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @param tables The names of the MetricsDB tables written by an emitter.
+     * @return true if any of the tables should be emitted.
+     */
+    public boolean isAnyDemanded(Collection<String> tables) {
+        for (String table : tables) {
+            if (isDemanded(table)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @VisibleForTesting
+    void setClock(Clock clock) {
+        this.clock = clock;
+    }
+
+    @VisibleForTesting
+    void clear() {
+        graphDemand = null;
+        queryDemand.clear();
+    }
+}
@@ -6,6 +6,10 @@
 package org.opensearch.performanceanalyzer.reader;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -19,15 +23,14 @@ import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
 import org.jooq.Result;
-import org.jooq.SelectField;
 import org.jooq.SelectHavingStep;
-import org.jooq.impl.DSL;
 import org.opensearch.performanceanalyzer.DBUtils;
 import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 import org.opensearch.performanceanalyzer.commons.metrics.PerformanceAnalyzerMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.config.TroubleshootingConfig;
 import org.opensearch.performanceanalyzer.metricsdb.Dimensions;
+import org.opensearch.performanceanalyzer.metricsdb.LatencySketch;
 import org.opensearch.performanceanalyzer.metricsdb.Metric;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.ReaderMetrics;
@@ -90,162 +93,51 @@ public class MetricsEmitter {
             };
 
     public static void emitAggregatedOSMetrics(
-            final DSLContext create,
             final MetricsDB db,
             final OSMetricsSnapshot osMetricsSnap,
             final ShardRequestMetricsSnapshot rqMetricsSnap)
             throws Exception {
 
-        SelectHavingStep<Record> rqTable = rqMetricsSnap.fetchThreadUtilizationRatioTable();
-        SelectHavingStep<Record> osTable = osMetricsSnap.selectAll();
+        List<ShardRequestMetricsSnapshot.RequestTime> requests =
+                rqMetricsSnap.fetchThreadUtilization();
+        Result<Record> osRecords = osMetricsSnap.getOSMetrics();
+        List<String> metricColumns = new ArrayList<>(osMetricsSnap.getMetricColumns());
 
-        List<SelectField<?>> fields =
-                new ArrayList<SelectField<?>>() {
-                    {
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ID
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.INDEX_NAME
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.OPERATION
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ROLE
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(OSMetricsSnapshot.Fields.tName.toString()),
-                                        String.class));
-                    }
-                };
-
-        for (AllMetrics.OSMetrics metric : AllMetrics.OSMetrics.values()) {
-            fields.add(
-                    DSL.field(ShardRequestMetricsSnapshot.Fields.TUTIL.toString(), Double.class)
-                            .mul(DSL.field(DSL.name(metric.toString()), Double.class))
-                            .as(metric.toString()));
+        long mCurrT = System.currentTimeMillis();
+        Map<String, List<Record>> osRecordsByTid = new HashMap<>();
+        for (Record r : osRecords) {
+            Object tid = r.get(OSMetricsSnapshot.Fields.tid.toString());
+            if (tid != null) {
+                osRecordsByTid.computeIfAbsent(tid.toString(), k -> new ArrayList<>()).add(r);
+            }
         }
-
-        ArrayList<Field<?>> groupByFields =
-                new ArrayList<Field<?>>() {
-                    {
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ID
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.INDEX_NAME
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.OPERATION
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ROLE
-                                                        .toString()),
-                                        String.class));
-                    }
-                };
-
-        List<SelectField<?>> aggFields =
-                new ArrayList<SelectField<?>>() {
-                    {
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ID
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.INDEX_NAME
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.OPERATION
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(
-                                                ShardRequestMetricsSnapshot.Fields.SHARD_ROLE
-                                                        .toString()),
-                                        String.class));
-                        this.add(
-                                DSL.field(
-                                        DSL.name(OSMetricsSnapshot.Fields.tName.toString()),
-                                        String.class));
-                    }
-                };
-
-        for (AllMetrics.OSMetrics metric : AllMetrics.OSMetrics.values()) {
-            aggFields.add(
-                    DSL.sum(DSL.field(DSL.name(metric.toString()), Double.class))
-                            .as(MetricsDB.SUM + "_" + metric.toString()));
-            aggFields.add(
-                    DSL.avg(DSL.field(DSL.name(metric.toString()), Double.class))
-                            .as(MetricsDB.AVG + "_" + metric.toString()));
-            aggFields.add(
-                    DSL.min(DSL.field(DSL.name(metric.toString()), Double.class))
-                            .as(MetricsDB.MIN + "_" + metric.toString()));
-            aggFields.add(
-                    DSL.max(DSL.field(DSL.name(metric.toString()), Double.class))
-                            .as(MetricsDB.MAX + "_" + metric.toString()));
+        // Each request gets its share of the OS metrics of its thread, the shares are then
+        // aggregated per operation.
+        Map<List<String>, OperationOSMetrics> operations = new LinkedHashMap<>();
+        for (ShardRequestMetricsSnapshot.RequestTime request : requests) {
+            List<Record> threadRecords = osRecordsByTid.get(request.tid);
+            if (threadRecords == null) {
+                continue;
+            }
+            OperationOSMetrics operation =
+                    operations.computeIfAbsent(
+                            Arrays.asList(
+                                    request.shardId,
+                                    request.indexName,
+                                    request.operation,
+                                    request.shardRole),
+                            k -> new OperationOSMetrics(metricColumns.size()));
+            for (Record r : threadRecords) {
+                operation.add(request.tUtil, r, metricColumns);
+            }
         }
-
-        long mCurrT = System.currentTimeMillis();
-        Result<Record> res =
-                create.select(aggFields)
-                        .from(
-                                create.select(fields)
-                                        .from(rqTable)
-                                        .join(osTable)
-                                        .on(
-                                                osTable.field(
-                                                                OSMetricsSnapshot.Fields.tid
-                                                                        .toString(),
-                                                                String.class)
-                                                        .eq(
-                                                                rqTable.field(
-                                                                        OSMetricsSnapshot.Fields.tid
-                                                                                .toString(),
-                                                                        String.class))))
-                        .groupBy(groupByFields)
-                        .fetch();
         long mFinalT = System.currentTimeMillis();
         LOG.debug("Total time taken for tid corelation: {}", mFinalT - mCurrT);
-        checkInvalidData(rqTable, osTable, create);
-
-        Set<String> metricColumns = osMetricsSnap.getMetricColumns();
+        checkInvalidData(requests, osRecordsByTid.keySet(), osRecords);
 
         mCurrT = System.currentTimeMillis();
-        for (String metricColumn : metricColumns) {
+        for (int i = 0; i < metricColumns.size(); i++) {
+            String metricColumn = metricColumns.get(i);
             List<String> dims =
                     new ArrayList<String>() {
                         {
@@ -258,30 +150,22 @@ public class MetricsEmitter {
                     };
             db.createMetric(new Metric<Double>(metricColumn, 0d), dims);
             BatchBindStep handle = db.startBatchPut(new Metric<Double>(metricColumn, 0d), dims);
-            for (Record r : res) {
-                if (r.get(MetricsDB.SUM + "_" + metricColumn) == null
-                        || r.get(OSMetricsSnapshot.Fields.tName.toString()) == null) {
+            for (Map.Entry<List<String>, OperationOSMetrics> entry : operations.entrySet()) {
+                OperationOSMetrics operation = entry.getValue();
+                if (operation.counts[i] == 0 || operation.tName == null) {
                     continue;
                 }
-
-                Double sumMetric =
-                        Double.parseDouble(r.get(MetricsDB.SUM + "_" + metricColumn).toString());
-                Double avgMetric =
-                        Double.parseDouble(r.get(MetricsDB.AVG + "_" + metricColumn).toString());
-                Double minMetric =
-                        Double.parseDouble(r.get(MetricsDB.MIN + "_" + metricColumn).toString());
-                Double maxMetric =
-                        Double.parseDouble(r.get(MetricsDB.MAX + "_" + metricColumn).toString());
+                List<String> key = entry.getKey();
                 handle.bind(
-                        r.get(ShardRequestMetricsSnapshot.Fields.SHARD_ID.toString()).toString(),
-                        r.get(ShardRequestMetricsSnapshot.Fields.INDEX_NAME.toString()).toString(),
-                        r.get(ShardRequestMetricsSnapshot.Fields.OPERATION.toString()).toString(),
-                        r.get(ShardRequestMetricsSnapshot.Fields.SHARD_ROLE.toString()).toString(),
-                        r.get(OSMetricsSnapshot.Fields.tName.toString()).toString(),
-                        sumMetric,
-                        avgMetric,
-                        minMetric,
-                        maxMetric);
+                        String.valueOf(key.get(0)),
+                        String.valueOf(key.get(1)),
+                        String.valueOf(key.get(2)),
+                        String.valueOf(key.get(3)),
+                        operation.tName,
+                        operation.sums[i],
+                        operation.sums[i] / operation.counts[i],
+                        operation.mins[i],
+                        operation.maxs[i]);
             }
 
             if (handle.size() > 0) {
@@ -294,38 +178,77 @@ public class MetricsEmitter {
                 ReaderMetrics.AGGREGATED_OS_METRICS_EMITTER_EXECUTION_TIME, mFinalT - mCurrT);
     }
 
+    /** The sum, count, min and max of the OS metrics of the requests of an operation. */
+    private static final class OperationOSMetrics {
+        private String tName;
+        private final double[] sums;
+        private final long[] counts;
+        private final double[] mins;
+        private final double[] maxs;
+
+        private OperationOSMetrics(int metricCount) {
+            sums = new double[metricCount];
+            counts = new long[metricCount];
+            mins = new double[metricCount];
+            maxs = new double[metricCount];
+        }
+
+        private void add(Double tUtil, Record osRecord, List<String> metricColumns) {
+            if (tName == null) {
+                Object name = osRecord.get(OSMetricsSnapshot.Fields.tName.toString());
+                tName = name == null ? null : name.toString();
+            }
+            if (tUtil == null) {
+                return;
+            }
+            for (int i = 0; i < metricColumns.size(); i++) {
+                Object metric = osRecord.get(metricColumns.get(i));
+                if (metric == null) {
+                    continue;
+                }
+                double value = tUtil * Double.parseDouble(metric.toString());
+                if (counts[i] == 0) {
+                    mins[i] = value;
+                    maxs[i] = value;
+                } else {
+                    mins[i] = Math.min(mins[i], value);
+                    maxs[i] = Math.max(maxs[i], value);
+                }
+                sums[i] += value;
+                counts[i]++;
+            }
+        }
+    }
+
     /**
      * Check if there is any invalid data. Invalid data is if we have tid in request table but not
      * in OS tables.
      *
-     * @param rqTable request table select
-     * @param osTable OS table select
-     * @param create db connection
+     * @param requests requests of the window
+     * @param osTids tids of the OS table
+     * @param osRecords OS table records
      */
-    @SuppressWarnings("unchecked")
     private static void checkInvalidData(
-            SelectHavingStep<Record> rqTable,
-            SelectHavingStep<Record> osTable,
-            final DSLContext create) {
+            List<ShardRequestMetricsSnapshot.RequestTime> requests,
+            Set<String> osTids,
+            Result<Record> osRecords) {
         if (!TroubleshootingConfig.getEnableDevAssert()) {
             return;
         }
 
-        Field tidField = DSL.field(DSL.name(OSMetricsSnapshot.Fields.tid.toString()), String.class);
-
-        Set<String> rqSet =
-                DBUtils.getRecordSetByField(rqTable, tidField, DSL.trueCondition(), create);
-        Set<String> osSet =
-                DBUtils.getRecordSetByField(osTable, tidField, DSL.trueCondition(), create);
+        Set<String> rqSet = new HashSet<>();
+        for (ShardRequestMetricsSnapshot.RequestTime request : requests) {
+            rqSet.add(request.tid);
+        }
 
-        if (!osSet.containsAll(rqSet)) {
+        if (!osTids.containsAll(rqSet)) {
             String msg =
                     String.format(
                             "[Invalid Data] Unmatched tid between %s and %s",
-                            rqSet.toString(), osSet.toString());
+                            rqSet.toString(), osTids.toString());
             LOG.error(msg);
-            LOG.error(create.select().from(rqTable).fetch().toString());
-            LOG.error(create.select().from(osTable).where(DSL.trueCondition()).fetch().toString());
+            LOG.error(requests.toString());
+            LOG.error(osRecords.toString());
             throw new RuntimeException(msg);
         }
     }
@@ -457,6 +380,20 @@ public class MetricsEmitter {
         if (bulkDocHandle.size() > 0) {
             bulkDocHandle.execute();
         }
+
+        // The latency sketches, from which the metrics API and the RCAs compute the quantiles.
+        db.createSketchMetric(AllMetrics.CommonMetric.LATENCY.toString(), shardDims);
+        BatchBindStep sketchHandle =
+                db.startBatchPutSketch(AllMetrics.CommonMetric.LATENCY.toString(), shardDims);
+        for (Map.Entry<List<String>, LatencySketch> sketch :
+                ShardRequestMetricsSnapshot.getLatencySketchesByOp(res).entrySet()) {
+            List<Object> values = new ArrayList<>(sketch.getKey());
+            values.add(sketch.getValue().serialize());
+            sketchHandle.bind(values.toArray());
+        }
+        if (sketchHandle.size() > 0) {
+            sketchHandle.execute();
+        }
         long mFinalT = System.currentTimeMillis();
         LOG.debug("Total time taken for writing workload metrics metricsdb: {}", mFinalT - mCurrT);
         ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
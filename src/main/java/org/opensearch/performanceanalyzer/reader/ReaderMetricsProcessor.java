@@ -6,15 +6,21 @@
 package org.opensearch.performanceanalyzer.reader;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
@@ -30,6 +36,7 @@ import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.util.Supplier;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
+import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
 import org.opensearch.performanceanalyzer.AppContext;
 import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
@@ -45,10 +52,13 @@ import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
 import org.opensearch.performanceanalyzer.config.overrides.ConfigOverridesApplier;
 import org.opensearch.performanceanalyzer.core.Util;
+import org.opensearch.performanceanalyzer.memory.MemoryBudgeted;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsRetentionStore;
+import org.opensearch.performanceanalyzer.model.MetricsModel;
 import org.opensearch.performanceanalyzer.rca.framework.metrics.ReaderMetrics;
 
-public class ReaderMetricsProcessor implements Runnable {
+public class ReaderMetricsProcessor implements Runnable, MemoryBudgeted {
     private static final Logger LOG = LogManager.getLogger(ReaderMetricsProcessor.class);
 
     private static final String DB_URL = "jdbc:sqlite:";
@@ -82,6 +92,61 @@ public class ReaderMetricsProcessor implements Runnable {
     private static final int CLUSTER_MANAGER_THROTTLING_SNAPSHOTS = 2;
     private static final int AC_SNAPSHOTS = 2;
     private static final int SEARCH_BP_SNAPSHOTS = 4;
+
+    /**
+     * The most writer windows a cycle processes on top of the current one when the reader fell
+     * behind. Emitting a window needs the snapshots of the window before it and at most {@link
+     * #OS_SNAPSHOTS} of those are kept, so windows further back are skipped.
+     */
+    @VisibleForTesting static final int MAX_CATCH_UP_WINDOWS = OS_SNAPSHOTS;
+
+    /**
+     * The snapshots kept of each kind while the reader is over its memory budget: the current
+     * window and the one before it, which is all emitting a window needs. The OS snapshots are
+     * always kept in full as the OS metrics can not be aligned with less.
+     */
+    private static final int MEMORY_CONSTRAINED_SNAPSHOTS = 2;
+
+    /** How long the reader keeps fewer snapshots after it was last found over its memory budget. */
+    private static final long MEMORY_CONSTRAINED_HOLD_MILLIS =
+            12 * MetricsConfiguration.SAMPLING_INTERVAL;
+
+    /** The weight of the latest full window in the moving average of the full window time. */
+    private static final double FULL_WINDOW_TIME_WEIGHT = 0.3;
+
+    // The MetricsDB tables written by each emitter, to skip the emitters whose tables nobody reads.
+    private static final Set<String> SHARD_REQUEST_TABLES = shardRequestTables();
+    private static final Set<String> HTTP_REQUEST_TABLES =
+            ImmutableSet.of(
+                    AllMetrics.CommonMetric.LATENCY.toString(),
+                    AllMetrics.HttpMetric.HTTP_TOTAL_REQUESTS.toString(),
+                    AllMetrics.HttpMetric.HTTP_REQUEST_DOCS.toString());
+    private static final Set<String> GC_INFO_TABLES =
+            ImmutableSet.of(AllMetrics.GCInfoValue.GARBAGE_COLLECTOR_TYPE.toString());
+    private static final Set<String> SHARD_STATE_TABLES =
+            ImmutableSet.of(AllMetrics.ShardStateValue.SHARD_STATE.toString());
+    private static final Set<String> FAULT_DETECTION_TABLES =
+            ImmutableSet.of(
+                    AllMetrics.FaultDetectionMetric.FOLLOWER_CHECK_LATENCY.toString(),
+                    AllMetrics.FaultDetectionMetric.LEADER_CHECK_LATENCY.toString(),
+                    AllMetrics.FaultDetectionMetric.FOLLOWER_CHECK_FAILURE.toString(),
+                    AllMetrics.FaultDetectionMetric.LEADER_CHECK_FAILURE.toString());
+    private static final Set<String> ADMISSION_CONTROL_TABLES =
+            ImmutableSet.of(AllMetrics.AdmissionControlValue.REJECTION_COUNT.toString());
+    private static final Set<String> CLUSTER_MANAGER_EVENT_TABLES =
+            ImmutableSet.of(
+                    AllMetrics.ClusterManagerMetricValues.CLUSTER_MANAGER_TASK_RUN_TIME.toString(),
+                    AllMetrics.ClusterManagerMetricValues.CLUSTER_MANAGER_TASK_QUEUE_TIME
+                            .toString());
+    private static final Set<String> CLUSTER_MANAGER_THROTTLING_TABLES =
+            ImmutableSet.of(
+                    AllMetrics.ClusterManagerThrottlingValue
+                            .CLUSTER_MANAGER_THROTTLED_PENDING_TASK_COUNT
+                            .toString(),
+                    AllMetrics.ClusterManagerThrottlingValue.DATA_RETRYING_TASK_COUNT.toString());
+    private static final Set<String> SEARCH_BACK_PRESSURE_TABLES =
+            ImmutableSet.of(AllMetrics.SearchBackPressureStatsValue.SEARCHBP_TABLE_NAME.toString());
+
     private final String rootLocation;
 
     private final AppContext appContext;
@@ -95,7 +160,21 @@ public class ReaderMetricsProcessor implements Runnable {
     private ConcurrentSkipListSet<Long> batchMetricsDBSet;
 
     private final boolean processNewFormat;
+
+    /** The start time of the latest window processed, 0 if none was processed yet. */
+    private long lastProcessedWindowStartTime;
+
+    /** The moving average of the time it took to process a window in full, in millis. */
+    private double fullWindowMillis;
+
+    /** The size of the in-memory database holding the snapshots, measured after each cycle. */
+    private volatile long snapshotsBytes;
+
+    /** The time till which fewer snapshots are kept and no window is caught up. */
+    private volatile long memoryConstrainedUntil;
+
     private final EventLogFileHandler eventLogFileHandler;
+    private final MetricsDemandRegistry demandRegistry;
     // This needs to be volatile to avoid failure caused by thread local cached values.
     private static volatile ReaderMetricsProcessor current = null;
 
@@ -137,6 +216,7 @@ public class ReaderMetricsProcessor implements Runnable {
             nodeMetricsMap.put(names[i], new TreeMap<>());
         }
         eventLogFileHandler = new EventLogFileHandler(new EventLog(), rootLocation);
+        demandRegistry = MetricsDemandRegistry.getInstance();
         this.processNewFormat = processNewFormat;
         this.appContext = appContext;
         batchMetricsEnabled = defaultBatchMetricsEnabled;
@@ -173,13 +253,22 @@ public class ReaderMetricsProcessor implements Runnable {
                 }
                 conn.setAutoCommit(false);
                 startTime = System.currentTimeMillis();
-                processMetrics(rootLocation, startTime);
+                processPendingWindows(rootLocation, startTime);
                 trimOldSnapshots();
                 conn.commit();
                 conn.setAutoCommit(true);
+                snapshotsBytes = measureSnapshotsBytes();
                 trimOldMetricsDBFiles();
                 long duration = System.currentTimeMillis() - startTime;
                 LOG.debug("Total time taken: {}", duration);
+                if (duration > MetricsConfiguration.SAMPLING_INTERVAL) {
+                    LOG.warn(
+                            "Reader cycle took {} ms, longer than the sampling interval of {} ms",
+                            duration,
+                            MetricsConfiguration.SAMPLING_INTERVAL);
+                    ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
+                            ReaderMetrics.READER_CYCLE_OVERRUN, 1);
+                }
                 if (duration < runInterval) {
                     Thread.sleep(runInterval - duration);
                 }
@@ -263,15 +352,15 @@ public class ReaderMetricsProcessor implements Runnable {
      */
     public void trimOldSnapshots() throws Exception {
         trimMap(osMetricsMap, OS_SNAPSHOTS);
-        trimMap(shardRqMetricsMap, RQ_SNAPSHOTS);
-        trimMap(httpRqMetricsMap, HTTP_RQ_SNAPSHOTS);
-        trimMap(clusterManagerEventMetricsMap, CLUSTER_MANAGER_EVENT_SNAPSHOTS);
-        trimMap(faultDetectionMetricsMap, FAULT_DETECTION_SNAPSHOTS);
-        trimMap(shardStateMetricsMap, SHARD_STATE_SNAPSHOTS);
-        trimMap(gcInfoMap, GC_INFO_SNAPSHOTS);
-        trimMap(clusterManagerThrottlingMetricsMap, CLUSTER_MANAGER_THROTTLING_SNAPSHOTS);
-        trimMap(admissionControlMetricsMap, AC_SNAPSHOTS);
-        trimMap(searchBackPressureMetricsMap, SEARCH_BP_SNAPSHOTS);
+        trimMap(shardRqMetricsMap, retained(RQ_SNAPSHOTS));
+        trimMap(httpRqMetricsMap, retained(HTTP_RQ_SNAPSHOTS));
+        trimMap(clusterManagerEventMetricsMap, retained(CLUSTER_MANAGER_EVENT_SNAPSHOTS));
+        trimMap(faultDetectionMetricsMap, retained(FAULT_DETECTION_SNAPSHOTS));
+        trimMap(shardStateMetricsMap, retained(SHARD_STATE_SNAPSHOTS));
+        trimMap(gcInfoMap, retained(GC_INFO_SNAPSHOTS));
+        trimMap(clusterManagerThrottlingMetricsMap, retained(CLUSTER_MANAGER_THROTTLING_SNAPSHOTS));
+        trimMap(admissionControlMetricsMap, retained(AC_SNAPSHOTS));
+        trimMap(searchBackPressureMetricsMap, retained(SEARCH_BP_SNAPSHOTS));
 
         for (NavigableMap<Long, MemoryDBSnapshot> snap : nodeMetricsMap.values()) {
             // do the same thing as OS_SNAPSHOTS.  Eventually MemoryDBSnapshot
@@ -281,6 +370,71 @@ public class ReaderMetricsProcessor implements Runnable {
         }
     }
 
+    /**
+     * @return The number of snapshots of a kind to keep, fewer while over the memory budget.
+     */
+    private int retained(int snapshots) {
+        if (isMemoryConstrained()) {
+            return Math.min(snapshots, MEMORY_CONSTRAINED_SNAPSHOTS);
+        }
+        return snapshots;
+    }
+
+    @VisibleForTesting
+    boolean isMemoryConstrained() {
+        return System.currentTimeMillis() < memoryConstrainedUntil;
+    }
+
+    /**
+     * The snapshots live in the in-memory SQLite database, outside of the heap. Its size is
+     * measured by the reader thread after each cycle, as the connection is not shared.
+     */
+    @Override
+    public long estimateRetainedBytes() {
+        return snapshotsBytes;
+    }
+
+    /**
+     * Keeps fewer snapshots and stops catching up on the windows missed by a slow cycle, till the
+     * reader stays within its budget for {@link #MEMORY_CONSTRAINED_HOLD_MILLIS}.
+     */
+    @Override
+    public void shrinkTo(long budgetBytes) {
+        if (!isMemoryConstrained()) {
+            LOG.warn(
+                    "Reader snapshots are over the budget of {} bytes, keeping fewer snapshots",
+                    budgetBytes);
+        }
+        memoryConstrainedUntil = System.currentTimeMillis() + MEMORY_CONSTRAINED_HOLD_MILLIS;
+    }
+
+    /**
+     * The pages in use by the snapshots. The pages freed by the tables already dropped are only
+     * given back by a VACUUM, they are reused for the next snapshots so they are not counted.
+     */
+    private long measureSnapshotsBytes() {
+        try (Statement stmt = conn.createStatement()) {
+            long pageCount = readPragma(stmt, "page_count");
+            long freelistCount = readPragma(stmt, "freelist_count");
+            long pageSize = readPragma(stmt, "page_size");
+            if (pageCount >= 0 && freelistCount >= 0 && pageSize >= 0) {
+                return Math.max(0, pageCount - freelistCount) * pageSize;
+            }
+        } catch (SQLException e) {
+            LOG.error("Unable to measure the size of the in-memory database", e);
+        }
+        return snapshotsBytes;
+    }
+
+    /**
+     * @return The value of the pragma, -1 if it has none.
+     */
+    private static long readPragma(Statement stmt, String pragma) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA " + pragma)) {
+            return rs.next() ? rs.getLong(1) : -1;
+        }
+    }
+
     /**
      * Cleans up stale metricsdb files.
      *
@@ -360,9 +514,11 @@ public class ReaderMetricsProcessor implements Runnable {
      *
      * @param currWindowStartTime the start time of current sampling period. The bound of the period
      *     where that value is measured is MetricsConfiguration.SAMPLING_INTERVAL.
+     * @param degraded whether to skip aligning the OS metrics and emitting the shard request
+     *     metrics, the most expensive part of a window, to catch up with the writer.
      * @throws Exception thrown if we have issues parsing metrics
      */
-    private void emitMetrics(long currWindowStartTime) throws Exception {
+    private void emitMetrics(long currWindowStartTime, boolean degraded) throws Exception {
         long prevWindowStartTime = currWindowStartTime - MetricsConfiguration.SAMPLING_INTERVAL;
 
         if (metricsDBMap.get(prevWindowStartTime) != null) {
@@ -370,6 +526,18 @@ public class ReaderMetricsProcessor implements Runnable {
             return;
         }
 
+        // The OS metrics are aligned only to be joined with the shard requests.
+        if (degraded || !isDemanded("ShardRequest", SHARD_REQUEST_TABLES)) {
+            MetricsDB metricsDB = createMetricsDB(prevWindowStartTime);
+            emitGarbageCollectionInfo(prevWindowStartTime, metricsDB);
+            emitAllButShardRequestMetrics(currWindowStartTime, prevWindowStartTime, metricsDB);
+            if (degraded) {
+                ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
+                        ReaderMetrics.READER_DEGRADED_WINDOWS, 1);
+            }
+            return;
+        }
+
         long mCurrT = System.currentTimeMillis();
         // This is object holds a reference to the temporary os snapshot. It is used to delete
         // tables at
@@ -394,6 +562,17 @@ public class ReaderMetricsProcessor implements Runnable {
         // Newly added metrics go at the bottom, do not change the ordering
         emitGarbageCollectionInfo(prevWindowStartTime, metricsDB);
         emitShardRequestMetrics(prevWindowStartTime, alignedOSSnapHolder, osAlignedSnap, metricsDB);
+        emitAllButShardRequestMetrics(currWindowStartTime, prevWindowStartTime, metricsDB);
+        mFinalT = System.currentTimeMillis();
+        LOG.debug("Total time taken for emitting Metrics: {}", mFinalT - mCurrT);
+        ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
+                ReaderMetrics.READER_METRICS_EMIT_TIME, (double) (mFinalT - mCurrT));
+    }
+
+    /** Emits the metrics that come after the shard request metrics and commits the metricsDB. */
+    private void emitAllButShardRequestMetrics(
+            long currWindowStartTime, long prevWindowStartTime, MetricsDB metricsDB)
+            throws Exception {
         emitHttpRequestMetrics(prevWindowStartTime, metricsDB);
         emitNodeMetrics(currWindowStartTime, metricsDB);
         emitShardStateMetrics(prevWindowStartTime, metricsDB);
@@ -404,20 +583,70 @@ public class ReaderMetricsProcessor implements Runnable {
         emitSearchBackPressureMetrics(prevWindowStartTime, metricsDB);
 
         metricsDB.commit();
+        // The window is complete, its readers no longer go through the connection of the writer.
+        metricsDB.makeReadOnly();
         metricsDBMap.put(prevWindowStartTime, metricsDB);
+        retainWindow(prevWindowStartTime, metricsDB);
         ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
                 ReaderMetrics.METRICSDB_FILE_SIZE, new File(metricsDB.getDBFilePath()).length());
         if (batchMetricsEnabled) {
             batchMetricsDBSet.add(prevWindowStartTime);
         }
-        mFinalT = System.currentTimeMillis();
-        LOG.debug("Total time taken for emitting Metrics: {}", mFinalT - mCurrT);
+    }
+
+    /** Keeps the tables in demand of a complete window for the time range queries. */
+    private void retainWindow(long windowStartTime, MetricsDB metricsDB) {
+        List<String> tables = new ArrayList<>();
+        for (String table : MetricsModel.ALL_METRICS.keySet()) {
+            if (demandRegistry.isDemanded(table)) {
+                tables.add(table);
+            }
+        }
+        try {
+            MetricsRetentionStore.instance().add(windowStartTime, metricsDB, tables);
+        } catch (DataAccessException e) {
+            LOG.error("Unable to retain the metrics of window {}", windowStartTime, e);
+            StatsCollector.instance()
+                    .logException(StatExceptionCode.READER_METRICSDB_ACCESS_ERRORS);
+        }
+    }
+
+    private static Set<String> shardRequestTables() {
+        ImmutableSet.Builder<String> tables = ImmutableSet.builder();
+        for (AllMetrics.OSMetrics metric : AllMetrics.OSMetrics.values()) {
+            tables.add(metric.toString());
+        }
+        tables.add(AllMetrics.CommonMetric.LATENCY.toString());
+        tables.add(MetricsDB.getSketchTableName(AllMetrics.CommonMetric.LATENCY.toString()));
+        tables.add(AllMetrics.ShardOperationMetric.SHARD_OP_COUNT.toString());
+        tables.add(AllMetrics.ShardBulkMetric.DOC_COUNT.toString());
+        return tables.build();
+    }
+
+    /**
+     * Checks whether any of the tables written by an emitter is read by the RCA graph or was
+     * queried recently, and counts the emitter as skipped if not. Every table is emitted while
+     * batch metrics are enabled, as their consumers read whole windows after the fact.
+     *
+     * @param emitter The name of the emitter, as reported in the stats.
+     * @param tables The tables the emitter writes.
+     * @return true if the emitter should run.
+     */
+    private boolean isDemanded(String emitter, Collection<String> tables) {
+        if (batchMetricsEnabled || demandRegistry.isAnyDemanded(tables)) {
+            return true;
+        }
+        LOG.debug("No demand for the {} tables, not emitting them.", emitter);
         ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
-                ReaderMetrics.READER_METRICS_EMIT_TIME, (double) (mFinalT - mCurrT));
+                ReaderMetrics.READER_SKIPPED_EMITTERS, emitter, 1);
+        return false;
     }
 
     private void emitGarbageCollectionInfo(long prevWindowStartTime, MetricsDB metricsDB)
             throws Exception {
+        if (!isDemanded("GarbageCollectorInfo", GC_INFO_TABLES)) {
+            return;
+        }
         if (gcInfoMap.containsKey(prevWindowStartTime)) {
             GarbageCollectorInfoSnapshot prevGcSnap = gcInfoMap.get(prevWindowStartTime);
             MetricsEmitter.emitGarbageCollectionInfo(metricsDB, prevGcSnap);
@@ -447,10 +676,7 @@ public class ReaderMetricsProcessor implements Runnable {
                     create, metricsDB, preShardRequestMetricsSnapshot); // calculate latency
             if (osAlignedSnap != null) {
                 MetricsEmitter.emitAggregatedOSMetrics(
-                        create,
-                        metricsDB,
-                        osAlignedSnap,
-                        preShardRequestMetricsSnapshot); // table join
+                        metricsDB, osAlignedSnap, preShardRequestMetricsSnapshot); // table join
                 MetricsEmitter.emitThreadNameMetrics(
                         create, metricsDB, osAlignedSnap); // threads other than bulk and query
             } else {
@@ -468,6 +694,9 @@ public class ReaderMetricsProcessor implements Runnable {
 
     private void emitHttpRequestMetrics(long prevWindowStartTime, MetricsDB metricsDB)
             throws Exception {
+        if (!isDemanded("HttpRequest", HTTP_REQUEST_TABLES)) {
+            return;
+        }
 
         if (httpRqMetricsMap.containsKey(prevWindowStartTime)) {
 
@@ -495,6 +724,13 @@ public class ReaderMetricsProcessor implements Runnable {
                 nodeMetricsMap.entrySet()) {
 
             AllMetrics.MetricName metricName = entry.getKey();
+            if (!isDemanded(
+                    metricName.toString(),
+                    MetricPropertiesConfig.getInstance()
+                            .getProperty(metricName)
+                            .getMetadataTableNames())) {
+                continue;
+            }
 
             NavigableMap<Long, MemoryDBSnapshot> metricMap = entry.getValue();
 
@@ -538,6 +774,9 @@ public class ReaderMetricsProcessor implements Runnable {
     }
 
     private void emitShardStateMetrics(long prevWindowStartTime, MetricsDB metricsDB) {
+        if (!isDemanded("ShardState", SHARD_STATE_TABLES)) {
+            return;
+        }
         if (shardStateMetricsMap.containsKey(prevWindowStartTime)) {
             ShardStateMetricsSnapshot prevShardsStateMetricsSnapshot =
                     shardStateMetricsMap.get(prevWindowStartTime);
@@ -549,6 +788,9 @@ public class ReaderMetricsProcessor implements Runnable {
     }
 
     private void emitFaultDetectionMetrics(long prevWindowStartTime, MetricsDB metricsDB) {
+        if (!isDemanded("FaultDetection", FAULT_DETECTION_TABLES)) {
+            return;
+        }
         if (faultDetectionMetricsMap.containsKey(prevWindowStartTime)) {
 
             FaultDetectionMetricsSnapshot prevFaultDetectionSnap =
@@ -562,6 +804,9 @@ public class ReaderMetricsProcessor implements Runnable {
 
     private void emitAdmissionControlMetrics(long prevWindowStartTime, MetricsDB metricsDB)
             throws Exception {
+        if (!isDemanded("AdmissionControl", ADMISSION_CONTROL_TABLES)) {
+            return;
+        }
         if (admissionControlMetricsMap.containsKey(prevWindowStartTime)) {
             AdmissionControlSnapshot previousSnapshot =
                     admissionControlMetricsMap.get(prevWindowStartTime);
@@ -573,6 +818,9 @@ public class ReaderMetricsProcessor implements Runnable {
     }
 
     private void emitClusterManagerMetrics(long prevWindowStartTime, MetricsDB metricsDB) {
+        if (!isDemanded("ClusterManagerEvent", CLUSTER_MANAGER_EVENT_TABLES)) {
+            return;
+        }
 
         if (clusterManagerEventMetricsMap.containsKey(prevWindowStartTime)) {
 
@@ -588,6 +836,9 @@ public class ReaderMetricsProcessor implements Runnable {
 
     private void emitClusterManagerThrottlingMetrics(
             long prevWindowStartTime, MetricsDB metricsDB) {
+        if (!isDemanded("ClusterManagerThrottling", CLUSTER_MANAGER_THROTTLING_TABLES)) {
+            return;
+        }
         if (clusterManagerThrottlingMetricsMap.containsKey(prevWindowStartTime)) {
             ClusterManagerThrottlingMetricsSnapshot prevShardsStateMetricsSnapshot =
                     clusterManagerThrottlingMetricsMap.get(prevWindowStartTime);
@@ -601,6 +852,9 @@ public class ReaderMetricsProcessor implements Runnable {
 
     private void emitSearchBackPressureMetrics(long prevWindowStartTime, MetricsDB metricsDB)
             throws Exception {
+        if (!isDemanded("SearchBackPressure", SEARCH_BACK_PRESSURE_TABLES)) {
+            return;
+        }
         if (searchBackPressureMetricsMap.containsKey(prevWindowStartTime)) {
             SearchBackPressureMetricsSnapShot prevSearchBPSnapShot =
                     searchBackPressureMetricsMap.get(prevWindowStartTime);
@@ -654,14 +908,83 @@ public class ReaderMetricsProcessor implements Runnable {
             20.01. So race condition occurs. We have to add one additional window
             on reader to avoid this.
         */
-        long mCurrT = System.currentTimeMillis();
-        // Step 2 from above.
+        processWindow(rootLocation, getWindowStartTime(currTimestamp), false);
+    }
+
+    /**
+     * Processes the window of {@code currTimestamp} as {@link #processMetrics(String, long)} does,
+     * after the windows the writer wrote since the latest window processed, if the previous cycle
+     * ran longer than a sampling interval. Of those, at most {@link #MAX_CATCH_UP_WINDOWS} of the
+     * latest are processed and the older ones are skipped. None are caught up while the reader is
+     * over its memory budget.
+     *
+     * <p>A late window is processed on the fast path, without the shard request metrics, when
+     * processing it and the windows after it in full would likely take longer than a sampling
+     * interval, i.e. would make the reader fall behind again. The current window is always
+     * processed in full, as it is the one the RCAs read.
+     *
+     * @param rootLocation Where to read the files from
+     * @param currTimestamp The timestamp of the latest file that will be picked.
+     * @throws Exception It can throw exception
+     */
+    public void processPendingWindows(String rootLocation, long currTimestamp) throws Exception {
+        long cycleStartTime = System.currentTimeMillis();
+        long currWindowStartTime = getWindowStartTime(currTimestamp);
+        long backlog = 0;
+        if (lastProcessedWindowStartTime > 0) {
+            backlog =
+                    Math.max(
+                            0,
+                            (currWindowStartTime - lastProcessedWindowStartTime)
+                                            / MetricsConfiguration.SAMPLING_INTERVAL
+                                    - 1);
+        }
+        ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
+                ReaderMetrics.READER_WINDOW_BACKLOG, backlog);
+
+        // Catching up needs the older snapshots, which are not kept while over the memory budget.
+        int maxCatchUpWindows = isMemoryConstrained() ? 0 : MAX_CATCH_UP_WINDOWS;
+        if (backlog > maxCatchUpWindows) {
+            LOG.warn(
+                    "Reader is {} windows behind the writer, skipping the oldest {}",
+                    backlog,
+                    backlog - maxCatchUpWindows);
+            ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
+                    ReaderMetrics.READER_SKIPPED_WINDOWS, backlog - maxCatchUpWindows);
+            backlog = maxCatchUpWindows;
+        }
+        for (long pending = backlog; pending > 0; pending--) {
+            long elapsed = System.currentTimeMillis() - cycleStartTime;
+            // The pending windows left and the current one, if they were all processed in full.
+            double estimate = elapsed + fullWindowMillis * (pending + 1);
+            processWindow(
+                    rootLocation,
+                    currWindowStartTime - pending * MetricsConfiguration.SAMPLING_INTERVAL,
+                    estimate > MetricsConfiguration.SAMPLING_INTERVAL);
+        }
+        processWindow(rootLocation, currWindowStartTime, false);
+    }
+
+    /**
+     * @return The start time of the window to process at {@code currTimestamp}, following the steps
+     *     in {@link #processMetrics(String, long)}.
+     */
+    private static long getWindowStartTime(long currTimestamp) {
+        // Step 2 from processMetrics.
         long currWindowStartTime =
                 PerformanceAnalyzerMetrics.getTimeInterval(
                         currTimestamp, MetricsConfiguration.SAMPLING_INTERVAL);
 
-        // Step 3 from above.
-        currWindowStartTime = currWindowStartTime - (3 * MetricsConfiguration.SAMPLING_INTERVAL);
+        // Step 3 from processMetrics.
+        return currWindowStartTime - (3 * MetricsConfiguration.SAMPLING_INTERVAL);
+    }
+
+    private void processWindow(String rootLocation, long currWindowStartTime, boolean degraded)
+            throws Exception {
+        long mCurrT = System.currentTimeMillis();
+        boolean emitting =
+                !metricsDBMap.containsKey(
+                        currWindowStartTime - MetricsConfiguration.SAMPLING_INTERVAL);
         long currWindowEndTime = currWindowStartTime + MetricsConfiguration.SAMPLING_INTERVAL;
 
         EventProcessor osProcessor =
@@ -732,7 +1055,7 @@ public class ReaderMetricsProcessor implements Runnable {
 
         eventDispatcher.finalizeProcessing();
 
-        emitMetrics(currWindowStartTime);
+        emitMetrics(currWindowStartTime, degraded);
 
         // There are cases, such as tests where appContext may not be initialized.
         // We always create a new ClusterDetailsEventsProcessor object above but we may not always
@@ -746,6 +1069,14 @@ public class ReaderMetricsProcessor implements Runnable {
         LOG.debug("Total time taken for processing Metrics: {}", mFinalT - mCurrT);
         ServiceMetrics.READER_METRICS_AGGREGATOR.updateStat(
                 ReaderMetrics.READER_METRICS_PROCESS_TIME, (double) (mFinalT - mCurrT));
+        if (emitting && !degraded) {
+            fullWindowMillis =
+                    fullWindowMillis == 0
+                            ? mFinalT - mCurrT
+                            : FULL_WINDOW_TIME_WEIGHT * (mFinalT - mCurrT)
+                                    + (1 - FULL_WINDOW_TIME_WEIGHT) * fullWindowMillis;
+        }
+        lastProcessedWindowStartTime = Math.max(lastProcessedWindowStartTime, currWindowStartTime);
     }
 
     /**
@@ -11,9 +11,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.jooq.BatchBindStep;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
 import org.jooq.Field;
 import org.jooq.Record;
@@ -26,6 +28,7 @@ import org.jooq.impl.DSL;
 import org.opensearch.performanceanalyzer.DBUtils;
 import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 import org.opensearch.performanceanalyzer.commons.metrics.MetricsConfiguration;
+import org.opensearch.performanceanalyzer.metricsdb.LatencySketch;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
 
 /** Snapshot of start/end events generated by per shard operations like shardBulk/shardSearch. */
@@ -47,6 +50,15 @@ public class ShardRequestMetricsSnapshot implements Removable {
     private static final Long EXPIRE_AFTER = 600000L;
     private List<Field<?>> columns;
 
+    /** The shard, index, rid, tid, operation and role of a request, in this order. */
+    private static final int REQUEST_DIMENSION_COUNT = 6;
+
+    private static final int RID_INDEX = 2;
+    private static final int OPERATION_INDEX = 4;
+
+    /** The comma separated latencies of the requests of an operation. */
+    static final String LAT_VALUES = "lat_values";
+
     public enum Fields {
         SHARD_ID(AllMetrics.CommonDimension.SHARD_ID.toString()),
         INDEX_NAME(AllMetrics.CommonDimension.INDEX_NAME.toString()),
@@ -197,6 +209,9 @@ public class ShardRequestMetricsSnapshot implements Removable {
      * |0 |sonested |7069|shardquery|NA | 520| 260| 255| 265| |0 |sonested |7069|shardfetch|NA |
      * 004| 002| 001| 003|
      *
+     * <p>Each row also has the latencies of the requests of the operation in {@link #LAT_VALUES},
+     * from which {@link #getLatencySketchesByOp(Result)} builds the latency sketches.
+     *
      * @return aggrated latency by ShardID, IndexName, Operation, and ShardRole.
      */
     public Result<Record> fetchLatencyByOp() {
@@ -238,6 +253,9 @@ public class ShardRequestMetricsSnapshot implements Removable {
                                                         DSL.name(Fields.DOC_COUNT.toString()),
                                                         Double.class))
                                         .as(AllMetrics.ShardBulkMetric.DOC_COUNT.toString()));
+                        this.add(
+                                DSL.groupConcat(DSL.field(DSL.name(Fields.LAT.toString())))
+                                        .as(LAT_VALUES));
                     }
                 };
 
@@ -255,7 +273,39 @@ public class ShardRequestMetricsSnapshot implements Removable {
     }
 
     /**
-     * Return row per request.
+     * Return a latency sketch per operation, built from the latencies of the requests that {@link
+     * #fetchLatencyByOp()} concatenates for each operation, so the requests are only read once. The
+     * sketches complete the other aggregations with quantiles that can be merged across windows and
+     * nodes.
+     *
+     * @param latencyByOp The rows returned by {@link #fetchLatencyByOp()}.
+     * @return Map of the OPERATION, SHARD_ID, INDEX_NAME and SHARD_ROLE of each operation, in this
+     *     order, to the sketch of its latencies.
+     */
+    public static Map<List<String>, LatencySketch> getLatencySketchesByOp(
+            Result<Record> latencyByOp) {
+        Map<List<String>, LatencySketch> sketches = new HashMap<>();
+        for (Record r : latencyByOp) {
+            Object latencies = r.get(LAT_VALUES);
+            if (latencies == null) {
+                continue;
+            }
+            List<String> key =
+                    Arrays.asList(
+                            String.valueOf(r.get(Fields.OPERATION.toString())),
+                            String.valueOf(r.get(Fields.SHARD_ID.toString())),
+                            String.valueOf(r.get(Fields.INDEX_NAME.toString())),
+                            String.valueOf(r.get(Fields.SHARD_ROLE.toString())));
+            LatencySketch sketch = sketches.computeIfAbsent(key, k -> new LatencySketch());
+            for (String latency : latencies.toString().split(",")) {
+                sketch.add(Double.parseDouble(latency));
+            }
+        }
+        return sketches;
+    }
+
+    /**
+     * Return row per request, clamped to the window.
      *
      * <p>Actual Table |shard|indexName|rid |tid |operation |role| st| et|
      * +-----+---------+-------+----+----------+----+-------------+-------------+ |0 |sonested
@@ -271,56 +321,70 @@ public class ShardRequestMetricsSnapshot implements Removable {
      * |2447803|7069|shardfetch|NA |1535065344729|1535065344730| |0 |sonested
      * |2447781|7069|shardfetch|NA |1535065340227|1535065345330|
      *
-     * @return aggregated latency rows for each shard request
+     * <p>The events are read once, ordered by rid and operation, so that the events of a request
+     * are merged as soon as they are read.
+     *
+     * @return the requests of the window, ordered by rid and operation
      */
-    public SelectHavingStep<Record> getCoalescedRequestsForTimeSpentInWindow() {
-        Long endTime = this.windowStartTime + MetricsConfiguration.SAMPLING_INTERVAL;
-        ArrayList<SelectField<?>> fields =
-                new ArrayList<SelectField<?>>() {
-                    {
-                        this.add(DSL.field(DSL.name(Fields.SHARD_ID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.INDEX_NAME.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.RID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.TID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.OPERATION.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.SHARD_ROLE.toString()), String.class));
+    private List<RequestTime> fetchRequestTimesInWindow() {
+        final long endTime = this.windowStartTime + MetricsConfiguration.SAMPLING_INTERVAL;
+        final Field<String> ridField = DSL.field(DSL.name(Fields.RID.toString()), String.class);
+        final Field<String> operationField =
+                DSL.field(DSL.name(Fields.OPERATION.toString()), String.class);
+        final Field<Long> stField = DSL.field(DSL.name(Fields.ST.toString()), Long.class);
+        final Field<Long> etField = DSL.field(DSL.name(Fields.ET.toString()), Long.class);
+        List<Field<?>> fields = new ArrayList<>();
+        fields.add(DSL.field(DSL.name(Fields.SHARD_ID.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.INDEX_NAME.toString()), String.class));
+        fields.add(ridField);
+        fields.add(DSL.field(DSL.name(Fields.TID.toString()), String.class));
+        fields.add(operationField);
+        fields.add(DSL.field(DSL.name(Fields.SHARD_ROLE.toString()), String.class));
+        fields.add(stField);
+        fields.add(etField);
+
+        List<RequestTime> requests = new ArrayList<>();
+        String[] dimensions = null;
+        Long st = null;
+        Long et = null;
+        try (Cursor<Record> cursor =
+                create.select(fields)
+                        .from(DSL.table(this.tableName))
+                        .orderBy(ridField, operationField)
+                        .fetchLazy()) {
+            for (Record record : cursor) {
+                if (dimensions == null
+                        || !Objects.equals(dimensions[RID_INDEX], record.get(ridField))
+                        || !Objects.equals(
+                                dimensions[OPERATION_INDEX], record.get(operationField))) {
+                    if (dimensions != null) {
+                        requests.add(
+                                new RequestTime(dimensions, st, et, this.windowStartTime, endTime));
                     }
-                };
-
-        fields.add(
-                DSL.greatest(
-                                DSL.coalesce(
-                                        DSL.max(DSL.field(Fields.ST.toString())),
-                                        (this.windowStartTime)),
-                                this.windowStartTime)
-                        .as(DSL.name(Fields.ST.toString())));
-        fields.add(
-                DSL.least(DSL.coalesce(DSL.max(DSL.field(Fields.ET.toString())), endTime), endTime)
-                        .as(DSL.name(Fields.ET.toString())));
-
-        return create.select(fields).from(DSL.table(this.tableName)).groupBy(groupByRidOp);
-    }
-
-    public SelectHavingStep<Record> getTimeSpentPerRequest() {
-        ArrayList<SelectField<?>> fields =
-                new ArrayList<SelectField<?>>() {
-                    {
-                        this.add(DSL.field(DSL.name(Fields.SHARD_ID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.INDEX_NAME.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.RID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.TID.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.OPERATION.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.SHARD_ROLE.toString()), String.class));
-                        this.add(DSL.field(DSL.name(Fields.ST.toString()), Long.class));
-                        this.add(DSL.field(DSL.name(Fields.ET.toString()), Long.class));
+                    dimensions = new String[REQUEST_DIMENSION_COUNT];
+                    st = null;
+                    et = null;
+                }
+                for (int i = 0; i < REQUEST_DIMENSION_COUNT; i++) {
+                    if (dimensions[i] == null) {
+                        dimensions[i] = (String) record.get(i);
                     }
-                };
+                }
+                st = max(st, record.get(stField));
+                et = max(et, record.get(etField));
+            }
+        }
+        if (dimensions != null) {
+            requests.add(new RequestTime(dimensions, st, et, this.windowStartTime, endTime));
+        }
+        return requests;
+    }
 
-        fields.add(
-                DSL.field(Fields.ET.toString())
-                        .minus(DSL.field(Fields.ST.toString()))
-                        .as(DSL.name(Fields.LAT.toString())));
-        return create.select(fields).from(getCoalescedRequestsForTimeSpentInWindow());
+    private static Long max(Long current, Long value) {
+        if (current == null) {
+            return value;
+        }
+        return value == null ? current : Math.max(current, value);
     }
 
     public SelectHavingStep<Record> groupByRidOpSelect() {
@@ -452,20 +516,38 @@ public class ShardRequestMetricsSnapshot implements Removable {
                                                 .gt(this.windowStartTime - EXPIRE_AFTER)));
     }
 
-    public SelectHavingStep<Record> fetchTotalTimeTable(
-            SelectHavingStep<Record> timeSpentPerRequestSelect) {
-        List<SelectField<?>> fields = new ArrayList<SelectField<?>>();
-        fields.add(DSL.field(Fields.TID.toString()));
-        fields.add(
-                DSL.sum(DSL.field(Fields.LAT.toString(), Double.class))
-                        .as(Fields.TTIME.toString()));
-        return create.select(fields)
-                .from(timeSpentPerRequestSelect)
-                .groupBy(DSL.field(Fields.TID.toString()));
-    }
-
     public Result<Record> fetchThreadUtilizationRatio() {
-        return create.select().from(fetchThreadUtilizationRatioTable()).fetch();
+        List<Field<?>> fields = new ArrayList<>();
+        fields.add(DSL.field(DSL.name(Fields.SHARD_ID.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.INDEX_NAME.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.RID.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.TID.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.OPERATION.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.SHARD_ROLE.toString()), String.class));
+        fields.add(DSL.field(DSL.name(Fields.ST.toString()), Long.class));
+        fields.add(DSL.field(DSL.name(Fields.ET.toString()), Long.class));
+        fields.add(DSL.field(DSL.name(Fields.LAT.toString()), Long.class));
+        fields.add(DSL.field(DSL.name(Fields.TTIME.toString()), Double.class));
+        fields.add(DSL.field(DSL.name(Fields.TUTIL.toString()), Double.class));
+
+        Result<Record> result = create.newResult(fields);
+        for (RequestTime request : fetchThreadUtilization()) {
+            Record record = create.newRecord(fields);
+            record.fromArray(
+                    request.shardId,
+                    request.indexName,
+                    request.rid,
+                    request.tid,
+                    request.operation,
+                    request.shardRole,
+                    request.st,
+                    request.et,
+                    request.lat,
+                    request.ttime,
+                    request.tUtil);
+            result.add(record);
+        }
+        return result;
     }
 
     /**
@@ -487,36 +569,87 @@ public class ShardRequestMetricsSnapshot implements Removable {
      * |sonested |2447803|7069|shardfetch|NA |1535065344729|1535065344730| 001| 524|0.0019| |0
      * |sonested |2447804|7069|shardfetch|NA |1535065344729|1535065344732| 003| 524|0.0058
      *
-     * @return thread utilization table
+     * <p>The time of each thread is summed up while the requests are read, the ratios need a second
+     * pass over the requests only, not a join.
+     *
+     * @return the requests that ran on a known thread, ordered by rid and operation
      */
-    public SelectHavingStep<Record> fetchThreadUtilizationRatioTable() {
-        ArrayList<SelectField<?>> requestAndTotalThreadTimeFields = new ArrayList<SelectField<?>>();
-        SelectHavingStep<Record> timeSpentPerReq = getTimeSpentPerRequest();
-        SelectHavingStep<Record> threadTable = fetchTotalTimeTable(timeSpentPerReq);
-        requestAndTotalThreadTimeFields.addAll(Arrays.asList(timeSpentPerReq.fields()));
-        requestAndTotalThreadTimeFields.add(threadTable.field(Fields.TTIME.toString()));
-        SelectHavingStep<Record> requestAndTotalThreadTimeSelect =
-                create.select(requestAndTotalThreadTimeFields)
-                        .from(timeSpentPerReq)
-                        .join(threadTable)
-                        .on(
-                                timeSpentPerReq
-                                        .field(Fields.TID.toString(), String.class)
-                                        .eq(
-                                                threadTable.field(
-                                                        Fields.TID.toString(), String.class)));
-
-        ArrayList<SelectField<?>> tUtilFields = new ArrayList<SelectField<?>>();
-        tUtilFields.addAll(Arrays.asList(requestAndTotalThreadTimeSelect.fields()));
-        tUtilFields.add(
-                requestAndTotalThreadTimeSelect
-                        .field(Fields.LAT.toString())
-                        .mul(DSL.val(1.0d))
-                        .div(
-                                requestAndTotalThreadTimeSelect.field(
-                                        Fields.TTIME.toString(), Double.class))
-                        .as(Fields.TUTIL.toString()));
-        return create.select(tUtilFields).from(requestAndTotalThreadTimeSelect);
+    public List<RequestTime> fetchThreadUtilization() {
+        List<RequestTime> requests = fetchRequestTimesInWindow();
+        Map<String, Double> threadTimes = new HashMap<>();
+        for (RequestTime request : requests) {
+            if (request.tid != null) {
+                threadTimes.merge(request.tid, (double) request.lat, Double::sum);
+            }
+        }
+        List<RequestTime> utilization = new ArrayList<>(requests.size());
+        for (RequestTime request : requests) {
+            if (request.tid != null) {
+                utilization.add(request.withThreadTime(threadTimes.get(request.tid)));
+            }
+        }
+        return utilization;
+    }
+
+    /** The time a shard request spent on its thread in a window, and its share of the thread. */
+    public static final class RequestTime {
+        public final String shardId;
+        public final String indexName;
+        public final String rid;
+        public final String tid;
+        public final String operation;
+        public final String shardRole;
+        public final long st;
+        public final long et;
+        public final long lat;
+
+        /** The time of all the requests of the thread, null until it is known. */
+        public final Double ttime;
+
+        /** lat / ttime, null if the thread spent no time on requests. */
+        public final Double tUtil;
+
+        private RequestTime(
+                String[] dimensions, Long st, Long et, long windowStartTime, long endTime) {
+            this.shardId = dimensions[0];
+            this.indexName = dimensions[1];
+            this.rid = dimensions[RID_INDEX];
+            this.tid = dimensions[3];
+            this.operation = dimensions[OPERATION_INDEX];
+            this.shardRole = dimensions[5];
+            // A request that started before the window, or is still running at its end, only
+            // counts for the part of it in the window.
+            this.st = st == null ? windowStartTime : Math.max(st, windowStartTime);
+            this.et = et == null ? endTime : Math.min(et, endTime);
+            this.lat = this.et - this.st;
+            this.ttime = null;
+            this.tUtil = null;
+        }
+
+        private RequestTime(RequestTime request, Double ttime) {
+            this.shardId = request.shardId;
+            this.indexName = request.indexName;
+            this.rid = request.rid;
+            this.tid = request.tid;
+            this.operation = request.operation;
+            this.shardRole = request.shardRole;
+            this.st = request.st;
+            this.et = request.et;
+            this.lat = request.lat;
+            this.ttime = ttime;
+            this.tUtil = ttime == 0d ? null : request.lat / ttime;
+        }
+
+        private RequestTime withThreadTime(Double ttime) {
+            return new RequestTime(this, ttime);
+        }
+
+        @Override
+        public String toString() {
+            return String.format(
+                    "[%s, %s, %s, %s, %s, %s, %d, %d, %d, %s, %s]",
+                    shardId, indexName, rid, tid, operation, shardRole, st, et, lat, ttime, tUtil);
+        }
     }
 
     public String getTableName() {
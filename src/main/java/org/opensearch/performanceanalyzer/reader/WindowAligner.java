@@ -0,0 +1,407 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+/**
+ * Aligns two snapshots of the in memory database to a reader window without SQL: both snapshots are
+ * loaded in columns sorted by their key, and merged in one pass that computes the weighted values
+ * of all the metric columns of a key at once.
+ *
+ * <p>The result is the same as the SQL the snapshots used to align with, including its handling of
+ * nulls: a metric that is null in a snapshot is null in the aligned window unless the SQL aggregate
+ * skipped it.
+ */
+final class WindowAligner {
+    /** The time of a row that has none. */
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+    private static final int INITIAL_ROWS = 64;
+
+    private WindowAligner() {}
+
+    /**
+     * The rows of a snapshot table in columns, sorted by the first key columns. A null metric is
+     * NaN, which SQLite stores as null anyway.
+     */
+    static final class Columns {
+        final int rows;
+        final int dimCount;
+        final int metricCount;
+
+        /** The dimensions, row after row. */
+        final String[] dims;
+
+        /** The metrics, row after row. */
+        final double[] values;
+
+        /** The time of each row, null if the table has no time column. */
+        final long[] times;
+
+        Columns(
+                int rows,
+                int dimCount,
+                int metricCount,
+                String[] dims,
+                double[] values,
+                long[] times) {
+            this.rows = rows;
+            this.dimCount = dimCount;
+            this.metricCount = metricCount;
+            this.dims = dims;
+            this.values = values;
+            this.times = times;
+        }
+
+        String dim(int row, int dim) {
+            return dims[row * dimCount + dim];
+        }
+
+        double value(int row, int metric) {
+            return values[row * metricCount + metric];
+        }
+    }
+
+    /**
+     * Reads a snapshot table in columns.
+     *
+     * @param create The context of the in memory database.
+     * @param tableName The snapshot table.
+     * @param dimColumns The dimension columns, the first keyCount of them are the key.
+     * @param metricColumns The metric columns.
+     * @param timeColumn The time column, or null if the table has none.
+     * @param keyCount The number of dimensions the rows are sorted by.
+     * @return The rows sorted by key.
+     * @throws DataAccessException if the table could not be read.
+     */
+    static Columns load(
+            DSLContext create,
+            String tableName,
+            List<String> dimColumns,
+            List<String> metricColumns,
+            String timeColumn,
+            int keyCount) {
+        final int dimCount = dimColumns.size();
+        final int metricCount = metricColumns.size();
+        List<Field<?>> fields = new ArrayList<>(dimCount + metricCount + 1);
+        for (String dim : dimColumns) {
+            fields.add(DSL.field(DSL.name(dim), String.class));
+        }
+        for (String metric : metricColumns) {
+            fields.add(DSL.field(DSL.name(metric), Double.class));
+        }
+        if (timeColumn != null) {
+            fields.add(DSL.field(DSL.name(timeColumn), Long.class));
+        }
+
+        int capacity = INITIAL_ROWS;
+        String[] dims = new String[capacity * dimCount];
+        double[] values = new double[capacity * metricCount];
+        long[] times = timeColumn == null ? null : new long[capacity];
+        int rows = 0;
+        try (ResultSet resultSet =
+                create.select(fields).from(DSL.table(tableName)).fetchResultSet()) {
+            while (resultSet.next()) {
+                if (rows == capacity) {
+                    capacity *= 2;
+                    dims = Arrays.copyOf(dims, capacity * dimCount);
+                    values = Arrays.copyOf(values, capacity * metricCount);
+                    times = times == null ? null : Arrays.copyOf(times, capacity);
+                }
+                int column = 1;
+                for (int d = 0; d < dimCount; d++) {
+                    dims[rows * dimCount + d] = resultSet.getString(column++);
+                }
+                for (int m = 0; m < metricCount; m++) {
+                    double value = resultSet.getDouble(column++);
+                    values[rows * metricCount + m] = resultSet.wasNull() ? Double.NaN : value;
+                }
+                if (times != null) {
+                    long time = resultSet.getLong(column);
+                    times[rows] = resultSet.wasNull() ? NULL_TIME : time;
+                }
+                rows++;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessException("Unable to read " + tableName, e);
+        }
+        return sort(new Columns(rows, dimCount, metricCount, dims, values, times), keyCount);
+    }
+
+    private static Columns sort(Columns columns, int keyCount) {
+        Integer[] order = new Integer[columns.rows];
+        boolean sorted = true;
+        for (int row = 0; row < columns.rows; row++) {
+            order[row] = row;
+            if (row > 0 && compareKeys(columns, row - 1, columns, row, keyCount) > 0) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return columns;
+        }
+        // The sort is stable, rows of the same key keep the order they were read in.
+        Arrays.sort(order, keyComparator(columns, keyCount));
+
+        final int dimCount = columns.dimCount;
+        final int metricCount = columns.metricCount;
+        String[] dims = new String[columns.rows * dimCount];
+        double[] values = new double[columns.rows * metricCount];
+        long[] times = columns.times == null ? null : new long[columns.rows];
+        for (int row = 0; row < columns.rows; row++) {
+            int from = order[row];
+            System.arraycopy(columns.dims, from * dimCount, dims, row * dimCount, dimCount);
+            System.arraycopy(
+                    columns.values, from * metricCount, values, row * metricCount, metricCount);
+            if (times != null) {
+                times[row] = columns.times[from];
+            }
+        }
+        return new Columns(columns.rows, dimCount, metricCount, dims, values, times);
+    }
+
+    private static Comparator<Integer> keyComparator(Columns columns, int keyCount) {
+        return (left, right) -> compareKeys(columns, left, columns, right, keyCount);
+    }
+
+    /** Compares the keys of two rows the way SQLite orders them: nulls first. */
+    private static int compareKeys(
+            Columns left, int leftRow, Columns right, int rightRow, int keyCount) {
+        for (int d = 0; d < keyCount; d++) {
+            String l = left.dim(leftRow, d);
+            String r = right.dim(rightRow, d);
+            int cmp;
+            if (l == null) {
+                cmp = r == null ? 0 : -1;
+            } else {
+                cmp = r == null ? 1 : l.compareTo(r);
+            }
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Aligns the thread metrics of two OS snapshots. A thread in both snapshots gets the metrics of
+     * the left snapshot until its last update and those of the right snapshot after it. A thread in
+     * one snapshot only keeps its metrics. The rows of a thread repeated in a snapshot are merged
+     * by taking the max of each column.
+     *
+     * @param left The left snapshot, the key is its first dimension.
+     * @param right The right snapshot, the key is its first dimension.
+     * @param a The aligned window start time.
+     * @param b The aligned window end time.
+     * @return The aligned rows, in the column order of the snapshots: the dimensions, the metrics
+     *     and the time. The threads in both snapshots come first, then those in the left one only,
+     *     then those in the right one only, which have no time.
+     */
+    static List<Object[]> alignByLastUpdate(Columns left, Columns right, long a, long b) {
+        left = collapseByMax(left);
+        right = collapseByMax(right);
+        final int dimCount = left.dimCount;
+        final int metricCount = left.metricCount;
+        List<Object[]> both = new ArrayList<>();
+        List<Object[]> leftOnly = new ArrayList<>();
+        List<Object[]> rightOnly = new ArrayList<>();
+
+        int i = 0;
+        int j = 0;
+        while (i < left.rows || j < right.rows) {
+            int cmp;
+            if (i == left.rows) {
+                cmp = 1;
+            } else if (j == right.rows) {
+                cmp = -1;
+            } else {
+                cmp = compareKeys(left, i, right, j, 1);
+            }
+            boolean hasLeft = cmp <= 0 && left.times[i] != NULL_TIME;
+            boolean hasRight = cmp >= 0 && right.times[j] != NULL_TIME;
+            if (hasLeft && hasRight) {
+                long leftTime = left.times[i];
+                Object[] row = newRow(left, i, dimCount, metricCount);
+                for (int m = 0; m < metricCount; m++) {
+                    double l = left.value(i, m);
+                    double r = right.value(j, m);
+                    row[dimCount + m] =
+                            Double.isNaN(l) || Double.isNaN(r) || b == a
+                                    ? null
+                                    : ((leftTime - a) * l + (b - leftTime) * r) / (b - a);
+                }
+                row[dimCount + metricCount] = leftTime;
+                both.add(row);
+            } else if (hasLeft) {
+                Object[] row = copyRow(left, i, dimCount, metricCount);
+                row[dimCount + metricCount] = left.times[i];
+                leftOnly.add(row);
+            } else if (hasRight) {
+                Object[] row =
+                        cmp == 0
+                                ? newRow(left, i, dimCount, metricCount)
+                                : newRow(right, j, dimCount, metricCount);
+                for (int m = 0; m < metricCount; m++) {
+                    row[dimCount + m] = valueOrNull(right.value(j, m));
+                }
+                rightOnly.add(row);
+            }
+            if (cmp <= 0) {
+                i++;
+            }
+            if (cmp >= 0) {
+                j++;
+            }
+        }
+        both.addAll(leftOnly);
+        both.addAll(rightOnly);
+        return both;
+    }
+
+    /** Merges the rows of the same key, the metrics and the time of a key are their max. */
+    private static Columns collapseByMax(Columns columns) {
+        int distinct = 0;
+        for (int row = 0; row < columns.rows; row++) {
+            if (row == 0 || compareKeys(columns, row - 1, columns, row, 1) != 0) {
+                distinct++;
+            }
+        }
+        if (distinct == columns.rows) {
+            return columns;
+        }
+        final int dimCount = columns.dimCount;
+        final int metricCount = columns.metricCount;
+        String[] dims = new String[distinct * dimCount];
+        double[] values = new double[distinct * metricCount];
+        long[] times = new long[distinct];
+        int out = -1;
+        for (int row = 0; row < columns.rows; row++) {
+            if (row == 0 || compareKeys(columns, row - 1, columns, row, 1) != 0) {
+                out++;
+                System.arraycopy(columns.dims, row * dimCount, dims, out * dimCount, dimCount);
+                System.arraycopy(
+                        columns.values, row * metricCount, values, out * metricCount, metricCount);
+                times[out] = columns.times[row];
+                continue;
+            }
+            for (int m = 0; m < metricCount; m++) {
+                double value = columns.value(row, m);
+                double current = values[out * metricCount + m];
+                if (Double.isNaN(current) || value > current) {
+                    values[out * metricCount + m] = value;
+                }
+            }
+            times[out] = Math.max(times[out], columns.times[row]);
+        }
+        return new Columns(distinct, dimCount, metricCount, dims, values, times);
+    }
+
+    /**
+     * Aligns two snapshots by the time each of them covers in the aligned window: the metrics of a
+     * key are the average of its rows in both snapshots, weighted by the time of their snapshot.
+     *
+     * @param left The left snapshot, keyed by all its dimensions.
+     * @param leftWeight The time the left snapshot covers in the aligned window.
+     * @param right The right snapshot, keyed by all its dimensions.
+     * @param rightWeight The time the right snapshot covers in the aligned window.
+     * @return The aligned rows, in the column order of the snapshots and the order of their keys.
+     *     Without dimensions, there is exactly one row.
+     */
+    static List<Object[]> alignByWeight(
+            Columns left, long leftWeight, Columns right, long rightWeight) {
+        final int dimCount = left.dimCount;
+        final int metricCount = left.metricCount;
+        List<Object[]> aligned = new ArrayList<>();
+        double[] sums = new double[metricCount];
+        boolean[] hasValue = new boolean[metricCount];
+
+        int i = 0;
+        int j = 0;
+        while (i < left.rows || j < right.rows || (dimCount == 0 && aligned.isEmpty())) {
+            Object[] row;
+            if (i < left.rows
+                    && (j == right.rows || compareKeys(left, i, right, j, dimCount) <= 0)) {
+                row = newRow(left, i, dimCount, metricCount);
+            } else if (j < right.rows) {
+                row = newRow(right, j, dimCount, metricCount);
+            } else {
+                row = new Object[metricCount];
+            }
+            Arrays.fill(sums, 0);
+            Arrays.fill(hasValue, false);
+            long weight = 0;
+            // The rows of the key, in either snapshot, are next.
+            while (i < left.rows && (dimCount == 0 || sameKey(row, left, i, dimCount))) {
+                weight += leftWeight;
+                accumulate(left, i, leftWeight, sums, hasValue);
+                i++;
+            }
+            while (j < right.rows && (dimCount == 0 || sameKey(row, right, j, dimCount))) {
+                weight += rightWeight;
+                accumulate(right, j, rightWeight, sums, hasValue);
+                j++;
+            }
+            for (int m = 0; m < metricCount; m++) {
+                row[dimCount + m] = hasValue[m] && weight != 0 ? sums[m] / weight : null;
+            }
+            aligned.add(row);
+        }
+        return aligned;
+    }
+
+    private static boolean sameKey(Object[] row, Columns columns, int columnsRow, int dimCount) {
+        for (int d = 0; d < dimCount; d++) {
+            Object key = row[d];
+            String dim = columns.dim(columnsRow, d);
+            if (key == null ? dim != null : !key.equals(dim)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void accumulate(
+            Columns columns, int row, long weight, double[] sums, boolean[] hasValue) {
+        for (int m = 0; m < columns.metricCount; m++) {
+            double value = columns.value(row, m);
+            if (!Double.isNaN(value)) {
+                sums[m] += value * weight;
+                hasValue[m] = true;
+            }
+        }
+    }
+
+    /** A row with the dimensions of a row of the columns, room for the metrics and a time. */
+    private static Object[] newRow(Columns columns, int row, int dimCount, int metricCount) {
+        Object[] out = new Object[dimCount + metricCount + (columns.times == null ? 0 : 1)];
+        for (int d = 0; d < dimCount; d++) {
+            out[d] = columns.dim(row, d);
+        }
+        return out;
+    }
+
+    private static Object[] copyRow(Columns columns, int row, int dimCount, int metricCount) {
+        Object[] out = newRow(columns, row, dimCount, metricCount);
+        for (int m = 0; m < metricCount; m++) {
+            out[dimCount + m] = valueOrNull(columns.value(row, m));
+        }
+        return out;
+    }
+
+    private static Double valueOrNull(double value) {
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -22,8 +22,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.apache.logging.log4j.message.ParameterizedMessage;
 import org.apache.logging.log4j.util.Supplier;
-import org.jooq.Record;
-import org.jooq.Result;
 import org.opensearch.performanceanalyzer.AppContext;
 import org.opensearch.performanceanalyzer.commons.collectors.StatsCollector;
 import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
@@ -33,18 +31,27 @@ import org.opensearch.performanceanalyzer.grpc.MetricsRequest;
 import org.opensearch.performanceanalyzer.grpc.MetricsResponse;
 import org.opensearch.performanceanalyzer.metrics.MetricsRestUtil;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsQueryCache;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsRetentionStore;
 import org.opensearch.performanceanalyzer.model.MetricAttributes;
 import org.opensearch.performanceanalyzer.model.MetricsModel;
 import org.opensearch.performanceanalyzer.net.NetClient;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.reader.MetricsDemandRegistry;
 import org.opensearch.performanceanalyzer.reader.ReaderMetricsProcessor;
 
 /**
  * Request handler that supports querying MetricsDB on every EC2 instance. Example query –
  * "http://localhost:9600/_metricsdb?metrics=cpu,rss,memory%20agg=sum,avg,sum%20dims=index,operation,shard."
  * We can fetch multiple metrics using this interface and also specify the dimensions/aggregations
- * for fetching the metrics. We create a new metricsDB every 5 seconds and API only supports
- * querying the latest snapshot.
+ * for fetching the metrics. We create a new metricsDB every 5 seconds and API queries the latest
+ * snapshot by default.
+ *
+ * <p>The starttime and endtime parameters, in milliseconds since the epoch, query the recent
+ * history kept by {@link MetricsRetentionStore} instead, with one set of rows per step. The step
+ * parameter sets the step in seconds, a multiple of 5; it defaults to the finest step that still
+ * holds starttime. The range ends at the current time at the latest. A metric outside of the RCA
+ * graph is only kept from its first query on, until then each node answers an error for it.
  */
 public class QueryMetricsRequestHandler extends MetricsHandler implements HttpHandler {
 
@@ -125,23 +132,26 @@ public class QueryMetricsRequestHandler extends MetricsHandler implements HttpHa
                 if (!validParams(exchange, metricList, dimList, aggList)) {
                     return;
                 }
+                MetricsRetentionStore.TimeRange range =
+                        parseTimeRange(params, metricList, aggList, System.currentTimeMillis());
+                MetricsDemandRegistry.getInstance().recordQueryDemand(metricList);
 
-                String localResponse;
-                if (db != null) {
-                    Result<Record> metricResult = db.queryMetric(metricList, aggList, dimList);
-                    if (metricResult == null) {
-                        localResponse = "{}";
-                    } else {
-                        localResponse = metricResult.formatJSON();
-                    }
+                String localResponseWithTimestamp;
+                if (range == null) {
+                    localResponseWithTimestamp =
+                            MetricsQueryCache.instance()
+                                    .getResponse(db, dbTimestamp, metricList, aggList, dimList);
                 } else {
-                    // Empty JSON.
-                    localResponse = "{}";
+                    localResponseWithTimestamp =
+                            MetricsRetentionStore.instance()
+                                    .getResponse(
+                                            metricList,
+                                            aggList,
+                                            dimList,
+                                            range.getStartTime(),
+                                            range.getEndTime(),
+                                            range.getStepMillis());
                 }
-
-                String localResponseWithTimestamp =
-                        String.format(
-                                "{\"timestamp\": %d, \"data\": %s}", dbTimestamp, localResponse);
                 ConcurrentHashMap<String, String> nodeResponses = new ConcurrentHashMap<>();
                 final List<InstanceDetails> allNodes = appContext.getAllClusterInstances();
                 String localNodeId = "local";
@@ -160,7 +170,13 @@ public class QueryMetricsRequestHandler extends MetricsHandler implements HttpHa
                         LOG.debug("Collecting remote stats");
                         try {
                             collectRemoteStats(
-                                    node, metricList, aggList, dimList, nodeResponses, doneSignal);
+                                    node,
+                                    metricList,
+                                    aggList,
+                                    dimList,
+                                    range,
+                                    nodeResponses,
+                                    doneSignal);
                         } catch (Exception e) {
                             LOG.error(
                                     "Unable to collect stats for node, addr:{}, exception: {} ExceptionCode: {}",
@@ -217,14 +233,20 @@ public class QueryMetricsRequestHandler extends MetricsHandler implements HttpHa
             List<String> metricList,
             List<String> aggList,
             List<String> dimList,
+            MetricsRetentionStore.TimeRange range,
             final ConcurrentHashMap<String, String> nodeResponses,
             final CountDownLatch doneSignal) {
-        MetricsRequest request =
+        MetricsRequest.Builder builder =
                 MetricsRequest.newBuilder()
                         .addAllMetricList(metricList)
                         .addAllAggList(aggList)
-                        .addAllDimList(dimList)
-                        .build();
+                        .addAllDimList(dimList);
+        if (range != null) {
+            builder.setStartTime(range.getStartTime())
+                    .setEndTime(range.getEndTime())
+                    .setStep(range.getStepMillis());
+        }
+        MetricsRequest request = builder.build();
         ThreadSafeStreamObserver responseObserver =
                 new ThreadSafeStreamObserver(node, nodeResponses, doneSignal);
         try {
@@ -292,6 +314,56 @@ public class QueryMetricsRequestHandler extends MetricsHandler implements HttpHa
         return true;
     }
 
+    /**
+     * Parses the time range of the query, if any.
+     *
+     * @param params The parameters of the query.
+     * @param metricList The metrics of the query.
+     * @param aggList The aggregations of the query.
+     * @param now The current time.
+     * @return The time range, or null if the query is for the latest snapshot.
+     * @throws InvalidParameterException if the range is invalid or older than the history kept.
+     */
+    static MetricsRetentionStore.TimeRange parseTimeRange(
+            Map<String, String> params, List<String> metricList, List<String> aggList, long now) {
+        String start = params.get("starttime");
+        String end = params.get("endtime");
+        String step = params.get("step");
+        if (start == null && end == null && step == null) {
+            return null;
+        }
+        if (start == null) {
+            throw new InvalidParameterException("starttime is required for a time range.");
+        }
+        long startTime = parseLong("starttime", start);
+        long endTime = end == null ? now : parseLong("endtime", end);
+        MetricsRetentionStore store = MetricsRetentionStore.instance();
+        long stepMillis;
+        if (step == null) {
+            stepMillis = store.getStepMillis(startTime, now);
+            if (stepMillis < 0) {
+                throw new InvalidParameterException(
+                        "starttime is older than the metrics history kept.");
+            }
+        } else {
+            stepMillis = TimeUnit.SECONDS.toMillis(parseLong("step", step));
+        }
+        try {
+            return store.checkRange(metricList, aggList, startTime, endTime, stepMillis, now);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidParameterException(e.getMessage());
+        }
+    }
+
+    private static long parseLong(String param, String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            throw new InvalidParameterException(
+                    String.format("%s should be a number, got %s.", param, value));
+        }
+    }
+
     private void sendResponseWhenRequestCompleted(
             ConcurrentHashMap<String, String> nodeResponses, HttpExchange exchange) {
         if (nodeResponses.size() == 0) {
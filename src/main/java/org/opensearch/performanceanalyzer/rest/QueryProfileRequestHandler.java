@@ -0,0 +1,128 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidParameterException;
+import java.util.Map;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.apache.logging.log4j.util.Supplier;
+import org.opensearch.performanceanalyzer.commons.stats.metrics.StatExceptionCode;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.GraphNodeProfiler;
+
+/**
+ * Request handler that returns the rolling percentiles of the wall time, CPU time and allocations
+ * of the graph nodes evaluated on the node being queried, those that used the most CPU first.
+ * spotless:off
+ *
+ * <p>To get the 5 graph nodes that used the most CPU: curl --url
+ * "localhost:9600/_plugins/_performanceanalyzer/rca/profile?top=5" -XGET @<code>
+ *     {
+ *         "windowSamples": 120,
+ *         "cpuTimeEnabled": true,
+ *         "allocationEnabled": true,
+ *         "graphNodes": [
+ *             {
+ *                 "name": "HighHeapUsageOldGenRca",
+ *                 "samples": 120,
+ *                 "wallMicros": {"p50": 1830, "p90": 2410, "p99": 5120, "max": 5120},
+ *                 "cpuMicros": {"p50": 640, "p90": 820, "p99": 1300, "max": 1300},
+ *                 "allocatedBytes": {"p50": 182304, "p90": 201880, "p99": 350112, "max": 350112}
+ *             }
+ *         ]
+ *     }
+ * </code> spotless:on
+ */
+public class QueryProfileRequestHandler extends MetricsHandler implements HttpHandler {
+    private static final Logger LOG = LogManager.getLogger(QueryProfileRequestHandler.class);
+    public static final String TOP_PARAM = "top";
+
+    private final GraphNodeProfiler profiler;
+
+    public QueryProfileRequestHandler() {
+        this(GraphNodeProfiler.getInstance());
+    }
+
+    QueryProfileRequestHandler(final GraphNodeProfiler profiler) {
+        this.profiler = profiler;
+    }
+
+    @Override
+    public void handle(HttpExchange exchange) throws IOException {
+        String requestMethod = exchange.getRequestMethod();
+
+        if (requestMethod.equalsIgnoreCase("GET")) {
+            LOG.debug("RCA profile query handler called.");
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+
+            try {
+                Map<String, String> params = getParamsMap(exchange.getRequestURI().getQuery());
+                String response = profiler.toJson(parseTop(params.get(TOP_PARAM))).toString();
+                sendResponse(exchange, response, HttpURLConnection.HTTP_OK);
+            } catch (InvalidParameterException e) {
+                LOG.error(
+                        (Supplier<?>)
+                                () ->
+                                        new ParameterizedMessage(
+                                                "QueryException {} ExceptionCode: {}.",
+                                                e.toString(),
+                                                StatExceptionCode.REQUEST_ERROR.toString()),
+                        e);
+                String response = "{\"error\":\"" + e.getMessage() + "\"}";
+                sendResponse(exchange, response, HttpURLConnection.HTTP_BAD_REQUEST);
+            } catch (Exception e) {
+                LOG.error(
+                        (Supplier<?>)
+                                () ->
+                                        new ParameterizedMessage(
+                                                "QueryException {} ExceptionCode: {}.",
+                                                e.toString(),
+                                                StatExceptionCode.REQUEST_ERROR.toString()),
+                        e);
+                String response = "{\"error\":\"" + e.toString() + "\"}";
+                sendResponse(exchange, response, HttpURLConnection.HTTP_INTERNAL_ERROR);
+            }
+        } else {
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_NOT_FOUND, -1);
+        }
+        exchange.close();
+    }
+
+    private static int parseTop(String top) {
+        if (top == null || top.isEmpty()) {
+            return 0;
+        }
+        try {
+            int parsed = Integer.parseInt(top);
+            if (parsed > 0) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below.
+        }
+        throw new InvalidParameterException(
+                String.format("%s should be a positive integer, got %s", TOP_PARAM, top));
+    }
+
+    public void sendResponse(HttpExchange exchange, String response, int status)
+            throws IOException {
+        byte[] bytes = response.getBytes(StandardCharsets.UTF_8);
+        try (OutputStream os = exchange.getResponseBody()) {
+            exchange.sendResponseHeaders(status, bytes.length);
+            os.write(bytes);
+        } catch (Exception e) {
+            response = e.toString();
+            exchange.sendResponseHeaders(HttpURLConnection.HTTP_INTERNAL_ERROR, response.length());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.threads;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.RcaRuntimeMetrics;
+
+/**
+ * A fixed size thread pool with a bounded queue that serves one {@link ServerLane}.
+ *
+ * <p>When the queue is full the task is handed to the single shedding thread of the lane, which
+ * runs it with the shedding flag set (see {@link #isShedding()}). The request handlers check the
+ * flag and answer with a cheap 503/RESOURCE_EXHAUSTED instead of doing the actual work, so that the
+ * caller gets a response and the pool never grows beyond its configured size. A rejected task never
+ * runs on the submitting thread, which for gRPC is the network event loop. The shedding thread has
+ * a bounded queue of its own, the tasks that do not fit in it are rejected with a {@link
+ * RejectedExecutionException}: the HTTP server then closes the connection and the gRPC transport
+ * fails the call, instead of leaving the request without an answer.
+ */
+public class BoundedLaneExecutor extends ThreadPoolExecutor {
+    private static final Logger LOG = LogManager.getLogger(BoundedLaneExecutor.class);
+    private static final ThreadLocal<Boolean> SHEDDING = ThreadLocal.withInitial(() -> false);
+
+    /** The tasks waiting for the shedding thread, they only answer that the lane is overloaded. */
+    @VisibleForTesting static final int SHED_QUEUE_SIZE = 64;
+
+    private final ServerLane lane;
+    private final int queueCapacity;
+    private final double heapShedThreshold;
+    private final MemoryMXBean memoryMXBean;
+    private final ThreadPoolExecutor shedExecutor;
+
+    public BoundedLaneExecutor(ServerLane lane) {
+        this(
+                lane,
+                lane.getThreads(),
+                lane.getQueueSize(),
+                lane.getHeapShedThreshold(),
+                ManagementFactory.getMemoryMXBean());
+    }
+
+    @VisibleForTesting
+    public BoundedLaneExecutor(
+            ServerLane lane,
+            int numThreads,
+            int queueCapacity,
+            double heapShedThreshold,
+            MemoryMXBean memoryMXBean) {
+        super(
+                numThreads,
+                numThreads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                new ThreadFactoryBuilder().setNameFormat(lane + "-%d").setDaemon(true).build(),
+                new ShedPolicy(lane));
+        this.lane = lane;
+        this.queueCapacity = queueCapacity;
+        this.heapShedThreshold = heapShedThreshold;
+        this.memoryMXBean = memoryMXBean;
+        this.shedExecutor =
+                new ThreadPoolExecutor(
+                        1,
+                        1,
+                        0L,
+                        TimeUnit.MILLISECONDS,
+                        new LinkedBlockingQueue<>(SHED_QUEUE_SIZE),
+                        new ThreadFactoryBuilder()
+                                .setNameFormat(lane + "-shed-%d")
+                                .setDaemon(true)
+                                .build(),
+                        new RejectPolicy(lane));
+        LOG.info(
+                "Created lane {} with {} threads, queue size {} and heap shed threshold {}",
+                lane,
+                numThreads,
+                queueCapacity,
+                heapShedThreshold);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                RcaRuntimeMetrics.SERVER_LANE_QUEUE_DEPTH, lane.toString(), getQueue().size());
+        super.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        super.shutdown();
+        shedExecutor.shutdown();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shedExecutor.shutdownNow();
+        return super.shutdownNow();
+    }
+
+    public ServerLane getLane() {
+        return lane;
+    }
+
+    /**
+     * @return true if a new request on this lane would wait behind a full queue.
+     */
+    public boolean isSaturated() {
+        return getQueue().size() >= queueCapacity;
+    }
+
+    /**
+     * @return true if the heap usage is above the point where this lane starts shedding.
+     */
+    public boolean isHeapAboveShedThreshold() {
+        MemoryUsage heap = memoryMXBean.getHeapMemoryUsage();
+        if (heap.getMax() <= 0) {
+            return false;
+        }
+        return (double) heap.getUsed() / heap.getMax() >= heapShedThreshold;
+    }
+
+    /**
+     * @return true if the current thread is running a task that was rejected by a lane and the task
+     *     is expected to only report that the server is overloaded.
+     */
+    public static boolean isShedding() {
+        return SHEDDING.get();
+    }
+
+    /** Records that a request on the lane was answered with an overloaded response. */
+    public static void recordShed(ServerLane lane) {
+        ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                RcaRuntimeMetrics.SERVER_LANE_REQUESTS_SHED, lane.toString(), 1);
+    }
+
+    /** Hands the tasks rejected by a full lane to its shedding thread. */
+    private static class ShedPolicy implements RejectedExecutionHandler {
+        private final ServerLane lane;
+
+        ShedPolicy(ServerLane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            ServiceMetrics.RCA_RUNTIME_METRICS_AGGREGATOR.updateStat(
+                    RcaRuntimeMetrics.SERVER_LANE_REJECTED, lane.toString(), 1);
+            if (executor.isShutdown()) {
+                throw new RejectedExecutionException("Lane " + lane + " is shut down");
+            }
+            ((BoundedLaneExecutor) executor)
+                    .shedExecutor.execute(
+                            () -> {
+                                SHEDDING.set(true);
+                                try {
+                                    r.run();
+                                } finally {
+                                    SHEDDING.set(false);
+                                }
+                            });
+        }
+    }
+
+    /**
+     * Rejects the tasks that do not fit in the queue of the shedding thread either, so that the
+     * server that submitted them closes the request itself.
+     */
+    private static class RejectPolicy implements RejectedExecutionHandler {
+        private final ServerLane lane;
+
+        RejectPolicy(ServerLane lane) {
+            this.lane = lane;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
+            LOG.debug("The shedding queue of lane {} is full, rejecting the task", lane);
+            recordShed(lane);
+            throw new RejectedExecutionException("Lane " + lane + " is overloaded");
+        }
+    }
+}
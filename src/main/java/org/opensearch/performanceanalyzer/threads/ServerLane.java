@@ -0,0 +1,84 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.threads;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.commons.config.PluginSettings;
+
+/**
+ * The execution lanes of the PA servers. Each lane is backed by its own {@link BoundedLaneExecutor}
+ * so that a burst of ad-hoc queries can not starve the inter-node RCA traffic and vice versa. The
+ * size of each lane can be overridden in performance-analyzer.properties with the keys {@code
+ * <lane>-threads}, {@code <lane>-queue-size} and {@code <lane>-heap-shed-threshold}.
+ */
+public enum ServerLane {
+    /** The REST requests served by the web server, e.g. metrics, rca and actions queries. */
+    HTTP_QUERY("http-query", 4, 32, 0.85),
+
+    /** The RCA data-plane RPCs: publish and subscribe. */
+    RPC_DATA_PLANE("rpc-data-plane", 2, 512, 0.95),
+
+    /** The ad-hoc RPCs, e.g. getMetrics fanned out for a nodes=all query. */
+    RPC_QUERY("rpc-query", 2, 32, 0.85);
+
+    private static final Logger LOG = LogManager.getLogger(ServerLane.class);
+
+    private final String laneName;
+    private final int defaultThreads;
+    private final int defaultQueueSize;
+    private final double defaultHeapShedThreshold;
+
+    ServerLane(
+            String laneName,
+            int defaultThreads,
+            int defaultQueueSize,
+            double defaultHeapShedThreshold) {
+        this.laneName = laneName;
+        this.defaultThreads = defaultThreads;
+        this.defaultQueueSize = defaultQueueSize;
+        this.defaultHeapShedThreshold = defaultHeapShedThreshold;
+    }
+
+    public int getThreads() {
+        return (int) readSetting("threads", defaultThreads, 1, Integer.MAX_VALUE);
+    }
+
+    public int getQueueSize() {
+        return (int) readSetting("queue-size", defaultQueueSize, 1, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @return The fraction of the max heap above which new requests on this lane are shed. Lanes
+     *     with a lower threshold give up first when the heap fills up.
+     */
+    public double getHeapShedThreshold() {
+        return readSetting("heap-shed-threshold", defaultHeapShedThreshold, 0.0, 1.0);
+    }
+
+    private double readSetting(String suffix, double defaultValue, double min, double max) {
+        String key = laneName + "-" + suffix;
+        String value = PluginSettings.instance().getSettingValue(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            double parsed = Double.parseDouble(value.trim());
+            if (parsed >= min && parsed <= max) {
+                return parsed;
+            }
+            LOG.warn("Value {} of {} is out of range [{}, {}]", value, key, min, max);
+        } catch (NumberFormatException e) {
+            LOG.warn("Invalid value {} for {}, using {}", value, key, defaultValue);
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public String toString() {
+        return laneName;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.decisionmaker.actions;
+
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+
+public class ActionDispatcherTest {
+    private ExecutorService deliveryPool;
+    private ScheduledExecutorService watchdog;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        deliveryPool = Executors.newFixedThreadPool(2);
+        watchdog = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @After
+    public void cleanup() {
+        deliveryPool.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    private void awaitIdle(ActionDispatcher dispatcher) throws InterruptedException {
+        for (int i = 0; i < 100 && !dispatcher.isIdle(); i++) {
+            Thread.sleep(50);
+        }
+        Assert.assertTrue(dispatcher.isIdle());
+    }
+
+    @Test
+    public void testSlowListenerDoesNotBlockOthers() throws Exception {
+        ActionDispatcher dispatcher = new ActionDispatcher(deliveryPool, watchdog, 2, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingListener slow = new RecordingListener(release);
+        RecordingListener fast = new RecordingListener(null);
+        dispatcher.register(slow);
+        dispatcher.register(fast);
+
+        Action first = mock(Action.class);
+        Action second = mock(Action.class);
+        Action third = mock(Action.class);
+        Action fourth = mock(Action.class);
+        dispatcher.dispatch(first);
+        Assert.assertTrue(slow.started.await(5, TimeUnit.SECONDS));
+
+        // The slow listener is still handling the first action, so the fourth one doesn't fit in
+        // its queue anymore while the other listener gets every action.
+        for (Action action : List.of(second, third, fourth)) {
+            dispatcher.dispatch(action);
+            for (int i = 0; i < 100 && !fast.received.contains(action); i++) {
+                Thread.sleep(50);
+            }
+        }
+        Assert.assertEquals(List.of(first, second, third, fourth), fast.received);
+
+        release.countDown();
+        awaitIdle(dispatcher);
+        Assert.assertEquals(List.of(first, second, third), slow.received);
+    }
+
+    @Test
+    public void testTimedOutListenerIsInterrupted() throws Exception {
+        ActionDispatcher dispatcher = new ActionDispatcher(deliveryPool, watchdog, 4, 100);
+        RecordingListener stuck = new RecordingListener(new CountDownLatch(1));
+        dispatcher.register(stuck);
+
+        Action first = mock(Action.class);
+        Action second = mock(Action.class);
+        dispatcher.dispatch(first);
+        dispatcher.dispatch(second);
+        awaitIdle(dispatcher);
+        Assert.assertEquals(List.of(first, second), stuck.received);
+        Assert.assertEquals(2, stuck.interrupted.size());
+    }
+
+    @Test
+    public void testFailingListenerKeepsReceivingActions() throws Exception {
+        ActionDispatcher dispatcher = new ActionDispatcher(deliveryPool, watchdog, 4, 10_000);
+        List<Action> received = new CopyOnWriteArrayList<>();
+        dispatcher.register(
+                action -> {
+                    received.add(action);
+                    throw new IllegalStateException("boom");
+                });
+
+        Action first = mock(Action.class);
+        Action second = mock(Action.class);
+        dispatcher.dispatch(first);
+        dispatcher.dispatch(second);
+        awaitIdle(dispatcher);
+        Assert.assertEquals(List.of(first, second), received);
+    }
+
+    private static class RecordingListener implements ActionListener {
+        final List<Action> received = new CopyOnWriteArrayList<>();
+        final List<Action> interrupted = new CopyOnWriteArrayList<>();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release;
+
+        RecordingListener(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void actionPublished(Action action) {
+            received.add(action);
+            started.countDown();
+            if (release != null) {
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    interrupted.add(action);
+                }
+            }
+        }
+    }
+}
@@ -76,4 +76,45 @@ public class ImpactVectorTest {
                 impactVector.getImpact().get(ImpactVector.Dimension.NETWORK),
                 ImpactVector.Impact.DECREASES_PRESSURE);
     }
+
+    @Test
+    public void testPressureMasks() {
+        ImpactVector impactVector = new ImpactVector();
+        impactVector.increasesPressure(ImpactVector.Dimension.HEAP, ImpactVector.Dimension.DISK);
+        impactVector.decreasesPressure(ImpactVector.Dimension.CPU);
+        Assert.assertEquals(
+                (1 << ImpactVector.Dimension.HEAP.ordinal())
+                        | (1 << ImpactVector.Dimension.DISK.ordinal()),
+                impactVector.increasesPressureMask());
+        Assert.assertEquals(
+                1 << ImpactVector.Dimension.CPU.ordinal(), impactVector.decreasesPressureMask());
+        Assert.assertEquals(
+                2, impactVector.countDimensions(ImpactVector.Impact.INCREASES_PRESSURE));
+        Assert.assertEquals(
+                1, impactVector.countDimensions(ImpactVector.Impact.DECREASES_PRESSURE));
+        Assert.assertEquals(
+                ImpactVector.Dimension.values().length - 3,
+                impactVector.countDimensions(ImpactVector.Impact.NO_IMPACT));
+
+        // Switching the impact of a dimension clears its other bit.
+        impactVector.decreasesPressure(ImpactVector.Dimension.HEAP);
+        Assert.assertEquals(
+                1 << ImpactVector.Dimension.DISK.ordinal(), impactVector.increasesPressureMask());
+        Assert.assertEquals(
+                ImpactVector.Impact.DECREASES_PRESSURE,
+                impactVector.getImpact(ImpactVector.Dimension.HEAP));
+    }
+
+    @Test
+    public void testEquals() {
+        ImpactVector a = new ImpactVector();
+        ImpactVector b = new ImpactVector();
+        a.increasesPressure(ImpactVector.Dimension.RAM);
+        Assert.assertNotEquals(a, b);
+        b.decreasesPressure(ImpactVector.Dimension.RAM);
+        Assert.assertNotEquals(a, b);
+        b.increasesPressure(ImpactVector.Dimension.RAM);
+        Assert.assertEquals(a, b);
+        Assert.assertEquals(a.hashCode(), b.hashCode());
+    }
 }
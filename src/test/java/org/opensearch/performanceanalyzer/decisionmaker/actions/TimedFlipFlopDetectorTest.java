@@ -7,6 +7,7 @@ package org.opensearch.performanceanalyzer.decisionmaker.actions;
 
 import static org.mockito.Mockito.when;
 
+import java.time.Clock;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
@@ -36,6 +37,21 @@ public class TimedFlipFlopDetectorTest {
         flipFlopDetector = new TimedFlipFlopDetector(2, TimeUnit.SECONDS);
     }
 
+    private static ImpactVector impactOnCpu(ImpactVector.Impact impact) {
+        ImpactVector vector = new ImpactVector();
+        switch (impact) {
+            case INCREASES_PRESSURE:
+                vector.increasesPressure(ImpactVector.Dimension.CPU);
+                break;
+            case DECREASES_PRESSURE:
+                vector.decreasesPressure(ImpactVector.Dimension.CPU);
+                break;
+            default:
+                vector.noImpact(ImpactVector.Dimension.CPU);
+        }
+        return vector;
+    }
+
     /**
      * Tests that a Impact.DECREASES_PRESSURE followed by a Impact.INCREASES_PRESSURE is the only
      * order of impacts that should be considered a flip flop
@@ -45,16 +61,16 @@ public class TimedFlipFlopDetectorTest {
         int flipFlopImpacts = 0;
         for (ImpactVector.Impact a : ImpactVector.Impact.values()) {
             for (ImpactVector.Impact b : ImpactVector.Impact.values()) {
-                if (flipFlopDetector.isFlipFlopImpact(a, b)) {
+                if (flipFlopDetector.isFlipFlopVector(impactOnCpu(a), impactOnCpu(b))) {
                     flipFlopImpacts++;
                 }
             }
         }
         Assert.assertEquals(1, flipFlopImpacts);
         Assert.assertTrue(
-                flipFlopDetector.isFlipFlopImpact(
-                        ImpactVector.Impact.DECREASES_PRESSURE,
-                        ImpactVector.Impact.INCREASES_PRESSURE));
+                flipFlopDetector.isFlipFlopVector(
+                        impactOnCpu(ImpactVector.Impact.DECREASES_PRESSURE),
+                        impactOnCpu(ImpactVector.Impact.INCREASES_PRESSURE)));
     }
 
     /** Tests that we can identify flip flops for any two impact vectors (u,v) */
@@ -160,4 +176,32 @@ public class TimedFlipFlopDetectorTest {
         // around because it was refreshed
         Assert.assertTrue(flipFlopDetector.isFlipFlop(flipflopAction));
     }
+
+    /** Recorded decreases are kept for at least the expiry and at most one bucket longer. */
+    @Test
+    public void testBucketExpiry() {
+        Clock clock = Mockito.mock(Clock.class);
+        TimedFlipFlopDetector detector =
+                new TimedFlipFlopDetector(
+                        TimedFlipFlopDetector.BUCKETS_PER_EXPIRY, TimeUnit.SECONDS, clock);
+        NodeKey nodeKey =
+                new NodeKey(new InstanceDetails.Id("A"), new InstanceDetails.Ip("127.0.0.1"));
+        Action action = mockAction(nodeKey, decreaseAll);
+        Action flipflopAction = mockAction(nodeKey, increaseAll);
+        long expiry = TimeUnit.SECONDS.toMillis(TimedFlipFlopDetector.BUCKETS_PER_EXPIRY);
+
+        when(clock.millis()).thenReturn(10_500L);
+        detector.recordAction(action);
+        when(clock.millis()).thenReturn(10_500L + expiry);
+        Assert.assertTrue(detector.isFlipFlop(flipflopAction));
+        when(clock.millis()).thenReturn(11_000L + expiry);
+        Assert.assertFalse(detector.isFlipFlop(flipflopAction));
+
+        // Once the ring wrapped around, the slot of the earlier bucket is reused.
+        when(clock.millis()).thenReturn(20_000L);
+        detector.recordAction(action);
+        when(clock.millis()).thenReturn(84_000L);
+        detector.recordAction(mockAction(nodeKey, noImpact));
+        Assert.assertFalse(detector.isFlipFlop(flipflopAction));
+    }
 }
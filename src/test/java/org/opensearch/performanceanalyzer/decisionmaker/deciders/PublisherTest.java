@@ -95,9 +95,10 @@ public class PublisherTest {
         publisher.addActionListener(testActionListener);
 
         publisher.compute(flowUnitOperationArgWrapper);
-        Mockito.verify(actionListener, Mockito.times(1)).actionPublished(action);
-        Mockito.verify(actionListener2, Mockito.times(1)).actionPublished(action);
-        Mockito.verify(testActionListener, Mockito.times(1)).actionPublished(action);
+        // The listeners are notified on the delivery threads of the dispatcher.
+        Mockito.verify(actionListener, Mockito.timeout(1000).times(1)).actionPublished(action);
+        Mockito.verify(actionListener2, Mockito.timeout(1000).times(1)).actionPublished(action);
+        Mockito.verify(testActionListener, Mockito.timeout(1000).times(1)).actionPublished(action);
     }
 
     public static class TestActionListener extends Plugin implements ActionListener {
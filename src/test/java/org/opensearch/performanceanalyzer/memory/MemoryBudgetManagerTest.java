@@ -0,0 +1,123 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.memory;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.stats.ServiceMetrics;
+
+public class MemoryBudgetManagerTest {
+    private MemoryMXBean memoryMXBean;
+    private MemoryBudgetManager manager;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        memoryMXBean = mock(MemoryMXBean.class);
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 10, 100, 100));
+        manager = new MemoryBudgetManager(memoryMXBean);
+    }
+
+    @Test
+    public void testShrinksOnlyComponentsOverBudget() {
+        long budget = MemoryComponent.RECEIVED_FLOW_UNITS.getBudgetBytes();
+        FakeComponent over = new FakeComponent(budget + 1);
+        FakeComponent within =
+                new FakeComponent(MemoryComponent.METRICS_QUERY_CACHE.getBudgetBytes());
+        manager.register(MemoryComponent.RECEIVED_FLOW_UNITS, over);
+        manager.register(MemoryComponent.METRICS_QUERY_CACHE, within);
+
+        manager.sample(ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR);
+
+        Assert.assertEquals(budget, over.shrunkTo);
+        Assert.assertEquals(-1, within.shrunkTo);
+    }
+
+    @Test
+    public void testHeapPressureHalvesOnHeapBudgets() {
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 90, 100, 100));
+        long flowUnitsBudget = MemoryComponent.RECEIVED_FLOW_UNITS.getBudgetBytes();
+        long snapshotsBudget = MemoryComponent.READER_SNAPSHOTS.getBudgetBytes();
+        FakeComponent flowUnits = new FakeComponent(flowUnitsBudget / 2 + 1);
+        FakeComponent snapshots = new FakeComponent(snapshotsBudget);
+        manager.register(MemoryComponent.RECEIVED_FLOW_UNITS, flowUnits);
+        manager.register(MemoryComponent.READER_SNAPSHOTS, snapshots);
+
+        manager.sample(ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR);
+
+        // The snapshots live outside of the heap, so their budget does not shrink.
+        Assert.assertEquals(flowUnitsBudget / 2, flowUnits.shrunkTo);
+        Assert.assertEquals(-1, snapshots.shrunkTo);
+    }
+
+    @Test
+    public void testRegisterReplacesAndUnregisterKeepsReplacement() {
+        long budget = MemoryComponent.RECEIVED_FLOW_UNITS.getBudgetBytes();
+        FakeComponent first = new FakeComponent(budget + 1);
+        FakeComponent second = new FakeComponent(budget + 1);
+        manager.register(MemoryComponent.RECEIVED_FLOW_UNITS, first);
+        manager.register(MemoryComponent.RECEIVED_FLOW_UNITS, second);
+        manager.unregister(MemoryComponent.RECEIVED_FLOW_UNITS, first);
+
+        manager.sample(ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR);
+
+        Assert.assertEquals(-1, first.shrunkTo);
+        Assert.assertEquals(budget, second.shrunkTo);
+
+        manager.unregister(MemoryComponent.RECEIVED_FLOW_UNITS, second);
+        second.shrunkTo = -1;
+        manager.sample(ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR);
+        Assert.assertEquals(-1, second.shrunkTo);
+    }
+
+    @Test
+    public void testFailingComponentDoesNotStopOthers() {
+        long budget = MemoryComponent.RECEIVED_FLOW_UNITS.getBudgetBytes();
+        FakeComponent over = new FakeComponent(budget + 1);
+        manager.register(
+                MemoryComponent.METRICS_QUERY_CACHE,
+                new MemoryBudgeted() {
+                    @Override
+                    public long estimateRetainedBytes() {
+                        throw new IllegalStateException("broken");
+                    }
+
+                    @Override
+                    public void shrinkTo(long budgetBytes) {}
+                });
+        manager.register(MemoryComponent.RECEIVED_FLOW_UNITS, over);
+
+        manager.sample(ServiceMetrics.PERIODIC_SAMPLE_AGGREGATOR);
+
+        Assert.assertEquals(budget, over.shrunkTo);
+    }
+
+    private static class FakeComponent implements MemoryBudgeted {
+        private final long retainedBytes;
+        private long shrunkTo = -1;
+
+        FakeComponent(long retainedBytes) {
+            this.retainedBytes = retainedBytes;
+        }
+
+        @Override
+        public long estimateRetainedBytes() {
+            return retainedBytes;
+        }
+
+        @Override
+        public void shrinkTo(long budgetBytes) {
+            shrunkTo = budgetBytes;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class LatencySketchTest {
+
+    @Test
+    public void testQuantilesAreWithinAccuracy() {
+        LatencySketch sketch = new LatencySketch();
+        for (int i = 1; i <= 1000; i++) {
+            sketch.add(i);
+        }
+        assertEquals(1000, sketch.getCount());
+        assertEquals(500.5 * 1000, sketch.getSum(), 0);
+        assertWithinAccuracy(500, sketch.getQuantile(0.5));
+        assertWithinAccuracy(900, sketch.getQuantile(0.9));
+        assertWithinAccuracy(990, sketch.getQuantile(0.99));
+        assertEquals(1, sketch.getQuantile(0), 0);
+        assertWithinAccuracy(1000, sketch.getQuantile(1));
+    }
+
+    @Test
+    public void testZeroLatencies() {
+        LatencySketch sketch = new LatencySketch();
+        sketch.add(0);
+        sketch.add(0);
+        sketch.add(10);
+        assertEquals(0, sketch.getQuantile(0.5), 0);
+        assertWithinAccuracy(10, sketch.getQuantile(1));
+    }
+
+    @Test
+    public void testEmptySketch() {
+        LatencySketch sketch = new LatencySketch();
+        assertTrue(Double.isNaN(sketch.getQuantile(0.5)));
+        assertEquals(0, LatencySketch.deserialize(sketch.serialize()).getCount());
+    }
+
+    @Test
+    public void testMergeMatchesSingleSketch() {
+        LatencySketch all = new LatencySketch();
+        LatencySketch low = new LatencySketch();
+        LatencySketch high = new LatencySketch();
+        for (int i = 1; i <= 1000; i++) {
+            all.add(i);
+            (i <= 800 ? low : high).add(i);
+        }
+        low.merge(high);
+        assertEquals(all.getCount(), low.getCount());
+        assertEquals(all.getQuantile(0.5), low.getQuantile(0.5), 0);
+        assertEquals(all.getQuantile(0.99), low.getQuantile(0.99), 0);
+    }
+
+    @Test
+    public void testSerializationRoundTrip() {
+        LatencySketch window1 = new LatencySketch();
+        LatencySketch window2 = new LatencySketch();
+        for (int i = 1; i <= 100; i++) {
+            window1.add(i);
+            window2.add(10 * i);
+        }
+        LatencySketch copy = LatencySketch.deserialize(window1.serialize());
+        assertEquals(window1.serialize(), copy.serialize());
+
+        LatencySketch merged =
+                LatencySketch.mergeAll(Arrays.asList(window1.serialize(), window2.serialize()));
+        assertEquals(200, merged.getCount());
+        assertEquals(1, merged.getMin(), 0);
+        assertEquals(1000, merged.getMax(), 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMergeDifferentAccuracy() {
+        new LatencySketch(0.01).merge(new LatencySketch(0.02));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDeserializeGarbage() {
+        LatencySketch.deserialize("not a sketch");
+    }
+
+    private static void assertWithinAccuracy(double expected, double actual) {
+        assertEquals(expected, actual, expected * LatencySketch.DEFAULT_RELATIVE_ACCURACY + 1e-9);
+    }
+}
@@ -9,6 +9,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import com.google.common.collect.ImmutableSet;
 import java.io.File;
@@ -235,6 +236,51 @@ public class MetricsDBTests {
         assertEquals(7D, cpu, 0);
     }
 
+    @Test
+    public void testQuantileAggregation() throws Exception {
+        List<String> columns = Arrays.asList("shard", "index");
+        db.createMetric(Metric.cpu(10D), columns);
+        putCPUMetric(db, 10D, "1", "ac-test");
+        db.createSketchMetric("latency", columns);
+        BatchBindStep handle = db.startBatchPutSketch("latency", columns);
+        handle.bind("1", "ac-test", sketchOf(1, 100).serialize());
+        handle.bind("1", "ac-test", sketchOf(101, 200).serialize());
+        handle.bind("2", "ac-test", sketchOf(1, 10).serialize());
+        handle.execute();
+
+        Result<Record> res =
+                db.queryMetric(
+                        Arrays.asList("cpu", "latency"),
+                        Arrays.asList("sum", "p50"),
+                        Arrays.asList("shard"));
+        assertEquals(2, res.size());
+        for (Record r : res) {
+            if (r.get("shard").equals("1")) {
+                assertEquals(10D, Double.parseDouble(r.get("cpu").toString()), 0);
+                // The sketches of both rows of the shard are merged.
+                assertEquals(100D, Double.parseDouble(r.get("latency").toString()), 1);
+            } else {
+                assertNull(r.get("cpu"));
+                assertEquals(5D, Double.parseDouble(r.get("latency").toString()), 0.1);
+            }
+        }
+
+        assertNull(
+                db.queryMetric(
+                        Arrays.asList("pseudolatency"),
+                        Arrays.asList("p99"),
+                        Arrays.asList("shard")));
+        db.close();
+    }
+
+    private static LatencySketch sketchOf(int from, int to) {
+        LatencySketch sketch = new LatencySketch();
+        for (int i = from; i <= to; i++) {
+            sketch.add(i);
+        }
+        return sketch;
+    }
+
     private void putCPUMetric(MetricsDB db, Double val, String shard, String index) {
         Dimensions dimensions = new Dimensions();
         dimensions.put("shard", shard);
@@ -374,6 +420,66 @@ public class MetricsDBTests {
         MetricsDB existing = MetricsDB.fetchExisting(timestamp + 1);
     }
 
+    @Test
+    public void testFetchExisting_isReadOnly() throws Exception {
+        db.createMetric(Metric.cpu(10D), Arrays.asList("shard", "index"));
+        putCPUMetric(db, 10D, "1", "ac-test");
+        db.commit();
+
+        MetricsDB existing = MetricsDB.fetchExisting(timestamp);
+        try {
+            assertTrue(existing.isReadOnly());
+            assertTrue(existing.metricExists("cpu"));
+            assertEquals(1, existing.queryMetric("cpu").size());
+            existing.commit();
+            fail("A read only MetricsDB should not commit");
+        } catch (IllegalStateException e) {
+            // expected
+        } finally {
+            existing.remove();
+        }
+    }
+
+    @Test
+    public void testMakeReadOnly() throws Exception {
+        List<String> columns = Arrays.asList("shard", "index");
+        db.createMetric(Metric.cpu(10D), columns);
+        putCPUMetric(db, 10D, "1", "ac-test");
+        putCPUMetric(db, 4D, "2", "ac-test");
+        db.commit();
+        assertFalse(db.isReadOnly());
+
+        db.makeReadOnly();
+        assertTrue(db.isReadOnly());
+        Result<Record> res =
+                db.queryMetric(Arrays.asList("cpu"), Arrays.asList("sum"), Arrays.asList());
+        assertEquals(14D, Double.parseDouble(res.get(0).get("cpu").toString()), 0);
+        assertEquals(2, db.queryMetric("cpu", columns, 10).size());
+        assertEquals(2, (int) db.read(context -> context.fetchCount(context.selectFrom("cpu"))));
+    }
+
+    @Test
+    public void testReadPoolKeepsAtMostItsSize() throws Exception {
+        db.createMetric(Metric.cpu(10D), Arrays.asList("shard", "index"));
+        db.commit();
+
+        MetricsDBReadPool pool = new MetricsDBReadPool(db.getDBFilePath(), 1);
+        MetricsDBReadPool.Reader first = pool.borrow();
+        MetricsDBReadPool.Reader second = pool.borrow();
+        assertTrue(first != second);
+        assertEquals(0, first.getContext().fetchCount(first.getContext().selectFrom("cpu")));
+
+        pool.release(first);
+        pool.release(second);
+        assertEquals(1, pool.getIdleCount());
+        MetricsDBReadPool.Reader reused = pool.borrow();
+        assertTrue(reused == first);
+
+        pool.close();
+        pool.release(reused);
+        assertEquals(0, pool.getIdleCount());
+    }
+
     @Test
     public void testQueryMetric_invalidMetric() {
         List<String> columns = Arrays.asList("shard", "index");
@@ -0,0 +1,146 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+
+public class MetricsQueryCacheTest {
+    private static final List<String> METRICS = Arrays.asList("CPU_Utilization", "Latency");
+    private static final List<String> AGGS = Arrays.asList("sum", "avg");
+    private static final List<String> DIMS = Collections.singletonList("ShardID");
+
+    private MetricsQueryCache cache;
+    private MetricsDB db;
+
+    @Before
+    public void setup() throws Exception {
+        PerformanceAnalyzerApp.initAggregators();
+        cache = new MetricsQueryCache(2, 5000L);
+        db = mock(MetricsDB.class);
+        when(db.queryMetric(anyList(), anyList(), anyList())).thenReturn(null);
+    }
+
+    @Test
+    public void testResponseIsCachedPerWindow() throws Exception {
+        String response = cache.getResponse(db, 5000L, METRICS, AGGS, DIMS);
+        Assert.assertEquals("{\"timestamp\": 5000, \"data\": {}}", response);
+        Assert.assertEquals(
+                response,
+                cache.getResponse(db, 5000L, METRICS, AGGS, Collections.singletonList(" ShardID")));
+        verify(db, times(1)).queryMetric(anyList(), anyList(), anyList());
+
+        // A new window drops the entries of the previous one.
+        cache.getResponse(db, 10000L, METRICS, AGGS, DIMS);
+        Assert.assertEquals(1, cache.size());
+        verify(db, times(2)).queryMetric(anyList(), anyList(), anyList());
+
+        // A late request for an older window is not cached.
+        cache.getResponse(db, 5000L, METRICS, AGGS, DIMS);
+        Assert.assertEquals(1, cache.size());
+        verify(db, times(3)).queryMetric(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    public void testCacheIsBounded() throws Exception {
+        cache.getResponse(db, 5000L, METRICS, AGGS, DIMS);
+        cache.getResponse(db, 5000L, METRICS, AGGS, Collections.emptyList());
+        cache.getResponse(db, 5000L, Collections.singletonList("Latency"), AGGS, DIMS);
+        Assert.assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testFailureIsNotCached() throws Exception {
+        when(db.queryMetric(anyList(), anyList(), anyList()))
+                .thenThrow(new IllegalStateException("boom"))
+                .thenReturn(null);
+        try {
+            cache.getResponse(db, 5000L, METRICS, AGGS, DIMS);
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            Assert.assertEquals("boom", e.getMessage());
+        }
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(
+                "{\"timestamp\": 5000, \"data\": {}}",
+                cache.getResponse(db, 5000L, METRICS, AGGS, DIMS));
+    }
+
+    @Test
+    public void testIdenticalQueriesAreCoalesced() throws Exception {
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(db.queryMetric(anyList(), anyList(), anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            queryStarted.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return null;
+                        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first =
+                    executor.submit(() -> cache.getResponse(db, 5000L, METRICS, AGGS, DIMS));
+            Assert.assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            Future<String> second =
+                    executor.submit(() -> cache.getResponse(db, 5000L, METRICS, AGGS, DIMS));
+            release.countDown();
+            Assert.assertEquals(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(db, times(1)).queryMetric(anyList(), anyList(), anyList());
+    }
+
+    @Test
+    public void testStuckQueryIsEvicted() throws Exception {
+        cache = new MetricsQueryCache(2, 100L);
+        CountDownLatch queryStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(db.queryMetric(anyList(), anyList(), anyList()))
+                .thenAnswer(
+                        invocation -> {
+                            queryStarted.countDown();
+                            release.await(5, TimeUnit.SECONDS);
+                            return null;
+                        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> cache.getResponse(db, 5000L, METRICS, AGGS, DIMS));
+            Assert.assertTrue(queryStarted.await(5, TimeUnit.SECONDS));
+            try {
+                cache.getResponse(db, 5000L, METRICS, AGGS, DIMS);
+                Assert.fail();
+            } catch (TimeoutException e) {
+                // expected
+            }
+            // The next request does not wait behind the stuck query.
+            Assert.assertEquals(0, cache.size());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.metricsdb;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsRetentionStoreTest {
+    private static final String CPU = "CPU_Utilization";
+    private static final List<String> DIMS = Collections.singletonList("ShardID");
+
+    private MetricsRetentionStore store;
+
+    @Before
+    public void setup() {
+        // 2 minutes at 1 minute.
+        store = new MetricsRetentionStore("60:2");
+    }
+
+    private static Map<String, MetricsRetentionStore.Table> window(double... shardValues) {
+        MetricsRetentionStore.Table table = new MetricsRetentionStore.Table(DIMS);
+        for (int i = 0; i < shardValues.length; i++) {
+            double value = shardValues[i];
+            table.merge(
+                    Collections.singletonList(String.valueOf(i)),
+                    new MetricsRetentionStore.Point(value, value, value, value));
+        }
+        return Collections.singletonMap(CPU, table);
+    }
+
+    private NavigableMap<Long, Result<Record>> query(
+            String agg, List<String> dims, long start, long end, long step) {
+        return store.query(
+                Collections.singletonList(CPU),
+                Collections.singletonList(agg),
+                dims,
+                start,
+                end,
+                step);
+    }
+
+    @Test
+    public void testInvalidResolutions() {
+        for (String resolutions : Arrays.asList("5", "7:10", "60:0", "0:10", "a:b")) {
+            try {
+                new MetricsRetentionStore(resolutions);
+                Assert.fail(resolutions);
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testWindowsMergeInSteps() {
+        store = new MetricsRetentionStore("5:10,60:60");
+        store.add(60000L, window(2, 10));
+        store.add(65000L, window(4));
+        store.add(125000L, window(8));
+
+        // At 5 seconds, each window is a step.
+        NavigableMap<Long, Result<Record>> rows = query(MetricsDB.SUM, DIMS, 60000L, 70000L, 5000L);
+        Assert.assertEquals(Arrays.asList(60000L, 65000L), Arrays.asList(rows.keySet().toArray()));
+        Assert.assertEquals(2, rows.get(60000L).size());
+        Assert.assertEquals(4d, rows.get(65000L).get(0).get(CPU, Double.class), 0);
+
+        // At 1 minute, the sums are per window of the step, a shard missing from one counting as 0.
+        rows = query(MetricsDB.SUM, DIMS, 60000L, 180000L, 60000L);
+        Assert.assertEquals(2, rows.size());
+        Result<Record> minute = rows.get(60000L);
+        Assert.assertEquals("0", minute.get(0).get("ShardID"));
+        Assert.assertEquals(3d, minute.get(0).get(CPU, Double.class), 0);
+        Assert.assertEquals(5d, minute.get(1).get(CPU, Double.class), 0);
+        Assert.assertEquals(8d, rows.get(120000L).get(0).get(CPU, Double.class), 0);
+
+        // Without dimensions the shards roll up like MetricsDB does.
+        rows = query(MetricsDB.SUM, Collections.emptyList(), 60000L, 120000L, 60000L);
+        Assert.assertEquals(8d, rows.get(60000L).get(0).get(CPU, Double.class), 0);
+        rows = query(MetricsDB.MAX, Collections.emptyList(), 60000L, 120000L, 60000L);
+        Assert.assertEquals(10d, rows.get(60000L).get(0).get(CPU, Double.class), 0);
+        rows = query(MetricsDB.MIN, Collections.emptyList(), 60000L, 120000L, 60000L);
+        Assert.assertEquals(2d, rows.get(60000L).get(0).get(CPU, Double.class), 0);
+        rows = query(MetricsDB.AVG, Collections.emptyList(), 60000L, 120000L, 60000L);
+        Assert.assertEquals(6.5d, rows.get(60000L).get(0).get(CPU, Double.class), 0);
+    }
+
+    @Test
+    public void testSumsCountMissingWindowsAsZero() {
+        store = new MetricsRetentionStore("5:10,60:60");
+        store.add(0L, window(1, 6));
+        store.add(5000L, window(3));
+        store.add(10000L, window(5));
+
+        // Shard 1 is only in the first of the 3 windows of the minute.
+        NavigableMap<Long, Result<Record>> rows = query(MetricsDB.SUM, DIMS, 0L, 60000L, 60000L);
+        Result<Record> minute = rows.get(0L);
+        Assert.assertEquals(3d, minute.get(0).get(CPU, Double.class), 0);
+        Assert.assertEquals(2d, minute.get(1).get(CPU, Double.class), 0);
+        rows = query(MetricsDB.SUM, Collections.emptyList(), 0L, 60000L, 60000L);
+        Assert.assertEquals(5d, rows.get(0L).get(0).get(CPU, Double.class), 0);
+
+        // The avg is the mean over the windows the shard was seen in.
+        rows = query(MetricsDB.AVG, DIMS, 0L, 60000L, 60000L);
+        Assert.assertEquals(6d, rows.get(0L).get(1).get(CPU, Double.class), 0);
+    }
+
+    @Test
+    public void testRangesAreBoundedByTheHistory() {
+        store.add(60000L, window(2));
+
+        // The range stops at the retention past its start, however far it ends.
+        NavigableMap<Long, Result<Record>> rows =
+                query(MetricsDB.MAX, DIMS, 60000L, Long.MAX_VALUE, 60000L);
+        Assert.assertEquals(Collections.singleton(60000L), rows.keySet());
+        rows = query(MetricsDB.MAX, DIMS, 60000L, Long.MAX_VALUE, 5000L);
+        Assert.assertTrue(rows.isEmpty());
+        Assert.assertTrue(
+                query(MetricsDB.MAX, DIMS, Long.MAX_VALUE, Long.MAX_VALUE, 60000L).isEmpty());
+
+        for (long step : new long[] {0L, -60000L}) {
+            try {
+                query(MetricsDB.MAX, DIMS, 60000L, 120000L, step);
+                Assert.fail(String.valueOf(step));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testCheckRange() {
+        long now = 600000L;
+        List<String> metrics = Collections.singletonList(CPU);
+        List<String> sum = Collections.singletonList(MetricsDB.SUM);
+        MetricsRetentionStore.TimeRange range =
+                store.checkRange(metrics, sum, 540000L, 660000L, 60000L, now);
+        Assert.assertEquals(540000L, range.getStartTime());
+        Assert.assertEquals(now, range.getEndTime());
+        Assert.assertEquals(60000L, range.getStepMillis());
+
+        long[][] invalid = {
+            {540000L, 600000L, 0L},
+            {540000L, 600000L, 7000L},
+            {600000L, 540000L, 60000L},
+            {540000L, Long.MAX_VALUE, 60000L},
+            {360000L, 600000L, 60000L},
+            {540000L, 600000L, 5000L}
+        };
+        for (long[] times : invalid) {
+            try {
+                store.checkRange(metrics, sum, times[0], times[1], times[2], now);
+                Assert.fail(Arrays.toString(times));
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+
+        List<List<String>> invalidAggregations =
+                Arrays.asList(
+                        Collections.singletonList(MetricsDB.P99),
+                        Collections.singletonList("median"),
+                        Arrays.asList(MetricsDB.SUM, MetricsDB.MAX));
+        for (List<String> aggregations : invalidAggregations) {
+            try {
+                store.checkRange(metrics, aggregations, 540000L, 600000L, 60000L, now);
+                Assert.fail(aggregations.toString());
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    @Test
+    public void testRingWrapsAround() {
+        store.add(0L, window(1));
+        store.add(60000L, window(2));
+        store.add(120000L, window(3));
+        // An older window than the ring is skipped.
+        store.add(5000L, window(100));
+
+        NavigableMap<Long, Result<Record>> rows = query(MetricsDB.MAX, DIMS, 0L, 180000L, 60000L);
+        Assert.assertEquals(Collections.singleton(60000L), rows.keySet());
+        Assert.assertEquals(2d, rows.get(60000L).get(0).get(CPU, Double.class), 0);
+        rows = query(MetricsDB.MAX, DIMS, 60000L, 180000L, 60000L);
+        Assert.assertEquals(Arrays.asList(60000L, 120000L), Arrays.asList(rows.keySet().toArray()));
+    }
+
+    @Test
+    public void testShrinkDropsOldestBuckets() {
+        store.add(0L, window(1, 2));
+        store.add(60000L, window(3, 4));
+        long retained = store.estimateRetainedBytes();
+        Assert.assertTrue(retained > 0);
+
+        store.shrinkTo(retained / 2);
+        Assert.assertTrue(store.estimateRetainedBytes() <= retained / 2);
+        NavigableMap<Long, Result<Record>> rows = query(MetricsDB.MAX, DIMS, 0L, 120000L, 60000L);
+        Assert.assertEquals(Collections.singleton(60000L), rows.keySet());
+    }
+
+    @Test
+    public void testResponse() {
+        store.add(60000L, window(2));
+        Assert.assertEquals(60000L, store.getStepMillis(60000L, 90000L));
+        Assert.assertEquals(-1L, store.getStepMillis(0L, 300000L));
+        Assert.assertEquals(120000L, store.getRetentionMillis(120000L));
+
+        String response =
+                store.getResponse(
+                        Collections.singletonList(CPU),
+                        Collections.singletonList(MetricsDB.SUM),
+                        DIMS,
+                        60000L,
+                        120000L,
+                        60000L);
+        Assert.assertTrue(
+                response, response.startsWith("{\"step\": 60000, \"data\": {\"60000\": "));
+    }
+
+    @Test
+    public void testMetricsWithoutHistoryAreReported() {
+        String heap = "Heap_Used";
+        store.add(60000L, window(2));
+        Assert.assertEquals(
+                Collections.singletonList(heap),
+                store.getMetricsWithoutHistory(Arrays.asList(CPU, heap, heap)));
+
+        String response =
+                store.getResponse(
+                        Arrays.asList(CPU, heap),
+                        Arrays.asList(MetricsDB.SUM, MetricsDB.SUM),
+                        DIMS,
+                        60000L,
+                        120000L,
+                        60000L);
+        Assert.assertTrue(response, response.startsWith("{\"error\": "));
+        Assert.assertTrue(response, response.contains(heap));
+        Assert.assertFalse(response, response.contains(CPU));
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.net;
+
+import io.grpc.ConnectivityState;
+import io.grpc.ManagedChannel;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+public class GRPCConnectionManagerTest {
+    private static final InstanceDetails REMOTE_HOST =
+            new InstanceDetails(
+                    new InstanceDetails.Id("node1"), new InstanceDetails.Ip("127.0.0.1"), 9650);
+
+    private GRPCConnectionManager connectionManager;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        connectionManager = new GRPCConnectionManager(false);
+    }
+
+    @After
+    public void tearDown() {
+        connectionManager.shutdown();
+    }
+
+    @Test
+    public void testChannelIsBuiltOnce() {
+        Assert.assertNull(connectionManager.getChannelState(REMOTE_HOST.getInstanceId()));
+
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+
+        Assert.assertEquals(
+                ConnectivityState.IDLE,
+                connectionManager.getChannelState(REMOTE_HOST.getInstanceId()));
+        Assert.assertEquals(1, connectionManager.getChannelStates().size());
+        Assert.assertEquals(0, connectionManager.getReconnectCount(REMOTE_HOST.getInstanceId()));
+    }
+
+    @Test
+    public void testRebuiltChannelIsCounted() {
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        connectionManager.terminateConnection(REMOTE_HOST.getInstanceId());
+        Assert.assertNull(connectionManager.getChannelState(REMOTE_HOST.getInstanceId()));
+
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        Assert.assertEquals(1, connectionManager.getReconnectCount(REMOTE_HOST.getInstanceId()));
+    }
+
+    @Test
+    public void testChannelsAreRebuiltAfterShutdown() {
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        connectionManager.shutdown();
+        Assert.assertTrue(connectionManager.getChannelStates().isEmpty());
+
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        Assert.assertEquals(
+                ConnectivityState.IDLE,
+                connectionManager.getChannelState(REMOTE_HOST.getInstanceId()));
+    }
+
+    @Test
+    public void testConcurrentCallersShareOneChannel() throws Exception {
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            Set<Future<?>> futures = new HashSet<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                        executor.submit(
+                                () -> {
+                                    start.await();
+                                    return connectionManager.getClientStubForHost(REMOTE_HOST);
+                                }));
+            }
+            start.countDown();
+            Set<Object> stubs = new HashSet<>();
+            for (Future<?> future : futures) {
+                stubs.add(future.get());
+            }
+            Assert.assertEquals(1, stubs.size());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Assert.assertEquals(1, connectionManager.getPerHostChannelMap().size());
+        Assert.assertEquals(0, connectionManager.getReconnectCount(REMOTE_HOST.getInstanceId()));
+    }
+
+    @Test
+    public void testHostsThatLeftAreForgotten() {
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        ManagedChannel channel =
+                connectionManager.getPerHostChannelMap().get(REMOTE_HOST.getInstanceId()).get();
+        connectionManager.terminateConnection(REMOTE_HOST.getInstanceId());
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        Assert.assertTrue(channel.isShutdown());
+        Assert.assertEquals(1, connectionManager.getReconnectCount(REMOTE_HOST.getInstanceId()));
+
+        connectionManager.retainHosts(
+                Collections.singleton(REMOTE_HOST.getInstanceId().toString()));
+        Assert.assertEquals(1, connectionManager.getChannelStates().size());
+
+        connectionManager.retainHosts(Collections.emptySet());
+        Assert.assertTrue(connectionManager.getChannelStates().isEmpty());
+        Assert.assertTrue(connectionManager.getPerHostClientStubMap().isEmpty());
+        Assert.assertEquals(0, connectionManager.getReconnectCount(REMOTE_HOST.getInstanceId()));
+    }
+
+    @Test
+    public void testFailedBuildLeavesNoChannel() {
+        InstanceDetails invalidHost =
+                new InstanceDetails(
+                        new InstanceDetails.Id("node2"), new InstanceDetails.Ip("127.0.0.2"), -1);
+        try {
+            connectionManager.getClientStubForHost(invalidHost);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+
+        Assert.assertFalse(
+                connectionManager.getPerHostChannelMap().containsKey(invalidHost.getInstanceId()));
+        connectionManager.getClientStubForHost(REMOTE_HOST);
+        Assert.assertEquals(1, connectionManager.getPerHostChannelMap().size());
+    }
+}
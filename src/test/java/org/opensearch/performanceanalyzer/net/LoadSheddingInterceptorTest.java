@@ -0,0 +1,162 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.net;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.grpc.Metadata;
+import io.grpc.ServerCall;
+import io.grpc.ServerCallHandler;
+import io.grpc.Status;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.grpc.InterNodeRpcServiceGrpc;
+import org.opensearch.performanceanalyzer.grpc.PublishResponse;
+import org.opensearch.performanceanalyzer.threads.BoundedLaneExecutor;
+import org.opensearch.performanceanalyzer.threads.ServerLane;
+
+public class LoadSheddingInterceptorTest {
+    private MemoryMXBean memoryMXBean;
+    private BoundedLaneExecutor dataPlaneExecutor;
+    private BoundedLaneExecutor queryExecutor;
+    private LoadSheddingInterceptor interceptor;
+
+    private ServerCall<FlowUnitMessage, PublishResponse> call;
+    private ServerCallHandler<FlowUnitMessage, PublishResponse> next;
+    private ServerCall.Listener<FlowUnitMessage> delegate;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        memoryMXBean = mock(MemoryMXBean.class);
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 10, 100, 100));
+        dataPlaneExecutor =
+                new BoundedLaneExecutor(ServerLane.RPC_DATA_PLANE, 1, 1, 0.5, memoryMXBean);
+        queryExecutor = new BoundedLaneExecutor(ServerLane.RPC_QUERY, 1, 1, 0.5, memoryMXBean);
+        interceptor = new LoadSheddingInterceptor(dataPlaneExecutor, queryExecutor);
+
+        call = mock(ServerCall.class);
+        when(call.getMethodDescriptor()).thenReturn(InterNodeRpcServiceGrpc.getPublishMethod());
+        next = mock(ServerCallHandler.class);
+        delegate = mock(ServerCall.Listener.class);
+        when(next.startCall(any(), any())).thenReturn(delegate);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        for (BoundedLaneExecutor executor :
+                new BoundedLaneExecutor[] {dataPlaneExecutor, queryExecutor}) {
+            executor.shutdownNow();
+            executor.awaitTermination(1, TimeUnit.SECONDS);
+        }
+    }
+
+    private CountDownLatch blockLane(BoundedLaneExecutor executor) throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(
+                () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        Assert.assertTrue(running.await(1, TimeUnit.SECONDS));
+        executor.execute(() -> {});
+        Assert.assertTrue(executor.isSaturated());
+        return release;
+    }
+
+    private Status closedWith() {
+        ArgumentCaptor<Status> status = ArgumentCaptor.forClass(Status.class);
+        verify(call).close(status.capture(), any(Metadata.class));
+        return status.getValue();
+    }
+
+    @Test
+    public void testMethodsAreRoutedToTheirLane() {
+        Assert.assertSame(
+                queryExecutor, interceptor.laneFor(InterNodeRpcServiceGrpc.getGetMetricsMethod()));
+        Assert.assertSame(
+                dataPlaneExecutor, interceptor.laneFor(InterNodeRpcServiceGrpc.getPublishMethod()));
+        Assert.assertSame(
+                dataPlaneExecutor,
+                interceptor.laneFor(InterNodeRpcServiceGrpc.getSubscribeMethod()));
+        Assert.assertSame(dataPlaneExecutor, interceptor.getExecutor(call, new Metadata()));
+    }
+
+    @Test
+    public void testCallIsForwardedWhenTheLaneHasRoom() {
+        ServerCall.Listener<FlowUnitMessage> listener =
+                interceptor.interceptCall(call, new Metadata(), next);
+        FlowUnitMessage message = FlowUnitMessage.getDefaultInstance();
+        listener.onMessage(message);
+        listener.onHalfClose();
+
+        verify(delegate).onMessage(message);
+        verify(delegate).onHalfClose();
+        verify(call, never()).close(any(), any());
+    }
+
+    @Test
+    public void testCallIsRejectedWhenTheLaneIsSaturated() throws InterruptedException {
+        CountDownLatch release = blockLane(dataPlaneExecutor);
+
+        interceptor.interceptCall(call, new Metadata(), next);
+
+        Assert.assertEquals(Status.Code.UNAVAILABLE, closedWith().getCode());
+        verify(next, never()).startCall(any(), any());
+        release.countDown();
+    }
+
+    @Test
+    public void testCallIsRejectedWhenTheHeapIsFilling() {
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 60, 100, 100));
+
+        interceptor.interceptCall(call, new Metadata(), next);
+
+        Assert.assertEquals(Status.Code.UNAVAILABLE, closedWith().getCode());
+        verify(next, never()).startCall(any(), any());
+    }
+
+    @Test
+    public void testShedCallbacksCloseTheCall() throws InterruptedException {
+        ServerCall.Listener<FlowUnitMessage> listener =
+                interceptor.interceptCall(call, new Metadata(), next);
+        CountDownLatch release = blockLane(dataPlaneExecutor);
+
+        // The callback does not fit in the lane and runs on its shedding thread.
+        CountDownLatch shed = new CountDownLatch(1);
+        dataPlaneExecutor.execute(
+                () -> {
+                    listener.onMessage(FlowUnitMessage.getDefaultInstance());
+                    listener.onHalfClose();
+                    shed.countDown();
+                });
+        Assert.assertTrue(shed.await(1, TimeUnit.SECONDS));
+
+        Assert.assertEquals(Status.Code.RESOURCE_EXHAUSTED, closedWith().getCode());
+        verify(delegate, never()).onMessage(any());
+        verify(delegate, never()).onHalfClose();
+        release.countDown();
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RcaConfWatcherTest {
+    private Path dir;
+    private RcaConfWatcher watcher;
+
+    @Before
+    public void init() throws IOException {
+        dir = Files.createTempDirectory("rca-conf-watcher");
+        watcher = new RcaConfWatcher();
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        watcher.close();
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    @Test
+    public void testChangesAreReportedOnce() throws IOException {
+        Path conf = dir.resolve("rca.conf");
+        Path otherConf = dir.resolve("rca_cluster_manager.conf");
+        Files.write(conf, "{}".getBytes(StandardCharsets.UTF_8));
+        Files.write(otherConf, "{}".getBytes(StandardCharsets.UTF_8));
+
+        // The first call for a file always asks for a read.
+        Assert.assertTrue(watcher.hasChanged(conf));
+        Assert.assertFalse(watcher.hasChanged(conf));
+
+        // Changes to other files in the directory don't matter.
+        Files.write(otherConf, "{\"tags\": {}}".getBytes(StandardCharsets.UTF_8));
+        Assert.assertFalse(watcher.hasChanged(conf));
+
+        Files.write(conf, "{\"tags\": {}}".getBytes(StandardCharsets.UTF_8));
+        Assert.assertTrue(conf.toFile().setLastModified(System.currentTimeMillis() + 1000));
+        Assert.assertTrue(watcher.hasChanged(conf));
+
+        // Switching to the conf of another role.
+        Assert.assertTrue(watcher.hasChanged(otherConf));
+        Assert.assertFalse(watcher.hasChanged(otherConf));
+    }
+}
@@ -5,6 +5,11 @@
 
 package org.opensearch.performanceanalyzer.rca.framework.api.aggregators;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.util.concurrent.TimeUnit;
 import org.junit.Assert;
 import org.junit.Test;
@@ -39,4 +44,29 @@ public class SlidingWindowTest {
         slidingWindow.next(new SlidingWindowData(TimeUnit.SECONDS.toMillis(4), 7));
         Assert.assertEquals(8.333, slidingWindow.readAvg(TimeUnit.SECONDS), 0.1);
     }
+
+    @Test
+    public void testCheckpoint() throws IOException {
+        SlidingWindow<SlidingWindowData> slidingWindow = new SlidingWindow<>(3, TimeUnit.SECONDS);
+        slidingWindow.next(new SlidingWindowData(0, 1));
+        slidingWindow.next(new SlidingWindowData(TimeUnit.SECONDS.toMillis(1), 10));
+        slidingWindow.next(new SlidingWindowData(TimeUnit.SECONDS.toMillis(2), 3));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        slidingWindow.writeCheckpoint(new DataOutputStream(bytes));
+
+        SlidingWindow<SlidingWindowData> restored = new SlidingWindow<>(3, TimeUnit.SECONDS);
+        restored.next(new SlidingWindowData(0, 100));
+        restored.readCheckpoint(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+                SlidingWindowData::new);
+        Assert.assertEquals(3, restored.size());
+        Assert.assertEquals(14, restored.readSum(), 0.1);
+        Assert.assertEquals(7, restored.readAvg(TimeUnit.SECONDS), 0.1);
+
+        // The restored entries expire like the ones added live.
+        restored.next(new SlidingWindowData(TimeUnit.SECONDS.toMillis(5), 5));
+        Assert.assertEquals(2, restored.size());
+        Assert.assertEquals(8, restored.readSum(), 0.1);
+    }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.core;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.nio.file.Paths;
+import java.util.EnumSet;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
+
+public class RcaConfDiffTest {
+    private ObjectMapper mapper;
+    private ObjectNode baseJson;
+    private RcaConf baseConf;
+
+    @Before
+    public void init() throws Exception {
+        mapper = new ObjectMapper();
+        mapper.enable(JsonParser.Feature.ALLOW_COMMENTS);
+        baseJson =
+                (ObjectNode)
+                        mapper.readTree(Paths.get(RcaConsts.TEST_CONFIG_PATH, "rca.conf").toFile());
+        baseConf = confOf(baseJson);
+    }
+
+    private RcaConf confOf(ObjectNode json) throws Exception {
+        RcaConf conf = new RcaConf();
+        conf.readConfigFromString(mapper.writeValueAsString(json));
+        return conf;
+    }
+
+    @Test
+    public void testSameConf() throws Exception {
+        Assert.assertTrue(RcaConfDiff.between(baseConf, confOf(baseJson.deepCopy())).isEmpty());
+    }
+
+    @Test
+    public void testMissingConf() {
+        Assert.assertEquals(
+                EnumSet.allOf(RcaConfDiff.Section.class),
+                RcaConfDiff.between(null, baseConf).getChangedSections());
+    }
+
+    @Test
+    public void testChangedSections() throws Exception {
+        ObjectNode json = baseJson.deepCopy();
+        json.putArray("muted-rcas").add("HighHeapUsageClusterRca");
+        ((ObjectNode) json.get("rca-config-settings").get("high-heap-usage-old-gen-rca"))
+                .put("top-k", 5);
+        RcaConfDiff diff = RcaConfDiff.between(baseConf, confOf(json));
+        Assert.assertEquals(
+                EnumSet.of(RcaConfDiff.Section.MUTES, RcaConfDiff.Section.NODE_SETTINGS),
+                diff.getChangedSections());
+
+        json = baseJson.deepCopy();
+        ((ObjectNode) json.get("tags")).put("locus", "cluster_manager-node");
+        json.put("network-queue-length", 400);
+        diff = RcaConfDiff.between(baseConf, confOf(json));
+        Assert.assertEquals(
+                EnumSet.of(RcaConfDiff.Section.TAGS, RcaConfDiff.Section.RUNTIME),
+                diff.getChangedSections());
+    }
+}
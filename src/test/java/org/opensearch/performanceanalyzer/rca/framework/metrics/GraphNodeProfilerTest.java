@@ -0,0 +1,90 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.framework.metrics;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+
+public class GraphNodeProfilerTest {
+    private GraphNodeProfiler profiler;
+
+    @Before
+    public void setUp() {
+        PerformanceAnalyzerApp.initAggregators();
+        profiler = new GraphNodeProfiler(ManagementFactory.getThreadMXBean());
+    }
+
+    @Test
+    public void testPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            profiler.record("node", TimeUnit.MICROSECONDS.toNanos(i), 0, i * 10L);
+        }
+        JsonObject node = profiler.toJson(0).getAsJsonArray("graphNodes").get(0).getAsJsonObject();
+        Assert.assertEquals("node", node.get("name").getAsString());
+        Assert.assertEquals(100, node.get("samples").getAsInt());
+
+        JsonObject wall = node.getAsJsonObject("wallMicros");
+        Assert.assertEquals(50, wall.get("p50").getAsLong());
+        Assert.assertEquals(90, wall.get("p90").getAsLong());
+        Assert.assertEquals(99, wall.get("p99").getAsLong());
+        Assert.assertEquals(100, wall.get("max").getAsLong());
+        Assert.assertEquals(1000, node.getAsJsonObject("allocatedBytes").get("max").getAsLong());
+    }
+
+    @Test
+    public void testWindowKeepsLatestSamples() {
+        for (int i = 0; i < GraphNodeProfiler.WINDOW_SAMPLES; i++) {
+            profiler.record("node", TimeUnit.MICROSECONDS.toNanos(1000), 0, 0);
+        }
+        for (int i = 0; i < GraphNodeProfiler.WINDOW_SAMPLES; i++) {
+            profiler.record("node", TimeUnit.MICROSECONDS.toNanos(1), 0, 0);
+        }
+        JsonObject node = profiler.toJson(0).getAsJsonArray("graphNodes").get(0).getAsJsonObject();
+        Assert.assertEquals(GraphNodeProfiler.WINDOW_SAMPLES, node.get("samples").getAsInt());
+        Assert.assertEquals(1, node.getAsJsonObject("wallMicros").get("max").getAsLong());
+    }
+
+    @Test
+    public void testNodesRankedByCpuTime() {
+        profiler.record("cheap", 1000, 10, 0);
+        profiler.record("expensive", 1000, 500, 0);
+        profiler.record("medium", 1000, 100, 0);
+
+        JsonArray nodes = profiler.toJson(2).getAsJsonArray("graphNodes");
+        Assert.assertEquals(2, nodes.size());
+        Assert.assertEquals("expensive", nodes.get(0).getAsJsonObject().get("name").getAsString());
+        Assert.assertEquals("medium", nodes.get(1).getAsJsonObject().get("name").getAsString());
+    }
+
+    @Test
+    public void testProfileRecordsEvaluation() {
+        int[] runs = {0};
+        profiler.profile("node", () -> runs[0]++);
+        Assert.assertEquals(1, runs[0]);
+        Assert.assertEquals(1, profiler.toJson(0).getAsJsonArray("graphNodes").size());
+    }
+
+    @Test
+    public void testProfileRecordsFailedEvaluation() {
+        try {
+            profiler.profile(
+                    "node",
+                    () -> {
+                        throw new IllegalStateException("failed");
+                    });
+            Assert.fail();
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        Assert.assertEquals(1, profiler.toJson(0).getAsJsonArray("graphNodes").size());
+    }
+}
@@ -28,4 +28,8 @@ public class Consts {
     // Node count constants.
     public static final int numDataNodes = 2;
     public static final int numStandbyClusterManagerNodes = 2;
+
+    // The number of data nodes simulated by the scale tests, e.g. -Dtests.rcaIt.scale.nodes=500.
+    public static final String SCALE_NODES_PROPERTY = "tests.rcaIt.scale.nodes";
+    public static final int DEFAULT_SCALE_NODES = 50;
 }
@@ -0,0 +1,257 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.integTests.framework.scale;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.net.ServerSocket;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.commons.io.FileUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.CPU_Utilization;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotClusterSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.configs.Consts;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.overrides.RcaItMetricsDBProvider;
+import org.opensearch.performanceanalyzer.rca.store.rca.HotNodeRca;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessor;
+import org.opensearch.performanceanalyzer.threads.ThreadProvider;
+
+/**
+ * A cluster of one elected cluster manager and tens to hundreds of {@link SimulatedDataNode}s in
+ * the same JVM, for sizing the cluster manager and catching regressions of the RCA network layer
+ * with the number of nodes.
+ *
+ * <p>Unlike the {@link org.opensearch.performanceanalyzer.rca.integTests.framework.Cluster}, only
+ * the cluster manager runs servers. The data nodes publish a HotNodeRca flow unit each over
+ * loopback on every {@link #tick()}, after which the cluster manager evaluates the {@link
+ * org.opensearch.performanceanalyzer.rca.store.rca.HotNodeClusterRca} on what it received. Making
+ * some nodes hot with {@link #makeHot(int)} measures how long it takes until the cluster manager
+ * flags them.
+ */
+public class ScaleCluster {
+    private static final Logger LOG = LogManager.getLogger(ScaleCluster.class);
+
+    public static final String HOT_NODE_RCA_NAME = HotNodeRca.class.getSimpleName();
+    static final String HOST_IP = "127.0.0.1";
+
+    private static final String CLUSTER_MANAGER_ID = "cluster-manager";
+    private static final String[] CPU_DIMENSIONS = {
+        AllMetrics.CommonDimension.Constants.SHARDID_VALUE,
+        AllMetrics.CommonDimension.Constants.INDEX_NAME_VALUE,
+        AllMetrics.CommonDimension.Constants.OPERATION_VALUE,
+        AllMetrics.CommonDimension.Constants.SHARD_ROLE_VALUE
+    };
+
+    /** The CPU utilization of a data node that is not hot, spread over its shards. */
+    private static final double NODE_CPU = 0.4;
+
+    private final File clusterDir;
+    private final long tickMillis;
+    private final ThreadProvider threadProvider;
+    private final RcaItMetricsDBProvider queryable;
+    private final ScaleClusterManager clusterManager;
+    private final List<SimulatedDataNode> dataNodes;
+    private final MemoryMXBean memoryMXBean;
+
+    /** The nodes made hot that were not flagged yet, with the time they were made hot at. */
+    private final Map<String, Long> hotSince;
+
+    private final LatencyRecorder detectionLatencies;
+    private int hotNodes;
+    private int ticks;
+    private long startMillis;
+    private long peakHeapUsedBytes;
+
+    /**
+     * @param numDataNodes The number of data nodes to simulate.
+     * @param shardsPerNode The number of shards in the synthetic CPU utilization of each node.
+     * @param tickMillis How long the cluster manager waits for the flow units of a tick before it
+     *     evaluates them.
+     * @param clusterDir The directory for the files of the cluster.
+     */
+    public ScaleCluster(int numDataNodes, int shardsPerNode, long tickMillis, File clusterDir)
+            throws Exception {
+        if (numDataNodes < 2) {
+            throw new IllegalArgumentException(
+                    "HotNodeClusterRca needs at least 2 data nodes, got " + numDataNodes);
+        }
+        this.clusterDir = clusterDir;
+        this.tickMillis = tickMillis;
+        this.threadProvider = new ThreadProvider();
+        this.memoryMXBean = ManagementFactory.getMemoryMXBean();
+        this.hotSince = new HashMap<>();
+        this.detectionLatencies = new LatencyRecorder();
+        if (!clusterDir.exists() && !clusterDir.mkdirs()) {
+            throw new IllegalStateException("Couldn't create dir: " + clusterDir);
+        }
+
+        this.queryable =
+                new RcaItMetricsDBProvider(Paths.get(clusterDir.getPath(), "metricsdb").toString());
+        for (int shard = 0; shard < shardsPerNode; shard++) {
+            double cpu = NODE_CPU / shardsPerNode;
+            queryable.insertRow(
+                    CPU_Utilization.NAME,
+                    CPU_DIMENSIONS,
+                    new String[] {String.valueOf(shard), "index" + shard % 4, "shardbulk", "p"},
+                    cpu,
+                    cpu,
+                    cpu,
+                    cpu);
+        }
+
+        int grpcPort = findFreePort();
+        List<ClusterDetailsEventProcessor.NodeDetails> nodeDetails = new ArrayList<>();
+        nodeDetails.add(
+                new ClusterDetailsEventProcessor.NodeDetails(
+                        AllMetrics.NodeRole.ELECTED_CLUSTER_MANAGER,
+                        CLUSTER_MANAGER_ID,
+                        HOST_IP,
+                        true,
+                        grpcPort));
+        for (int i = 0; i < numDataNodes; i++) {
+            nodeDetails.add(
+                    new ClusterDetailsEventProcessor.NodeDetails(
+                            AllMetrics.NodeRole.DATA,
+                            SimulatedDataNode.nodeId(i),
+                            HOST_IP,
+                            false,
+                            grpcPort));
+        }
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        clusterDetailsEventProcessor.setNodesDetails(nodeDetails);
+        AppContext appContext = new AppContext();
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+
+        this.clusterManager =
+                new ScaleClusterManager(
+                        grpcPort,
+                        appContext,
+                        new RcaConf(Consts.RCAIT_DEFAULT_RCA_CONF_ELECTED_CLUSTER_MANAGER_NODE));
+        InstanceDetails clusterManagerDetails =
+                new InstanceDetails(
+                        AllMetrics.NodeRole.ELECTED_CLUSTER_MANAGER,
+                        new InstanceDetails.Id(CLUSTER_MANAGER_ID),
+                        new InstanceDetails.Ip(HOST_IP),
+                        true,
+                        grpcPort);
+        this.dataNodes = new ArrayList<>(numDataNodes);
+        for (int i = 0; i < numDataNodes; i++) {
+            dataNodes.add(new SimulatedDataNode(i, clusterManagerDetails, queryable));
+        }
+    }
+
+    private static int findFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    public void start() throws InterruptedException {
+        PerformanceAnalyzerApp.initAggregators();
+        clusterManager.start(threadProvider);
+        startMillis = System.currentTimeMillis();
+    }
+
+    /**
+     * Publishes a flow unit from every data node, waits for them to reach the cluster manager and
+     * evaluates the cluster manager RCA on them.
+     */
+    public void tick() throws InterruptedException {
+        for (SimulatedDataNode dataNode : dataNodes) {
+            dataNode.publish();
+        }
+        Thread.sleep(tickMillis);
+
+        ResourceFlowUnit<HotClusterSummary> flowUnit = clusterManager.evaluate();
+        long now = System.currentTimeMillis();
+        if (!flowUnit.isEmpty() && flowUnit.getSummary() != null) {
+            for (HotNodeSummary nodeSummary : flowUnit.getSummary().getHotNodeSummaryList()) {
+                Long since = hotSince.remove(nodeSummary.getNodeID().toString());
+                if (since != null) {
+                    detectionLatencies.record(now - since);
+                }
+            }
+        }
+        peakHeapUsedBytes =
+                Math.max(peakHeapUsedBytes, memoryMXBean.getHeapMemoryUsage().getUsed());
+        ticks++;
+    }
+
+    /**
+     * Makes {@code count} data nodes, spread evenly over the cluster, use {@link
+     * SimulatedDataNode#HOT_FACTOR} times more CPU than the others from the next tick on.
+     */
+    public void makeHot(int count) {
+        if (count <= 0 || count > dataNodes.size() / 2) {
+            throw new IllegalArgumentException(
+                    "Can make 1 to " + dataNodes.size() / 2 + " nodes hot, got " + count);
+        }
+        long now = System.currentTimeMillis();
+        int stride = dataNodes.size() / count;
+        for (int i = 0; i < count; i++) {
+            SimulatedDataNode dataNode = dataNodes.get(i * stride);
+            dataNode.setHot(true);
+            hotSince.put(dataNode.getId().toString(), now);
+        }
+        hotNodes += count;
+    }
+
+    /**
+     * @return true if the cluster manager flagged every node made hot.
+     */
+    public boolean allHotNodesDetected() {
+        return hotSince.isEmpty();
+    }
+
+    public ScaleReport report() {
+        long published = 0;
+        for (SimulatedDataNode dataNode : dataNodes) {
+            published += dataNode.getPublished();
+        }
+        ScaleClusterManager.MeasuredFlowUnitStore store = clusterManager.getReceivedFlowUnitStore();
+        return new ScaleReport(
+                dataNodes.size(),
+                ticks,
+                System.currentTimeMillis() - startMillis,
+                clusterManager.getCpuTimeNanos(),
+                clusterManager.getAllocatedBytes(),
+                peakHeapUsedBytes,
+                published,
+                store.getReceived(),
+                store.getDropped(),
+                store.getPublishLatencies(),
+                detectionLatencies,
+                hotNodes);
+    }
+
+    public void shutdown() throws IOException {
+        for (SimulatedDataNode dataNode : dataNodes) {
+            try {
+                dataNode.stop();
+            } catch (Exception e) {
+                LOG.error("Error stopping data node {}", dataNode.getId(), e);
+            }
+        }
+        clusterManager.shutdown();
+        queryable.getMetricsDB().remove();
+        FileUtils.deleteDirectory(clusterDir);
+    }
+}
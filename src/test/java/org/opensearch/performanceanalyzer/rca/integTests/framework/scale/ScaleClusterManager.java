@@ -0,0 +1,254 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.integTests.framework.scale;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.net.NetServer;
+import org.opensearch.performanceanalyzer.rca.RcaControllerHelper;
+import org.opensearch.performanceanalyzer.rca.framework.api.Rca;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotClusterSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.RcaConf;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
+import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
+import org.opensearch.performanceanalyzer.rca.net.ReceivedFlowUnitStore;
+import org.opensearch.performanceanalyzer.rca.net.handler.PublishRequestHandler;
+import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
+import org.opensearch.performanceanalyzer.rca.store.rca.HotNodeClusterRca;
+import org.opensearch.performanceanalyzer.threads.ServerLane;
+import org.opensearch.performanceanalyzer.threads.ThreadProvider;
+
+/**
+ * The elected cluster manager of a {@link ScaleCluster}. It runs the real gRPC server, publish
+ * handler and network thread pool of a cluster manager, and evaluates the {@link HotNodeClusterRca}
+ * on the flow units received from the data nodes on each tick.
+ *
+ * <p>As all the nodes share a JVM, the CPU time and allocations of the cluster manager are summed
+ * over the threads that only the cluster manager runs: the server event loops, the server lanes,
+ * the network thread pool and the thread evaluating the RCA.
+ */
+public class ScaleClusterManager {
+    private static final String[] THREAD_NAME_PREFIXES = {
+        "nioEventLoopGroup-",
+        ServerLane.RPC_DATA_PLANE + "-",
+        ServerLane.RPC_QUERY + "-",
+        RcaConsts.RCA_NETWORK_THREAD_NAME_FORMAT.replace("%d", "")
+    };
+
+    private static final long SERVER_START_TIMEOUT_SECONDS = 30;
+
+    private final int grpcPort;
+    private final AppContext appContext;
+    private final MeasuredFlowUnitStore receivedFlowUnitStore;
+    private final AtomicReference<ExecutorService> networkThreadPoolReference;
+    private final ReceivedHotNodeRca hotNodeRca;
+    private final HotNodeClusterRca hotNodeClusterRca;
+    private final CountDownLatch serverStarted;
+    private final NetServer netServer;
+    private final com.sun.management.ThreadMXBean threadMXBean;
+
+    private Thread grpcThread;
+    private long evaluationCpuTimeNanos;
+    private long evaluationAllocatedBytes;
+
+    /**
+     * @param grpcPort The port the gRPC server of the cluster manager listens on.
+     * @param appContext The app context listing the cluster manager and all the data nodes.
+     * @param rcaConf The rca.conf of the cluster manager, for the buffer and queue sizes and the
+     *     thresholds of the RCA.
+     */
+    public ScaleClusterManager(int grpcPort, AppContext appContext, RcaConf rcaConf) {
+        this.grpcPort = grpcPort;
+        this.appContext = appContext;
+        this.receivedFlowUnitStore = new MeasuredFlowUnitStore(rcaConf.getPerVertexBufferLength());
+        this.networkThreadPoolReference =
+                new AtomicReference<>(
+                        RcaControllerHelper.buildNetworkThreadPool(
+                                rcaConf.getNetworkQueueLength()));
+        this.hotNodeRca = new ReceivedHotNodeRca();
+        this.hotNodeClusterRca = new HotNodeClusterRca(1, hotNodeRca);
+        this.hotNodeClusterRca.setAppContext(appContext);
+        this.hotNodeClusterRca.readRcaConf(rcaConf);
+        this.serverStarted = new CountDownLatch(1);
+        this.netServer =
+                new NetServer(grpcPort, 1, false) {
+                    @Override
+                    protected void postStartHook() {
+                        serverStarted.countDown();
+                    }
+                };
+        this.netServer.setSendDataHandler(
+                new PublishRequestHandler(
+                        new NodeStateManager(appContext),
+                        receivedFlowUnitStore,
+                        networkThreadPoolReference));
+        this.threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    }
+
+    public void start(final ThreadProvider threadProvider) throws InterruptedException {
+        grpcThread = PerformanceAnalyzerApp.startGrpcServerThread(netServer, threadProvider);
+        if (!serverStarted.await(SERVER_START_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("gRPC server did not start on port " + grpcPort);
+        }
+    }
+
+    /**
+     * Drains the flow units received since the last tick and evaluates the {@link
+     * HotNodeClusterRca} on them, as the scheduler of the cluster manager would.
+     *
+     * @return The flow unit of the {@link HotNodeClusterRca}.
+     */
+    public ResourceFlowUnit<HotClusterSummary> evaluate() {
+        long tid = Thread.currentThread().getId();
+        long cpuStart = threadMXBean.getThreadCpuTime(tid);
+        long allocatedStart = threadMXBean.getThreadAllocatedBytes(tid);
+
+        List<ResourceFlowUnit<HotNodeSummary>> flowUnits = new ArrayList<>();
+        for (FlowUnitMessage message :
+                receivedFlowUnitStore.drainNode(ScaleCluster.HOT_NODE_RCA_NAME)) {
+            flowUnits.add(ResourceFlowUnit.buildFlowUnitFromWrapper(message));
+        }
+        hotNodeRca.setFlowUnits(flowUnits);
+        ResourceFlowUnit<HotClusterSummary> flowUnit = hotNodeClusterRca.operate();
+
+        evaluationCpuTimeNanos += threadMXBean.getThreadCpuTime(tid) - cpuStart;
+        evaluationAllocatedBytes += threadMXBean.getThreadAllocatedBytes(tid) - allocatedStart;
+        return flowUnit;
+    }
+
+    /**
+     * @return The CPU time spent so far by the threads of the cluster manager.
+     */
+    public long getCpuTimeNanos() {
+        long total = evaluationCpuTimeNanos;
+        for (long tid : getServerThreadIds()) {
+            long cpuTime = threadMXBean.getThreadCpuTime(tid);
+            if (cpuTime > 0) {
+                total += cpuTime;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * @return The bytes allocated so far by the threads of the cluster manager.
+     */
+    public long getAllocatedBytes() {
+        long total = evaluationAllocatedBytes;
+        for (long tid : getServerThreadIds()) {
+            long allocated = threadMXBean.getThreadAllocatedBytes(tid);
+            if (allocated > 0) {
+                total += allocated;
+            }
+        }
+        return total;
+    }
+
+    private List<Long> getServerThreadIds() {
+        List<Long> ids = new ArrayList<>();
+        for (ThreadInfo info : threadMXBean.getThreadInfo(threadMXBean.getAllThreadIds(), 0)) {
+            if (info == null) {
+                continue;
+            }
+            for (String prefix : THREAD_NAME_PREFIXES) {
+                if (info.getThreadName().startsWith(prefix)) {
+                    ids.add(info.getThreadId());
+                    break;
+                }
+            }
+        }
+        return ids;
+    }
+
+    public MeasuredFlowUnitStore getReceivedFlowUnitStore() {
+        return receivedFlowUnitStore;
+    }
+
+    public AppContext getAppContext() {
+        return appContext;
+    }
+
+    public int getGrpcPort() {
+        return grpcPort;
+    }
+
+    public void shutdown() {
+        netServer.setAttemptedShutdown();
+        netServer.shutdown();
+        networkThreadPoolReference.get().shutdownNow();
+        if (grpcThread != null) {
+            grpcThread.interrupt();
+        }
+    }
+
+    /**
+     * A {@link ReceivedFlowUnitStore} that records how long each flow unit took from being
+     * published on its data node to being buffered on the cluster manager, and how many flow units
+     * were dropped because the vertex buffer was full.
+     */
+    public static class MeasuredFlowUnitStore extends ReceivedFlowUnitStore {
+        private final LatencyRecorder publishLatencies = new LatencyRecorder();
+        private final AtomicLong received = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+
+        MeasuredFlowUnitStore(int perVertexBufferLength) {
+            super(perVertexBufferLength);
+        }
+
+        @Override
+        public boolean enqueue(final String graphNode, final FlowUnitMessage flowUnitMessage) {
+            publishLatencies.record(System.currentTimeMillis() - flowUnitMessage.getTimeStamp());
+            received.incrementAndGet();
+            boolean enqueued = super.enqueue(graphNode, flowUnitMessage);
+            if (!enqueued) {
+                dropped.incrementAndGet();
+            }
+            return enqueued;
+        }
+
+        public LatencyRecorder getPublishLatencies() {
+            return publishLatencies;
+        }
+
+        public long getReceived() {
+            return received.get();
+        }
+
+        public long getDropped() {
+            return dropped.get();
+        }
+    }
+
+    /** Stands in for the HotNodeRca vertex, whose flow units are all read from the wire. */
+    private static class ReceivedHotNodeRca extends Rca<ResourceFlowUnit<HotNodeSummary>> {
+        ReceivedHotNodeRca() {
+            super(5);
+        }
+
+        @Override
+        public ResourceFlowUnit<HotNodeSummary> operate() {
+            throw new IllegalArgumentException(name() + " only runs on the data nodes.");
+        }
+
+        @Override
+        public void generateFlowUnitListFromWire(FlowUnitOperationArgWrapper args) {
+            throw new IllegalArgumentException(
+                    name() + "'s flow units are set by the ScaleClusterManager.");
+        }
+    }
+}
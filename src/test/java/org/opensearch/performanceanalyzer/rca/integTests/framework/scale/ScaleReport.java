@@ -0,0 +1,139 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.integTests.framework.scale;
+
+import java.util.concurrent.TimeUnit;
+
+/** What a {@link ScaleCluster} measured on its cluster manager over a run. */
+public class ScaleReport {
+    private final int dataNodes;
+    private final int ticks;
+    private final long elapsedMillis;
+    private final long clusterManagerCpuNanos;
+    private final long clusterManagerAllocatedBytes;
+    private final long peakHeapUsedBytes;
+    private final long published;
+    private final long received;
+    private final long droppedInStore;
+    private final LatencyRecorder publishLatencies;
+    private final LatencyRecorder detectionLatencies;
+    private final int hotNodes;
+
+    ScaleReport(
+            int dataNodes,
+            int ticks,
+            long elapsedMillis,
+            long clusterManagerCpuNanos,
+            long clusterManagerAllocatedBytes,
+            long peakHeapUsedBytes,
+            long published,
+            long received,
+            long droppedInStore,
+            LatencyRecorder publishLatencies,
+            LatencyRecorder detectionLatencies,
+            int hotNodes) {
+        this.dataNodes = dataNodes;
+        this.ticks = ticks;
+        this.elapsedMillis = elapsedMillis;
+        this.clusterManagerCpuNanos = clusterManagerCpuNanos;
+        this.clusterManagerAllocatedBytes = clusterManagerAllocatedBytes;
+        this.peakHeapUsedBytes = peakHeapUsedBytes;
+        this.published = published;
+        this.received = received;
+        this.droppedInStore = droppedInStore;
+        this.publishLatencies = publishLatencies;
+        this.detectionLatencies = detectionLatencies;
+        this.hotNodes = hotNodes;
+    }
+
+    /**
+     * @return The share of one core used by the cluster manager threads over the run.
+     */
+    public double getClusterManagerCpuUtilization() {
+        if (elapsedMillis == 0) {
+            return 0;
+        }
+        return (double) TimeUnit.NANOSECONDS.toMillis(clusterManagerCpuNanos) / elapsedMillis;
+    }
+
+    public long getClusterManagerAllocatedBytes() {
+        return clusterManagerAllocatedBytes;
+    }
+
+    /**
+     * @return The highest heap usage of the JVM sampled after each tick. All the simulated nodes
+     *     share the JVM, so this is an upper bound of the heap the cluster manager needs.
+     */
+    public long getPeakHeapUsedBytes() {
+        return peakHeapUsedBytes;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getReceived() {
+        return received;
+    }
+
+    /**
+     * @return The flow units dropped because the vertex buffer of the store was full.
+     */
+    public long getDroppedInStore() {
+        return droppedInStore;
+    }
+
+    /**
+     * @return The flow units that were published but never reached the store, e.g. because the
+     *     network thread pool queue was full or they were still in flight at the end of the run.
+     */
+    public long getLost() {
+        return Math.max(0, published - received);
+    }
+
+    public LatencyRecorder getPublishLatencies() {
+        return publishLatencies;
+    }
+
+    public LatencyRecorder getDetectionLatencies() {
+        return detectionLatencies;
+    }
+
+    /**
+     * @return The hot nodes that the cluster manager did not flag by the end of the run.
+     */
+    public int getUndetectedHotNodes() {
+        return hotNodes - detectionLatencies.count();
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+                "dataNodes=%d ticks=%d elapsedMs=%d%n"
+                        + "clusterManager: cpu=%.3f cores allocatedMB=%.1f peakJvmHeapMB=%.1f%n"
+                        + "flowUnits: published=%d received=%d droppedInStore=%d lost=%d%n"
+                        + "publishLatencyMs: p50=%d p90=%d p99=%d max=%d%n"
+                        + "detectionLatencyMs: p50=%d max=%d undetected=%d/%d",
+                dataNodes,
+                ticks,
+                elapsedMillis,
+                getClusterManagerCpuUtilization(),
+                clusterManagerAllocatedBytes / (1024.0 * 1024.0),
+                peakHeapUsedBytes / (1024.0 * 1024.0),
+                published,
+                received,
+                droppedInStore,
+                getLost(),
+                publishLatencies.percentile(50),
+                publishLatencies.percentile(90),
+                publishLatencies.percentile(99),
+                publishLatencies.max(),
+                detectionLatencies.percentile(50),
+                detectionLatencies.max(),
+                getUndetectedHotNodes(),
+                hotNodes);
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.integTests.framework.scale;
+
+import io.grpc.stub.StreamObserver;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.jooq.Record;
+import org.opensearch.performanceanalyzer.grpc.PublishResponse;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
+import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.framework.api.Resources;
+import org.opensearch.performanceanalyzer.rca.framework.api.contexts.ResourceContext;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.MetricFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.metrics.CPU_Utilization;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotNodeSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.HotResourceSummary;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.ResourceUtil;
+import org.opensearch.performanceanalyzer.rca.framework.core.Queryable;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+/**
+ * A data node of a {@link ScaleCluster}. It has no server of its own: on each tick it reads the CPU
+ * utilization of its shards from the synthetic {@link Queryable} shared by all the data nodes and
+ * publishes a HotNodeRca flow unit to the elected cluster manager over its own gRPC connection.
+ *
+ * <p>Each node scales the CPU utilization by a small factor of its own so that the nodes are not
+ * all equal, and by {@link #HOT_FACTOR} once it is made hot.
+ */
+public class SimulatedDataNode {
+    private static final Logger LOG = LogManager.getLogger(SimulatedDataNode.class);
+
+    /** How much more CPU a hot node uses than the others. */
+    static final double HOT_FACTOR = 3.0;
+
+    /** The CPU utilization reported as the threshold of the hot resource summary. */
+    private static final double CPU_THRESHOLD = 1.0;
+
+    private static final int TIME_PERIOD_SECONDS = 60;
+
+    private final InstanceDetails.Id id;
+    private final InstanceDetails clusterManager;
+    private final Queryable queryable;
+    private final NetClient netClient;
+    private final CPU_Utilization cpuUtilization;
+    private final double loadFactor;
+    private final StreamObserver<PublishResponse> responseObserver;
+
+    private volatile boolean hot;
+    private long published;
+
+    /**
+     * @param index The index of the node in the cluster, used for its id and load factor.
+     * @param clusterManager The elected cluster manager the flow units are published to.
+     * @param queryable The synthetic metrics shared by all the data nodes.
+     */
+    public SimulatedDataNode(int index, InstanceDetails clusterManager, Queryable queryable) {
+        this.id = new InstanceDetails.Id(nodeId(index));
+        this.clusterManager = clusterManager;
+        this.queryable = queryable;
+        this.netClient = new NetClient(new GRPCConnectionManager(false));
+        this.cpuUtilization = new CPU_Utilization(5);
+        this.loadFactor = 1 + (index % 7) / 100.0;
+        this.responseObserver =
+                new StreamObserver<PublishResponse>() {
+                    @Override
+                    public void onNext(PublishResponse value) {}
+
+                    @Override
+                    public void onError(Throwable t) {
+                        LOG.debug("Publish stream of {} failed", id, t);
+                        netClient.flushStream(clusterManager.getInstanceId());
+                    }
+
+                    @Override
+                    public void onCompleted() {}
+                };
+    }
+
+    public static String nodeId(int index) {
+        return "data-" + index;
+    }
+
+    /** Reads the CPU utilization of the node and publishes it to the cluster manager. */
+    public void publish() {
+        MetricFlowUnit metrics = cpuUtilization.gather(queryable);
+        double cpu = 0;
+        if (!metrics.isEmpty()) {
+            for (Record record : metrics.getData()) {
+                cpu += record.getValue(MetricsDB.SUM, Double.class);
+            }
+        }
+        cpu *= hot ? loadFactor * HOT_FACTOR : loadFactor;
+
+        HotNodeSummary summary =
+                new HotNodeSummary(id, new InstanceDetails.Ip(ScaleCluster.HOST_IP));
+        summary.appendNestedSummary(
+                new HotResourceSummary(
+                        ResourceUtil.CPU_USAGE, CPU_THRESHOLD, cpu, TIME_PERIOD_SECONDS));
+        ResourceFlowUnit<HotNodeSummary> flowUnit =
+                new ResourceFlowUnit<>(
+                        System.currentTimeMillis(),
+                        new ResourceContext(
+                                hot ? Resources.State.UNHEALTHY : Resources.State.HEALTHY),
+                        summary);
+        netClient.publish(
+                clusterManager,
+                flowUnit.buildFlowUnitMessage(ScaleCluster.HOT_NODE_RCA_NAME, id),
+                responseObserver);
+        published++;
+    }
+
+    public void setHot(boolean hot) {
+        this.hot = hot;
+    }
+
+    public InstanceDetails.Id getId() {
+        return id;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public void stop() {
+        netClient.stop();
+    }
+}
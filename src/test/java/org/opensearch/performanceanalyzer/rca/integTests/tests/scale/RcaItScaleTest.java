@@ -0,0 +1,69 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.integTests.tests.scale;
+
+import java.nio.file.Paths;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.RcaItMarker;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.configs.Consts;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.scale.ScaleCluster;
+import org.opensearch.performanceanalyzer.rca.integTests.framework.scale.ScaleReport;
+
+/**
+ * Publishes the HotNodeRca flow units of {@link Consts#DEFAULT_SCALE_NODES} data nodes, or as many
+ * as set with {@link Consts#SCALE_NODES_PROPERTY}, to one cluster manager and checks that it flags
+ * the nodes made hot. The report is logged for sizing the cluster manager.
+ */
+@Category(RcaItMarker.class)
+public class RcaItScaleTest {
+    private static final Logger LOG = LogManager.getLogger(RcaItScaleTest.class);
+
+    private static final int SHARDS_PER_NODE = 20;
+    private static final long TICK_MILLIS = 500;
+    private static final int WARMUP_TICKS = 3;
+    private static final int MAX_DETECTION_TICKS = 20;
+
+    private ScaleCluster cluster;
+
+    @Before
+    public void setUp() throws Exception {
+        int nodes = Integer.getInteger(Consts.SCALE_NODES_PROPERTY, Consts.DEFAULT_SCALE_NODES);
+        cluster =
+                new ScaleCluster(
+                        nodes,
+                        SHARDS_PER_NODE,
+                        TICK_MILLIS,
+                        Paths.get(Consts.RCA_IT_BASE_DIR, "scale-" + nodes).toFile());
+        cluster.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        cluster.shutdown();
+    }
+
+    @Test
+    public void testHotNodesDetectedAtScale() throws Exception {
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            cluster.tick();
+        }
+        cluster.makeHot(2);
+        for (int i = 0; i < MAX_DETECTION_TICKS && !cluster.allHotNodesDetected(); i++) {
+            cluster.tick();
+        }
+
+        ScaleReport report = cluster.report();
+        LOG.info("Scale test report:\n{}", report);
+        Assert.assertEquals(report.toString(), 0, report.getUndetectedHotNodes());
+        Assert.assertTrue(report.toString(), report.getReceived() > 0);
+    }
+}
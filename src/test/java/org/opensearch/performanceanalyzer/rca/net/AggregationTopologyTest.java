@@ -0,0 +1,149 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.rca.GradleTaskForRca;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+@Category(GradleTaskForRca.class)
+public class AggregationTopologyTest {
+
+    private static InstanceDetails node(String id, boolean isClusterManager) {
+        return new InstanceDetails(
+                AllMetrics.NodeRole.DATA,
+                new InstanceDetails.Id(id),
+                new InstanceDetails.Ip("127.0.0.1"),
+                isClusterManager);
+    }
+
+    private static List<InstanceDetails> dataNodes(int count) {
+        List<InstanceDetails> nodes = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            nodes.add(node(String.format("node-%02d", i), false));
+        }
+        // The assignment must not depend on the order the cluster reports the nodes in.
+        Collections.reverse(nodes);
+        return nodes;
+    }
+
+    @Test
+    public void testDisabledTopologyIsFlat() {
+        AggregationTopology topology = new AggregationTopology(AggregationTopology.DISABLED_FANOUT);
+
+        assertFalse(topology.isEnabled());
+        assertTrue(topology.assign(dataNodes(10)).isEmpty());
+    }
+
+    @Test
+    public void testSmallClusterIsFlat() {
+        AggregationTopology topology = new AggregationTopology(4);
+
+        assertTrue(topology.isEnabled());
+        assertTrue(topology.assign(dataNodes(4)).isEmpty());
+    }
+
+    @Test
+    public void testDataNodesAreGroupedUnderTheirAggregator() {
+        AggregationTopology topology = new AggregationTopology(4);
+        List<InstanceDetails> dataNodes = dataNodes(10);
+
+        ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment = topology.assign(dataNodes);
+
+        assertEquals(10, assignment.size());
+        Set<InstanceDetails.Id> aggregators = new HashSet<>();
+        for (InstanceDetails aggregator : assignment.values()) {
+            aggregators.add(aggregator.getInstanceId());
+        }
+        assertEquals(3, aggregators.size());
+
+        int relayed = 0;
+        for (InstanceDetails dataNode : dataNodes) {
+            InstanceDetails.Id id = dataNode.getInstanceId();
+            if (aggregators.contains(id)) {
+                assertFalse(AggregationTopology.isRelayed(id, assignment));
+                assertEquals(id, assignment.get(id).getInstanceId());
+                relayed += topology.getAssignedNodes(id, dataNodes).size();
+            } else {
+                assertTrue(AggregationTopology.isRelayed(id, assignment));
+                assertTrue(topology.getAssignedNodes(id, dataNodes).isEmpty());
+            }
+        }
+        assertEquals(7, relayed);
+
+        // The assignment is the same for any order of the nodes.
+        Collections.shuffle(dataNodes, new Random(7));
+        assertEquals(assignment, topology.assign(dataNodes));
+    }
+
+    @Test
+    public void testLeavingNodeOnlyMovesItsGroup() {
+        AggregationTopology topology = new AggregationTopology(4);
+        List<InstanceDetails> dataNodes = dataNodes(12);
+        ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment = topology.assign(dataNodes);
+
+        // A node that is not an aggregator leaves: no other node moves.
+        InstanceDetails member = null;
+        for (InstanceDetails dataNode : dataNodes) {
+            if (AggregationTopology.isRelayed(dataNode.getInstanceId(), assignment)) {
+                member = dataNode;
+                break;
+            }
+        }
+        List<InstanceDetails> remaining = new ArrayList<>(dataNodes);
+        remaining.remove(member);
+        ImmutableMap<InstanceDetails.Id, InstanceDetails> reassigned = topology.assign(remaining);
+        for (InstanceDetails dataNode : remaining) {
+            assertEquals(
+                    assignment.get(dataNode.getInstanceId()),
+                    reassigned.get(dataNode.getInstanceId()));
+        }
+
+        // An aggregator leaves: the nodes of the other groups either stay or join the node that
+        // replaces it as an aggregator.
+        InstanceDetails leaving = assignment.get(member.getInstanceId());
+        remaining = new ArrayList<>(dataNodes);
+        remaining.remove(leaving);
+        reassigned = topology.assign(remaining);
+        Set<InstanceDetails> newAggregators = new HashSet<>(reassigned.values());
+        newAggregators.removeAll(assignment.values());
+        assertEquals(1, newAggregators.size());
+        InstanceDetails promoted = newAggregators.iterator().next();
+        for (InstanceDetails dataNode : remaining) {
+            InstanceDetails before = assignment.get(dataNode.getInstanceId());
+            InstanceDetails after = reassigned.get(dataNode.getInstanceId());
+            if (!before.equals(leaving)) {
+                assertTrue(after.equals(before) || after.equals(promoted));
+            }
+        }
+    }
+
+    @Test
+    public void testElectedClusterManagerIsNeverAggregated() {
+        AggregationTopology topology = new AggregationTopology(2);
+        List<InstanceDetails> dataNodes = dataNodes(4);
+        dataNodes.add(node("node-cm", true));
+
+        ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment = topology.assign(dataNodes);
+
+        assertEquals(4, assignment.size());
+        assertFalse(assignment.containsKey(new InstanceDetails.Id("node-cm")));
+        assertFalse(AggregationTopology.isRelayed(new InstanceDetails.Id("node-cm"), assignment));
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import java.util.Collections;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.grpc.HotNodeSummaryMessage;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+
+public class FlowUnitDeltaEncoderTest {
+    private static final String GRAPH_NODE = "HotNodeClusterRca";
+    private static final InstanceDetails.Id SUBSCRIBER = new InstanceDetails.Id("cluster_manager");
+    private static final int KEYFRAME_INTERVAL = 3;
+
+    private FlowUnitDeltaEncoder encoder;
+    private FlowUnitDeltaDecoder decoder;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        encoder = new FlowUnitDeltaEncoder(KEYFRAME_INTERVAL);
+        decoder = new FlowUnitDeltaDecoder();
+    }
+
+    private static FlowUnitMessage message(long timeStamp, String nodeId) {
+        return FlowUnitMessage.newBuilder()
+                .setGraphNode(GRAPH_NODE)
+                .setNode("data_node")
+                .setTimeStamp(timeStamp)
+                .setHotNodeSummary(HotNodeSummaryMessage.newBuilder().setNodeID(nodeId).build())
+                .build();
+    }
+
+    @Test
+    public void testUnchangedFlowUnitsAreSentAsDeltas() {
+        encoder.resync(GRAPH_NODE, SUBSCRIBER, true);
+
+        FlowUnitMessage keyframe = encoder.encode(GRAPH_NODE, SUBSCRIBER, message(1L, "node1"));
+        Assert.assertFalse(keyframe.getUnchangedSinceKeyframe());
+        Assert.assertEquals(message(1L, "node1"), decoder.decode(keyframe));
+
+        FlowUnitMessage delta = encoder.encode(GRAPH_NODE, SUBSCRIBER, message(2L, "node1"));
+        Assert.assertTrue(delta.getUnchangedSinceKeyframe());
+        Assert.assertFalse(delta.hasHotNodeSummary());
+        Assert.assertEquals(1L, delta.getKeyframeTimeStamp());
+        Assert.assertEquals(message(2L, "node1"), decoder.decode(delta));
+
+        // A changed summary is a new keyframe.
+        FlowUnitMessage changed = encoder.encode(GRAPH_NODE, SUBSCRIBER, message(3L, "node2"));
+        Assert.assertFalse(changed.getUnchangedSinceKeyframe());
+        Assert.assertEquals(message(3L, "node2"), decoder.decode(changed));
+    }
+
+    @Test
+    public void testKeyframeIsSentEveryInterval() {
+        encoder.resync(GRAPH_NODE, SUBSCRIBER, true);
+        int keyframes = 0;
+        for (int i = 0; i < 2 * KEYFRAME_INTERVAL; i++) {
+            FlowUnitMessage encoded = encoder.encode(GRAPH_NODE, SUBSCRIBER, message(i, "node1"));
+            if (!encoded.getUnchangedSinceKeyframe()) {
+                keyframes++;
+            }
+            Assert.assertEquals(message(i, "node1"), decoder.decode(encoded));
+        }
+        Assert.assertEquals(2, keyframes);
+    }
+
+    @Test
+    public void testResync() {
+        // Subscribers that didn't announce delta support get full messages.
+        encoder.resync(GRAPH_NODE, SUBSCRIBER, false);
+        encoder.encode(GRAPH_NODE, SUBSCRIBER, message(1L, "node1"));
+        Assert.assertEquals(
+                message(2L, "node1"), encoder.encode(GRAPH_NODE, SUBSCRIBER, message(2L, "node1")));
+
+        // A subscriber that lost its keyframe can't decode the delta, until it subscribes again.
+        encoder.resync(GRAPH_NODE, SUBSCRIBER, true);
+        encoder.encode(GRAPH_NODE, SUBSCRIBER, message(3L, "node1"));
+        Assert.assertNull(
+                decoder.decode(encoder.encode(GRAPH_NODE, SUBSCRIBER, message(4L, "node1"))));
+
+        encoder.resync(GRAPH_NODE, SUBSCRIBER, true);
+        FlowUnitMessage keyframe = encoder.encode(GRAPH_NODE, SUBSCRIBER, message(5L, "node1"));
+        Assert.assertFalse(keyframe.getUnchangedSinceKeyframe());
+        Assert.assertEquals(message(5L, "node1"), decoder.decode(keyframe));
+
+        encoder.forget(GRAPH_NODE, SUBSCRIBER);
+        Assert.assertEquals(
+                message(6L, "node1"), encoder.encode(GRAPH_NODE, SUBSCRIBER, message(6L, "node1")));
+    }
+
+    @Test
+    public void testKeyframesOfHostsThatLeftAreDropped() {
+        decoder.decode(message(1L, "node1"));
+        decoder.decode(message(1L, "node1").toBuilder().setNode("other_node").build());
+        Assert.assertEquals(2, decoder.getKeyframeCount());
+
+        decoder.retainHosts(Collections.singleton("data_node"));
+        Assert.assertEquals(1, decoder.getKeyframeCount());
+        FlowUnitMessage delta =
+                FlowUnitMessage.newBuilder()
+                        .setGraphNode(GRAPH_NODE)
+                        .setNode("other_node")
+                        .setTimeStamp(2L)
+                        .setUnchangedSinceKeyframe(true)
+                        .setKeyframeTimeStamp(1L)
+                        .build();
+        Assert.assertNull(decoder.decode(delta));
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.util.concurrent.MoreExecutors;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
+import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
+import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.GradleTaskForRca;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessor;
+
+@Category(GradleTaskForRca.class)
+public class FlowUnitRelayTest {
+    private static final String VERTEX = "vertex";
+    private static final String REQUESTER = "requester";
+    private static final String LOCUS = "data-node";
+    private static final String CLUSTER_MANAGER = "cm";
+    private static final long INTERVAL_MILLIS = 5000L;
+
+    private final AggregationTopology topology = new AggregationTopology(4);
+    private final InstanceDetails.Id clusterManager = new InstanceDetails.Id(CLUSTER_MANAGER);
+
+    private NetClient netClient;
+    private AppContext appContext;
+    private NodeStateManager nodeStateManager;
+    private FlowUnitRelay relay;
+    private List<InstanceDetails> dataNodes;
+    private InstanceDetails.Id self;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        netClient = mock(NetClient.class);
+        appContext = new AppContext();
+        dataNodes = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            dataNodes.add(
+                    new InstanceDetails(
+                            AllMetrics.NodeRole.DATA,
+                            new InstanceDetails.Id("node-" + i),
+                            new InstanceDetails.Ip("127.0.0." + (i + 2)),
+                            false));
+        }
+        // This node is the aggregator of the largest group.
+        self = null;
+        for (InstanceDetails dataNode : dataNodes) {
+            InstanceDetails.Id id = dataNode.getInstanceId();
+            if (self == null
+                    || topology.getAssignedNodes(id, dataNodes).size()
+                            > topology.getAssignedNodes(self, dataNodes).size()) {
+                self = id;
+            }
+        }
+        setCluster(self, dataNodes, true);
+        nodeStateManager = new NodeStateManager(appContext);
+        relay = newRelay();
+    }
+
+    private FlowUnitRelay newRelay() {
+        return new FlowUnitRelay(
+                topology,
+                netClient,
+                new SubscriptionManager(new GRPCConnectionManager(false)),
+                nodeStateManager,
+                new AtomicReference<ExecutorService>(MoreExecutors.newDirectExecutorService()),
+                appContext);
+    }
+
+    private void setCluster(
+            InstanceDetails.Id local, List<InstanceDetails> nodes, boolean withClusterManager) {
+        List<ClusterDetailsEventProcessor.NodeDetails> nodeDetails = new ArrayList<>();
+        List<InstanceDetails> ordered = new ArrayList<>();
+        for (InstanceDetails node : nodes) {
+            // The first node of the cluster is this node.
+            ordered.add(node.getInstanceId().equals(local) ? 0 : ordered.size(), node);
+        }
+        for (InstanceDetails node : ordered) {
+            nodeDetails.add(
+                    new ClusterDetailsEventProcessor.NodeDetails(
+                            AllMetrics.NodeRole.DATA,
+                            node.getInstanceId().toString(),
+                            node.getInstanceIp().toString(),
+                            false,
+                            9600));
+        }
+        if (withClusterManager) {
+            nodeDetails.add(
+                    local.equals(clusterManager) ? 0 : nodeDetails.size(),
+                    new ClusterDetailsEventProcessor.NodeDetails(
+                            AllMetrics.NodeRole.DATA, CLUSTER_MANAGER, "127.0.0.1", true, 9600));
+        }
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        clusterDetailsEventProcessor.setNodesDetails(nodeDetails);
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+    }
+
+    private static FlowUnitMessage message(InstanceDetails.Id node, long timeStamp) {
+        return FlowUnitMessage.newBuilder()
+                .setGraphNode(VERTEX)
+                .setNode(node.toString())
+                .setTimeStamp(timeStamp)
+                .build();
+    }
+
+    private Set<InstanceDetails.Id> subscribedHosts(int count) {
+        ArgumentCaptor<InstanceDetails> hosts = ArgumentCaptor.forClass(InstanceDetails.class);
+        verify(netClient, times(count)).subscribe(hosts.capture(), any(), any());
+        Set<InstanceDetails.Id> ids = new HashSet<>();
+        for (InstanceDetails host : hosts.getAllValues()) {
+            ids.add(host.getInstanceId());
+        }
+        return ids;
+    }
+
+    private static Set<InstanceDetails.Id> ids(List<InstanceDetails> nodes) {
+        Set<InstanceDetails.Id> ids = new HashSet<>();
+        for (InstanceDetails node : nodes) {
+            ids.add(node.getInstanceId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void testLatestFlowUnitOfEachNodeIsRelayed() {
+        List<InstanceDetails> members = topology.getAssignedNodes(self, dataNodes);
+        Assert.assertTrue(members.size() >= 2);
+
+        relay.addRelay(VERTEX, REQUESTER, clusterManager, LOCUS);
+        Assert.assertTrue(relay.isRelaying(VERTEX));
+        Assert.assertEquals(ids(members), subscribedHosts(members.size()));
+
+        InstanceDetails.Id first = members.get(0).getInstanceId();
+        InstanceDetails.Id second = members.get(1).getInstanceId();
+        Assert.assertTrue(relay.offer(message(first, 2L)));
+        Assert.assertTrue(relay.offer(message(first, 1L)));
+        Assert.assertTrue(relay.offer(message(second, 3L)));
+        Assert.assertEquals(2, relay.getPendingCount(VERTEX));
+
+        // The graph on this node also reads the vertex.
+        relay.markLocallyRead(VERTEX);
+        Assert.assertFalse(relay.offer(message(second, 4L)));
+
+        relay.flush(VERTEX);
+        ArgumentCaptor<FlowUnitMessage> published = ArgumentCaptor.forClass(FlowUnitMessage.class);
+        verify(netClient, times(2))
+                .publish(
+                        eq(appContext.getInstanceById(clusterManager)), published.capture(), any());
+        for (FlowUnitMessage message : published.getAllValues()) {
+            long expected = message.getNode().equals(first.toString()) ? 2L : 4L;
+            Assert.assertEquals(expected, message.getTimeStamp());
+        }
+        Assert.assertEquals(0, relay.getPendingCount(VERTEX));
+    }
+
+    @Test
+    public void testNothingIsRelayedByNodesThatAreNotAggregators() {
+        InstanceDetails.Id member =
+                topology.getAssignedNodes(self, dataNodes).get(0).getInstanceId();
+        setCluster(member, dataNodes, true);
+
+        relay.addRelay(VERTEX, REQUESTER, clusterManager, LOCUS);
+
+        Assert.assertFalse(relay.isRelaying(VERTEX));
+        Assert.assertFalse(relay.offer(message(self, 1L)));
+        verify(netClient, never()).subscribe(any(), any(SubscribeMessage.class), any());
+    }
+
+    @Test
+    public void testGroupMembershipChanges() {
+        relay.setClock(Clock.fixed(Instant.ofEpochMilli(1000000L), ZoneOffset.UTC));
+        relay.addRelay(VERTEX, REQUESTER, clusterManager, LOCUS);
+        Set<InstanceDetails.Id> members = ids(topology.getAssignedNodes(self, dataNodes));
+        clearInvocations(netClient);
+
+        // Another aggregator leaves, this node takes over some of the nodes of its group.
+        InstanceDetails leaving = null;
+        for (InstanceDetails dataNode : dataNodes) {
+            if (!dataNode.getInstanceId().equals(self)
+                    && !topology.getAssignedNodes(dataNode.getInstanceId(), dataNodes).isEmpty()) {
+                leaving = dataNode;
+            }
+        }
+        List<InstanceDetails> remaining = new ArrayList<>(dataNodes);
+        remaining.remove(leaving);
+        setCluster(self, remaining, true);
+        Set<InstanceDetails.Id> joined = ids(topology.getAssignedNodes(self, remaining));
+        joined.removeAll(members);
+        Assert.assertFalse(joined.isEmpty());
+
+        relay.flush(VERTEX);
+        Assert.assertEquals(joined, subscribedHosts(joined.size()));
+
+        // The nodes that stay silent are subscribed to again.
+        clearInvocations(netClient);
+        relay.setClock(
+                Clock.fixed(
+                        Instant.ofEpochMilli(1000001L + FlowUnitRelay.RESUBSCRIBE_INTERVAL_MILLIS),
+                        ZoneOffset.UTC));
+        relay.flush(VERTEX);
+        Assert.assertEquals(
+                ids(topology.getAssignedNodes(self, remaining)),
+                subscribedHosts(topology.getAssignedNodes(self, remaining).size()));
+
+        // The cluster manager leaves.
+        setCluster(self, remaining, false);
+        relay.flush(VERTEX);
+        Assert.assertFalse(relay.isRelaying(VERTEX));
+    }
+
+    @Test
+    public void testReassignedNodesAreNotRelayed() {
+        relay.addRelay(VERTEX, REQUESTER, clusterManager, LOCUS);
+        Set<InstanceDetails.Id> members = ids(topology.getAssignedNodes(self, dataNodes));
+
+        // Data nodes join until the topology moves some of the members to a new aggregator.
+        List<InstanceDetails> grown = new ArrayList<>(dataNodes);
+        Set<InstanceDetails.Id> moved = new HashSet<>();
+        Set<InstanceDetails.Id> staying = new HashSet<>();
+        for (int i = 0; i < 64 && (moved.isEmpty() || staying.isEmpty()); i++) {
+            grown.add(
+                    new InstanceDetails(
+                            AllMetrics.NodeRole.DATA,
+                            new InstanceDetails.Id("joined-" + i),
+                            new InstanceDetails.Ip("127.0.1." + (i + 2)),
+                            false));
+            staying = ids(topology.getAssignedNodes(self, grown));
+            staying.retainAll(members);
+            moved = new HashSet<>(members);
+            moved.removeAll(staying);
+        }
+        Assert.assertFalse(moved.isEmpty());
+        Assert.assertFalse(staying.isEmpty());
+
+        InstanceDetails.Id movedNode = moved.iterator().next();
+        InstanceDetails.Id stayingNode = staying.iterator().next();
+        relay.offer(message(movedNode, 1L));
+        relay.offer(message(stayingNode, 1L));
+        setCluster(self, grown, true);
+        relay.flush(VERTEX);
+
+        ArgumentCaptor<FlowUnitMessage> published = ArgumentCaptor.forClass(FlowUnitMessage.class);
+        verify(netClient).publish(any(), published.capture(), any());
+        Assert.assertEquals(stayingNode.toString(), published.getValue().getNode());
+        Assert.assertTrue(relay.isRelaying(VERTEX));
+
+        // Too few data nodes are left for groups, this node is no longer an aggregator although
+        // members of its group are still in the cluster.
+        List<InstanceDetails> shrunk = new ArrayList<>();
+        shrunk.add(appContext.getInstanceById(self));
+        shrunk.add(appContext.getInstanceById(stayingNode));
+        setCluster(self, shrunk, true);
+        relay.offer(message(stayingNode, 2L));
+        relay.flush(VERTEX);
+        Assert.assertFalse(relay.isRelaying(VERTEX));
+        verify(netClient).publish(any(), any(), any());
+    }
+
+    @Test
+    public void testSilentAggregatorFailsOver() {
+        setCluster(clusterManager, dataNodes, true);
+        ImmutableMap<InstanceDetails.Id, InstanceDetails> assignment = topology.assign(dataNodes);
+        InstanceDetails.Id member =
+                topology.getAssignedNodes(self, dataNodes).get(0).getInstanceId();
+        long now = 1000000L;
+        relay.setClock(Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+
+        // Aggregators are not relayed, their members are while the aggregator is new or heard of.
+        Assert.assertFalse(
+                relay.isRelayedByHealthyAggregator(VERTEX, self, assignment, INTERVAL_MILLIS));
+        Assert.assertTrue(
+                relay.isRelayedByHealthyAggregator(VERTEX, member, assignment, INTERVAL_MILLIS));
+
+        now += FlowUnitRelay.FAILOVER_INTERVALS * INTERVAL_MILLIS + 1;
+        relay.setClock(Clock.fixed(Instant.ofEpochMilli(now), ZoneOffset.UTC));
+        Assert.assertFalse(
+                relay.isRelayedByHealthyAggregator(VERTEX, member, assignment, INTERVAL_MILLIS));
+
+        nodeStateManager.updateReceiveTime(self, VERTEX, now);
+        Assert.assertTrue(
+                relay.isRelayedByHealthyAggregator(VERTEX, member, assignment, INTERVAL_MILLIS));
+
+        // The aggregator leaves the cluster.
+        List<InstanceDetails> remaining = new ArrayList<>(dataNodes);
+        remaining.removeIf(node -> node.getInstanceId().equals(self));
+        setCluster(clusterManager, remaining, true);
+        Assert.assertFalse(
+                relay.isRelayedByHealthyAggregator(VERTEX, member, assignment, INTERVAL_MILLIS));
+    }
+}
@@ -5,12 +5,17 @@
 
 package org.opensearch.performanceanalyzer.rca.net;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -28,6 +33,8 @@ public class ReceivedFlowUnitStoreTest {
     private static final long TIMESTAMP_3 = 3L;
     private static final int Q_SIZE = 1000;
     private static final int NUM_THREADS = 2;
+    private static final int NUM_PRODUCERS = 4;
+    private static final int MESSAGES_PER_PRODUCER = 20000;
 
     private ReceivedFlowUnitStore testFlowUnitStore;
 
@@ -49,6 +56,9 @@ public class ReceivedFlowUnitStoreTest {
 
         latch.await(100, TimeUnit.MILLISECONDS);
         latch1.await(100, TimeUnit.MILLISECONDS);
+        // The producers stop once they lap the ring, a drain racing them would make room for more.
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
         Assert.assertEquals(Q_SIZE, testFlowUnitStore.drainNode(TEST_NODE).size());
     }
 
@@ -76,6 +86,131 @@ public class ReceivedFlowUnitStoreTest {
         Assert.assertTrue(drained.contains(msg3));
     }
 
+    @Test
+    public void testShrinkToDropsOldestOfLargestVertex() {
+        FlowUnitMessage msg1 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_1).build();
+        FlowUnitMessage msg2 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_2).build();
+        FlowUnitMessage msg3 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_3).build();
+        testFlowUnitStore.enqueue(TEST_NODE, msg1);
+        testFlowUnitStore.enqueue(TEST_NODE, msg2);
+        testFlowUnitStore.enqueue(TEST_NODE_2, msg3);
+        long total = msg1.getSerializedSize() + msg2.getSerializedSize() + msg3.getSerializedSize();
+        Assert.assertEquals(total, testFlowUnitStore.estimateRetainedBytes());
+
+        testFlowUnitStore.shrinkTo(total - 1);
+
+        Assert.assertEquals(
+                total - msg1.getSerializedSize(), testFlowUnitStore.estimateRetainedBytes());
+        Assert.assertEquals(Arrays.asList(msg2), testFlowUnitStore.drainNode(TEST_NODE));
+        Assert.assertEquals(Arrays.asList(msg3), testFlowUnitStore.drainNode(TEST_NODE_2));
+    }
+
+    @Test
+    public void testFullBufferDropsOldest() {
+        testFlowUnitStore = new ReceivedFlowUnitStore(2);
+        FlowUnitMessage msg1 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_1).build();
+        FlowUnitMessage msg2 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_2).build();
+        FlowUnitMessage msg3 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_3).build();
+        Assert.assertTrue(testFlowUnitStore.enqueue(TEST_NODE, msg1));
+        Assert.assertTrue(testFlowUnitStore.enqueue(TEST_NODE, msg2));
+        Assert.assertFalse(testFlowUnitStore.enqueue(TEST_NODE, msg3));
+
+        Assert.assertEquals(2, testFlowUnitStore.getDepth(TEST_NODE));
+        Assert.assertEquals(1, testFlowUnitStore.getDroppedCount(TEST_NODE));
+        Assert.assertEquals(Arrays.asList(msg2, msg3), testFlowUnitStore.drainNode(TEST_NODE));
+        Assert.assertEquals(0, testFlowUnitStore.getDepth(TEST_NODE));
+
+        // The buffer keeps its order once it wrapped around.
+        Assert.assertTrue(testFlowUnitStore.enqueue(TEST_NODE, msg1));
+        Assert.assertEquals(Arrays.asList(msg1), testFlowUnitStore.drainNode(TEST_NODE));
+    }
+
+    @Test
+    public void testDrainNodeViewIsReused() {
+        FlowUnitMessage msg1 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_1).build();
+        FlowUnitMessage msg2 = FlowUnitMessage.newBuilder().setTimeStamp(TIMESTAMP_2).build();
+        Assert.assertTrue(testFlowUnitStore.drainNodeView(TEST_NODE).isEmpty());
+
+        testFlowUnitStore.enqueue(TEST_NODE, msg1);
+        List<FlowUnitMessage> first = testFlowUnitStore.drainNodeView(TEST_NODE);
+        Assert.assertEquals(Arrays.asList(msg1), first);
+
+        testFlowUnitStore.enqueue(TEST_NODE, msg2);
+        List<FlowUnitMessage> second = testFlowUnitStore.drainNodeView(TEST_NODE);
+        Assert.assertSame(first, second);
+        Assert.assertEquals(Arrays.asList(msg2), second);
+        Assert.assertTrue(testFlowUnitStore.drainNodeView(TEST_NODE).isEmpty());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDrainNodeViewIsReadOnly() {
+        testFlowUnitStore.enqueue(TEST_NODE, buildTestFlowUnitMessage());
+        testFlowUnitStore.drainNodeView(TEST_NODE).clear();
+    }
+
+    @Test
+    public void testConcurrentProducersAndConsumer() throws Exception {
+        for (int capacity : new int[] {16, NUM_PRODUCERS * MESSAGES_PER_PRODUCER}) {
+            testFlowUnitStore = new ReceivedFlowUnitStore(capacity);
+            List<FlowUnitMessage> received = new ArrayList<>();
+            AtomicBoolean producing = new AtomicBoolean(true);
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executorService = Executors.newFixedThreadPool(NUM_PRODUCERS + 1);
+            try {
+                List<Future<?>> producers = new ArrayList<>();
+                for (int p = 0; p < NUM_PRODUCERS; p++) {
+                    String producer = String.valueOf(p);
+                    producers.add(
+                            executorService.submit(
+                                    () -> {
+                                        start.await();
+                                        for (int i = 0; i < MESSAGES_PER_PRODUCER; i++) {
+                                            testFlowUnitStore.enqueue(
+                                                    TEST_NODE,
+                                                    FlowUnitMessage.newBuilder()
+                                                            .setNode(producer)
+                                                            .setTimeStamp(i)
+                                                            .build());
+                                        }
+                                        return null;
+                                    }));
+                }
+                Future<?> consumer =
+                        executorService.submit(
+                                () -> {
+                                    start.await();
+                                    while (producing.get()) {
+                                        received.addAll(testFlowUnitStore.drainNodeView(TEST_NODE));
+                                    }
+                                    return null;
+                                });
+                start.countDown();
+                for (Future<?> producer : producers) {
+                    producer.get(30, TimeUnit.SECONDS);
+                }
+                producing.set(false);
+                consumer.get(30, TimeUnit.SECONDS);
+            } finally {
+                executorService.shutdownNow();
+            }
+            received.addAll(testFlowUnitStore.drainNode(TEST_NODE));
+
+            // Each flow unit is either read once, in the order its producer wrote it, or dropped.
+            Map<String, Long> lastTimeStamps = new HashMap<>();
+            for (FlowUnitMessage message : received) {
+                Long last = lastTimeStamps.put(message.getNode(), message.getTimeStamp());
+                Assert.assertTrue(last == null || last < message.getTimeStamp());
+            }
+            Assert.assertEquals(
+                    NUM_PRODUCERS * MESSAGES_PER_PRODUCER,
+                    received.size() + testFlowUnitStore.getDroppedCount(TEST_NODE));
+            if (capacity >= NUM_PRODUCERS * MESSAGES_PER_PRODUCER) {
+                Assert.assertEquals(0, testFlowUnitStore.getDroppedCount(TEST_NODE));
+            }
+            Assert.assertEquals(0, testFlowUnitStore.getDepth(TEST_NODE));
+        }
+    }
+
     private FlowUnitMessage buildTestFlowUnitMessage() {
         return FlowUnitMessage.newBuilder().build();
     }
@@ -0,0 +1,198 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.performanceanalyzer.AppContext;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeResponse.SubscriptionStatus;
+import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
+import org.opensearch.performanceanalyzer.net.NetClient;
+import org.opensearch.performanceanalyzer.rca.GradleTaskForRca;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessor;
+import org.opensearch.performanceanalyzer.reader.ClusterDetailsEventProcessorTestHelper;
+
+@Category(GradleTaskForRca.class)
+public class SubscriptionReconcilerTest {
+    private static final String VERTEX1 = "vertex1";
+    private static final String VERTEX2 = "vertex2";
+    private static final Map<String, String> TAGS = Collections.singletonMap("locus", "data-node");
+
+    private NetClient netClient;
+    private SubscriptionManager subscriptionManager;
+    private NodeStateManager nodeStateManager;
+    private AppContext appContext;
+    private AtomicReference<ExecutorService> executorReference;
+    private InstanceDetails host1;
+    private InstanceDetails host2;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        netClient = mock(NetClient.class);
+        appContext = new AppContext();
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        clusterDetailsEventProcessor.setNodesDetails(
+                Arrays.asList(
+                        ClusterDetailsEventProcessorTestHelper.newNodeDetails(
+                                "local", "127.0.0.1", true),
+                        ClusterDetailsEventProcessorTestHelper.newNodeDetails(
+                                "host1", "127.0.0.2", false),
+                        ClusterDetailsEventProcessorTestHelper.newNodeDetails(
+                                "host2", "127.0.0.3", false)));
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+        host1 = appContext.getInstanceById(new InstanceDetails.Id("host1"));
+        host2 = appContext.getInstanceById(new InstanceDetails.Id("host2"));
+        subscriptionManager = new SubscriptionManager(new GRPCConnectionManager(false));
+        nodeStateManager = new NodeStateManager(appContext);
+        executorReference = new AtomicReference<>(MoreExecutors.newDirectExecutorService());
+    }
+
+    private SubscriptionReconciler reconciler(int maxHostsPerRun) {
+        return new SubscriptionReconciler(
+                netClient,
+                subscriptionManager,
+                nodeStateManager,
+                executorReference,
+                appContext,
+                maxHostsPerRun);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testVerticesOfAHostAreBatched() {
+        SubscriptionReconciler uut = reconciler(10);
+        uut.request(VERTEX1, TAGS, host1);
+        uut.request(VERTEX2, TAGS, host1);
+        uut.reconcile();
+
+        ArgumentCaptor<SubscribeBatchMessage> batch =
+                ArgumentCaptor.forClass(SubscribeBatchMessage.class);
+        ArgumentCaptor<StreamObserver<SubscribeBatchResponse>> handler =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(netClient, times(1)).subscribeBatch(eq(host1), batch.capture(), handler.capture());
+        Assert.assertEquals(2, batch.getValue().getSubscribeMessagesCount());
+        Assert.assertEquals(
+                VERTEX1, batch.getValue().getSubscribeMessages(0).getDestinationGraphNode());
+
+        // The subscriptions in flight are not asked for again.
+        uut.request(VERTEX1, TAGS, host1);
+        Assert.assertEquals(0, uut.getPendingHostCount());
+
+        SubscribeResponse success =
+                SubscribeResponse.newBuilder()
+                        .setSubscriptionStatus(SubscriptionStatus.SUCCESS)
+                        .build();
+        handler.getValue()
+                .onNext(
+                        SubscribeBatchResponse.newBuilder()
+                                .addSubscribeResponses(success)
+                                .addSubscribeResponses(success)
+                                .build());
+        Assert.assertTrue(
+                subscriptionManager.getPublishersForNode(VERTEX2).contains(host1.getInstanceId()));
+        Assert.assertFalse(uut.isInFlight(VERTEX1, host1.getInstanceId()));
+    }
+
+    @Test
+    public void testHostsBeyondTheLimitAreDeferred() {
+        SubscriptionReconciler uut = reconciler(1);
+        uut.request(VERTEX1, TAGS, host1);
+        uut.request(VERTEX1, TAGS, host2);
+        uut.reconcile();
+
+        verify(netClient, times(1)).subscribe(eq(host1), any(SubscribeMessage.class), any());
+        verify(netClient, never()).subscribe(eq(host2), any(SubscribeMessage.class), any());
+        Assert.assertEquals(1, uut.getPendingHostCount());
+
+        uut.reconcile();
+        verify(netClient, times(1)).subscribe(eq(host2), any(SubscribeMessage.class), any());
+        Assert.assertEquals(0, uut.getPendingHostCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testHostWithoutBatchesIsSubscribedOneByOne() {
+        SubscriptionReconciler uut = reconciler(10);
+        uut.request(VERTEX1, TAGS, host1);
+        uut.request(VERTEX2, TAGS, host1);
+        uut.reconcile();
+
+        ArgumentCaptor<StreamObserver<SubscribeBatchResponse>> handler =
+                ArgumentCaptor.forClass(StreamObserver.class);
+        verify(netClient).subscribeBatch(eq(host1), any(), handler.capture());
+        handler.getValue().onError(Status.UNIMPLEMENTED.asRuntimeException());
+
+        uut.request(VERTEX1, TAGS, host1);
+        uut.request(VERTEX2, TAGS, host1);
+        uut.reconcile();
+        verify(netClient, times(2)).subscribe(eq(host1), any(SubscribeMessage.class), any());
+        verify(netClient, times(1)).subscribeBatch(any(), any(), any());
+    }
+
+    @Test
+    public void testHostsOutOfTheClusterAreDropped() {
+        SubscriptionReconciler uut = reconciler(10);
+        uut.request(
+                VERTEX1,
+                TAGS,
+                new InstanceDetails(
+                        new InstanceDetails.Id("gone"), new InstanceDetails.Ip("127.0.0.9"), 0));
+        uut.reconcile();
+
+        verify(netClient, never()).subscribe(any(), any(SubscribeMessage.class), any());
+        Assert.assertEquals(0, uut.getPendingHostCount());
+    }
+
+    @Test
+    public void testRequestsInFlightToHostsThatLeftAreDropped() {
+        SubscriptionReconciler uut = reconciler(10);
+        uut.request(VERTEX1, TAGS, host1);
+        uut.request(VERTEX1, TAGS, host2);
+        uut.reconcile();
+        Assert.assertTrue(uut.isInFlight(VERTEX1, host1.getInstanceId()));
+
+        // host1 leaves before it responds.
+        ClusterDetailsEventProcessor clusterDetailsEventProcessor =
+                new ClusterDetailsEventProcessor();
+        clusterDetailsEventProcessor.setNodesDetails(
+                Arrays.asList(
+                        ClusterDetailsEventProcessorTestHelper.newNodeDetails(
+                                "local", "127.0.0.1", true),
+                        ClusterDetailsEventProcessorTestHelper.newNodeDetails(
+                                "host2", "127.0.0.3", false)));
+        appContext.setClusterDetailsEventProcessor(clusterDetailsEventProcessor);
+        uut.reconcile();
+
+        Assert.assertFalse(uut.isInFlight(VERTEX1, host1.getInstanceId()));
+        Assert.assertTrue(uut.isInFlight(VERTEX1, host2.getInstanceId()));
+    }
+}
@@ -232,6 +232,8 @@ public class WireHopperTest {
         receivedFlowUnitStore.enqueue(node.name(), msg);
         List<FlowUnitMessage> actualMsgList = uut.readFromWire(node);
         Assert.assertEquals(msgList, actualMsgList);
+        // The subscriptions asked for by the run go out after it
+        uut.reconcileSubscriptions();
         // Verify expected interactions with the subscription manager
         WaitFor.waitFor(
                 () -> {
@@ -245,5 +247,6 @@ public class WireHopperTest {
         // Verify resilience to RejectedExecutionException
         clientExecutor.set(rejectingExecutor);
         uut.readFromWire(node);
+        uut.reconcileSubscriptions();
     }
 }
@@ -0,0 +1,116 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.net.handler;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.stub.StreamObserver;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.ArgumentCaptor;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeBatchResponse;
+import org.opensearch.performanceanalyzer.grpc.SubscribeMessage;
+import org.opensearch.performanceanalyzer.grpc.SubscribeResponse.SubscriptionStatus;
+import org.opensearch.performanceanalyzer.net.GRPCConnectionManager;
+import org.opensearch.performanceanalyzer.rca.GradleTaskForRca;
+import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.framework.util.RcaConsts;
+import org.opensearch.performanceanalyzer.rca.net.SubscriptionManager;
+
+@Category(GradleTaskForRca.class)
+public class SubscribeServerHandlerTest {
+    private static final String REQUESTER = "cm";
+
+    private SubscriptionManager subscriptionManager;
+    private SubscribeServerHandler handler;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        subscriptionManager = new SubscriptionManager(new GRPCConnectionManager(false));
+        subscriptionManager.setCurrentLocus(RcaConsts.RcaTagConstants.LOCUS_DATA_NODE);
+        handler =
+                new SubscribeServerHandler(
+                        subscriptionManager,
+                        new AtomicReference<ExecutorService>(
+                                MoreExecutors.newDirectExecutorService()));
+    }
+
+    private static SubscribeMessage subscribe(String vertex, String locus) {
+        return SubscribeMessage.newBuilder()
+                .setDestinationGraphNode(vertex)
+                .setRequesterGraphNode("")
+                .putTags(RcaConsts.RcaTagConstants.TAG_LOCUS, locus)
+                .putTags("requester", REQUESTER)
+                .build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private SubscribeBatchResponse handle(SubscribeBatchMessage batch) {
+        StreamObserver<SubscribeBatchResponse> responseObserver = mock(StreamObserver.class);
+        handler.handleBatchSubscriptionRequest(batch, responseObserver);
+
+        ArgumentCaptor<SubscribeBatchResponse> response =
+                ArgumentCaptor.forClass(SubscribeBatchResponse.class);
+        verify(responseObserver, times(1)).onNext(response.capture());
+        verify(responseObserver, times(1)).onCompleted();
+        return response.getValue();
+    }
+
+    @Test
+    public void testBatchWithAcceptedAndRejectedSubscriptions() {
+        SubscribeBatchResponse response =
+                handle(
+                        SubscribeBatchMessage.newBuilder()
+                                .addAllSubscribeMessages(
+                                        Arrays.asList(
+                                                subscribe(
+                                                        "vertex1",
+                                                        RcaConsts.RcaTagConstants.LOCUS_DATA_NODE),
+                                                subscribe(
+                                                        "vertex2",
+                                                        RcaConsts.RcaTagConstants
+                                                                .LOCUS_CLUSTER_MANAGER_NODE),
+                                                subscribe(
+                                                        "vertex3",
+                                                        RcaConsts.RcaTagConstants.LOCUS_DATA_NODE)))
+                                .build());
+
+        // Each request gets its own status, in the order of the batch.
+        Assert.assertEquals(3, response.getSubscribeResponsesCount());
+        Assert.assertEquals(
+                SubscriptionStatus.SUCCESS,
+                response.getSubscribeResponses(0).getSubscriptionStatus());
+        Assert.assertEquals(
+                SubscriptionStatus.TAG_MISMATCH,
+                response.getSubscribeResponses(1).getSubscriptionStatus());
+        Assert.assertEquals(
+                SubscriptionStatus.SUCCESS,
+                response.getSubscribeResponses(2).getSubscriptionStatus());
+
+        InstanceDetails.Id requester = new InstanceDetails.Id(REQUESTER);
+        Assert.assertTrue(subscriptionManager.getSubscribersFor("vertex1").contains(requester));
+        Assert.assertFalse(subscriptionManager.isNodeSubscribed("vertex2"));
+        Assert.assertTrue(subscriptionManager.getSubscribersFor("vertex3").contains(requester));
+    }
+
+    @Test
+    public void testEmptyBatchIsAnswered() {
+        SubscribeBatchResponse response = handle(SubscribeBatchMessage.getDefaultInstance());
+
+        Assert.assertEquals(0, response.getSubscribeResponsesCount());
+    }
+}
@@ -5,8 +5,11 @@
 
 package org.opensearch.performanceanalyzer.rca.net.tasks;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.initMocks;
@@ -18,6 +21,8 @@ import org.mockito.Mock;
 import org.opensearch.performanceanalyzer.grpc.FlowUnitMessage;
 import org.opensearch.performanceanalyzer.rca.GradleTaskForRca;
 import org.opensearch.performanceanalyzer.rca.framework.util.InstanceDetails;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitDeltaDecoder;
+import org.opensearch.performanceanalyzer.rca.net.FlowUnitRelay;
 import org.opensearch.performanceanalyzer.rca.net.NodeStateManager;
 import org.opensearch.performanceanalyzer.rca.net.ReceivedFlowUnitStore;
 
@@ -38,9 +43,12 @@ public class FlowUnitRxTaskTest {
 
     @Mock private ReceivedFlowUnitStore mockReceivedFlowUnitStore;
 
+    @Mock private FlowUnitRelay mockFlowUnitRelay;
+
     @Before
     public void setUp() throws Exception {
         initMocks(this);
+        when(mockReceivedFlowUnitStore.getDeltaDecoder()).thenReturn(new FlowUnitDeltaDecoder());
         testFlowUnitRxTask =
                 new FlowUnitRxTask(
                         mockNodeStateManager, mockReceivedFlowUnitStore, testFlowUnitMessage);
@@ -59,4 +67,32 @@ public class FlowUnitRxTaskTest {
                         eq(TEST_GRAPH_NODE),
                         anyLong());
     }
+
+    @Test
+    public void testUnchangedFlowUnitWithoutKeyframeIsDropped() {
+        FlowUnitMessage unchangedMessage =
+                testFlowUnitMessage.toBuilder()
+                        .setUnchangedSinceKeyframe(true)
+                        .setKeyframeTimeStamp(1L)
+                        .build();
+
+        new FlowUnitRxTask(mockNodeStateManager, mockReceivedFlowUnitStore, unchangedMessage).run();
+
+        verify(mockReceivedFlowUnitStore, never()).enqueue(anyString(), any());
+    }
+
+    @Test
+    public void testRelayedFlowUnitIsNotBuffered() {
+        when(mockFlowUnitRelay.offer(testFlowUnitMessage)).thenReturn(true);
+
+        new FlowUnitRxTask(
+                        mockNodeStateManager,
+                        mockReceivedFlowUnitStore,
+                        testFlowUnitMessage,
+                        mockFlowUnitRelay)
+                .run();
+
+        verify(mockFlowUnitRelay).offer(testFlowUnitMessage);
+        verify(mockReceivedFlowUnitStore, never()).enqueue(anyString(), any());
+    }
 }
@@ -51,7 +51,10 @@ public class SubscriptionRxTaskTest {
     public void testSubscribeSuccess() {
         when(mockRequest.getSubscribeMessage()).thenReturn(buildTestSubscribeMessage());
         when(mockSubscriptionManager.addSubscriber(
-                        TEST_GRAPH_NODE, new InstanceDetails.Id(TEST_HOST_ADDRESS), TEST_LOCUS))
+                        TEST_GRAPH_NODE,
+                        new InstanceDetails.Id(TEST_HOST_ADDRESS),
+                        TEST_LOCUS,
+                        false))
                 .thenReturn(SubscribeResponse.SubscriptionStatus.SUCCESS);
         when(mockRequest.getSubscribeResponseStream()).thenReturn(mockResponseStream);
 
@@ -0,0 +1,151 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.persistence;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.rca.framework.api.Rca;
+import org.opensearch.performanceanalyzer.rca.framework.api.aggregators.SlidingWindow;
+import org.opensearch.performanceanalyzer.rca.framework.api.aggregators.SlidingWindowData;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.ResourceFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.core.Checkpointable;
+import org.opensearch.performanceanalyzer.rca.scheduler.FlowUnitOperationArgWrapper;
+
+public class GraphCheckpointStoreTest {
+    private static final long INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long MAX_AGE_MILLIS = TimeUnit.MINUTES.toMillis(15);
+
+    private Path dir;
+    private Path checkpoint;
+
+    @Before
+    public void setup() throws IOException {
+        PerformanceAnalyzerApp.initAggregators();
+        dir = Files.createTempDirectory("rca-graph-checkpoint");
+        checkpoint = dir.resolve("rca_graph.checkpoint");
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(dir.toFile());
+    }
+
+    private GraphCheckpointStore storeAt(long nowMillis) {
+        return new GraphCheckpointStore(
+                checkpoint,
+                INTERVAL_MILLIS,
+                MAX_AGE_MILLIS,
+                Clock.fixed(Instant.ofEpochMilli(nowMillis), ZoneId.systemDefault()));
+    }
+
+    @Test
+    public void testStateIsRestoredOnce() {
+        WindowRca rca = new WindowRca();
+        rca.window.next(new SlidingWindowData(1000L, 2));
+        rca.window.next(new SlidingWindowData(2000L, 3));
+        storeAt(2000L).checkpoint(Collections.singletonList(rca));
+        Assert.assertTrue(Files.exists(checkpoint));
+
+        WindowRca restored = new WindowRca();
+        GraphCheckpointStore store = storeAt(3000L);
+        Assert.assertEquals(1, store.restore(Collections.singletonList(restored)));
+        Assert.assertEquals(2, restored.window.size());
+        Assert.assertEquals(5, restored.window.readSum(), 0.01);
+
+        // A rebuilt scheduler task must not replace the live state.
+        restored.window.next(new SlidingWindowData(3000L, 4));
+        Assert.assertEquals(0, store.restore(Collections.singletonList(restored)));
+        Assert.assertEquals(9, restored.window.readSum(), 0.01);
+    }
+
+    @Test
+    public void testStaleCheckpointIsIgnored() {
+        WindowRca rca = new WindowRca();
+        rca.window.next(new SlidingWindowData(1000L, 2));
+        storeAt(1000L).checkpoint(Collections.singletonList(rca));
+
+        WindowRca restored = new WindowRca();
+        Assert.assertEquals(
+                0,
+                storeAt(1000L + MAX_AGE_MILLIS + 1).restore(Collections.singletonList(restored)));
+        Assert.assertEquals(0, restored.window.size());
+    }
+
+    @Test
+    public void testCheckpointIsWrittenWhenDue() {
+        WindowRca rca = new WindowRca();
+        storeAt(0L).checkpointIfDue(Collections.singletonList(rca));
+        Assert.assertFalse(Files.exists(checkpoint));
+
+        GraphCheckpointStore store = storeAt(0L);
+        store.checkpoint(Collections.singletonList(rca));
+        Assert.assertTrue(Files.exists(checkpoint));
+        Assert.assertFalse(Files.exists(dir.resolve("rca_graph.checkpoint.tmp")));
+    }
+
+    @Test
+    public void testUnreadableNodeDoesNotAffectOthers() throws IOException {
+        WindowRca rca = new WindowRca();
+        rca.window.next(new SlidingWindowData(1000L, 2));
+        storeAt(1000L).checkpoint(Arrays.asList(rca, new BrokenRca()));
+
+        WindowRca restored = new WindowRca();
+        Assert.assertEquals(1, storeAt(2000L).restore(Arrays.asList(new BrokenRca(), restored)));
+        Assert.assertEquals(1, restored.window.size());
+
+        // Garbage in place of a checkpoint is ignored.
+        Files.write(checkpoint, new byte[] {1, 2, 3});
+        Assert.assertEquals(0, storeAt(2000L).restore(Collections.singletonList(new WindowRca())));
+    }
+
+    private static class WindowRca extends Rca<ResourceFlowUnit> implements Checkpointable {
+        final SlidingWindow<SlidingWindowData> window = new SlidingWindow<>(1, TimeUnit.MINUTES);
+
+        WindowRca() {
+            super(5);
+        }
+
+        @Override
+        public ResourceFlowUnit operate() {
+            return null;
+        }
+
+        @Override
+        public void generateFlowUnitListFromWire(FlowUnitOperationArgWrapper args) {}
+
+        @Override
+        public void writeCheckpoint(DataOutput out) throws IOException {
+            window.writeCheckpoint(out);
+        }
+
+        @Override
+        public void readCheckpoint(DataInput in) throws IOException {
+            window.readCheckpoint(in, SlidingWindowData::new);
+        }
+    }
+
+    private static class BrokenRca extends WindowRca {
+        @Override
+        public void readCheckpoint(DataInput in) throws IOException {
+            throw new IOException("unexpected checkpoint");
+        }
+    }
+}
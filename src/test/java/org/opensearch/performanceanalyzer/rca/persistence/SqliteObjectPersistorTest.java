@@ -278,6 +278,55 @@ public class SqliteObjectPersistorTest {
         sqlite.write(new CollectionOfPrimitives());
     }
 
+    @Test
+    public void testRowMapperIsBuiltOnce() throws Exception {
+        SQLitePersistor sqlite =
+                new SQLitePersistor(
+                        testLocation.toString(),
+                        baseFilename,
+                        String.valueOf(1),
+                        TimeUnit.SECONDS,
+                        1);
+        ClassRowMapper rowMapper = sqlite.getOrCreateRowMapper(PersistorTestExample.class);
+        Assert.assertSame(rowMapper, sqlite.getOrCreateRowMapper(PersistorTestExample.class));
+
+        // y has no annotation and hence is not mapped.
+        Assert.assertEquals(4, rowMapper.getColumnMappings().size());
+        Assert.assertNull(rowMapper.getColumnMapping("y"));
+        Assert.assertEquals(
+                ClassRowMapper.ColumnKind.VALUE, rowMapper.getColumnMapping("x").getKind());
+        Assert.assertEquals(
+                ClassRowMapper.ColumnKind.REFERENCE, rowMapper.getColumnMapping("bObj").getKind());
+        ClassRowMapper.ColumnMapping listMapping = rowMapper.getColumnMapping("myList");
+        Assert.assertEquals(ClassRowMapper.ColumnKind.COLLECTION_REFERENCE, listMapping.getKind());
+        Assert.assertEquals(ITUtil.class, listMapping.getCollectionElementType());
+
+        PersistorTestExample example = new PersistorTestExample();
+        PersistorTestExample copy = (PersistorTestExample) rowMapper.newInstance();
+        copy.setX(0);
+        rowMapper.getColumnMapping("x").set(copy, rowMapper.getColumnMapping("x").get(example));
+        Assert.assertEquals(example.x, copy.x);
+    }
+
+    @Test
+    public void testReadNestedCollection() throws Exception {
+        SQLitePersistor sqlite =
+                new SQLitePersistor(
+                        testLocation.toString(),
+                        baseFilename,
+                        String.valueOf(1),
+                        TimeUnit.SECONDS,
+                        1);
+        PersistorTestExample persistorTestExample = new PersistorTestExample();
+        persistorTestExample.setMyList(new ArrayList<>());
+        persistorTestExample.getMyList().add(new ITUtilImpl2());
+        sqlite.write(persistorTestExample);
+
+        PersistorTestExample persistorTestExampleOut = sqlite.read(PersistorTestExample.class);
+        Assert.assertEquals(1, persistorTestExampleOut.getMyList().size());
+        Assert.assertTrue(persistorTestExampleOut.getMyList().get(0) instanceof ITUtilImpl2);
+    }
+
     static class PersistorTestExample {
         @ValueColumn int x;
 
@@ -0,0 +1,95 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rca.store.rca.temperature;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import org.jooq.Record;
+import org.jooq.Result;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.MetricFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.flow_units.temperature.DimensionalTemperatureFlowUnit;
+import org.opensearch.performanceanalyzer.rca.framework.api.summaries.temperature.NodeLevelDimensionalSummary;
+import org.opensearch.performanceanalyzer.rca.framework.core.Queryable;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.ShardStore;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureDimension;
+import org.opensearch.performanceanalyzer.rca.framework.core.temperature.TemperatureVector;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.SingleScanTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.TemperatureMetricsBase;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.AvgCpuUtilByShardsMetricBasedTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.byShard.CpuUtilByShardsMetricBasedTemperatureCalculator;
+import org.opensearch.performanceanalyzer.rca.store.metric.temperature.capacity.TotalCpuUtilForTotalNodeMetric;
+import org.opensearch.performanceanalyzer.util.SQLiteReader;
+
+public class DimensionalTemperatureCalculatorTest {
+    private static final TemperatureVector.NormalizedValue THRESHOLD =
+            new TemperatureVector.NormalizedValue((short) 2);
+
+    private Queryable reader;
+
+    @Before
+    public void setup() throws Exception {
+        String cwd = System.getProperty("user.dir");
+        Path sqliteFile =
+                Paths.get(cwd, "src", "test", "resources", "metricsdbs", "metricsdb_1582661700000");
+        reader = new SQLiteReader(sqliteFile.toString());
+    }
+
+    @Test
+    public void testSingleScanMatchesSeparateQueries() {
+        SingleScanTemperatureCalculator cpuUtilByShardGroup =
+                new SingleScanTemperatureCalculator(TemperatureDimension.CPU_Utilization);
+        cpuUtilByShardGroup.setLocalFlowUnit(cpuUtilByShardGroup.gather(reader));
+
+        DimensionalTemperatureFlowUnit flowUnit =
+                DimensionalTemperatureCalculator.getTemperatureForDimension(
+                        new ShardStore(),
+                        TemperatureDimension.CPU_Utilization,
+                        cpuUtilByShardGroup,
+                        THRESHOLD);
+        NodeLevelDimensionalSummary summary = flowUnit.getNodeDimensionProfile();
+        Assert.assertNotNull(summary);
+
+        Result<Record> byShard =
+                new CpuUtilByShardsMetricBasedTemperatureCalculator().gather(reader).getData();
+        double avgOverShards =
+                new AvgCpuUtilByShardsMetricBasedTemperatureCalculator()
+                        .gather(reader)
+                        .getData()
+                        .getValues("shard_avg", Double.class)
+                        .get(0);
+        double total =
+                new TotalCpuUtilForTotalNodeMetric()
+                        .gather(reader)
+                        .getData()
+                        .getValues(TemperatureMetricsBase.AGGR_OVER_AGGR_NAME, Double.class)
+                        .get(0);
+
+        Assert.assertEquals(byShard.size(), summary.getNumberOfShards());
+        Assert.assertEquals(total, summary.getTotalUsage(), 1e-9);
+        Assert.assertEquals(
+                TemperatureVector.NormalizedValue.calculate(avgOverShards, total).getPOINTS(),
+                summary.getMeanTemperature().getPOINTS());
+    }
+
+    @Test
+    public void testEmptyFlowUnit() {
+        SingleScanTemperatureCalculator cpuUtilByShardGroup =
+                new SingleScanTemperatureCalculator(TemperatureDimension.CPU_Utilization);
+        cpuUtilByShardGroup.setFlowUnits(Collections.singletonList(MetricFlowUnit.generic()));
+
+        DimensionalTemperatureFlowUnit flowUnit =
+                DimensionalTemperatureCalculator.getTemperatureForDimension(
+                        new ShardStore(),
+                        TemperatureDimension.CPU_Utilization,
+                        cpuUtilByShardGroup,
+                        THRESHOLD);
+        Assert.assertNull(flowUnit.getNodeDimensionProfile());
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetricsDemandRegistryTest {
+    private Clock clock;
+    private MetricsDemandRegistry registry;
+
+    @Before
+    public void setUp() {
+        clock = Clock.fixed(Instant.ofEpochMilli(1_000_000L), ZoneOffset.UTC);
+        registry = new MetricsDemandRegistry(clock);
+    }
+
+    @Test
+    public void testEverythingDemandedWithoutGraph() {
+        assertFalse(registry.isSelective());
+        assertTrue(registry.isDemanded("CPU_Utilization"));
+        assertTrue(registry.isDemanded("HTTP_TotalRequests"));
+    }
+
+    @Test
+    public void testGraphDemand() {
+        registry.setGraphDemand(Arrays.asList("CPU_Utilization", "Heap_Used"));
+        assertTrue(registry.isSelective());
+        assertTrue(registry.isDemanded("CPU_Utilization"));
+        assertFalse(registry.isDemanded("HTTP_TotalRequests"));
+        assertTrue(registry.isAnyDemanded(Arrays.asList("HTTP_TotalRequests", "Heap_Used")));
+        assertFalse(registry.isAnyDemanded(Collections.singletonList("Shard_State")));
+
+        registry.clearGraphDemand();
+        assertFalse(registry.isSelective());
+        assertTrue(registry.isDemanded("HTTP_TotalRequests"));
+    }
+
+    @Test
+    public void testQueryDemandExpires() {
+        registry.setGraphDemand(Collections.singletonList("CPU_Utilization"));
+        registry.recordQueryDemand(Collections.singletonList("HTTP_TotalRequests"));
+        assertTrue(registry.isDemanded("HTTP_TotalRequests"));
+
+        registry.setClock(
+                Clock.offset(
+                        clock, Duration.ofMillis(MetricsDemandRegistry.QUERY_DEMAND_TTL_MILLIS)));
+        assertTrue(registry.isDemanded("HTTP_TotalRequests"));
+
+        registry.setClock(
+                Clock.offset(
+                        clock,
+                        Duration.ofMillis(MetricsDemandRegistry.QUERY_DEMAND_TTL_MILLIS + 1)));
+        assertFalse(registry.isDemanded("HTTP_TotalRequests"));
+        assertTrue(registry.isDemanded("CPU_Utilization"));
+    }
+}
@@ -16,7 +16,9 @@ import java.sql.DriverManager;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.jooq.BatchBindStep;
 import org.jooq.DSLContext;
@@ -32,6 +34,7 @@ import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 import org.opensearch.performanceanalyzer.commons.metrics.PerformanceAnalyzerMetrics;
 import org.opensearch.performanceanalyzer.config.TroubleshootingConfig;
 import org.opensearch.performanceanalyzer.metricsdb.Dimensions;
+import org.opensearch.performanceanalyzer.metricsdb.LatencySketch;
 import org.opensearch.performanceanalyzer.metricsdb.MetricsDB;
 import org.powermock.api.mockito.PowerMockito;
 
@@ -97,9 +100,8 @@ public class MetricsEmitterTests extends AbstractReaderTests {
         metrics.put(AllMetrics.OSMetrics.PAGING_RSS.toString(), 1.63d);
         osMetricsSnap.putMetric(metrics, osDim, 1L);
 
-        DSLContext create = DSL.using(conn, SQLDialect.SQLITE);
         MetricsDB db = new MetricsDB(1553713402);
-        MetricsEmitter.emitAggregatedOSMetrics(create, db, osMetricsSnap, rqMetricsSnap);
+        MetricsEmitter.emitAggregatedOSMetrics(db, osMetricsSnap, rqMetricsSnap);
         res =
                 db.queryMetric(
                         Arrays.asList(
@@ -167,9 +169,8 @@ public class MetricsEmitterTests extends AbstractReaderTests {
         metrics.put(AllMetrics.OSMetrics.PAGING_RSS.toString(), 1.63d);
         osMetricsSnap.putMetric(metrics, osDim, 1L);
 
-        DSLContext create = DSL.using(conn, SQLDialect.SQLITE);
         MetricsDB db = new MetricsDB(1553713410);
-        MetricsEmitter.emitAggregatedOSMetrics(create, db, osMetricsSnap, rqMetricsSnap);
+        MetricsEmitter.emitAggregatedOSMetrics(db, osMetricsSnap, rqMetricsSnap);
         res =
                 db.queryMetric(
                         Arrays.asList(
@@ -290,9 +291,18 @@ public class MetricsEmitterTests extends AbstractReaderTests {
                         res.get(0)
                                 .get(AllMetrics.ShardOperationMetric.SHARD_OP_COUNT.toString())
                                 .toString());
+        // The sketch holds the latency of each request.
+        Map<List<String>, LatencySketch> sketches =
+                db.querySketches(
+                        AllMetrics.CommonMetric.LATENCY.toString(),
+                        Collections.singletonList(
+                                ShardRequestMetricsSnapshot.Fields.OPERATION.toString()));
+        LatencySketch sketch = sketches.get(Collections.singletonList("operation"));
         db.remove();
         assertEquals(20.0d, bulkDocs.doubleValue(), 0);
         assertEquals(2d, shardOps.doubleValue(), 0);
+        assertEquals(2L, sketch.getCount());
+        assertEquals(2000d, sketch.getSum(), 0);
     }
 
     @Test
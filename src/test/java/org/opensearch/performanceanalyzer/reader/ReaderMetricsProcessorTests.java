@@ -20,6 +20,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.NavigableMap;
 import java.util.NavigableSet;
 import java.util.Set;
@@ -52,6 +53,8 @@ public class ReaderMetricsProcessorTests extends AbstractReaderTests {
     @Before
     public void before() throws Exception {
         rootLocation = "build/resources/test/reader/";
+        // Emit every table, in case a graph declared its demand in an earlier test.
+        MetricsDemandRegistry.getInstance().clear();
     }
 
     @Test
@@ -315,6 +318,34 @@ public class ReaderMetricsProcessorTests extends AbstractReaderTests {
         db.remove();
     }
 
+    @Test
+    public void testEmitterSkippedWithoutDemand() throws Exception {
+        ReaderMetricsProcessor mp = new ReaderMetricsProcessor(rootLocation);
+        ReaderMetricsProcessor spyMp = Mockito.spy(mp);
+        Mockito.doReturn(this.conn).when(spyMp).getConnection();
+        spyMp.putNodeMetricsMap(MetricName.CLUSTER_MANAGER_PENDING, setUpAligningWindow());
+        String table = ClusterManagerPendingValue.CLUSTER_MANAGER_PENDING_QUEUE_SIZE.toString();
+        long windowStartTime =
+                PerformanceAnalyzerMetrics.getTimeInterval(
+                        11001L, MetricsConfiguration.SAMPLING_INTERVAL);
+
+        // The graph does not read the pending tasks, nobody queried them.
+        MetricsDemandRegistry.getInstance()
+                .setGraphDemand(Collections.singletonList("CPU_Utilization"));
+        MetricsDB skipped = new MetricsDB(1553713512);
+        spyMp.emitNodeMetrics(windowStartTime, skipped);
+        assertFalse(skipped.metricExists(table));
+        skipped.remove();
+
+        // A query through the API brings the table back from the next window on.
+        MetricsDemandRegistry.getInstance().recordQueryDemand(Collections.singletonList(table));
+        MetricsDB emitted = new MetricsDB(1553713517);
+        spyMp.emitNodeMetrics(windowStartTime, emitted);
+        assertTrue(emitted.metricExists(table));
+        assertEquals(2, emitted.queryMetric(table).size());
+        emitted.remove();
+    }
+
     /**
      * Reader window is: 10000~15000 Writer hasn't write to 17000 yet. Writer only has written at:
      * 2001, 7001, 12001 Since the reader needs two windows to align: [7001 ~ 12001] and [12001 ~
@@ -604,6 +635,52 @@ public class ReaderMetricsProcessorTests extends AbstractReaderTests {
         } while (secondRun);
     }
 
+    @Test
+    public void testProcessPendingWindows() throws Exception {
+        deleteAll();
+        Files.createDirectories(Paths.get(Util.DATA_DIR));
+        Files.write(
+                Paths.get(Util.DATA_DIR, BATCH_METRICS_ENABLED_CONF_FILE),
+                Boolean.toString(true).getBytes());
+        PluginSettings.instance().setBatchMetricsRetentionPeriodMinutes(1);
+        PluginSettings.instance().setShouldCleanupMetricsDBFiles(false);
+        long interval = MetricsConfiguration.SAMPLING_INTERVAL;
+        long currentTimestamp = 1597091740000L;
+        // Each window emits the metricsDB of the window before it.
+        long firstMetricsDBTimestamp = 1597091720000L;
+        ReaderMetricsProcessor mp =
+                new ReaderMetricsProcessor(rootLocation, true, new AppContext());
+
+        mp.processPendingWindows(rootLocation, currentTimestamp);
+        assertEquals(new TreeSet<>(Arrays.asList(firstMetricsDBTimestamp)), mp.getBatchMetrics());
+
+        // A cycle that ran over two windows catches up with the window in between.
+        currentTimestamp += 2 * interval;
+        mp.processPendingWindows(rootLocation, currentTimestamp);
+        assertEquals(
+                new TreeSet<>(
+                        Arrays.asList(
+                                firstMetricsDBTimestamp,
+                                firstMetricsDBTimestamp + interval,
+                                firstMetricsDBTimestamp + 2 * interval)),
+                mp.getBatchMetrics());
+
+        // Processing the same window again does not add a metricsDB.
+        mp.processPendingWindows(rootLocation, currentTimestamp);
+        assertEquals(3, mp.getBatchMetrics().size());
+
+        // Only the latest windows are caught up after a long stall.
+        int stalledWindows = ReaderMetricsProcessor.MAX_CATCH_UP_WINDOWS + 5;
+        currentTimestamp += stalledWindows * interval;
+        mp.processPendingWindows(rootLocation, currentTimestamp);
+        NavigableSet<Long> batchMetrics = mp.getBatchMetrics();
+        assertEquals(3 + ReaderMetricsProcessor.MAX_CATCH_UP_WINDOWS + 1, batchMetrics.size());
+        assertEquals(
+                firstMetricsDBTimestamp + (2 + stalledWindows) * interval,
+                (long) batchMetrics.last());
+        assertFalse(batchMetrics.contains(firstMetricsDBTimestamp + 3 * interval));
+    }
+
     @Test
     public void testTrimOldSnapshots_fileCleanupDisabled() throws Exception {
         deleteAll();
@@ -10,6 +10,7 @@ import static org.junit.Assert.assertEquals;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.jooq.Record;
 import org.jooq.Result;
@@ -155,4 +156,38 @@ public class ShardProfileSummaryRequestMetricsSnapshotTests {
         Result<Record> res = rqMetricsSnap.fetchInflightSelect().fetch();
         assertEquals(2, res.size(), 0);
     }
+
+    @Test
+    public void testFetchThreadUtilization() throws Exception {
+        Connection conn = DriverManager.getConnection(DB_URL);
+        ShardRequestMetricsSnapshot rqMetricsSnap =
+                new ShardRequestMetricsSnapshot(conn, 1535065195000L);
+        Map<String, String> dimensions = new HashMap<>();
+        dimensions.put(ShardRequestMetricsSnapshot.Fields.INDEX_NAME.toString(), "sonested");
+        dimensions.put(ShardRequestMetricsSnapshot.Fields.SHARD_ID.toString(), "0");
+        dimensions.put(ShardRequestMetricsSnapshot.Fields.OPERATION.toString(), "shardquery");
+        // Started before the window.
+        dimensions.put("tid", "1");
+        dimensions.put("rid", "1");
+        rqMetricsSnap.putStartMetric(1535065190000L, dimensions);
+        rqMetricsSnap.putEndMetric(1535065196000L, dimensions);
+        // Still running at the end of the window.
+        dimensions.put("rid", "2");
+        rqMetricsSnap.putStartMetric(1535065199000L, dimensions);
+        // No thread.
+        dimensions.remove("tid");
+        dimensions.put("rid", "3");
+        rqMetricsSnap.putStartMetric(1535065196000L, dimensions);
+        rqMetricsSnap.putEndMetric(1535065197000L, dimensions);
+
+        List<ShardRequestMetricsSnapshot.RequestTime> requests =
+                rqMetricsSnap.fetchThreadUtilization();
+        assertEquals(2, requests.size());
+        assertEquals("1", requests.get(0).rid);
+        assertEquals(1535065195000L, requests.get(0).st);
+        assertEquals(1000L, requests.get(0).lat);
+        assertEquals(1535065200000L, requests.get(1).et);
+        assertEquals(2000d, requests.get(1).ttime, 0);
+        assertEquals(0.5d, requests.get(1).tUtil, 0);
+    }
 }
@@ -0,0 +1,79 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import org.junit.Test;
+
+public class WindowAlignerTests {
+
+    private static WindowAligner.Columns threads(String[] dims, double[] values, long[] times) {
+        return new WindowAligner.Columns(times.length, 2, 1, dims, values, times);
+    }
+
+    @Test
+    public void testAlignByLastUpdate() {
+        // tid 1 is in both windows, tid 2 twice in the left one and tid 3 in the right one.
+        WindowAligner.Columns left =
+                threads(
+                        new String[] {"1", "a", "2", "b", "2", "b"},
+                        new double[] {10, 5, Double.NaN},
+                        new long[] {7000L, 8000L, 9000L});
+        WindowAligner.Columns right =
+                threads(
+                        new String[] {"1", "a", "3", "c"},
+                        new double[] {20, 30},
+                        new long[] {13000L, 12000L});
+
+        List<Object[]> rows = WindowAligner.alignByLastUpdate(left, right, 5000L, 10000L);
+        assertEquals(3, rows.size());
+        assertArrayEquals(new Object[] {"1", "a", 16d, 7000L}, rows.get(0));
+        // The rows of a tid are merged by max, nulls aside.
+        assertArrayEquals(new Object[] {"2", "b", 5d, 9000L}, rows.get(1));
+        // Threads of the right window only have no time.
+        assertArrayEquals(new Object[] {"3", "c", 30d, null}, rows.get(2));
+    }
+
+    @Test
+    public void testAlignByLastUpdateNullMetric() {
+        WindowAligner.Columns left =
+                threads(new String[] {"1", "a"}, new double[] {Double.NaN}, new long[] {7000L});
+        WindowAligner.Columns right =
+                threads(new String[] {"1", "a"}, new double[] {20}, new long[] {13000L});
+
+        List<Object[]> rows = WindowAligner.alignByLastUpdate(left, right, 5000L, 10000L);
+        assertArrayEquals(new Object[] {"1", "a", null, 7000L}, rows.get(0));
+    }
+
+    @Test
+    public void testAlignByWeight() {
+        WindowAligner.Columns left =
+                new WindowAligner.Columns(
+                        2, 1, 1, new String[] {null, "x"}, new double[] {Double.NaN, 10}, null);
+        WindowAligner.Columns right =
+                new WindowAligner.Columns(
+                        2, 1, 1, new String[] {"x", "y"}, new double[] {20, 4}, null);
+
+        List<Object[]> rows = WindowAligner.alignByWeight(left, 2L, right, 3L);
+        assertEquals(3, rows.size());
+        // Null dimensions come first, a null metric is not averaged.
+        assertArrayEquals(new Object[] {null, null}, rows.get(0));
+        assertArrayEquals(new Object[] {"x", 16d}, rows.get(1));
+        assertArrayEquals(new Object[] {"y", 4d}, rows.get(2));
+    }
+
+    @Test
+    public void testAlignByWeightWithoutDimensions() {
+        WindowAligner.Columns empty =
+                new WindowAligner.Columns(0, 0, 2, new String[0], new double[0], null);
+        List<Object[]> rows = WindowAligner.alignByWeight(empty, 2L, empty, 3L);
+        assertEquals(1, rows.size());
+        assertArrayEquals(new Object[] {null, null}, rows.get(0));
+    }
+}
@@ -6,12 +6,16 @@
 package org.opensearch.performanceanalyzer.rest;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
 
 import io.grpc.stub.StreamObserver;
 import java.security.InvalidParameterException;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import org.junit.Before;
 import org.junit.Test;
@@ -19,10 +23,13 @@ import org.opensearch.performanceanalyzer.commons.metrics.AllMetrics;
 import org.opensearch.performanceanalyzer.grpc.MetricsResponse;
 import org.opensearch.performanceanalyzer.metrics.MetricsRestUtil;
 import org.opensearch.performanceanalyzer.metrics.handler.MetricsServerHandler;
+import org.opensearch.performanceanalyzer.metricsdb.MetricsRetentionStore;
 import org.opensearch.performanceanalyzer.reader.ReaderMetricsProcessor;
 
 @SuppressWarnings("serial")
 public class QueryMetricsRequestHandlerTests {
+    private static final String CPU = AllMetrics.OSMetrics.CPU_UTILIZATION.toString();
+
     MetricsRestUtil metricsRestUtil;
 
     public QueryMetricsRequestHandlerTests() throws ClassNotFoundException {
@@ -161,4 +168,68 @@ public class QueryMetricsRequestHandlerTests {
         params.put("metrics", "");
         List<String> ret = metricsRestUtil.parseArrayParam(params, "metrics", false);
     }
+
+    private static Map<String, String> timeRangeParams(String start, String end, String step) {
+        Map<String, String> params = new HashMap<>();
+        params.put("starttime", start);
+        if (end != null) {
+            params.put("endtime", end);
+        }
+        if (step != null) {
+            params.put("step", step);
+        }
+        return params;
+    }
+
+    @Test
+    public void testParseTimeRange() {
+        long now = System.currentTimeMillis();
+        List<String> metricList = Collections.singletonList(CPU);
+        List<String> aggList = Collections.singletonList("sum");
+        assertNull(
+                QueryMetricsRequestHandler.parseTimeRange(
+                        new HashMap<>(), metricList, aggList, now));
+
+        MetricsRetentionStore.TimeRange range =
+                QueryMetricsRequestHandler.parseTimeRange(
+                        timeRangeParams(
+                                String.valueOf(now - 60000L), String.valueOf(now + 1000L), "60"),
+                        metricList,
+                        aggList,
+                        now);
+        assertEquals(now - 60000L, range.getStartTime());
+        assertEquals(now, range.getEndTime());
+        assertEquals(60000L, range.getStepMillis());
+    }
+
+    @Test
+    public void testParseInvalidTimeRange() {
+        long now = System.currentTimeMillis();
+        String start = String.valueOf(now - 60000L);
+        List<Map<String, String>> invalid =
+                Arrays.asList(
+                        timeRangeParams(start, null, "0"),
+                        timeRangeParams(start, String.valueOf(now - 120000L), "60"),
+                        timeRangeParams(start, String.valueOf(Long.MAX_VALUE), "60"),
+                        timeRangeParams(start, String.valueOf(now + 86400000L), null));
+        for (Map<String, String> params : invalid) {
+            assertInvalidTimeRange(params, Collections.singletonList("sum"), now);
+        }
+
+        // The quantiles are not kept, and each metric needs its aggregation.
+        Map<String, String> params = timeRangeParams(start, null, "60");
+        assertInvalidTimeRange(params, Collections.singletonList("p99"), now);
+        assertInvalidTimeRange(params, Arrays.asList("sum", "max"), now);
+    }
+
+    private static void assertInvalidTimeRange(
+            Map<String, String> params, List<String> aggList, long now) {
+        try {
+            QueryMetricsRequestHandler.parseTimeRange(
+                    params, Collections.singletonList(CPU), aggList, now);
+            fail(params + " " + aggList);
+        } catch (InvalidParameterException e) {
+            // expected
+        }
+    }
 }
@@ -0,0 +1,126 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.rest;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+import org.opensearch.performanceanalyzer.rca.framework.metrics.GraphNodeProfiler;
+
+public class QueryProfileRequestHandlerTest {
+    private static final String queryPrefix =
+            "http://localhost:9600/_plugins/_performanceanalyzer/rca/profile";
+    private static final String PROFILED_NODE = "QueryProfileRequestHandlerTestNode";
+    private static final String OTHER_PROFILED_NODE = "QueryProfileRequestHandlerTestOtherNode";
+
+    private QueryProfileRequestHandler handler;
+
+    @Before
+    public void setUp() {
+        PerformanceAnalyzerApp.initAggregators();
+        GraphNodeProfiler profiler = GraphNodeProfiler.getInstance();
+        profiler.profile(PROFILED_NODE, () -> {});
+        profiler.profile(PROFILED_NODE, () -> {});
+        profiler.profile(OTHER_PROFILED_NODE, () -> {});
+        handler = new QueryProfileRequestHandler(profiler);
+    }
+
+    private HttpExchange sendQuery(String query, String requestMethod, OutputStream os)
+            throws Exception {
+        HttpExchange exchange = Mockito.mock(HttpExchange.class);
+        Mockito.when(exchange.getResponseBody()).thenReturn(os != null ? os : System.out);
+        Mockito.when(exchange.getRequestMethod()).thenReturn(requestMethod);
+        Headers responseHeaders = Mockito.mock(Headers.class);
+        Mockito.when(exchange.getResponseHeaders()).thenReturn(responseHeaders);
+        Mockito.when(exchange.getRequestURI()).thenReturn(new URI(query));
+        handler.handle(exchange);
+        return exchange;
+    }
+
+    private JsonObject queryProfile(String query) throws Exception {
+        OutputStream exchangeOutputStream = new ByteArrayOutputStream();
+        HttpExchange exchange = sendQuery(query, "GET", exchangeOutputStream);
+        Mockito.verify(exchange)
+                .sendResponseHeaders(
+                        ArgumentMatchers.eq(HttpURLConnection.HTTP_OK), ArgumentMatchers.anyLong());
+        Mockito.verify(exchange.getResponseHeaders()).set("Content-Type", "application/json");
+        return JsonParser.parseString(exchangeOutputStream.toString()).getAsJsonObject();
+    }
+
+    private static JsonObject findGraphNode(JsonArray graphNodes, String name) {
+        for (JsonElement graphNode : graphNodes) {
+            if (graphNode.getAsJsonObject().get("name").getAsString().equals(name)) {
+                return graphNode.getAsJsonObject();
+            }
+        }
+        return null;
+    }
+
+    @Test
+    public void testResponseFormat() throws Exception {
+        JsonObject response = queryProfile(queryPrefix);
+        Assert.assertEquals(
+                GraphNodeProfiler.WINDOW_SAMPLES, response.get("windowSamples").getAsInt());
+        Assert.assertTrue(response.has("cpuTimeEnabled"));
+        Assert.assertTrue(response.has("allocationEnabled"));
+
+        JsonObject graphNode = findGraphNode(response.getAsJsonArray("graphNodes"), PROFILED_NODE);
+        Assert.assertNotNull(graphNode);
+        Assert.assertTrue(graphNode.get("samples").getAsInt() >= 2);
+        for (String cost : new String[] {"wallMicros", "cpuMicros", "allocatedBytes"}) {
+            JsonObject percentiles = graphNode.getAsJsonObject(cost);
+            for (String percentile : new String[] {"p50", "p90", "p99", "max"}) {
+                Assert.assertTrue(cost + " " + percentile, percentiles.has(percentile));
+            }
+        }
+        Assert.assertNotNull(
+                findGraphNode(response.getAsJsonArray("graphNodes"), OTHER_PROFILED_NODE));
+    }
+
+    @Test
+    public void testTopLimitsTheGraphNodes() throws Exception {
+        JsonObject response = queryProfile(queryPrefix + "?top=1");
+        Assert.assertEquals(1, response.getAsJsonArray("graphNodes").size());
+    }
+
+    @Test
+    public void testInvalidTop() throws Exception {
+        for (String top : new String[] {"0", "-1", "abc", "1.5"}) {
+            OutputStream exchangeOutputStream = new ByteArrayOutputStream();
+            HttpExchange exchange =
+                    sendQuery(queryPrefix + "?top=" + top, "GET", exchangeOutputStream);
+            Mockito.verify(exchange)
+                    .sendResponseHeaders(
+                            ArgumentMatchers.eq(HttpURLConnection.HTTP_BAD_REQUEST),
+                            ArgumentMatchers.anyLong());
+            Assert.assertEquals(
+                    "{\"error\":\"top should be a positive integer, got " + top + "\"}",
+                    exchangeOutputStream.toString());
+        }
+    }
+
+    @Test
+    public void testBadRequestMethod() throws Exception {
+        HttpExchange exchange = sendQuery(queryPrefix, "PUT", null);
+        Mockito.verify(exchange)
+                .sendResponseHeaders(
+                        ArgumentMatchers.eq(HttpURLConnection.HTTP_NOT_FOUND),
+                        ArgumentMatchers.anyLong());
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright OpenSearch Contributors
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.opensearch.performanceanalyzer.threads;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.lang.management.MemoryMXBean;
+import java.lang.management.MemoryUsage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.opensearch.performanceanalyzer.PerformanceAnalyzerApp;
+
+public class BoundedLaneExecutorTest {
+    private MemoryMXBean memoryMXBean;
+    private BoundedLaneExecutor executor;
+
+    @Before
+    public void setup() {
+        PerformanceAnalyzerApp.initAggregators();
+        memoryMXBean = mock(MemoryMXBean.class);
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 10, 100, 100));
+        executor = new BoundedLaneExecutor(ServerLane.HTTP_QUERY, 1, 1, 0.5, memoryMXBean);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        executor.shutdownNow();
+        executor.awaitTermination(1, TimeUnit.SECONDS);
+    }
+
+    private CountDownLatch blockLane() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch running = new CountDownLatch(1);
+        executor.execute(
+                () -> {
+                    running.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        Assert.assertTrue(running.await(1, TimeUnit.SECONDS));
+
+        // Fills the only queue slot.
+        executor.execute(() -> {});
+        Assert.assertTrue(executor.isSaturated());
+        return release;
+    }
+
+    @Test
+    public void testRejectedTaskIsShedOffTheCaller() throws InterruptedException {
+        CountDownLatch release = blockLane();
+
+        AtomicReference<Thread> runner = new AtomicReference<>();
+        AtomicBoolean shedding = new AtomicBoolean(false);
+        CountDownLatch shed = new CountDownLatch(1);
+        executor.execute(
+                () -> {
+                    runner.set(Thread.currentThread());
+                    shedding.set(BoundedLaneExecutor.isShedding());
+                    shed.countDown();
+                });
+        Assert.assertTrue(shed.await(1, TimeUnit.SECONDS));
+        Assert.assertNotSame(Thread.currentThread(), runner.get());
+        Assert.assertTrue(shedding.get());
+        Assert.assertFalse(BoundedLaneExecutor.isShedding());
+        release.countDown();
+    }
+
+    @Test
+    public void testShedQueueIsBounded() throws InterruptedException {
+        CountDownLatch release = blockLane();
+
+        // Blocks the shedding thread, then fills its queue.
+        CountDownLatch shedRunning = new CountDownLatch(1);
+        executor.execute(
+                () -> {
+                    shedRunning.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+        Assert.assertTrue(shedRunning.await(1, TimeUnit.SECONDS));
+        AtomicInteger ran = new AtomicInteger();
+        int rejected = 0;
+        for (int i = 0; i < BoundedLaneExecutor.SHED_QUEUE_SIZE + 10; i++) {
+            try {
+                executor.execute(ran::incrementAndGet);
+            } catch (RejectedExecutionException e) {
+                rejected++;
+            }
+        }
+        // The tasks that did not fit are rejected back to the caller, none ran on it.
+        Assert.assertEquals(10, rejected);
+        Assert.assertEquals(0, ran.get());
+        release.countDown();
+    }
+
+    @Test
+    public void testHeapShedThreshold() {
+        Assert.assertFalse(executor.isHeapAboveShedThreshold());
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 60, 100, 100));
+        Assert.assertTrue(executor.isHeapAboveShedThreshold());
+
+        // An undefined max heap never sheds.
+        when(memoryMXBean.getHeapMemoryUsage()).thenReturn(new MemoryUsage(0, 60, 100, -1));
+        Assert.assertFalse(executor.isHeapAboveShedThreshold());
+    }
+}